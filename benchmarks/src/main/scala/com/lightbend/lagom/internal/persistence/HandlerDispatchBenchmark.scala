@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.Optional
+import java.util.concurrent.TimeUnit
+import java.util.function.{ Function => JFunction }
+
+import com.lightbend.lagom.javadsl.persistence.PersistentEntity
+import org.openjdk.jmh.annotations._
+
+object HandlerDispatchBenchmark {
+
+  /**
+   * An entity with event handlers for a number of unrelated classes, to measure the handler
+   * lookup in isolation from the handling itself.
+   */
+  class BenchmarkEntity(eventClasses: Seq[Class[_ <: AnyRef]]) extends PersistentEntity[AnyRef, AnyRef, String] {
+    override def initialBehavior(snapshotState: Optional[String]): Behavior = {
+      val b = newBehaviorBuilder("")
+      eventClasses.foreach { eventClass =>
+        b.setEventHandler(eventClass.asInstanceOf[Class[AnyRef]], new JFunction[AnyRef, String] {
+          override def apply(evt: AnyRef): String = state
+        })
+      }
+      b.build()
+    }
+  }
+
+  val EventClasses: Vector[Class[_ <: AnyRef]] = Vector(
+    classOf[java.lang.Boolean], classOf[java.lang.Byte], classOf[java.lang.Short], classOf[java.lang.Integer],
+    classOf[java.lang.Long], classOf[java.lang.Float], classOf[java.lang.Double], classOf[java.lang.Character],
+    classOf[java.lang.String], classOf[java.lang.StringBuilder], classOf[java.math.BigInteger],
+    classOf[java.math.BigDecimal], classOf[java.util.UUID], classOf[java.util.Date], classOf[java.util.Locale],
+    classOf[java.util.ArrayList[_]]
+  )
+}
+
+/**
+ * Compares the handler lookup by exact class in the handler map of a behavior with the
+ * precompiled [[HandlerDispatch]].
+ *
+ * Run with `benchmarks/jmh:run -i 10 -wi 10 -f 1 .*HandlerDispatchBenchmark`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class HandlerDispatchBenchmark {
+  import HandlerDispatchBenchmark._
+
+  @Param(Array("1", "4", "16"))
+  var handlerCount: Int = _
+
+  private var entity: BenchmarkEntity = _
+  private var behavior: BenchmarkEntity#Behavior = _
+  private var events: Array[AnyRef] = _
+  private var i = 0
+
+  @Setup
+  def setup(): Unit = {
+    val eventClasses = EventClasses.take(handlerCount)
+    entity = new BenchmarkEntity(eventClasses)
+    behavior = entity.initialBehavior(Optional.empty())
+    events = Array[AnyRef](java.lang.Boolean.TRUE, java.lang.Byte.valueOf(1: Byte), java.lang.Short.valueOf(1: Short),
+      Integer.valueOf(1), java.lang.Long.valueOf(1L), java.lang.Float.valueOf(1.0f), java.lang.Double.valueOf(1.0),
+      Character.valueOf('a'), "a", new java.lang.StringBuilder, java.math.BigInteger.ONE, java.math.BigDecimal.ONE,
+      java.util.UUID.randomUUID(), new java.util.Date, java.util.Locale.ROOT, new java.util.ArrayList[AnyRef])
+      .take(handlerCount)
+    // compile the dispatch table outside of the measurement
+    behavior.eventHandler(events(0).getClass)
+  }
+
+  private def nextEvent(): AnyRef = {
+    i += 1
+    if (i == events.length) i = 0
+    events(i)
+  }
+
+  @Benchmark
+  def mapLookup(): AnyRef =
+    behavior.eventHandlers.get(nextEvent().getClass.asInstanceOf[Class[AnyRef]])
+
+  @Benchmark
+  def dispatchLookup(): AnyRef =
+    behavior.eventHandler(nextEvent().getClass)
+
+}
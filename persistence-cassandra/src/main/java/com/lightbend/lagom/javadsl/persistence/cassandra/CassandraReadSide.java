@@ -11,6 +11,7 @@ import com.lightbend.lagom.javadsl.persistence.Offset;
 import com.lightbend.lagom.javadsl.persistence.ReadSideProcessor.ReadSideHandler;
 import com.lightbend.lagom.javadsl.persistence.cassandra.CassandraReadSideProcessor;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -84,6 +85,63 @@ public interface CassandraReadSide {
          */
         <E extends Event> ReadSideHandlerBuilder<Event> setEventHandler(Class<E> eventClass, BiFunction<E, Offset, CompletionStage<List<BoundStatement>>> handler);
 
+        /**
+         * Process the events in groups instead of one at a time, to catch up faster on many events.
+         *
+         * A group is processed when it has <code>maxEvents</code> events, or when <code>maxDelay</code>
+         * has passed since its first event arrived. The event handlers of the events of a group are
+         * invoked one after the other. When the last one has completed the statements of all events
+         * of the group are executed, followed by one write of the offset of the last event of the group.
+         * When that fails the whole group is processed again.
+         *
+         * The statements of each partition are executed with unlogged batches, one for each run of
+         * consecutive statements that write different rows, and the batches get increasing write
+         * timestamps, so that the statements of later events win. The statements of counter tables can't
+         * have write timestamps, so they are executed one after the other in the order of the events.
+         *
+         * Since the statements of a group are only executed after all its handlers have been invoked,
+         * an event handler must not read what the statements of other events write. Statements that
+         * depend on being executed in order, such as lightweight transactions, should not be used.
+         *
+         * @param maxEvents The maximum number of events of a group.
+         * @param maxDelay The maximum time to wait for more events before a group is processed.
+         * @return This builder for fluent invocation
+         */
+        ReadSideHandlerBuilder<Event> setBatching(int maxEvents, Duration maxDelay);
+
+        /**
+         * Process up to <code>parallelism</code> events of the tag concurrently, to use several
+         * connections to Cassandra for one tag. The events of the same entity, as identified by
+         * <code>entityId</code>, are still processed one after the other, in the order in which
+         * they were persisted, but the events of different entities may be processed in any order.
+         *
+         * The offset is written separately from the statements of the events, with the offset of
+         * the last event that was processed after all events before it. Since not every offset is
+         * written, the events after the written offset are processed again after a failure or a
+         * restart, including events that had already been processed.
+         *
+         * This can not be combined with {@link #setBatching}.
+         *
+         * @param parallelism The maximum number of events that are processed concurrently.
+         * @param entityId The function that returns the id of the entity of an event.
+         * @return This builder for fluent invocation
+         */
+        ReadSideHandlerBuilder<Event> setParallelism(int parallelism, Function<Event, String> entityId);
+
+        /**
+         * Process the events in groups while the read side is catching up, i.e. while the events that it
+         * processes are older than <code>lagom.persistence.read-side.catch-up.lag-threshold</code>, and as
+         * configured by the other methods of the builder when it has caught up.
+         *
+         * The groups are processed as described for {@link #setBatching}, with the same restrictions for the
+         * event handlers.
+         *
+         * @param maxEvents The maximum number of events of a group.
+         * @param maxDelay The maximum time to wait for more events before a group is processed.
+         * @return This builder for fluent invocation
+         */
+        ReadSideHandlerBuilder<Event> setCatchUpBatching(int maxEvents, Duration maxDelay);
+
         /**
          * Build the read side handler.
          *
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence.cassandra
+
+import akka.actor.ExtendedActorSystem
+import akka.persistence.journal.Tagged
+import com.lightbend.lagom.internal.persistence.AggregateEventTagger
+
+import scala.collection.JavaConverters._
+
+private[lagom] object CassandraAggregateEventTagger {
+  /**
+   * The number of tag columns of the messages table of the Cassandra journal.
+   */
+  val MaxTags = 3
+}
+
+/**
+ * The [[AggregateEventTagger]] of the Cassandra journal, which stores each tag of an event in
+ * one of the columns `tag1` to `tag3`, as mapped by `cassandra-journal.tags`, and the tags that
+ * are not mapped in `tag1`. When two tags of an event are stored in the same column only one of
+ * them is stored, so such events are rejected here instead, as well as events with more tags
+ * than there are columns.
+ */
+private[lagom] class CassandraAggregateEventTagger(system: ExtendedActorSystem) extends AggregateEventTagger {
+  import CassandraAggregateEventTagger._
+
+  private val tagColumns: Map[String, Int] = {
+    val tags = system.settings.config.getConfig("cassandra-journal.tags")
+    tags.root.keySet.asScala.map(tag => tag -> tags.getInt(s""""$tag"""")).toMap
+  }
+
+  override def toJournal(event: Any): Any = super.toJournal(event) match {
+    case tagged @ Tagged(_, tags) if tags.size > 1 =>
+      if (tags.size > MaxTags)
+        throw new IllegalArgumentException(s"Event [${event.getClass.getName}] has ${tags.size} tags " +
+          s"[${tags.mkString(", ")}], but the Cassandra journal stores at most $MaxTags tags of an event")
+      tags.groupBy(tag => tagColumns.getOrElse(tag, 1)).foreach {
+        case (column, sameColumn) if sameColumn.size > 1 =>
+          throw new IllegalArgumentException(s"The tags [${sameColumn.mkString(", ")}] of event " +
+            s"[${event.getClass.getName}] are stored in the same column tag$column of the Cassandra journal, " +
+            "map them to different columns with cassandra-journal.tags")
+        case _ =>
+      }
+      tagged
+    case other => other
+  }
+
+}
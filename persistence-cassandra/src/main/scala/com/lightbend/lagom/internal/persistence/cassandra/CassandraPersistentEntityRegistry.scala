@@ -13,7 +13,7 @@ import akka.persistence.query.PersistenceQuery
 import akka.persistence.query.scaladsl.EventsByTagQuery
 import akka.stream.javadsl
 import com.google.inject.Injector
-import com.lightbend.lagom.internal.persistence.AbstractPersistentEntityRegistry
+import com.lightbend.lagom.internal.persistence.{ AbstractPersistentEntityRegistry, ReadReplicaActor, RecentEventsCache }
 import com.lightbend.lagom.javadsl.persistence.Offset.TimeBasedUUID
 import com.lightbend.lagom.javadsl.persistence._
 
@@ -26,6 +26,7 @@ private[lagom] class CassandraPersistentEntityRegistry @Inject() (system: ActorS
   private val cassandraReadJournal = PersistenceQuery(system).readJournalFor[CassandraReadJournal](journalId)
 
   override protected val eventsByTagQuery: Option[EventsByTagQuery] = Some(cassandraReadJournal)
+  override protected val eventsByPersistenceIdQuery: Option[ReadReplicaActor.EventsQuery] = Some(cassandraReadJournal)
 
   override def eventStream[Event <: AggregateEvent[Event]](
     aggregateTag: AggregateEventTag[Event],
@@ -37,8 +38,11 @@ private[lagom] class CassandraPersistentEntityRegistry @Inject() (system: ActorS
       case uuid: TimeBasedUUID => uuid.value()
       case other               => throw new IllegalArgumentException("Cassandra does not support " + other.getClass.getName + " offsets")
     }
-    cassandraReadJournal.eventsByTag(tag, offset)
-      .map { env => Pair.create(env.event.asInstanceOf[Event], Offset.timeBasedUUID(env.offset)) }
+    val journalEvents = cassandraReadJournal.eventsByTag(tag, offset).map { env =>
+      Pair.create(RecentEventsCache.RecentEvent(env.persistenceId, env.sequenceNr, env.event), Offset.timeBasedUUID(env.offset))
+    }
+    RecentEventsCache(system).eventStream(tag, fromOffset, journalEvents)
+      .map { pair => Pair.create(pair.first.asInstanceOf[Event], pair.second) }
       .asJava
   }
 
@@ -6,7 +6,7 @@ package com.lightbend.lagom.internal.persistence.cassandra
 import java.util.concurrent.CompletionStage
 import java.util.function.BiFunction
 
-import com.datastax.driver.core.{ BatchStatement, BoundStatement, PreparedStatement, Row }
+import com.datastax.driver.core.{ BatchStatement, BoundStatement, DataType, Metadata, PreparedStatement, Row, Session, TableMetadata }
 import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, AggregateEventTag, Offset }
 import java.util.{ Optional, UUID, List => JList }
 
@@ -14,12 +14,15 @@ import akka.Done
 import akka.japi.Pair
 import akka.stream.ActorAttributes
 import akka.stream.javadsl.Flow
+import com.lightbend.lagom.internal.persistence.{ OffsetCommitPolicy, ReadSideBatching, ReadSideParallelism, ReadSideRebuild, ReshardedOffset }
 import com.lightbend.lagom.javadsl.persistence.Offset.TimeBasedUUID
 import com.lightbend.lagom.javadsl.persistence.ReadSideProcessor.ReadSideHandler
 import com.lightbend.lagom.javadsl.persistence.cassandra.{ CassandraReadSideProcessor, CassandraSession }
 import org.pcollections.TreePVector
 import org.slf4j.LoggerFactory
 
+import scala.collection.JavaConverters._
+import scala.collection.immutable
 import scala.compat.java8.FutureConverters._
 import scala.concurrent.{ ExecutionContext, Future }
 
@@ -35,19 +38,7 @@ private[cassandra] abstract class CassandraReadSideHandler[Event <: AggregateEve
     akka.stream.scaladsl.Flow[Pair[Event, Offset]].mapAsync(parallelism = 1) { pair =>
       handlers.get(pair.first.getClass.asInstanceOf[Class[Event]]) match {
         case Some(handler) =>
-          for {
-            statements <- invoke(handler, pair.first, pair.second).toScala
-            done <- statements.size match {
-              case 0 => Future.successful(Done.getInstance())
-              case 1 => session.executeWrite(statements.get(0)).toScala
-              case _ =>
-                val batch = new BatchStatement
-                val iter = statements.iterator()
-                while (iter.hasNext)
-                  batch.add(iter.next)
-                session.executeWriteBatch(batch).toScala
-            }
-          } yield done
+          invoke(handler, pair.first, pair.second).toScala.flatMap(executeStatements)
         case None =>
           if (log.isDebugEnabled)
             log.debug("Unhandled event [{}]", pair.first.getClass.getName)
@@ -55,6 +46,18 @@ private[cassandra] abstract class CassandraReadSideHandler[Event <: AggregateEve
       }
     }.withAttributes(ActorAttributes.dispatcher(dispatcher)).asJava
   }
+
+  protected def executeStatements(statements: JList[BoundStatement]): Future[Done] =
+    statements.size match {
+      case 0 => Future.successful(Done.getInstance())
+      case 1 => session.executeWrite(statements.get(0)).toScala
+      case _ =>
+        val batch = new BatchStatement
+        val iter = statements.iterator()
+        while (iter.hasNext)
+          batch.add(iter.next)
+        session.executeWriteBatch(batch).toScala
+    }
 }
 
 private[cassandra] object CassandraAutoReadSideHandler {
@@ -69,29 +72,233 @@ private[cassandra] class CassandraAutoReadSideHandler[Event <: AggregateEvent[Ev
   globalPrepareCallback: () => CompletionStage[Done],
   prepareCallback:       AggregateEventTag[Event] => CompletionStage[Done],
   offsetStore:           OffsetStore,
-  dispatcher:            String
+  dispatcher:            String,
+  batching:              Option[ReadSideBatching]           = None,
+  parallelism:           Option[ReadSideParallelism[Event]] = None,
+  offsetCommitPolicy:    OffsetCommitPolicy                 = OffsetCommitPolicy.EveryEvent,
+  catchUpBatching:       Option[ReadSideBatching]           = None
 )(implicit ec: ExecutionContext) extends CassandraReadSideHandler[Event, Handler[Event]](
   session, handlers, dispatcher
-) {
+) with ReadSideRebuild.OffsetReader[Event] {
+
+  // the offset is stored for the tag that is processed, which differs from the
+  // current tag of the events that were tagged before the tags were resharded
+  @volatile private var preparedTag: String = _
+
+  private def offsetTag(event: Event): String =
+    if (preparedTag ne null) preparedTag else event.aggregateTag.tag
+
+  // the write timestamp of the last batch of handleBatch, in microseconds, only accessed by
+  // the stage of handleBatch
+  private var lastTimestamp = 0L
 
   override protected def invoke(handler: Handler[Event], event: Event, offset: Offset): CompletionStage[JList[BoundStatement]] = {
+    val tag = offsetTag(event)
     val boundStatements = {
       for {
         statements <- (handler.asInstanceOf[(Event, Offset) => CompletionStage[JList[BoundStatement]]].apply(event, offset).toScala)
-      } yield TreePVector.from(statements).plus(offsetStore.writeOffset(event.aggregateTag.tag, offset)).asInstanceOf[JList[BoundStatement]]
+      } yield TreePVector.from(statements).plus(offsetStore.writeOffset(tag, offset)).asInstanceOf[JList[BoundStatement]]
     }
 
     boundStatements.toJava
   }
 
+  override def handle(): Flow[Pair[Event, Offset], Done, _] = (batching, parallelism) match {
+    case (Some(b), _) => batched(b)
+
+    case (None, Some(p)) =>
+      // the offset is written after the statements of the event and of all events before it
+      p.flow(handleWithoutOffset)
+        .via(OffsetCommitPolicy.commits(offsetCommitPolicy)(writeOffset))
+        .withAttributes(ActorAttributes.dispatcher(dispatcher)).asJava
+
+    case (None, None) => offsetCommitPolicy match {
+      case OffsetCommitPolicy.EveryEvent => super.handle()
+
+      case OffsetCommitPolicy.EveryNEvents(n) =>
+        // only accessed by the mapAsync stage
+        var handledSinceCommit = 0
+        akka.stream.scaladsl.Flow[Pair[Event, Offset]].mapAsync(parallelism = 1) { pair =>
+          handlers.get(pair.first.getClass.asInstanceOf[Class[Event]]) match {
+            case Some(handler) =>
+              handledSinceCommit += 1
+              if (handledSinceCommit == n) {
+                handledSinceCommit = 0
+                invoke(handler, pair.first, pair.second).toScala.flatMap(executeStatements)
+              } else
+                handleWithoutOffset(pair)
+            case None => Future.successful(Done.getInstance())
+          }
+        }.withAttributes(ActorAttributes.dispatcher(dispatcher)).asJava
+
+      case OffsetCommitPolicy.Interval(_) =>
+        akka.stream.scaladsl.Flow[Pair[Event, Offset]]
+          .mapAsync(parallelism = 1)(pair => handleWithoutOffset(pair).map(_ => pair))
+          .via(OffsetCommitPolicy.commits(offsetCommitPolicy)(writeOffset))
+          .withAttributes(ActorAttributes.dispatcher(dispatcher)).asJava
+    }
+  }
+
+  override def handleCatchUp(): Optional[Flow[Pair[Event, Offset], Done, _]] = catchUpBatching match {
+    case Some(b) => Optional.of[Flow[Pair[Event, Offset], Done, _]](batched(b))
+    case None    => Optional.empty()
+  }
+
+  private def batched(b: ReadSideBatching): Flow[Pair[Event, Offset], Done, _] =
+    akka.stream.scaladsl.Flow[Pair[Event, Offset]]
+      .groupedWithin(b.maxEvents, b.maxDelay)
+      .mapAsync(parallelism = 1)(handleBatch)
+      .withAttributes(ActorAttributes.dispatcher(dispatcher)).asJava
+
+  private def writeOffset(pair: Pair[Event, Offset]): Future[Done] =
+    session.executeWrite(offsetStore.writeOffset(offsetTag(pair.first), pair.second)).toScala
+
+  private def handleWithoutOffset(pair: Pair[Event, Offset]): Future[Done] =
+    handlers.get(pair.first.getClass.asInstanceOf[Class[Event]]) match {
+      case Some(handler) =>
+        handler.asInstanceOf[(Event, Offset) => CompletionStage[JList[BoundStatement]]].apply(pair.first, pair.second)
+          .toScala.flatMap(executeStatements)
+      case None => Future.successful(Done.getInstance())
+    }
+
+  /**
+   * Invokes the handlers of the events one after the other, and then executes the statements
+   * of all events, followed by the write of the offset of the last event. The statements of
+   * different partitions are executed concurrently, see `executePartition` for those of the
+   * same partition.
+   */
+  private def handleBatch(events: immutable.Seq[Pair[Event, Offset]]): Future[Done] = {
+    val allStatements = events.foldLeft(Future.successful(Vector.empty[BoundStatement])) { (acc, pair) =>
+      handlers.get(pair.first.getClass.asInstanceOf[Class[Event]]) match {
+        case Some(handler) =>
+          acc.flatMap { statements =>
+            handler.asInstanceOf[(Event, Offset) => CompletionStage[JList[BoundStatement]]].apply(pair.first, pair.second)
+              .toScala.map(statements ++ _.asScala)
+          }
+        case None => acc
+      }
+    }
+    for {
+      statements <- allStatements
+      underlying <- session.underlying().toScala
+      _ <- Future.sequence(partitions(statements, underlying).map(executePartition(_, underlying.getCluster.getMetadata)))
+      done <- session.executeWrite(offsetStore.writeOffset(offsetTag(events.last.first), events.last.second)).toScala
+    } yield done
+  }
+
+  /**
+   * The statements grouped by the table and partition key that they write, in the order of the
+   * statements. When that is not known for a statement, e.g. when its partition key is not bound,
+   * all statements are in one group.
+   */
+  private def partitions(statements: Vector[BoundStatement], underlying: Session): Iterable[Vector[BoundStatement]] = {
+    val configuration = underlying.getCluster.getConfiguration
+    val protocolVersion = configuration.getProtocolOptions.getProtocolVersion
+    val codecRegistry = configuration.getCodecRegistry
+    val keyed = statements.map { statement =>
+      val variables = statement.preparedStatement.getVariables
+      val table = if (variables.size > 0) variables.getKeyspace(0) + "." + variables.getTable(0) else null
+      ((table, statement.getRoutingKey(protocolVersion, codecRegistry)), statement)
+    }
+    if (keyed.exists { case ((table, routingKey), _) => (table eq null) || (routingKey eq null) }) List(statements)
+    else keyed.groupBy(_._1).values.map(_.map(_._2))
+  }
+
+  /**
+   * Executes the statements of one partition with an unlogged batch for each run of
+   * consecutive statements that write different rows. The batches get increasing write
+   * timestamps, so that the statements of later events win over those of earlier events that
+   * write the same row, even though the batches are executed concurrently. All statements of
+   * a batch have the timestamp of the batch, which is why a row that is written again starts a
+   * new batch. Counter tables don't support write timestamps, so their statements are executed
+   * one after the other instead, as are the statements of tables without known metadata.
+   */
+  private def executePartition(statements: Vector[BoundStatement], metadata: Metadata): Future[Done] = {
+    val tables = statements.map(table(_, metadata))
+    if (tables.exists(t => (t eq null) || isCounterTable(t))) executeInOrder(statements)
+    else {
+      val batches = runs(statements.zip(tables)).map { run =>
+        val batch = new BatchStatement(BatchStatement.Type.UNLOGGED)
+        run.foreach(batch.add)
+        batch.setDefaultTimestamp(nextTimestamp())
+        session.executeWriteBatch(batch).toScala
+      }
+      Future.sequence(batches).map(_ => Done.getInstance())
+    }
+  }
+
+  // the runs of consecutive statements in which no row is written more than once, a statement
+  // of which the row is not known is a run of its own
+  private def runs(statements: Vector[(BoundStatement, TableMetadata)]): Vector[Vector[BoundStatement]] = {
+    val result = Vector.newBuilder[Vector[BoundStatement]]
+    var run = Vector.empty[BoundStatement]
+    var rows = Set.empty[List[AnyRef]]
+    statements.foreach {
+      case (statement, table) =>
+        val row = rowKey(statement, table)
+        if (row.isEmpty || rows(row.get)) {
+          if (run.nonEmpty) result += run
+          run = Vector.empty
+          rows = Set.empty
+        }
+        run :+= statement
+        row match {
+          case Some(r) => rows += r
+          case None =>
+            result += run
+            run = Vector.empty
+        }
+    }
+    if (run.nonEmpty) result += run
+    result.result()
+  }
+
+  // the table and the values of the primary key of the row that the statement writes, if they
+  // are bound values of the statement
+  private def rowKey(statement: BoundStatement, table: TableMetadata): Option[List[AnyRef]] = {
+    val variables = statement.preparedStatement.getVariables
+    val values: List[AnyRef] = table.getPrimaryKey.asScala.toList.map { column =>
+      val name = Metadata.quote(column.getName)
+      if (variables.contains(name)) statement.getBytesUnsafe(name) else null
+    }
+    if (values.contains(null)) None
+    else Some((table.getKeyspace.getName + "." + table.getName) :: values)
+  }
+
+  private def table(statement: BoundStatement, metadata: Metadata): TableMetadata = {
+    val variables = statement.preparedStatement.getVariables
+    if (variables.size == 0) null
+    else {
+      val keyspace = metadata.getKeyspace(Metadata.quote(variables.getKeyspace(0)))
+      if (keyspace eq null) null else keyspace.getTable(Metadata.quote(variables.getTable(0)))
+    }
+  }
+
+  private def isCounterTable(table: TableMetadata): Boolean =
+    table.getColumns.asScala.exists(_.getType.getName == DataType.Name.COUNTER)
+
+  private def nextTimestamp(): Long = {
+    lastTimestamp = math.max(System.currentTimeMillis() * 1000, lastTimestamp + 1)
+    lastTimestamp
+  }
+
+  private def executeInOrder(statements: Vector[BoundStatement]): Future[Done] =
+    statements.foldLeft(Future.successful(Done.getInstance())) { (acc, statement) =>
+      acc.flatMap(_ => session.executeWrite(statement).toScala)
+    }
+
   override def globalPrepare(): CompletionStage[Done] = {
     internalPrepare(globalPrepareCallback.apply(), store => store.globalPrepare())
   }
 
   override def prepare(tag: AggregateEventTag[Event]): CompletionStage[Offset] = {
-    internalPrepare(prepareCallback.apply(tag), store => store.prepare(tag.tag))
+    preparedTag = tag.tag
+    internalPrepare(prepareCallback.apply(tag), store => store.prepare(tag.tag, tag.previousTags.asScala.toList))
   }
 
+  override def readOffset(tag: AggregateEventTag[Event]): Future[Offset] =
+    offsetStore.readOffset(tag.tag)
+
   private def internalPrepare[R](prepare: CompletionStage[Done], prepareStore: OffsetStore => Future[R]): CompletionStage[R] = {
     val prepared = for {
       _ <- prepare.toScala
@@ -138,8 +345,25 @@ private[internal] class OffsetStore private (session: CassandraSession, offsetTa
                                   |)""".stripMargin).toScala
   }
 
-  def prepare(partition: String): Future[Offset] =
-    prepareWriteOffset.flatMap(_ => readOffset(partition))
+  /**
+   * The offset of the partition. When the partition has no offset yet the offset is derived
+   * from the offsets of the `previousPartitions`, the previous tags of a resharded tag, and the
+   * derived offset is stored for the partition.
+   */
+  def prepare(partition: String, previousPartitions: immutable.Seq[String] = Nil): Future[Offset] =
+    prepareWriteOffset.flatMap { _ =>
+      readOffsetRow(partition).flatMap {
+        case maybeRow if maybeRow.isPresent || previousPartitions.isEmpty =>
+          Future.successful(extractOffset(maybeRow))
+        case _ =>
+          Future.sequence(previousPartitions.map(readOffset)).flatMap { previousOffsets =>
+            ReshardedOffset.derive(previousOffsets) match {
+              case Offset.NONE => Future.successful(Offset.NONE)
+              case derived     => session.executeWrite(writeOffset(partition, derived)).toScala.map(_ => derived)
+            }
+          }
+      }
+    }
 
   private def prepareWriteOffset: Future[Done] = {
     session.prepare(s"INSERT INTO $offsetTable (partition, timeUuidOffset, sequenceOffset) VALUES (?, ?, ?)").toScala.map { ps =>
@@ -148,8 +372,14 @@ private[internal] class OffsetStore private (session: CassandraSession, offsetTa
     }
   }
 
-  private def readOffset(partition: String): Future[Offset] = {
-    session.selectOne(s"SELECT timeUuidOffset, sequenceOffset FROM $offsetTable WHERE partition = ?", partition).toScala.map(extractOffset)
+  /**
+   * The stored offset of the partition, without deriving it from previous partitions.
+   */
+  def readOffset(partition: String): Future[Offset] =
+    readOffsetRow(partition).map(extractOffset)
+
+  private def readOffsetRow(partition: String): Future[Optional[Row]] = {
+    session.selectOne(s"SELECT timeUuidOffset, sequenceOffset FROM $offsetTable WHERE partition = ?", partition).toScala
   }
 
   private def extractOffset(maybeRow: Optional[Row]): Offset = {
@@ -16,7 +16,7 @@ import javax.inject.Singleton
 import akka.Done
 import akka.event.Logging
 import com.datastax.driver.core.BoundStatement
-import com.lightbend.lagom.internal.persistence.ReadSideImpl
+import com.lightbend.lagom.internal.persistence.{ OffsetCommitPolicy, ReadSideBatching, ReadSideImpl, ReadSideParallelism }
 import com.lightbend.lagom.javadsl.persistence.ReadSideProcessor.ReadSideHandler
 import com.lightbend.lagom.javadsl.persistence.cassandra.{ CassandraReadSideProcessor, CassandraSession }
 import com.lightbend.lagom.javadsl.persistence.cassandra.CassandraReadSide
@@ -30,6 +30,8 @@ private[lagom] class CassandraReadSideImpl @Inject() (
 
   private val dispatcher = system.settings.config.getString("lagom.persistence.read-side.use-dispatcher")
   implicit val ec = system.dispatchers.lookup(dispatcher)
+  private val offsetCommitPolicy =
+    OffsetCommitPolicy(system.settings.config.getConfig("lagom.persistence.read-side.offset-commit"))
 
   override def register[Event <: AggregateEvent[Event]](
     processorClass: Class[_ <: CassandraReadSideProcessor[Event]]
@@ -63,6 +65,9 @@ private[lagom] class CassandraReadSideImpl @Inject() (
       private var globalPrepareCallback: () => CompletionStage[Done] =
         () => CompletableFuture.completedFuture(Done.getInstance())
       private var handlers = Map.empty[Class[_ <: Event], Handler[Event]]
+      private var batching: Option[ReadSideBatching] = None
+      private var parallelism: Option[ReadSideParallelism[Event]] = None
+      private var catchUpBatching: Option[ReadSideBatching] = None
 
       override def setGlobalPrepare(callback: Supplier[CompletionStage[Done]]): ReadSideHandlerBuilder[Event] = {
         globalPrepareCallback = callback.get
@@ -92,9 +97,26 @@ private[lagom] class CassandraReadSideImpl @Inject() (
         this
       }
 
+      override def setBatching(maxEvents: Int, maxDelay: java.time.Duration): ReadSideHandlerBuilder[Event] = {
+        batching = Some(ReadSideBatching(maxEvents, maxDelay))
+        this
+      }
+
+      override def setParallelism(parallelism: Int, entityId: Function[Event, String]): ReadSideHandlerBuilder[Event] = {
+        this.parallelism = Some(ReadSideParallelism(parallelism, entityId))
+        this
+      }
+
+      override def setCatchUpBatching(maxEvents: Int, maxDelay: java.time.Duration): ReadSideHandlerBuilder[Event] = {
+        catchUpBatching = Some(ReadSideBatching(maxEvents, maxDelay))
+        this
+      }
+
       override def build(): ReadSideHandler[Event] = {
+        require(batching.isEmpty || parallelism.isEmpty, "setBatching and setParallelism can not be combined")
         val offsetStore = OffsetStore(session, offsetTableName)
-        new CassandraAutoReadSideHandler[Event](session, handlers, globalPrepareCallback, prepareCallback, offsetStore, dispatcher)
+        new CassandraAutoReadSideHandler[Event](session, handlers, globalPrepareCallback, prepareCallback, offsetStore,
+          dispatcher, batching, parallelism, offsetCommitPolicy, catchUpBatching)
       }
     }
   }
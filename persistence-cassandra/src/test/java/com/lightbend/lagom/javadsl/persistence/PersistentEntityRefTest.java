@@ -23,7 +23,9 @@ import com.lightbend.lagom.javadsl.persistence.TestEntity.State;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
@@ -104,6 +106,36 @@ public class PersistentEntityRefTest {
     assertEquals(Arrays.asList("B", "C"), state2.getElements());
   }
 
+  @Test
+  public void testAskAll() throws Exception {
+    Map<String, TestEntity.Add> commands = new HashMap<>();
+    for (int i = 1; i <= 20; i++) {
+      commands.put("all-" + i, TestEntity.Add.of("x" + i));
+    }
+    Map<String, Evt> replies = registry().askAll(TestEntity.class, commands).toCompletableFuture().get(15, SECONDS);
+    assertEquals(20, replies.size());
+    for (int i = 1; i <= 20; i++) {
+      assertEquals(new TestEntity.Appended("all-" + i, "X" + i), replies.get("all-" + i));
+    }
+
+    State state = registry().refFor(TestEntity.class, "all-3").ask(TestEntity.Get.instance())
+        .toCompletableFuture().get(5, SECONDS);
+    assertEquals(Arrays.asList("X3"), state.getElements());
+  }
+
+  @Test(expected = InvalidCommandException.class)
+  public void testAskAllFailure() throws Throwable {
+    Map<String, TestEntity.Add> commands = new HashMap<>();
+    commands.put("all-ok", TestEntity.Add.of("a"));
+    // empty not allowed
+    commands.put("all-invalid", TestEntity.Add.of(""));
+    try {
+      registry().askAll(TestEntity.class, commands).toCompletableFuture().get(15, SECONDS);
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    }
+  }
+
   @Test(expected = AskTimeoutException.class)
   public void testAskTimeout() throws Throwable {
     PersistentEntityRef<Cmd> ref = registry().refFor(TestEntity.class, "10").withAskTimeout(
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence;
+
+import akka.Done;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.lightbend.lagom.javadsl.persistence.cassandra.CassandraReadSide;
+import static com.lightbend.lagom.javadsl.persistence.cassandra.CassandraReadSide.*;
+import com.lightbend.lagom.javadsl.persistence.cassandra.CassandraSession;
+import org.pcollections.PSequence;
+
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A read side that processes the events in batches. The handler only writes, since the
+ * statements of the other events of a batch have not been executed when it is invoked.
+ */
+public class TestEntityBatchedReadSide {
+
+  private final CassandraSession session;
+
+  @Inject
+  public TestEntityBatchedReadSide(CassandraSession session) {
+    this.session = session;
+  }
+
+  public CompletionStage<Long> getAppendCount(String entityId) {
+    return session.selectOne("SELECT count(*) FROM testelements WHERE id = ?", entityId).thenApply(maybeRow -> {
+      if (maybeRow.isPresent()) {
+        return maybeRow.get().getLong("count");
+      } else {
+        return 0L;
+      }
+    });
+  }
+
+  public CompletionStage<Optional<String>> getLatestElement(String entityId) {
+    return session.selectOne("SELECT element FROM testlatestelements WHERE id = ?", entityId)
+            .thenApply(maybeRow -> maybeRow.map(row -> row.getString("element")));
+  }
+
+  public static class TestEntityBatchedReadSideProcessor extends ReadSideProcessor<TestEntity.Evt> {
+    private final CassandraReadSide readSide;
+    private final CassandraSession session;
+
+    private PreparedStatement writeStmt;
+
+    @Inject
+    public TestEntityBatchedReadSideProcessor(CassandraReadSide readSide, CassandraSession session) {
+      this.readSide = readSide;
+      this.session = session;
+    }
+
+    @Override
+    public ReadSideProcessor.ReadSideHandler<TestEntity.Evt> buildHandler() {
+      return readSide.<TestEntity.Evt>builder("testbatchedoffsets")
+              .setGlobalPrepare(this::createTable)
+              .setPrepare(tag -> prepareWriteStmt())
+              .setEventHandler(TestEntity.Appended.class, this::insertElement)
+              .setBatching(100, Duration.ofMillis(200))
+              .build();
+    }
+
+    private CompletionStage<List<BoundStatement>> insertElement(TestEntity.Appended event) {
+      return completedStatement(writeStmt.bind(event.getEntityId(), event.getElement()));
+    }
+
+    private CompletionStage<Done> createTable() {
+      return session.executeCreateTable(
+              "CREATE TABLE IF NOT EXISTS testelements ( " +
+                      "id text, element text, PRIMARY KEY (id, element))");
+    }
+
+    private CompletionStage<Done> prepareWriteStmt() {
+      return session.prepare("INSERT INTO testelements (id, element) VALUES (?, ?)").thenApply(ws -> {
+        writeStmt = ws;
+        return Done.getInstance();
+      });
+    }
+
+    @Override
+    public PSequence<AggregateEventTag<TestEntity.Evt>> aggregateTags() {
+      return TestEntity.Evt.aggregateTags;
+    }
+  }
+
+  /**
+   * Keeps the latest element of each entity, and removes it when the entity changes to prepend
+   * mode, so that the result depends on the order in which the statements are executed.
+   */
+  public static class LatestElementReadSideProcessor extends ReadSideProcessor<TestEntity.Evt> {
+    private final CassandraReadSide readSide;
+    private final CassandraSession session;
+
+    private PreparedStatement writeStmt;
+    private PreparedStatement deleteStmt;
+
+    @Inject
+    public LatestElementReadSideProcessor(CassandraReadSide readSide, CassandraSession session) {
+      this.readSide = readSide;
+      this.session = session;
+    }
+
+    @Override
+    public ReadSideProcessor.ReadSideHandler<TestEntity.Evt> buildHandler() {
+      return readSide.<TestEntity.Evt>builder("testlatestoffsets")
+              .setGlobalPrepare(this::createTable)
+              .setPrepare(tag -> prepareStmts())
+              .setEventHandler(TestEntity.Appended.class, event ->
+                      completedStatement(writeStmt.bind(event.getEntityId(), event.getElement())))
+              .setEventHandler(TestEntity.InPrependMode.class, event ->
+                      completedStatement(deleteStmt.bind(event.getEntityId())))
+              .setBatching(100, Duration.ofMillis(200))
+              .build();
+    }
+
+    private CompletionStage<Done> createTable() {
+      return session.executeCreateTable(
+              "CREATE TABLE IF NOT EXISTS testlatestelements ( " +
+                      "id text, element text, PRIMARY KEY (id))");
+    }
+
+    private CompletionStage<Done> prepareStmts() {
+      return session.prepare("INSERT INTO testlatestelements (id, element) VALUES (?, ?)").thenCompose(ws -> {
+        writeStmt = ws;
+        return session.prepare("DELETE FROM testlatestelements WHERE id = ?");
+      }).thenApply(ds -> {
+        deleteStmt = ds;
+        return Done.getInstance();
+      });
+    }
+
+    @Override
+    public PSequence<AggregateEventTag<TestEntity.Evt>> aggregateTags() {
+      return TestEntity.Evt.aggregateTags;
+    }
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence.cassandra
+
+import java.util.Optional
+
+import akka.NotUsed
+import akka.persistence.cassandra.query.scaladsl.CassandraReadJournal
+import akka.persistence.query.PersistenceQuery
+import akka.stream.javadsl.Source
+import akka.stream.scaladsl.{ Sink, Source => ScalaSource }
+import com.datastax.driver.core.utils.UUIDs
+import com.lightbend.lagom.javadsl.persistence._
+import com.lightbend.lagom.internal.persistence.cassandra.{ CassandraReadSideImpl, CassandraSessionImpl }
+import com.lightbend.lagom.javadsl.persistence.Offset.TimeBasedUUID
+import com.lightbend.lagom.javadsl.persistence.TestEntity.Evt
+
+import scala.compat.java8.FutureConverters._
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+class CassandraBatchedReadSideSpec extends CassandraPersistenceSpec(CassandraReadSideSpec.config) with AbstractReadSideSpec {
+  lazy val testSession: CassandraSession = new CassandraSessionImpl(system)
+  lazy val queries = PersistenceQuery(system).readJournalFor[CassandraReadJournal](CassandraReadJournal.Identifier)
+
+  override def eventStream[Event <: AggregateEvent[Event]](
+    aggregateTag: AggregateEventTag[Event],
+    fromOffset:   Offset
+  ): Source[akka.japi.Pair[Event, Offset], NotUsed] = {
+    val offset = fromOffset match {
+      case Offset.NONE         => queries.firstOffset
+      case uuid: TimeBasedUUID => uuid.value()
+      case other               => throw new IllegalArgumentException("Cassandra does not support " + other.getClass.getName + " offsets")
+    }
+    queries.eventsByTag(aggregateTag.tag, offset)
+      .map { env => akka.japi.Pair.create(env.event.asInstanceOf[Event], Offset.timeBasedUUID(env.offset)) }
+      .asJava
+  }
+
+  val readSide = new TestEntityBatchedReadSide(testSession)
+  val cassandraReadSide = new CassandraReadSideImpl(system, testSession, null, null)
+
+  override def getAppendCount(id: String) = readSide.getAppendCount(id)
+
+  override def processorFactory(): ReadSideProcessor[TestEntity.Evt] = {
+    new TestEntityBatchedReadSide.TestEntityBatchedReadSideProcessor(cassandraReadSide, testSession)
+  }
+
+  "A Cassandra read-side handler that processes the events in batches" must {
+
+    "execute the statements that write the same row in the order of the events" in {
+      val handler = new TestEntityBatchedReadSide.LatestElementReadSideProcessor(cassandraReadSide, testSession)
+        .buildHandler()
+      val tag = TestEntity.Evt.aggregateTags.get(0)
+      Await.result(handler.globalPrepare().toScala, 20.seconds)
+      Await.result(handler.prepare(tag).toScala, 10.seconds)
+
+      val events = List(
+        new TestEntity.Appended("1", "A"),
+        new TestEntity.Appended("1", "B"),
+        new TestEntity.InPrependMode("1"),
+        new TestEntity.Appended("1", "C"),
+        new TestEntity.Appended("2", "D"),
+        new TestEntity.InPrependMode("2")
+      )
+      Await.result(ScalaSource(events).map { event =>
+        akka.japi.Pair.create[Evt, Offset](event, Offset.timeBasedUUID(UUIDs.timeBased()))
+      }.via(handler.handle()).runWith(Sink.ignore), 10.seconds)
+
+      Await.result(readSide.getLatestElement("1").toScala, 10.seconds) should ===(Optional.of("C"))
+      Await.result(readSide.getLatestElement("2").toScala, 10.seconds) should ===(Optional.empty[String]())
+    }
+  }
+
+}
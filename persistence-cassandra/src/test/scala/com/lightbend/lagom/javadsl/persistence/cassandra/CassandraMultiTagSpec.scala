@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence.cassandra
+
+import akka.Done
+import akka.actor.{ ActorRef, Props }
+import akka.persistence.PersistentActor
+import akka.persistence.cassandra.query.scaladsl.CassandraReadJournal
+import akka.persistence.query.PersistenceQuery
+import akka.stream.ActorMaterializer
+import akka.stream.scaladsl.Sink
+import com.lightbend.lagom.javadsl.persistence.{ AggregateEventTag, MultiTagAggregateEvent }
+import com.typesafe.config.ConfigFactory
+import org.pcollections.{ PSequence, TreePVector }
+
+import scala.collection.JavaConverters._
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+object CassandraMultiTagSpec {
+
+  final case class MultiTagged(id: String, additional: List[String]) extends MultiTagAggregateEvent[MultiTagged] {
+    override def aggregateTag: AggregateEventTag[MultiTagged] =
+      AggregateEventTag.of(classOf[MultiTagged], "multi-shard")
+    override def additionalTags: PSequence[AggregateEventTag[MultiTagged]] =
+      TreePVector.from(additional.map(AggregateEventTag.of(classOf[MultiTagged], _)).asJava)
+  }
+
+  final case class Rejected(cause: Throwable)
+
+  /**
+   * Persists the events that it receives, and replies with `Done`, or with `Rejected` when
+   * the journal has rejected the event.
+   */
+  class Writer extends PersistentActor {
+    private var replyTo: ActorRef = _
+
+    override def persistenceId: String = "multi-tag-writer"
+
+    override def receiveRecover: Receive = {
+      case _ =>
+    }
+
+    override def receiveCommand: Receive = {
+      case event: MultiTagged =>
+        replyTo = sender()
+        persist(event)(_ => replyTo ! Done)
+    }
+
+    override protected def onPersistRejected(cause: Throwable, event: Any, seqNr: Long): Unit =
+      replyTo ! Rejected(cause)
+  }
+}
+
+class CassandraMultiTagSpec extends CassandraPersistenceSpec(ConfigFactory.parseString("""
+  cassandra-journal.tags {
+    multi-all = 2
+    multi-other = 3
+  }
+  """)) {
+  import CassandraMultiTagSpec._
+
+  private implicit val mat = ActorMaterializer()
+  private lazy val queries = PersistenceQuery(system).readJournalFor[CassandraReadJournal](CassandraReadJournal.Identifier)
+  private lazy val writer = system.actorOf(Props[Writer])
+
+  private def eventOfTag(tag: String): Any =
+    Await.result(queries.eventsByTag(tag, queries.firstOffset).map(_.event).runWith(Sink.head), 20.seconds)
+
+  "The Cassandra journal" must {
+
+    "store an event with each of its tags" in {
+      val event = MultiTagged("1", List("multi-all"))
+      writer ! event
+      expectMsg(10.seconds, Done)
+
+      eventOfTag("multi-shard") should ===(event)
+      eventOfTag("multi-all") should ===(event)
+    }
+
+    "reject an event with more tags than the journal can store" in {
+      writer ! MultiTagged("2", List("multi-all", "multi-other", "multi-more"))
+      expectMsgType[Rejected](10.seconds).cause shouldBe an[IllegalArgumentException]
+    }
+
+    "reject an event with tags that are stored in the same column" in {
+      // the tags that are not mapped are stored in the first column, like multi-shard
+      writer ! MultiTagged("3", List("multi-unmapped"))
+      expectMsgType[Rejected](10.seconds).cause shouldBe an[IllegalArgumentException]
+    }
+  }
+
+}
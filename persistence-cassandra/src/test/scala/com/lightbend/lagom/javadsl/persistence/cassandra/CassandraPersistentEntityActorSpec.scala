@@ -3,6 +3,13 @@
  */
 package com.lightbend.lagom.javadsl.persistence.cassandra
 
+import akka.persistence.cassandra.query.scaladsl.CassandraReadJournal
+import akka.persistence.query.PersistenceQuery
+import com.lightbend.lagom.internal.persistence.ReadReplicaActor
 import com.lightbend.lagom.javadsl.persistence.AbstractPersistentEntityActorSpec
 
-class CassandraPersistentEntityActorSpec extends CassandraPersistenceSpec with AbstractPersistentEntityActorSpec
+class CassandraPersistentEntityActorSpec extends CassandraPersistenceSpec with AbstractPersistentEntityActorSpec {
+
+  override lazy val eventsQuery: ReadReplicaActor.EventsQuery =
+    PersistenceQuery(system).readJournalFor[CassandraReadJournal](CassandraReadJournal.Identifier)
+}
@@ -9,7 +9,9 @@ import com.lightbend.lagom.javadsl.persistence.Offset;
 import com.lightbend.lagom.javadsl.persistence.ReadSideProcessor.ReadSideHandler;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.function.*;
 
 /**
@@ -75,6 +77,55 @@ public interface JdbcReadSide {
          */
         <E extends Event> ReadSideHandlerBuilder<Event> setEventHandler(Class<E> eventClass, ConnectionTriConsumer<E, Offset> handler);
 
+        /**
+         * Define the event handler that will be used for events of a given class, which adds its
+         * updates to the JDBC batches of the {@link StatementBatch}.
+         *
+         * When the events are processed in groups, see {@link #setBatching}, the batch is shared
+         * by all events of a group, so that the consecutive updates of many events with the same SQL
+         * are executed with one <code>executeBatch</code>.
+         *
+         * @param eventClass The event class to handle.
+         * @param handler The function to handle the events.
+         * @return This builder for fluent invocation
+         */
+        <E extends Event> ReadSideHandlerBuilder<Event> setBatchedEventHandler(Class<E> eventClass, StatementBatchConsumer<E> handler);
+
+        /**
+         * Process the events in groups instead of one at a time, to catch up faster on many events.
+         *
+         * A group is processed when it has <code>maxEvents</code> events, or when <code>maxDelay</code>
+         * has passed since its first event arrived. The event handlers of all events of a group are
+         * invoked in one transaction, one after the other, and the offset is updated once, with the
+         * offset of the last event of the group. When the transaction fails the whole group is
+         * processed again.
+         *
+         * @param maxEvents The maximum number of events of a group.
+         * @param maxDelay The maximum time to wait for more events before a group is processed.
+         * @return This builder for fluent invocation
+         */
+        ReadSideHandlerBuilder<Event> setBatching(int maxEvents, Duration maxDelay);
+
+        /**
+         * Process up to <code>parallelism</code> events of the tag concurrently, each in its own
+         * transaction, to use several connections for one tag. The events of the same entity, as
+         * identified by <code>entityId</code>, are still processed one after the other, in the order
+         * in which they were persisted, but the events of different entities may be processed in
+         * any order.
+         *
+         * The offset is updated in a separate transaction, with the offset of the last event that
+         * was processed after all events before it. Since not every offset is stored, the events
+         * after the stored offset are processed again after a failure or a restart, including
+         * events that had already been processed.
+         *
+         * This can not be combined with {@link #setBatching}.
+         *
+         * @param parallelism The maximum number of events that are processed concurrently.
+         * @param entityId The function that returns the id of the entity of an event.
+         * @return This builder for fluent invocation
+         */
+        ReadSideHandlerBuilder<Event> setParallelism(int parallelism, Function<Event, String> entityId);
+
         /**
          * Build the read side handler.
          *
@@ -83,6 +134,48 @@ public interface JdbcReadSide {
         ReadSideHandler<Event> build();
     }
 
+    /**
+     * The JDBC batch of the events that are processed in one transaction.
+     *
+     * Only consecutive updates with the same SQL are batched: the pending batch is executed when
+     * {@link #prepareStatement} is passed another SQL, when {@link #connection} is used, and when
+     * the handlers of all events of the transaction have been invoked. The updates are therefore
+     * executed in the order of the events, also when they are interleaved with updates that the
+     * handlers execute directly with the connection.
+     */
+    interface StatementBatch {
+
+        /**
+         * The connection of the transaction, after the pending batch has been executed.
+         */
+        Connection connection();
+
+        /**
+         * The prepared statement of the given SQL that is shared by the events of the transaction.
+         * The handler sets the parameters and invokes <code>addBatch</code>, but doesn't execute
+         * or close it.
+         *
+         * @param sql The SQL of the statement.
+         * @return The prepared statement.
+         */
+        PreparedStatement prepareStatement(String sql) throws SQLException;
+    }
+
+    /**
+     * SAM for consuming a statement batch and an event.
+     */
+    @FunctionalInterface
+    interface StatementBatchConsumer<T> {
+
+        /**
+         * Accept the statement batch and the event.
+         *
+         * @param batch The statement batch
+         * @param t The event.
+         */
+        void accept(StatementBatch batch, T t) throws SQLException;
+    }
+
     /**
      * SAM for consuming a connection.
      */
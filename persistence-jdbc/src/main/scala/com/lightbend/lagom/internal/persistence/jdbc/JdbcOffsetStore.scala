@@ -6,9 +6,11 @@ package com.lightbend.lagom.internal.persistence.jdbc
 import java.util.UUID
 import javax.inject.{ Inject, Singleton }
 
+import com.lightbend.lagom.internal.persistence.ReshardedOffset
 import com.lightbend.lagom.javadsl.persistence.Offset
 import play.api.Configuration
 
+import scala.collection.immutable
 import scala.concurrent.ExecutionContext
 import scala.util.Try
 
@@ -53,11 +55,34 @@ class JdbcOffsetStore @Inject() (val slick: SlickProvider, tableConfig: OffsetTa
   private val offsets = TableQuery[OffsetStore]
 
   def getOffsetQuery(id: String, tag: String): DBIOAction[Offset, NoStream, Effect.Read] = {
+    getOffsetRowQuery(id, tag).map(_.fold(Offset.NONE)(_.offset))
+  }
+
+  /**
+   * The offset of the tag. When the tag has no offset yet the offset is derived from the
+   * offsets of the `previousTags` of a resharded tag, and the derived offset is stored for
+   * the tag.
+   */
+  def getOffsetQuery(id: String, tag: String, previousTags: immutable.Seq[String]): DBIOAction[Offset, NoStream, Effect.Read with Effect.Write] = {
+    getOffsetRowQuery(id, tag).flatMap {
+      case Some(row) => DBIO.successful(row.offset)
+      case None if previousTags.isEmpty => DBIO.successful(Offset.NONE)
+      case None =>
+        DBIO.sequence(previousTags.map(getOffsetQuery(id, _))).flatMap { previousOffsets =>
+          ReshardedOffset.derive(previousOffsets) match {
+            case Offset.NONE => DBIO.successful(Offset.NONE)
+            case derived     => updateOffsetQuery(id, tag, derived).map(_ => derived)
+          }
+        }
+    }
+  }
+
+  private def getOffsetRowQuery(id: String, tag: String): DBIOAction[Option[OffsetRow], NoStream, Effect.Read] = {
     (for {
       offset <- offsets if offset.id === id && offset.tag === tag
     } yield {
       offset
-    }).result.headOption.map(_.fold(Offset.NONE)(_.offset))
+    }).result.headOption
   }
 
   def updateOffsetQuery(id: String, tag: String, offset: Offset) = {
@@ -10,7 +10,7 @@ import akka.persistence.jdbc.query.scaladsl.JdbcReadJournal
 import akka.persistence.query.PersistenceQuery
 import akka.persistence.query.scaladsl.EventsByTagQuery
 import com.google.inject.Injector
-import com.lightbend.lagom.internal.persistence.AbstractPersistentEntityRegistry
+import com.lightbend.lagom.internal.persistence.{ AbstractPersistentEntityRegistry, ReadReplicaActor }
 import com.lightbend.lagom.javadsl.persistence.PersistentEntity
 
 @Singleton
@@ -27,4 +27,5 @@ private[lagom] class JdbcPersistentEntityRegistry @Inject() (system: ActorSystem
   override protected val journalId: String = JdbcReadJournal.Identifier
   private val jdbcReadJournal = PersistenceQuery(system).readJournalFor[JdbcReadJournal](journalId)
   override protected val eventsByTagQuery: Option[EventsByTagQuery] = Some(jdbcReadJournal)
+  override protected val eventsByPersistenceIdQuery: Option[ReadReplicaActor.EventsQuery] = Some(jdbcReadJournal)
 }
@@ -3,31 +3,39 @@
  */
 package com.lightbend.lagom.internal.persistence.jdbc
 
-import java.sql.Connection
+import java.sql.{ Connection, PreparedStatement }
 import java.util.concurrent.CompletionStage
 import javax.inject.{ Inject, Singleton }
 
 import akka.Done
+import akka.actor.ActorSystem
 import akka.japi.Pair
 import akka.stream.javadsl.Flow
+import com.lightbend.lagom.internal.persistence.{ OffsetCommitPolicy, ReadSideBatching, ReadSideParallelism, ReadSideRebuild }
 import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, AggregateEventTag, Offset }
 import com.lightbend.lagom.javadsl.persistence.ReadSideProcessor.ReadSideHandler
 import com.lightbend.lagom.javadsl.persistence.jdbc.JdbcReadSide
 import com.lightbend.lagom.javadsl.persistence.jdbc.JdbcReadSide._
 import org.slf4j.LoggerFactory
 
+import scala.collection.JavaConverters._
+import scala.collection.immutable
 import scala.compat.java8.FutureConverters._
 import scala.concurrent.{ ExecutionContext, Future }
 
 @Singleton
-private[lagom] class JdbcReadSideImpl @Inject() (slick: SlickProvider, offsetStore: JdbcOffsetStore)(implicit val ec: ExecutionContext) extends JdbcReadSide {
+private[lagom] class JdbcReadSideImpl @Inject() (system: ActorSystem, slick: SlickProvider, offsetStore: JdbcOffsetStore)(implicit val ec: ExecutionContext) extends JdbcReadSide {
 
   private val log = LoggerFactory.getLogger(this.getClass)
+  private val offsetCommitPolicy =
+    OffsetCommitPolicy(system.settings.config.getConfig("lagom.persistence.read-side.offset-commit"))
 
   override def builder[Event <: AggregateEvent[Event]](readSideId: String): ReadSideHandlerBuilder[Event] = new ReadSideHandlerBuilder[Event] {
     var globalPrepare: Connection => Unit = { _ => () }
     var prepare: (Connection, AggregateEventTag[Event]) => Unit = (_, _) => ()
-    var eventHandlers = Map.empty[Class[_ <: Event], (Connection, _ <: Event, Offset) => Unit]
+    var eventHandlers = Map.empty[Class[_ <: Event], (StatementBatchImpl, _ <: Event, Offset) => Unit]
+    var batching: Option[ReadSideBatching] = None
+    var parallelism: Option[ReadSideParallelism[Event]] = None
 
     override def setGlobalPrepare(callback: ConnectionConsumer): ReadSideHandlerBuilder[Event] = {
       globalPrepare = callback.accept
@@ -40,27 +48,91 @@ private[lagom] class JdbcReadSideImpl @Inject() (slick: SlickProvider, offsetSto
     }
 
     override def setEventHandler[E <: Event](eventClass: Class[E], handler: ConnectionBiConsumer[E]): ReadSideHandlerBuilder[Event] = {
-      eventHandlers += (eventClass -> ((c: Connection, e: E, o: Offset) => handler.accept(c, e)))
+      eventHandlers += (eventClass -> ((b: StatementBatchImpl, e: E, o: Offset) => handler.accept(b.connection, e)))
       this
     }
 
     override def setEventHandler[E <: Event](eventClass: Class[E], handler: ConnectionTriConsumer[E, Offset]): ReadSideHandlerBuilder[Event] = {
-      eventHandlers += (eventClass -> handler.accept _)
+      eventHandlers += (eventClass -> ((b: StatementBatchImpl, e: E, o: Offset) => handler.accept(b.connection, e, o)))
       this
     }
 
-    override def build(): ReadSideHandler[Event] = new JdbcReadSideHandler[Event](readSideId, globalPrepare, prepare, eventHandlers)
+    override def setBatchedEventHandler[E <: Event](eventClass: Class[E], handler: StatementBatchConsumer[E]): ReadSideHandlerBuilder[Event] = {
+      eventHandlers += (eventClass -> ((b: StatementBatchImpl, e: E, o: Offset) => handler.accept(b, e)))
+      this
+    }
+
+    override def setBatching(maxEvents: Int, maxDelay: java.time.Duration): ReadSideHandlerBuilder[Event] = {
+      batching = Some(ReadSideBatching(maxEvents, maxDelay))
+      this
+    }
+
+    override def setParallelism(parallelism: Int, entityId: java.util.function.Function[Event, String]): ReadSideHandlerBuilder[Event] = {
+      this.parallelism = Some(ReadSideParallelism(parallelism, entityId))
+      this
+    }
+
+    override def build(): ReadSideHandler[Event] = {
+      require(batching.isEmpty || parallelism.isEmpty, "setBatching and setParallelism can not be combined")
+      new JdbcReadSideHandler[Event](readSideId, globalPrepare, prepare, eventHandlers, batching, parallelism)
+    }
+  }
+
+  /**
+   * The JDBC batch of one transaction. The pending batch is executed when a handler prepares a
+   * statement with another SQL, uses the connection directly, or when all event handlers of the
+   * transaction have been invoked, so that the updates are executed in the order of the events.
+   */
+  private class StatementBatchImpl(underlying: Connection) extends StatementBatch {
+    private var pendingSql: String = null
+    private var pending: PreparedStatement = null
+
+    override def connection: Connection = {
+      executeBatches()
+      underlying
+    }
+
+    override def prepareStatement(sql: String): PreparedStatement =
+      if ((pending ne null) && pendingSql == sql) pending
+      else {
+        executeBatches()
+        pending = underlying.prepareStatement(sql)
+        pendingSql = sql
+        pending
+      }
+
+    def executeBatches(): Unit =
+      if (pending ne null) {
+        val statement = pending
+        pending = null
+        pendingSql = null
+        try statement.executeBatch()
+        finally statement.close()
+      }
+
+    def close(): Unit =
+      if (pending ne null) {
+        pending.close()
+        pending = null
+        pendingSql = null
+      }
   }
 
   private class JdbcReadSideHandler[Event <: AggregateEvent[Event]](
     readSideId:            String,
     globalPrepareCallback: Connection => Unit,
     prepareCallback:       (Connection, AggregateEventTag[Event]) => Unit,
-    eventHandlers:         Map[Class[_ <: Event], (Connection, _ <: Event, Offset) => Unit]
-  ) extends ReadSideHandler[Event] {
+    eventHandlers:         Map[Class[_ <: Event], (StatementBatchImpl, _ <: Event, Offset) => Unit],
+    batching:              Option[ReadSideBatching],
+    parallelism:           Option[ReadSideParallelism[Event]]
+  ) extends ReadSideHandler[Event] with ReadSideRebuild.OffsetReader[Event] {
 
     import slick.profile.api._
 
+    // the offset is stored for the tag that is processed, which differs from the
+    // current tag of the events that were tagged before the tags were resharded
+    @volatile private var preparedTag: String = _
+
     override def globalPrepare(): CompletionStage[Done] = {
       slick.ensureTablesCreated().flatMap { _ =>
         slick.db.run {
@@ -75,36 +147,113 @@ private[lagom] class JdbcReadSideImpl @Inject() (slick: SlickProvider, offsetSto
     }
 
     override def prepare(tag: AggregateEventTag[Event]): CompletionStage[Offset] = {
+      preparedTag = tag.tag
       slick.db.run {
         (for {
           _ <- SimpleDBIO { ctx =>
             prepareCallback(ctx.connection, tag)
           }
-          offset <- offsetStore.getOffsetQuery(readSideId, tag.tag)
+          offset <- offsetStore.getOffsetQuery(readSideId, tag.tag, tag.previousTags.asScala.toList)
         } yield offset).transactionally
       }.toJava
     }
 
-    override def handle(): Flow[Pair[Event, Offset], Done, Any] = {
-      akka.stream.scaladsl.Flow[Pair[Event, Offset]].mapAsync(parallelism = 1) { pair =>
-        eventHandlers.get(pair.first.getClass) match {
-          case Some(handler) =>
-            slick.db.run {
-              (for {
-                _ <- SimpleDBIO { ctx =>
-                  handler.asInstanceOf[(Connection, Event, Offset) => Unit](ctx.connection, pair.first, pair.second)
-                }
-                _ <- offsetStore.updateOffsetQuery(readSideId, pair.first.aggregateTag.tag, pair.second)
-              } yield {
-                Done.getInstance()
-              }).transactionally
+    override def readOffset(tag: AggregateEventTag[Event]): Future[Offset] =
+      slick.db.run(offsetStore.getOffsetQuery(readSideId, tag.tag))
+
+    override def handle(): Flow[Pair[Event, Offset], Done, Any] = (batching, parallelism) match {
+      case (None, None) => offsetCommitPolicy match {
+        case OffsetCommitPolicy.Interval(_) =>
+          akka.stream.scaladsl.Flow[Pair[Event, Offset]]
+            .mapAsync(parallelism = 1)(pair => handleWithoutOffset(pair).map(_ => pair))
+            .via(OffsetCommitPolicy.commits(offsetCommitPolicy)(updateOffset))
+            .asJava
+
+        case _ =>
+          val commitEvery = offsetCommitPolicy match {
+            case OffsetCommitPolicy.EveryNEvents(n) => n
+            case _                                  => 1
+          }
+          // only accessed by the mapAsync stage
+          var handledSinceCommit = 0
+          akka.stream.scaladsl.Flow[Pair[Event, Offset]].mapAsync(parallelism = 1) { pair =>
+            if (eventHandlers.contains(pair.first.getClass)) {
+              handledSinceCommit += 1
+              if (handledSinceCommit == commitEvery) {
+                handledSinceCommit = 0
+                handleEvents(List(pair))
+              } else
+                handleWithoutOffset(pair)
+            } else {
+              if (log.isDebugEnabled)
+                log.debug("Unhandled event [{}]", pair.first.getClass.getName)
+              Future.successful(Done.getInstance())
             }
-          case None =>
-            if (log.isDebugEnabled)
-              log.debug("Unhandled event [{}]", pair.first.getClass.getName)
-            Future.successful(Done.getInstance())
-        }
-      }.asJava
+          }.asJava
+      }
+
+      case (Some(b), _) => batched(b)
+
+      case (None, Some(p)) =>
+        // each event is handled in its own transaction, and the offset is updated after the
+        // event and all events before it have been handled
+        p.flow(handleWithoutOffset)
+          .via(OffsetCommitPolicy.commits(offsetCommitPolicy)(updateOffset))
+          .asJava
     }
+
+    private def batched(b: ReadSideBatching): Flow[Pair[Event, Offset], Done, Any] =
+      akka.stream.scaladsl.Flow[Pair[Event, Offset]]
+        .groupedWithin(b.maxEvents, b.maxDelay)
+        .mapAsync(parallelism = 1) { events =>
+          if (events.exists(pair => eventHandlers.contains(pair.first.getClass))) handleEvents(events)
+          else Future.successful(Done.getInstance())
+        }.asJava
+
+    private def handleWithoutOffset(pair: Pair[Event, Offset]): Future[Done] =
+      if (eventHandlers.contains(pair.first.getClass))
+        slick.db.run(invokeHandlers(List(pair)).transactionally)
+      else Future.successful(Done.getInstance())
+
+    private def updateOffset(pair: Pair[Event, Offset]): Future[Done] =
+      slick.db.run(offsetStore.updateOffsetQuery(readSideId, offsetTag(pair.first), pair.second))
+        .map(_ => Done.getInstance())
+
+    private def offsetTag(event: Event): String =
+      if (preparedTag ne null) preparedTag else event.aggregateTag.tag
+
+    /**
+     * Invokes the handlers of the events in one transaction, and updates the offset to the
+     * offset of the last event.
+     */
+    private def handleEvents(events: immutable.Seq[Pair[Event, Offset]]): Future[Done] = {
+      val last = events.last
+      slick.db.run {
+        (for {
+          _ <- invokeHandlers(events)
+          _ <- offsetStore.updateOffsetQuery(readSideId, offsetTag(last.first), last.second)
+        } yield {
+          Done.getInstance()
+        }).transactionally
+      }
+    }
+
+    private def invokeHandlers(events: immutable.Seq[Pair[Event, Offset]]) =
+      SimpleDBIO { ctx =>
+        val batch = new StatementBatchImpl(ctx.connection)
+        try {
+          events.foreach { pair =>
+            eventHandlers.get(pair.first.getClass) match {
+              case Some(handler) =>
+                handler.asInstanceOf[(StatementBatchImpl, Event, Offset) => Unit](batch, pair.first, pair.second)
+              case None =>
+                if (log.isDebugEnabled)
+                  log.debug("Unhandled event [{}]", pair.first.getClass.getName)
+            }
+          }
+          batch.executeBatches()
+          Done.getInstance()
+        } finally batch.close()
+      }
   }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence.jdbc;
+
+import com.lightbend.lagom.javadsl.persistence.AggregateEventTag;
+import com.lightbend.lagom.javadsl.persistence.ReadSideProcessor;
+import com.lightbend.lagom.javadsl.persistence.TestEntity;
+import org.pcollections.PSequence;
+
+import javax.inject.Inject;
+import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A read side that processes the events in batches. The handler only adds inserts to a JDBC
+ * batch, since the batches of the other events of a group have not been executed when it is
+ * invoked.
+ */
+public class JdbcTestEntityBatchedReadSide {
+
+    private final JdbcSession session;
+
+    @Inject
+    public JdbcTestEntityBatchedReadSide(JdbcSession session) {
+        this.session = session;
+    }
+
+    public CompletionStage<Long> getAppendCount(String id) {
+        return session.withConnection(connection -> {
+            PreparedStatement statement = connection.prepareStatement("select count(*) from testelements where id = ?");
+            statement.setString(1, id);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                } else {
+                    return 0L;
+                }
+            }
+        });
+    }
+
+    public static class TestEntityBatchedReadSideProcessor extends ReadSideProcessor<TestEntity.Evt> {
+
+        private final JdbcReadSide readSide;
+
+        @Inject
+        public TestEntityBatchedReadSideProcessor(JdbcReadSide readSide) {
+            this.readSide = readSide;
+        }
+
+        @Override
+        public ReadSideHandler<TestEntity.Evt> buildHandler() {
+            return readSide.<TestEntity.Evt>builder("test-entity-batched-read-side")
+                    .setGlobalPrepare(this::createTable)
+                    .setBatchedEventHandler(TestEntity.Appended.class, this::insertElement)
+                    .setBatching(100, Duration.ofMillis(200))
+                    .build();
+        }
+
+        private void createTable(Connection connection) throws SQLException {
+            connection.prepareCall("create table if not exists testelements (id varchar, element varchar)")
+                    .execute();
+        }
+
+        private void insertElement(JdbcReadSide.StatementBatch batch, TestEntity.Appended event) throws SQLException {
+            PreparedStatement insert = batch.prepareStatement("insert into testelements values (?, ?)");
+            insert.setString(1, event.getEntityId());
+            insert.setString(2, event.getElement());
+            insert.addBatch();
+        }
+
+        @Override
+        public PSequence<AggregateEventTag<TestEntity.Evt>> aggregateTags() {
+            return TestEntity.Evt.aggregateTags;
+        }
+    }
+
+    public CompletionStage<List<String>> getLatestElements(String id) {
+        return session.withConnection(connection -> {
+            PreparedStatement statement = connection.prepareStatement("select element from latestelements where id = ?");
+            statement.setString(1, id);
+            List<String> elements = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    elements.add(rs.getString(1));
+                }
+            }
+            return elements;
+        });
+    }
+
+    /**
+     * A read side that keeps the latest element of each entity, with batched updates of different
+     * SQL that are interleaved with each other and with updates executed directly with the connection.
+     */
+    public static class LatestElementReadSideProcessor extends ReadSideProcessor<TestEntity.Evt> {
+
+        private final JdbcReadSide readSide;
+
+        @Inject
+        public LatestElementReadSideProcessor(JdbcReadSide readSide) {
+            this.readSide = readSide;
+        }
+
+        @Override
+        public ReadSideHandler<TestEntity.Evt> buildHandler() {
+            return readSide.<TestEntity.Evt>builder("test-entity-latest-element-read-side")
+                    .setGlobalPrepare(this::createTable)
+                    .setBatchedEventHandler(TestEntity.Appended.class, this::replaceElement)
+                    .setEventHandler(TestEntity.InPrependMode.class, this::clearElement)
+                    .setBatching(100, Duration.ofMillis(200))
+                    .build();
+        }
+
+        private void createTable(Connection connection) throws SQLException {
+            connection.prepareCall("create table if not exists latestelements (id varchar, element varchar)")
+                    .execute();
+        }
+
+        private void replaceElement(JdbcReadSide.StatementBatch batch, TestEntity.Appended event) throws SQLException {
+            PreparedStatement delete = batch.prepareStatement("delete from latestelements where id = ?");
+            delete.setString(1, event.getEntityId());
+            delete.addBatch();
+            PreparedStatement insert = batch.prepareStatement("insert into latestelements values (?, ?)");
+            insert.setString(1, event.getEntityId());
+            insert.setString(2, event.getElement());
+            insert.addBatch();
+        }
+
+        private void clearElement(Connection connection, TestEntity.InPrependMode event) throws SQLException {
+            PreparedStatement delete = connection.prepareStatement("delete from latestelements where id = ?");
+            delete.setString(1, event.getEntityId());
+            delete.executeUpdate();
+        }
+
+        @Override
+        public PSequence<AggregateEventTag<TestEntity.Evt>> aggregateTags() {
+            return TestEntity.Evt.aggregateTags;
+        }
+    }
+}
@@ -52,12 +52,12 @@ public class JdbcTestEntityReadSide {
                     .build();
         }
 
-        private void createTable(Connection connection) throws SQLException {
+        protected void createTable(Connection connection) throws SQLException {
             connection.prepareCall("create table if not exists testcounts (id varchar primary key, count bigint)")
                     .execute();
         }
 
-        private void updateCount(Connection connection, TestEntity.Appended event) throws SQLException {
+        protected void updateCount(Connection connection, TestEntity.Appended event) throws SQLException {
             PreparedStatement statement = connection.prepareStatement("select count from testcounts where id = ?");
             statement.setString(1, event.getEntityId());
             try (ResultSet rs = statement.executeQuery()) {
@@ -80,4 +80,28 @@ public class JdbcTestEntityReadSide {
             return TestEntity.Evt.aggregateTags;
         }
     }
+
+    /**
+     * Processes the events of different entities concurrently, which relies on the events of the
+     * same entity being processed in order, since the handler reads the count before updating it.
+     */
+    public static class TestEntityParallelReadSideProcessor extends TestEntityReadSideProcessor {
+
+        private final JdbcReadSide readSide;
+
+        @Inject
+        public TestEntityParallelReadSideProcessor(JdbcReadSide readSide) {
+            super(readSide);
+            this.readSide = readSide;
+        }
+
+        @Override
+        public ReadSideHandler<TestEntity.Evt> buildHandler() {
+            return readSide.<TestEntity.Evt>builder("test-entity-parallel-read-side")
+                    .setGlobalPrepare(this::createTable)
+                    .setEventHandler(TestEntity.Appended.class, this::updateCount)
+                    .setParallelism(4, TestEntity.Evt::getEntityId)
+                    .build();
+        }
+    }
 }
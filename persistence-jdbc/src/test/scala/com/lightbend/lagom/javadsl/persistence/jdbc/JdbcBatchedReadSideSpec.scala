@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence.jdbc
+
+import java.util.concurrent.CompletionStage
+
+import akka.NotUsed
+import akka.japi.Pair
+import akka.persistence.jdbc.query.scaladsl.JdbcReadJournal
+import akka.persistence.query.PersistenceQuery
+import akka.stream.ActorMaterializer
+import akka.stream.javadsl.Source
+import akka.stream.scaladsl.{ Sink, Source => ScalaSource }
+import com.lightbend.lagom.javadsl.persistence._
+import com.lightbend.lagom.javadsl.persistence.TestEntity.Evt
+
+import scala.collection.JavaConverters._
+import scala.compat.java8.FutureConverters._
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+class JdbcBatchedReadSideSpec extends JdbcPersistenceSpec with AbstractReadSideSpec {
+
+  lazy val readSide = new JdbcTestEntityBatchedReadSide(session)
+  lazy val queries = PersistenceQuery(system).readJournalFor[JdbcReadJournal](JdbcReadJournal.Identifier)
+
+  override def eventStream[Event <: AggregateEvent[Event]](aggregateTag: AggregateEventTag[Event], fromOffset: Offset): Source[Pair[Event, Offset], NotUsed] = {
+    val tag = aggregateTag.tag
+    val offset = fromOffset match {
+      case Offset.NONE          => 0l
+      case seq: Offset.Sequence => seq.value() + 1
+      case other                => throw new IllegalArgumentException(s"JDBC does not support ${other.getClass.getSimpleName} offsets")
+    }
+    queries.eventsByTag(tag, offset)
+      .map { env => Pair.create(env.event.asInstanceOf[Event], Offset.sequence(env.offset)) }
+      .asJava
+  }
+
+  override def processorFactory(): ReadSideProcessor[Evt] = {
+    new JdbcTestEntityBatchedReadSide.TestEntityBatchedReadSideProcessor(jdbcReadSide)
+  }
+
+  override def getAppendCount(id: String): CompletionStage[java.lang.Long] = {
+    readSide.getAppendCount(id)
+  }
+
+  "A JDBC read-side handler that processes the events in batches" must {
+
+    "execute interleaved statements in the order of the events" in {
+      implicit val mat = ActorMaterializer()
+      val handler = new JdbcTestEntityBatchedReadSide.LatestElementReadSideProcessor(jdbcReadSide).buildHandler()
+      val tag = TestEntity.Evt.aggregateTags.get(0)
+      Await.result(handler.globalPrepare().toScala, 20.seconds)
+      Await.result(handler.prepare(tag).toScala, 10.seconds)
+
+      val events = List(
+        new TestEntity.Appended("1", "A"),
+        new TestEntity.Appended("1", "B"),
+        new TestEntity.InPrependMode("1"),
+        new TestEntity.Appended("1", "C"),
+        new TestEntity.Appended("2", "D"),
+        new TestEntity.InPrependMode("2")
+      )
+      Await.result(ScalaSource(events.zipWithIndex).map {
+        case (event, i) => Pair.create[Evt, Offset](event, Offset.sequence(i + 1))
+      }.via(handler.handle()).runWith(Sink.ignore), 10.seconds)
+
+      Await.result(readSide.getLatestElements("1").toScala, 10.seconds).asScala should ===(Seq("C"))
+      Await.result(readSide.getLatestElements("2").toScala, 10.seconds).asScala shouldBe empty
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence.jdbc
+
+import akka.japi.Pair
+import akka.stream.ActorMaterializer
+import akka.stream.scaladsl.{ Sink, Source }
+import com.lightbend.lagom.javadsl.persistence.{ Offset, TestEntity }
+import com.typesafe.config.ConfigFactory
+
+import scala.compat.java8.FutureConverters._
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+class JdbcOffsetCommitSpec extends JdbcPersistenceSpec(ConfigFactory.parseString(
+  """
+  lagom.persistence.read-side.offset-commit {
+    policy = every-n-events
+    n-events = 2
+  }
+  """
+)) {
+
+  private implicit val mat = ActorMaterializer()
+
+  private lazy val readSide = new JdbcTestEntityReadSide(session)
+  private val tag = TestEntity.Evt.aggregateTags.get(0)
+
+  private def events(from: Int, to: Int) = Source(from to to).map { i =>
+    Pair.create[TestEntity.Evt, Offset](new TestEntity.Appended("1", s"E$i"), Offset.sequence(i))
+  }
+
+  private def appendCount: Long =
+    Await.result(readSide.getAppendCount("1").toScala, 10.seconds).longValue
+
+  "A JDBC read-side handler that commits the offset every 2 events" must {
+
+    "process the events after the last committed offset again" in {
+      val processor = new JdbcTestEntityReadSide.TestEntityReadSideProcessor(jdbcReadSide)
+      val handler = processor.buildHandler()
+      Await.result(handler.globalPrepare().toScala, 20.seconds)
+      Await.result(handler.prepare(tag).toScala, 10.seconds) should ===(Offset.NONE)
+      Await.result(events(1, 5).via(handler.handle()).runWith(Sink.ignore), 10.seconds)
+      appendCount should ===(5L)
+
+      // the offset of the 5th event was not committed, so it is delivered again
+      val restarted = processor.buildHandler()
+      Await.result(restarted.prepare(tag).toScala, 10.seconds) should ===(Offset.sequence(4))
+      Await.result(events(5, 5).via(restarted.handle()).runWith(Sink.ignore), 10.seconds)
+      appendCount should ===(6L)
+    }
+  }
+
+}
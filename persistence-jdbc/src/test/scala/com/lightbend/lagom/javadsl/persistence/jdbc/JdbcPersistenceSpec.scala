@@ -35,6 +35,7 @@ abstract class JdbcPersistenceSpec(_system: ActorSystem) extends ActorSystemSpec
   protected lazy val slick = new SlickProvider(system, null)
   protected lazy val session: JdbcSession = new JdbcSessionImpl(slick)
   protected lazy val jdbcReadSide: JdbcReadSide = new JdbcReadSideImpl(
+    system,
     slick,
     new JdbcOffsetStore(slick, new OffsetTableConfiguration(Configuration(system.settings.config)))
   )
@@ -3,6 +3,13 @@
  */
 package com.lightbend.lagom.javadsl.persistence.jdbc
 
+import akka.persistence.jdbc.query.scaladsl.JdbcReadJournal
+import akka.persistence.query.PersistenceQuery
+import com.lightbend.lagom.internal.persistence.ReadReplicaActor
 import com.lightbend.lagom.javadsl.persistence.AbstractPersistentEntityActorSpec
 
-class JdbcPersistentEntityActorSpec extends JdbcPersistenceSpec with AbstractPersistentEntityActorSpec
+class JdbcPersistentEntityActorSpec extends JdbcPersistenceSpec with AbstractPersistentEntityActorSpec {
+
+  override lazy val eventsQuery: ReadReplicaActor.EventsQuery =
+    PersistenceQuery(system).readJournalFor[JdbcReadJournal](JdbcReadJournal.Identifier)
+}
@@ -1711,6 +1711,6151 @@ public final class PersistenceMessages {
     // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.EnsureActive)
   }
 
+  public interface CommandEnvelopeBatchOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:com.lightbend.lagom.internal.persistence.CommandEnvelopeBatch)
+      akka.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope> 
+        getCommandsList();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope getCommands(int index);
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    int getCommandsCount();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder> 
+        getCommandsOrBuilderList();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder getCommandsOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code com.lightbend.lagom.internal.persistence.CommandEnvelopeBatch}
+   */
+  public static final class CommandEnvelopeBatch extends
+      akka.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:com.lightbend.lagom.internal.persistence.CommandEnvelopeBatch)
+      CommandEnvelopeBatchOrBuilder {
+    // Use CommandEnvelopeBatch.newBuilder() to construct.
+    private CommandEnvelopeBatch(akka.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private CommandEnvelopeBatch(boolean noInit) { this.unknownFields = akka.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final CommandEnvelopeBatch defaultInstance;
+    public static CommandEnvelopeBatch getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public CommandEnvelopeBatch getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final akka.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final akka.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private CommandEnvelopeBatch(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      akka.protobuf.UnknownFieldSet.Builder unknownFields =
+          akka.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                commands_ = new java.util.ArrayList<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              commands_.add(input.readMessage(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.PARSER, extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (akka.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new akka.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          commands_ = java.util.Collections.unmodifiableList(commands_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final akka.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_descriptor;
+    }
+
+    protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch.Builder.class);
+    }
+
+    public static akka.protobuf.Parser<CommandEnvelopeBatch> PARSER =
+        new akka.protobuf.AbstractParser<CommandEnvelopeBatch>() {
+      public CommandEnvelopeBatch parsePartialFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws akka.protobuf.InvalidProtocolBufferException {
+        return new CommandEnvelopeBatch(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public akka.protobuf.Parser<CommandEnvelopeBatch> getParserForType() {
+      return PARSER;
+    }
+
+    public static final int COMMANDS_FIELD_NUMBER = 1;
+    private java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope> commands_;
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope> getCommandsList() {
+      return commands_;
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    public java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder> 
+        getCommandsOrBuilderList() {
+      return commands_;
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    public int getCommandsCount() {
+      return commands_.size();
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope getCommands(int index) {
+      return commands_.get(index);
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+     */
+    public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder getCommandsOrBuilder(
+        int index) {
+      return commands_.get(index);
+    }
+
+    private void initFields() {
+      commands_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      for (int i = 0; i < getCommandsCount(); i++) {
+        if (!getCommands(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(akka.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      for (int i = 0; i < commands_.size(); i++) {
+        output.writeMessage(1, commands_.get(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < commands_.size(); i++) {
+        size += akka.protobuf.CodedOutputStream
+          .computeMessageSize(1, commands_.get(i));
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseFrom(
+        akka.protobuf.ByteString data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseFrom(
+        akka.protobuf.ByteString data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseFrom(byte[] data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseFrom(
+        byte[] data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseDelimitedFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseFrom(
+        akka.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parseFrom(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        akka.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code com.lightbend.lagom.internal.persistence.CommandEnvelopeBatch}
+     */
+    public static final class Builder extends
+        akka.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:com.lightbend.lagom.internal.persistence.CommandEnvelopeBatch)
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatchOrBuilder {
+      public static final akka.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_descriptor;
+      }
+
+      protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch.Builder.class);
+      }
+
+      // Construct using com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          akka.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getCommandsFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (commandsBuilder_ == null) {
+          commands_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          commandsBuilder_.clear();
+        }
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public akka.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_descriptor;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch getDefaultInstanceForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch.getDefaultInstance();
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch build() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch buildPartial() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch result = new com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch(this);
+        int from_bitField0_ = bitField0_;
+        if (commandsBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+            commands_ = java.util.Collections.unmodifiableList(commands_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.commands_ = commands_;
+        } else {
+          result.commands_ = commandsBuilder_.build();
+        }
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(akka.protobuf.Message other) {
+        if (other instanceof com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch) {
+          return mergeFrom((com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch other) {
+        if (other == com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch.getDefaultInstance()) return this;
+        if (commandsBuilder_ == null) {
+          if (!other.commands_.isEmpty()) {
+            if (commands_.isEmpty()) {
+              commands_ = other.commands_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureCommandsIsMutable();
+              commands_.addAll(other.commands_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.commands_.isEmpty()) {
+            if (commandsBuilder_.isEmpty()) {
+              commandsBuilder_.dispose();
+              commandsBuilder_ = null;
+              commands_ = other.commands_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              commandsBuilder_ = 
+                akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getCommandsFieldBuilder() : null;
+            } else {
+              commandsBuilder_.addAllMessages(other.commands_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        for (int i = 0; i < getCommandsCount(); i++) {
+          if (!getCommands(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (akka.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeBatch) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope> commands_ =
+        java.util.Collections.emptyList();
+      private void ensureCommandsIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          commands_ = new java.util.ArrayList<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope>(commands_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private akka.protobuf.RepeatedFieldBuilder<
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder> commandsBuilder_;
+
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope> getCommandsList() {
+        if (commandsBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(commands_);
+        } else {
+          return commandsBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public int getCommandsCount() {
+        if (commandsBuilder_ == null) {
+          return commands_.size();
+        } else {
+          return commandsBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope getCommands(int index) {
+        if (commandsBuilder_ == null) {
+          return commands_.get(index);
+        } else {
+          return commandsBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder setCommands(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope value) {
+        if (commandsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureCommandsIsMutable();
+          commands_.set(index, value);
+          onChanged();
+        } else {
+          commandsBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder setCommands(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder builderForValue) {
+        if (commandsBuilder_ == null) {
+          ensureCommandsIsMutable();
+          commands_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          commandsBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder addCommands(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope value) {
+        if (commandsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureCommandsIsMutable();
+          commands_.add(value);
+          onChanged();
+        } else {
+          commandsBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder addCommands(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope value) {
+        if (commandsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureCommandsIsMutable();
+          commands_.add(index, value);
+          onChanged();
+        } else {
+          commandsBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder addCommands(
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder builderForValue) {
+        if (commandsBuilder_ == null) {
+          ensureCommandsIsMutable();
+          commands_.add(builderForValue.build());
+          onChanged();
+        } else {
+          commandsBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder addCommands(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder builderForValue) {
+        if (commandsBuilder_ == null) {
+          ensureCommandsIsMutable();
+          commands_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          commandsBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder addAllCommands(
+          java.lang.Iterable<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope> values) {
+        if (commandsBuilder_ == null) {
+          ensureCommandsIsMutable();
+          akka.protobuf.AbstractMessageLite.Builder.addAll(
+              values, commands_);
+          onChanged();
+        } else {
+          commandsBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder clearCommands() {
+        if (commandsBuilder_ == null) {
+          commands_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          commandsBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public Builder removeCommands(int index) {
+        if (commandsBuilder_ == null) {
+          ensureCommandsIsMutable();
+          commands_.remove(index);
+          onChanged();
+        } else {
+          commandsBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder getCommandsBuilder(
+          int index) {
+        return getCommandsFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder getCommandsOrBuilder(
+          int index) {
+        if (commandsBuilder_ == null) {
+          return commands_.get(index);  } else {
+          return commandsBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder> 
+           getCommandsOrBuilderList() {
+        if (commandsBuilder_ != null) {
+          return commandsBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(commands_);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder addCommandsBuilder() {
+        return getCommandsFieldBuilder().addBuilder(
+            com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder addCommandsBuilder(
+          int index) {
+        return getCommandsFieldBuilder().addBuilder(
+            index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.CommandEnvelope commands = 1;</code>
+       */
+      public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder> 
+           getCommandsBuilderList() {
+        return getCommandsFieldBuilder().getBuilderList();
+      }
+      private akka.protobuf.RepeatedFieldBuilder<
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder> 
+          getCommandsFieldBuilder() {
+        if (commandsBuilder_ == null) {
+          commandsBuilder_ = new akka.protobuf.RepeatedFieldBuilder<
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelope.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.CommandEnvelopeOrBuilder>(
+                  commands_,
+                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  getParentForChildren(),
+                  isClean());
+          commands_ = null;
+        }
+        return commandsBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:com.lightbend.lagom.internal.persistence.CommandEnvelopeBatch)
+    }
+
+    static {
+      defaultInstance = new CommandEnvelopeBatch(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.CommandEnvelopeBatch)
+  }
+
+  public interface SequencedMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:com.lightbend.lagom.internal.persistence.SequencedMessage)
+      akka.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required int64 sequenceNr = 1;</code>
+     */
+    boolean hasSequenceNr();
+    /**
+     * <code>required int64 sequenceNr = 1;</code>
+     */
+    long getSequenceNr();
+
+    /**
+     * <code>required bytes enclosedMessage = 2;</code>
+     */
+    boolean hasEnclosedMessage();
+    /**
+     * <code>required bytes enclosedMessage = 2;</code>
+     */
+    akka.protobuf.ByteString getEnclosedMessage();
+
+    /**
+     * <code>required int32 serializerId = 3;</code>
+     */
+    boolean hasSerializerId();
+    /**
+     * <code>required int32 serializerId = 3;</code>
+     */
+    int getSerializerId();
+
+    /**
+     * <code>optional bytes messageManifest = 4;</code>
+     */
+    boolean hasMessageManifest();
+    /**
+     * <code>optional bytes messageManifest = 4;</code>
+     */
+    akka.protobuf.ByteString getMessageManifest();
+  }
+  /**
+   * Protobuf type {@code com.lightbend.lagom.internal.persistence.SequencedMessage}
+   */
+  public static final class SequencedMessage extends
+      akka.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:com.lightbend.lagom.internal.persistence.SequencedMessage)
+      SequencedMessageOrBuilder {
+    // Use SequencedMessage.newBuilder() to construct.
+    private SequencedMessage(akka.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private SequencedMessage(boolean noInit) { this.unknownFields = akka.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final SequencedMessage defaultInstance;
+    public static SequencedMessage getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public SequencedMessage getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final akka.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final akka.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private SequencedMessage(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      akka.protobuf.UnknownFieldSet.Builder unknownFields =
+          akka.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              sequenceNr_ = input.readInt64();
+              break;
+            }
+            case 18: {
+              bitField0_ |= 0x00000002;
+              enclosedMessage_ = input.readBytes();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              serializerId_ = input.readInt32();
+              break;
+            }
+            case 34: {
+              bitField0_ |= 0x00000008;
+              messageManifest_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (akka.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new akka.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final akka.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_descriptor;
+    }
+
+    protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage.Builder.class);
+    }
+
+    public static akka.protobuf.Parser<SequencedMessage> PARSER =
+        new akka.protobuf.AbstractParser<SequencedMessage>() {
+      public SequencedMessage parsePartialFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws akka.protobuf.InvalidProtocolBufferException {
+        return new SequencedMessage(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public akka.protobuf.Parser<SequencedMessage> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int SEQUENCENR_FIELD_NUMBER = 1;
+    private long sequenceNr_;
+    /**
+     * <code>required int64 sequenceNr = 1;</code>
+     */
+    public boolean hasSequenceNr() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required int64 sequenceNr = 1;</code>
+     */
+    public long getSequenceNr() {
+      return sequenceNr_;
+    }
+
+    public static final int ENCLOSEDMESSAGE_FIELD_NUMBER = 2;
+    private akka.protobuf.ByteString enclosedMessage_;
+    /**
+     * <code>required bytes enclosedMessage = 2;</code>
+     */
+    public boolean hasEnclosedMessage() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required bytes enclosedMessage = 2;</code>
+     */
+    public akka.protobuf.ByteString getEnclosedMessage() {
+      return enclosedMessage_;
+    }
+
+    public static final int SERIALIZERID_FIELD_NUMBER = 3;
+    private int serializerId_;
+    /**
+     * <code>required int32 serializerId = 3;</code>
+     */
+    public boolean hasSerializerId() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>required int32 serializerId = 3;</code>
+     */
+    public int getSerializerId() {
+      return serializerId_;
+    }
+
+    public static final int MESSAGEMANIFEST_FIELD_NUMBER = 4;
+    private akka.protobuf.ByteString messageManifest_;
+    /**
+     * <code>optional bytes messageManifest = 4;</code>
+     */
+    public boolean hasMessageManifest() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional bytes messageManifest = 4;</code>
+     */
+    public akka.protobuf.ByteString getMessageManifest() {
+      return messageManifest_;
+    }
+
+    private void initFields() {
+      sequenceNr_ = 0L;
+      enclosedMessage_ = akka.protobuf.ByteString.EMPTY;
+      serializerId_ = 0;
+      messageManifest_ = akka.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasSequenceNr()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasEnclosedMessage()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasSerializerId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(akka.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeInt64(1, sequenceNr_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, enclosedMessage_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeInt32(3, serializerId_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBytes(4, messageManifest_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeInt64Size(1, sequenceNr_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(2, enclosedMessage_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeInt32Size(3, serializerId_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(4, messageManifest_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseFrom(
+        akka.protobuf.ByteString data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseFrom(
+        akka.protobuf.ByteString data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseFrom(byte[] data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseFrom(
+        byte[] data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseFrom(
+        akka.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parseFrom(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        akka.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code com.lightbend.lagom.internal.persistence.SequencedMessage}
+     */
+    public static final class Builder extends
+        akka.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:com.lightbend.lagom.internal.persistence.SequencedMessage)
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessageOrBuilder {
+      public static final akka.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_descriptor;
+      }
+
+      protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage.Builder.class);
+      }
+
+      // Construct using com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          akka.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        sequenceNr_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        enclosedMessage_ = akka.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        serializerId_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        messageManifest_ = akka.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public akka.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_descriptor;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage getDefaultInstanceForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage.getDefaultInstance();
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage build() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage buildPartial() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage result = new com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.sequenceNr_ = sequenceNr_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.enclosedMessage_ = enclosedMessage_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.serializerId_ = serializerId_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.messageManifest_ = messageManifest_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(akka.protobuf.Message other) {
+        if (other instanceof com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage) {
+          return mergeFrom((com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage other) {
+        if (other == com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage.getDefaultInstance()) return this;
+        if (other.hasSequenceNr()) {
+          setSequenceNr(other.getSequenceNr());
+        }
+        if (other.hasEnclosedMessage()) {
+          setEnclosedMessage(other.getEnclosedMessage());
+        }
+        if (other.hasSerializerId()) {
+          setSerializerId(other.getSerializerId());
+        }
+        if (other.hasMessageManifest()) {
+          setMessageManifest(other.getMessageManifest());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasSequenceNr()) {
+          
+          return false;
+        }
+        if (!hasEnclosedMessage()) {
+          
+          return false;
+        }
+        if (!hasSerializerId()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (akka.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.SequencedMessage) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private long sequenceNr_ ;
+      /**
+       * <code>required int64 sequenceNr = 1;</code>
+       */
+      public boolean hasSequenceNr() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required int64 sequenceNr = 1;</code>
+       */
+      public long getSequenceNr() {
+        return sequenceNr_;
+      }
+      /**
+       * <code>required int64 sequenceNr = 1;</code>
+       */
+      public Builder setSequenceNr(long value) {
+        bitField0_ |= 0x00000001;
+        sequenceNr_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 sequenceNr = 1;</code>
+       */
+      public Builder clearSequenceNr() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        sequenceNr_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private akka.protobuf.ByteString enclosedMessage_ = akka.protobuf.ByteString.EMPTY;
+      /**
+       * <code>required bytes enclosedMessage = 2;</code>
+       */
+      public boolean hasEnclosedMessage() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required bytes enclosedMessage = 2;</code>
+       */
+      public akka.protobuf.ByteString getEnclosedMessage() {
+        return enclosedMessage_;
+      }
+      /**
+       * <code>required bytes enclosedMessage = 2;</code>
+       */
+      public Builder setEnclosedMessage(akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        enclosedMessage_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required bytes enclosedMessage = 2;</code>
+       */
+      public Builder clearEnclosedMessage() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        enclosedMessage_ = getDefaultInstance().getEnclosedMessage();
+        onChanged();
+        return this;
+      }
+
+      private int serializerId_ ;
+      /**
+       * <code>required int32 serializerId = 3;</code>
+       */
+      public boolean hasSerializerId() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required int32 serializerId = 3;</code>
+       */
+      public int getSerializerId() {
+        return serializerId_;
+      }
+      /**
+       * <code>required int32 serializerId = 3;</code>
+       */
+      public Builder setSerializerId(int value) {
+        bitField0_ |= 0x00000004;
+        serializerId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int32 serializerId = 3;</code>
+       */
+      public Builder clearSerializerId() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        serializerId_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private akka.protobuf.ByteString messageManifest_ = akka.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes messageManifest = 4;</code>
+       */
+      public boolean hasMessageManifest() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional bytes messageManifest = 4;</code>
+       */
+      public akka.protobuf.ByteString getMessageManifest() {
+        return messageManifest_;
+      }
+      /**
+       * <code>optional bytes messageManifest = 4;</code>
+       */
+      public Builder setMessageManifest(akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        messageManifest_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes messageManifest = 4;</code>
+       */
+      public Builder clearMessageManifest() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        messageManifest_ = getDefaultInstance().getMessageManifest();
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:com.lightbend.lagom.internal.persistence.SequencedMessage)
+    }
+
+    static {
+      defaultInstance = new SequencedMessage(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.SequencedMessage)
+  }
+
+  public interface EntityTimerOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:com.lightbend.lagom.internal.persistence.EntityTimer)
+      akka.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    boolean hasEntityTypeName();
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    java.lang.String getEntityTypeName();
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    akka.protobuf.ByteString
+        getEntityTypeNameBytes();
+
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    boolean hasEntityId();
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    java.lang.String getEntityId();
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    akka.protobuf.ByteString
+        getEntityIdBytes();
+
+    /**
+     * <code>required string timerKey = 3;</code>
+     */
+    boolean hasTimerKey();
+    /**
+     * <code>required string timerKey = 3;</code>
+     */
+    java.lang.String getTimerKey();
+    /**
+     * <code>required string timerKey = 3;</code>
+     */
+    akka.protobuf.ByteString
+        getTimerKeyBytes();
+
+    /**
+     * <code>optional int64 deadline = 4;</code>
+     */
+    boolean hasDeadline();
+    /**
+     * <code>optional int64 deadline = 4;</code>
+     */
+    long getDeadline();
+
+    /**
+     * <code>optional bytes enclosedMessage = 5;</code>
+     */
+    boolean hasEnclosedMessage();
+    /**
+     * <code>optional bytes enclosedMessage = 5;</code>
+     */
+    akka.protobuf.ByteString getEnclosedMessage();
+
+    /**
+     * <code>optional int32 serializerId = 6;</code>
+     */
+    boolean hasSerializerId();
+    /**
+     * <code>optional int32 serializerId = 6;</code>
+     */
+    int getSerializerId();
+
+    /**
+     * <code>optional bytes messageManifest = 7;</code>
+     */
+    boolean hasMessageManifest();
+    /**
+     * <code>optional bytes messageManifest = 7;</code>
+     */
+    akka.protobuf.ByteString getMessageManifest();
+  }
+  /**
+   * Protobuf type {@code com.lightbend.lagom.internal.persistence.EntityTimer}
+   */
+  public static final class EntityTimer extends
+      akka.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:com.lightbend.lagom.internal.persistence.EntityTimer)
+      EntityTimerOrBuilder {
+    // Use EntityTimer.newBuilder() to construct.
+    private EntityTimer(akka.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private EntityTimer(boolean noInit) { this.unknownFields = akka.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final EntityTimer defaultInstance;
+    public static EntityTimer getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public EntityTimer getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final akka.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final akka.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private EntityTimer(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      akka.protobuf.UnknownFieldSet.Builder unknownFields =
+          akka.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              entityTypeName_ = bs;
+              break;
+            }
+            case 18: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              entityId_ = bs;
+              break;
+            }
+            case 26: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000004;
+              timerKey_ = bs;
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              deadline_ = input.readInt64();
+              break;
+            }
+            case 42: {
+              bitField0_ |= 0x00000010;
+              enclosedMessage_ = input.readBytes();
+              break;
+            }
+            case 48: {
+              bitField0_ |= 0x00000020;
+              serializerId_ = input.readInt32();
+              break;
+            }
+            case 58: {
+              bitField0_ |= 0x00000040;
+              messageManifest_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (akka.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new akka.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final akka.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_descriptor;
+    }
+
+    protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder.class);
+    }
+
+    public static akka.protobuf.Parser<EntityTimer> PARSER =
+        new akka.protobuf.AbstractParser<EntityTimer>() {
+      public EntityTimer parsePartialFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws akka.protobuf.InvalidProtocolBufferException {
+        return new EntityTimer(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public akka.protobuf.Parser<EntityTimer> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int ENTITYTYPENAME_FIELD_NUMBER = 1;
+    private java.lang.Object entityTypeName_;
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public boolean hasEntityTypeName() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public java.lang.String getEntityTypeName() {
+      java.lang.Object ref = entityTypeName_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          entityTypeName_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public akka.protobuf.ByteString
+        getEntityTypeNameBytes() {
+      java.lang.Object ref = entityTypeName_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        entityTypeName_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int ENTITYID_FIELD_NUMBER = 2;
+    private java.lang.Object entityId_;
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    public boolean hasEntityId() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    public java.lang.String getEntityId() {
+      java.lang.Object ref = entityId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          entityId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    public akka.protobuf.ByteString
+        getEntityIdBytes() {
+      java.lang.Object ref = entityId_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        entityId_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int TIMERKEY_FIELD_NUMBER = 3;
+    private java.lang.Object timerKey_;
+    /**
+     * <code>required string timerKey = 3;</code>
+     */
+    public boolean hasTimerKey() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>required string timerKey = 3;</code>
+     */
+    public java.lang.String getTimerKey() {
+      java.lang.Object ref = timerKey_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          timerKey_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string timerKey = 3;</code>
+     */
+    public akka.protobuf.ByteString
+        getTimerKeyBytes() {
+      java.lang.Object ref = timerKey_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        timerKey_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int DEADLINE_FIELD_NUMBER = 4;
+    private long deadline_;
+    /**
+     * <code>optional int64 deadline = 4;</code>
+     */
+    public boolean hasDeadline() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional int64 deadline = 4;</code>
+     */
+    public long getDeadline() {
+      return deadline_;
+    }
+
+    public static final int ENCLOSEDMESSAGE_FIELD_NUMBER = 5;
+    private akka.protobuf.ByteString enclosedMessage_;
+    /**
+     * <code>optional bytes enclosedMessage = 5;</code>
+     */
+    public boolean hasEnclosedMessage() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>optional bytes enclosedMessage = 5;</code>
+     */
+    public akka.protobuf.ByteString getEnclosedMessage() {
+      return enclosedMessage_;
+    }
+
+    public static final int SERIALIZERID_FIELD_NUMBER = 6;
+    private int serializerId_;
+    /**
+     * <code>optional int32 serializerId = 6;</code>
+     */
+    public boolean hasSerializerId() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>optional int32 serializerId = 6;</code>
+     */
+    public int getSerializerId() {
+      return serializerId_;
+    }
+
+    public static final int MESSAGEMANIFEST_FIELD_NUMBER = 7;
+    private akka.protobuf.ByteString messageManifest_;
+    /**
+     * <code>optional bytes messageManifest = 7;</code>
+     */
+    public boolean hasMessageManifest() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <code>optional bytes messageManifest = 7;</code>
+     */
+    public akka.protobuf.ByteString getMessageManifest() {
+      return messageManifest_;
+    }
+
+    private void initFields() {
+      entityTypeName_ = "";
+      entityId_ = "";
+      timerKey_ = "";
+      deadline_ = 0L;
+      enclosedMessage_ = akka.protobuf.ByteString.EMPTY;
+      serializerId_ = 0;
+      messageManifest_ = akka.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasEntityTypeName()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasEntityId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasTimerKey()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(akka.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, getEntityTypeNameBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getEntityIdBytes());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBytes(3, getTimerKeyBytes());
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeInt64(4, deadline_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeBytes(5, enclosedMessage_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeInt32(6, serializerId_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        output.writeBytes(7, messageManifest_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(1, getEntityTypeNameBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(2, getEntityIdBytes());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(3, getTimerKeyBytes());
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeInt64Size(4, deadline_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(5, enclosedMessage_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeInt32Size(6, serializerId_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(7, messageManifest_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseFrom(
+        akka.protobuf.ByteString data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseFrom(
+        akka.protobuf.ByteString data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseFrom(byte[] data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseFrom(
+        byte[] data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseDelimitedFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseFrom(
+        akka.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parseFrom(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        akka.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code com.lightbend.lagom.internal.persistence.EntityTimer}
+     */
+    public static final class Builder extends
+        akka.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:com.lightbend.lagom.internal.persistence.EntityTimer)
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder {
+      public static final akka.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_descriptor;
+      }
+
+      protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder.class);
+      }
+
+      // Construct using com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          akka.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        entityTypeName_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        entityId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        timerKey_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
+        deadline_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        enclosedMessage_ = akka.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        serializerId_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        messageManifest_ = akka.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public akka.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_descriptor;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer getDefaultInstanceForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.getDefaultInstance();
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer build() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer buildPartial() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer result = new com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.entityTypeName_ = entityTypeName_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.entityId_ = entityId_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.timerKey_ = timerKey_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.deadline_ = deadline_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.enclosedMessage_ = enclosedMessage_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.serializerId_ = serializerId_;
+        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.messageManifest_ = messageManifest_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(akka.protobuf.Message other) {
+        if (other instanceof com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer) {
+          return mergeFrom((com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer other) {
+        if (other == com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.getDefaultInstance()) return this;
+        if (other.hasEntityTypeName()) {
+          bitField0_ |= 0x00000001;
+          entityTypeName_ = other.entityTypeName_;
+          onChanged();
+        }
+        if (other.hasEntityId()) {
+          bitField0_ |= 0x00000002;
+          entityId_ = other.entityId_;
+          onChanged();
+        }
+        if (other.hasTimerKey()) {
+          bitField0_ |= 0x00000004;
+          timerKey_ = other.timerKey_;
+          onChanged();
+        }
+        if (other.hasDeadline()) {
+          setDeadline(other.getDeadline());
+        }
+        if (other.hasEnclosedMessage()) {
+          setEnclosedMessage(other.getEnclosedMessage());
+        }
+        if (other.hasSerializerId()) {
+          setSerializerId(other.getSerializerId());
+        }
+        if (other.hasMessageManifest()) {
+          setMessageManifest(other.getMessageManifest());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasEntityTypeName()) {
+          
+          return false;
+        }
+        if (!hasEntityId()) {
+          
+          return false;
+        }
+        if (!hasTimerKey()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (akka.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object entityTypeName_ = "";
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public boolean hasEntityTypeName() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public java.lang.String getEntityTypeName() {
+        java.lang.Object ref = entityTypeName_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            entityTypeName_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public akka.protobuf.ByteString
+          getEntityTypeNameBytes() {
+        java.lang.Object ref = entityTypeName_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          entityTypeName_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder setEntityTypeName(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        entityTypeName_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder clearEntityTypeName() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        entityTypeName_ = getDefaultInstance().getEntityTypeName();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder setEntityTypeNameBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        entityTypeName_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object entityId_ = "";
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public boolean hasEntityId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public java.lang.String getEntityId() {
+        java.lang.Object ref = entityId_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            entityId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public akka.protobuf.ByteString
+          getEntityIdBytes() {
+        java.lang.Object ref = entityId_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          entityId_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public Builder setEntityId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        entityId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public Builder clearEntityId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        entityId_ = getDefaultInstance().getEntityId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public Builder setEntityIdBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        entityId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object timerKey_ = "";
+      /**
+       * <code>required string timerKey = 3;</code>
+       */
+      public boolean hasTimerKey() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required string timerKey = 3;</code>
+       */
+      public java.lang.String getTimerKey() {
+        java.lang.Object ref = timerKey_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            timerKey_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string timerKey = 3;</code>
+       */
+      public akka.protobuf.ByteString
+          getTimerKeyBytes() {
+        java.lang.Object ref = timerKey_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          timerKey_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string timerKey = 3;</code>
+       */
+      public Builder setTimerKey(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        timerKey_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string timerKey = 3;</code>
+       */
+      public Builder clearTimerKey() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        timerKey_ = getDefaultInstance().getTimerKey();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string timerKey = 3;</code>
+       */
+      public Builder setTimerKeyBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        timerKey_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long deadline_ ;
+      /**
+       * <code>optional int64 deadline = 4;</code>
+       */
+      public boolean hasDeadline() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional int64 deadline = 4;</code>
+       */
+      public long getDeadline() {
+        return deadline_;
+      }
+      /**
+       * <code>optional int64 deadline = 4;</code>
+       */
+      public Builder setDeadline(long value) {
+        bitField0_ |= 0x00000008;
+        deadline_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int64 deadline = 4;</code>
+       */
+      public Builder clearDeadline() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        deadline_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private akka.protobuf.ByteString enclosedMessage_ = akka.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes enclosedMessage = 5;</code>
+       */
+      public boolean hasEnclosedMessage() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional bytes enclosedMessage = 5;</code>
+       */
+      public akka.protobuf.ByteString getEnclosedMessage() {
+        return enclosedMessage_;
+      }
+      /**
+       * <code>optional bytes enclosedMessage = 5;</code>
+       */
+      public Builder setEnclosedMessage(akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000010;
+        enclosedMessage_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes enclosedMessage = 5;</code>
+       */
+      public Builder clearEnclosedMessage() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        enclosedMessage_ = getDefaultInstance().getEnclosedMessage();
+        onChanged();
+        return this;
+      }
+
+      private int serializerId_ ;
+      /**
+       * <code>optional int32 serializerId = 6;</code>
+       */
+      public boolean hasSerializerId() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional int32 serializerId = 6;</code>
+       */
+      public int getSerializerId() {
+        return serializerId_;
+      }
+      /**
+       * <code>optional int32 serializerId = 6;</code>
+       */
+      public Builder setSerializerId(int value) {
+        bitField0_ |= 0x00000020;
+        serializerId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 serializerId = 6;</code>
+       */
+      public Builder clearSerializerId() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        serializerId_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private akka.protobuf.ByteString messageManifest_ = akka.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes messageManifest = 7;</code>
+       */
+      public boolean hasMessageManifest() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <code>optional bytes messageManifest = 7;</code>
+       */
+      public akka.protobuf.ByteString getMessageManifest() {
+        return messageManifest_;
+      }
+      /**
+       * <code>optional bytes messageManifest = 7;</code>
+       */
+      public Builder setMessageManifest(akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000040;
+        messageManifest_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes messageManifest = 7;</code>
+       */
+      public Builder clearMessageManifest() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        messageManifest_ = getDefaultInstance().getMessageManifest();
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:com.lightbend.lagom.internal.persistence.EntityTimer)
+    }
+
+    static {
+      defaultInstance = new EntityTimer(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.EntityTimer)
+  }
+
+  public interface EntityTimersOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:com.lightbend.lagom.internal.persistence.EntityTimers)
+      akka.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer> 
+        getTimersList();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer getTimers(int index);
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    int getTimersCount();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder> 
+        getTimersOrBuilderList();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder getTimersOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code com.lightbend.lagom.internal.persistence.EntityTimers}
+   */
+  public static final class EntityTimers extends
+      akka.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:com.lightbend.lagom.internal.persistence.EntityTimers)
+      EntityTimersOrBuilder {
+    // Use EntityTimers.newBuilder() to construct.
+    private EntityTimers(akka.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private EntityTimers(boolean noInit) { this.unknownFields = akka.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final EntityTimers defaultInstance;
+    public static EntityTimers getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public EntityTimers getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final akka.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final akka.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private EntityTimers(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      akka.protobuf.UnknownFieldSet.Builder unknownFields =
+          akka.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                timers_ = new java.util.ArrayList<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              timers_.add(input.readMessage(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.PARSER, extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (akka.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new akka.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          timers_ = java.util.Collections.unmodifiableList(timers_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final akka.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_descriptor;
+    }
+
+    protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers.Builder.class);
+    }
+
+    public static akka.protobuf.Parser<EntityTimers> PARSER =
+        new akka.protobuf.AbstractParser<EntityTimers>() {
+      public EntityTimers parsePartialFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws akka.protobuf.InvalidProtocolBufferException {
+        return new EntityTimers(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public akka.protobuf.Parser<EntityTimers> getParserForType() {
+      return PARSER;
+    }
+
+    public static final int COMMANDS_FIELD_NUMBER = 1;
+    private java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer> timers_;
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer> getTimersList() {
+      return timers_;
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    public java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder> 
+        getTimersOrBuilderList() {
+      return timers_;
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    public int getTimersCount() {
+      return timers_.size();
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer getTimers(int index) {
+      return timers_.get(index);
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+     */
+    public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder getTimersOrBuilder(
+        int index) {
+      return timers_.get(index);
+    }
+
+    private void initFields() {
+      timers_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      for (int i = 0; i < getTimersCount(); i++) {
+        if (!getTimers(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(akka.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      for (int i = 0; i < timers_.size(); i++) {
+        output.writeMessage(1, timers_.get(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < timers_.size(); i++) {
+        size += akka.protobuf.CodedOutputStream
+          .computeMessageSize(1, timers_.get(i));
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseFrom(
+        akka.protobuf.ByteString data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseFrom(
+        akka.protobuf.ByteString data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseFrom(byte[] data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseFrom(
+        byte[] data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseDelimitedFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseFrom(
+        akka.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parseFrom(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        akka.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code com.lightbend.lagom.internal.persistence.EntityTimers}
+     */
+    public static final class Builder extends
+        akka.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:com.lightbend.lagom.internal.persistence.EntityTimers)
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimersOrBuilder {
+      public static final akka.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_descriptor;
+      }
+
+      protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers.Builder.class);
+      }
+
+      // Construct using com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          akka.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getTimersFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (timersBuilder_ == null) {
+          timers_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          timersBuilder_.clear();
+        }
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public akka.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_descriptor;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers getDefaultInstanceForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers.getDefaultInstance();
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers build() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers buildPartial() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers result = new com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers(this);
+        int from_bitField0_ = bitField0_;
+        if (timersBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+            timers_ = java.util.Collections.unmodifiableList(timers_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.timers_ = timers_;
+        } else {
+          result.timers_ = timersBuilder_.build();
+        }
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(akka.protobuf.Message other) {
+        if (other instanceof com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers) {
+          return mergeFrom((com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers other) {
+        if (other == com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers.getDefaultInstance()) return this;
+        if (timersBuilder_ == null) {
+          if (!other.timers_.isEmpty()) {
+            if (timers_.isEmpty()) {
+              timers_ = other.timers_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureTimersIsMutable();
+              timers_.addAll(other.timers_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.timers_.isEmpty()) {
+            if (timersBuilder_.isEmpty()) {
+              timersBuilder_.dispose();
+              timersBuilder_ = null;
+              timers_ = other.timers_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              timersBuilder_ = 
+                akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getTimersFieldBuilder() : null;
+            } else {
+              timersBuilder_.addAllMessages(other.timers_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        for (int i = 0; i < getTimersCount(); i++) {
+          if (!getTimers(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (akka.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimers) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer> timers_ =
+        java.util.Collections.emptyList();
+      private void ensureTimersIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          timers_ = new java.util.ArrayList<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer>(timers_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private akka.protobuf.RepeatedFieldBuilder<
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder> timersBuilder_;
+
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer> getTimersList() {
+        if (timersBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(timers_);
+        } else {
+          return timersBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public int getTimersCount() {
+        if (timersBuilder_ == null) {
+          return timers_.size();
+        } else {
+          return timersBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer getTimers(int index) {
+        if (timersBuilder_ == null) {
+          return timers_.get(index);
+        } else {
+          return timersBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder setTimers(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer value) {
+        if (timersBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTimersIsMutable();
+          timers_.set(index, value);
+          onChanged();
+        } else {
+          timersBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder setTimers(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder builderForValue) {
+        if (timersBuilder_ == null) {
+          ensureTimersIsMutable();
+          timers_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          timersBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder addTimers(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer value) {
+        if (timersBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTimersIsMutable();
+          timers_.add(value);
+          onChanged();
+        } else {
+          timersBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder addTimers(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer value) {
+        if (timersBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTimersIsMutable();
+          timers_.add(index, value);
+          onChanged();
+        } else {
+          timersBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder addTimers(
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder builderForValue) {
+        if (timersBuilder_ == null) {
+          ensureTimersIsMutable();
+          timers_.add(builderForValue.build());
+          onChanged();
+        } else {
+          timersBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder addTimers(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder builderForValue) {
+        if (timersBuilder_ == null) {
+          ensureTimersIsMutable();
+          timers_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          timersBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder addAllTimers(
+          java.lang.Iterable<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer> values) {
+        if (timersBuilder_ == null) {
+          ensureTimersIsMutable();
+          akka.protobuf.AbstractMessageLite.Builder.addAll(
+              values, timers_);
+          onChanged();
+        } else {
+          timersBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder clearTimers() {
+        if (timersBuilder_ == null) {
+          timers_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          timersBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public Builder removeTimers(int index) {
+        if (timersBuilder_ == null) {
+          ensureTimersIsMutable();
+          timers_.remove(index);
+          onChanged();
+        } else {
+          timersBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder getTimersBuilder(
+          int index) {
+        return getTimersFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder getTimersOrBuilder(
+          int index) {
+        if (timersBuilder_ == null) {
+          return timers_.get(index);  } else {
+          return timersBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder> 
+           getTimersOrBuilderList() {
+        if (timersBuilder_ != null) {
+          return timersBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(timers_);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder addTimersBuilder() {
+        return getTimersFieldBuilder().addBuilder(
+            com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder addTimersBuilder(
+          int index) {
+        return getTimersFieldBuilder().addBuilder(
+            index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.EntityTimer timers = 1;</code>
+       */
+      public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder> 
+           getTimersBuilderList() {
+        return getTimersFieldBuilder().getBuilderList();
+      }
+      private akka.protobuf.RepeatedFieldBuilder<
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder> 
+          getTimersFieldBuilder() {
+        if (timersBuilder_ == null) {
+          timersBuilder_ = new akka.protobuf.RepeatedFieldBuilder<
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimer.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityTimerOrBuilder>(
+                  timers_,
+                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  getParentForChildren(),
+                  isClean());
+          timers_ = null;
+        }
+        return timersBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:com.lightbend.lagom.internal.persistence.EntityTimers)
+    }
+
+    static {
+      defaultInstance = new EntityTimers(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.EntityTimers)
+  }
+
+
+  public interface EntityHandoffOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:com.lightbend.lagom.internal.persistence.EntityHandoff)
+      akka.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string entityId = 1;</code>
+     */
+    boolean hasEntityId();
+    /**
+     * <code>required string entityId = 1;</code>
+     */
+    java.lang.String getEntityId();
+    /**
+     * <code>required string entityId = 1;</code>
+     */
+    akka.protobuf.ByteString
+        getEntityIdBytes();
+
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    boolean hasShardId();
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    java.lang.String getShardId();
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    akka.protobuf.ByteString
+        getShardIdBytes();
+  }
+  /**
+   * Protobuf type {@code com.lightbend.lagom.internal.persistence.EntityHandoff}
+   */
+  public static final class EntityHandoff extends
+      akka.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:com.lightbend.lagom.internal.persistence.EntityHandoff)
+      EntityHandoffOrBuilder {
+    // Use EntityHandoff.newBuilder() to construct.
+    private EntityHandoff(akka.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private EntityHandoff(boolean noInit) { this.unknownFields = akka.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final EntityHandoff defaultInstance;
+    public static EntityHandoff getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public EntityHandoff getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final akka.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final akka.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private EntityHandoff(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      akka.protobuf.UnknownFieldSet.Builder unknownFields =
+          akka.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              entityId_ = bs;
+              break;
+            }
+            case 18: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              shardId_ = bs;
+              break;
+            }
+          }
+        }
+      } catch (akka.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new akka.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final akka.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_descriptor;
+    }
+
+    protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff.Builder.class);
+    }
+
+    public static akka.protobuf.Parser<EntityHandoff> PARSER =
+        new akka.protobuf.AbstractParser<EntityHandoff>() {
+      public EntityHandoff parsePartialFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws akka.protobuf.InvalidProtocolBufferException {
+        return new EntityHandoff(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public akka.protobuf.Parser<EntityHandoff> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int ENTITYID_FIELD_NUMBER = 1;
+    private java.lang.Object entityId_;
+    /**
+     * <code>required string entityId = 1;</code>
+     */
+    public boolean hasEntityId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string entityId = 1;</code>
+     */
+    public java.lang.String getEntityId() {
+      java.lang.Object ref = entityId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          entityId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string entityId = 1;</code>
+     */
+    public akka.protobuf.ByteString
+        getEntityIdBytes() {
+      java.lang.Object ref = entityId_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        entityId_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int SHARDID_FIELD_NUMBER = 2;
+    private java.lang.Object shardId_;
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    public boolean hasShardId() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    public java.lang.String getShardId() {
+      java.lang.Object ref = shardId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          shardId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    public akka.protobuf.ByteString
+        getShardIdBytes() {
+      java.lang.Object ref = shardId_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        shardId_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    private void initFields() {
+      entityId_ = "";
+      shardId_ = "";
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasEntityId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasShardId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(akka.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, getEntityIdBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getShardIdBytes());
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(1, getEntityIdBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(2, getShardIdBytes());
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseFrom(
+        akka.protobuf.ByteString data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseFrom(
+        akka.protobuf.ByteString data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseFrom(byte[] data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseFrom(
+        byte[] data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseDelimitedFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseFrom(
+        akka.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parseFrom(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        akka.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code com.lightbend.lagom.internal.persistence.EntityHandoff}
+     */
+    public static final class Builder extends
+        akka.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:com.lightbend.lagom.internal.persistence.EntityHandoff)
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoffOrBuilder {
+      public static final akka.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_descriptor;
+      }
+
+      protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff.Builder.class);
+      }
+
+      // Construct using com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          akka.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        entityId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        shardId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public akka.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_descriptor;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff getDefaultInstanceForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff.getDefaultInstance();
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff build() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff buildPartial() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff result = new com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.entityId_ = entityId_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.shardId_ = shardId_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(akka.protobuf.Message other) {
+        if (other instanceof com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff) {
+          return mergeFrom((com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff other) {
+        if (other == com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff.getDefaultInstance()) return this;
+        if (other.hasEntityId()) {
+          bitField0_ |= 0x00000001;
+          entityId_ = other.entityId_;
+          onChanged();
+        }
+        if (other.hasShardId()) {
+          bitField0_ |= 0x00000002;
+          shardId_ = other.shardId_;
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasEntityId()) {
+          
+          return false;
+        }
+        if (!hasShardId()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (akka.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityHandoff) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object entityId_ = "";
+      /**
+       * <code>required string entityId = 1;</code>
+       */
+      public boolean hasEntityId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string entityId = 1;</code>
+       */
+      public java.lang.String getEntityId() {
+        java.lang.Object ref = entityId_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            entityId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string entityId = 1;</code>
+       */
+      public akka.protobuf.ByteString
+          getEntityIdBytes() {
+        java.lang.Object ref = entityId_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          entityId_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string entityId = 1;</code>
+       */
+      public Builder setEntityId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        entityId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityId = 1;</code>
+       */
+      public Builder clearEntityId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        entityId_ = getDefaultInstance().getEntityId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityId = 1;</code>
+       */
+      public Builder setEntityIdBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        entityId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object shardId_ = "";
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public boolean hasShardId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public java.lang.String getShardId() {
+        java.lang.Object ref = shardId_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            shardId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public akka.protobuf.ByteString
+          getShardIdBytes() {
+        java.lang.Object ref = shardId_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          shardId_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public Builder setShardId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        shardId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public Builder clearShardId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        shardId_ = getDefaultInstance().getShardId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public Builder setShardIdBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        shardId_ = value;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:com.lightbend.lagom.internal.persistence.EntityHandoff)
+    }
+
+    static {
+      defaultInstance = new EntityHandoff(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.EntityHandoff)
+  }
+
+  public interface EntityPrewarmOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:com.lightbend.lagom.internal.persistence.EntityPrewarm)
+      akka.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    boolean hasEntityTypeName();
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    java.lang.String getEntityTypeName();
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    akka.protobuf.ByteString
+        getEntityTypeNameBytes();
+
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    boolean hasEntityId();
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    java.lang.String getEntityId();
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    akka.protobuf.ByteString
+        getEntityIdBytes();
+  }
+  /**
+   * Protobuf type {@code com.lightbend.lagom.internal.persistence.EntityPrewarm}
+   */
+  public static final class EntityPrewarm extends
+      akka.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:com.lightbend.lagom.internal.persistence.EntityPrewarm)
+      EntityPrewarmOrBuilder {
+    // Use EntityPrewarm.newBuilder() to construct.
+    private EntityPrewarm(akka.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private EntityPrewarm(boolean noInit) { this.unknownFields = akka.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final EntityPrewarm defaultInstance;
+    public static EntityPrewarm getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public EntityPrewarm getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final akka.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final akka.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private EntityPrewarm(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      akka.protobuf.UnknownFieldSet.Builder unknownFields =
+          akka.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              entityTypeName_ = bs;
+              break;
+            }
+            case 18: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              entityId_ = bs;
+              break;
+            }
+          }
+        }
+      } catch (akka.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new akka.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final akka.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_descriptor;
+    }
+
+    protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm.Builder.class);
+    }
+
+    public static akka.protobuf.Parser<EntityPrewarm> PARSER =
+        new akka.protobuf.AbstractParser<EntityPrewarm>() {
+      public EntityPrewarm parsePartialFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws akka.protobuf.InvalidProtocolBufferException {
+        return new EntityPrewarm(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public akka.protobuf.Parser<EntityPrewarm> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int ENTITYTYPENAME_FIELD_NUMBER = 1;
+    private java.lang.Object entityTypeName_;
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public boolean hasEntityTypeName() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public java.lang.String getEntityTypeName() {
+      java.lang.Object ref = entityTypeName_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          entityTypeName_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public akka.protobuf.ByteString
+        getEntityTypeNameBytes() {
+      java.lang.Object ref = entityTypeName_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        entityTypeName_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int ENTITYID_FIELD_NUMBER = 2;
+    private java.lang.Object entityId_;
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    public boolean hasEntityId() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    public java.lang.String getEntityId() {
+      java.lang.Object ref = entityId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          entityId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string entityId = 2;</code>
+     */
+    public akka.protobuf.ByteString
+        getEntityIdBytes() {
+      java.lang.Object ref = entityId_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        entityId_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    private void initFields() {
+      entityTypeName_ = "";
+      entityId_ = "";
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasEntityTypeName()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasEntityId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(akka.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, getEntityTypeNameBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getEntityIdBytes());
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(1, getEntityTypeNameBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(2, getEntityIdBytes());
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseFrom(
+        akka.protobuf.ByteString data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseFrom(
+        akka.protobuf.ByteString data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseFrom(byte[] data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseFrom(
+        byte[] data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseDelimitedFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseFrom(
+        akka.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parseFrom(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        akka.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code com.lightbend.lagom.internal.persistence.EntityPrewarm}
+     */
+    public static final class Builder extends
+        akka.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:com.lightbend.lagom.internal.persistence.EntityPrewarm)
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarmOrBuilder {
+      public static final akka.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_descriptor;
+      }
+
+      protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm.Builder.class);
+      }
+
+      // Construct using com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          akka.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        entityTypeName_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        entityId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public akka.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_descriptor;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm getDefaultInstanceForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm.getDefaultInstance();
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm build() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm buildPartial() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm result = new com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.entityTypeName_ = entityTypeName_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.entityId_ = entityId_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(akka.protobuf.Message other) {
+        if (other instanceof com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm) {
+          return mergeFrom((com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm other) {
+        if (other == com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm.getDefaultInstance()) return this;
+        if (other.hasEntityTypeName()) {
+          bitField0_ |= 0x00000001;
+          entityTypeName_ = other.entityTypeName_;
+          onChanged();
+        }
+        if (other.hasEntityId()) {
+          bitField0_ |= 0x00000002;
+          entityId_ = other.entityId_;
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasEntityTypeName()) {
+          
+          return false;
+        }
+        if (!hasEntityId()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (akka.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.EntityPrewarm) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object entityTypeName_ = "";
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public boolean hasEntityTypeName() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public java.lang.String getEntityTypeName() {
+        java.lang.Object ref = entityTypeName_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            entityTypeName_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public akka.protobuf.ByteString
+          getEntityTypeNameBytes() {
+        java.lang.Object ref = entityTypeName_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          entityTypeName_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder setEntityTypeName(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        entityTypeName_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder clearEntityTypeName() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        entityTypeName_ = getDefaultInstance().getEntityTypeName();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder setEntityTypeNameBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        entityTypeName_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object entityId_ = "";
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public boolean hasEntityId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public java.lang.String getEntityId() {
+        java.lang.Object ref = entityId_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            entityId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public akka.protobuf.ByteString
+          getEntityIdBytes() {
+        java.lang.Object ref = entityId_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          entityId_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public Builder setEntityId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        entityId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public Builder clearEntityId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        entityId_ = getDefaultInstance().getEntityId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityId = 2;</code>
+       */
+      public Builder setEntityIdBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        entityId_ = value;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:com.lightbend.lagom.internal.persistence.EntityPrewarm)
+    }
+
+    static {
+      defaultInstance = new EntityPrewarm(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.EntityPrewarm)
+  }
+
+  public interface ShardRateOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:com.lightbend.lagom.internal.persistence.ShardRate)
+      akka.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    boolean hasEntityTypeName();
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    java.lang.String getEntityTypeName();
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    akka.protobuf.ByteString
+        getEntityTypeNameBytes();
+
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    boolean hasShardId();
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    java.lang.String getShardId();
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    akka.protobuf.ByteString
+        getShardIdBytes();
+
+    /**
+     * <code>required double rate = 3;</code>
+     */
+    boolean hasRate();
+    /**
+     * <code>required double rate = 3;</code>
+     */
+    double getRate();
+  }
+  /**
+   * Protobuf type {@code com.lightbend.lagom.internal.persistence.ShardRate}
+   */
+  public static final class ShardRate extends
+      akka.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:com.lightbend.lagom.internal.persistence.ShardRate)
+      ShardRateOrBuilder {
+    // Use ShardRate.newBuilder() to construct.
+    private ShardRate(akka.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private ShardRate(boolean noInit) { this.unknownFields = akka.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final ShardRate defaultInstance;
+    public static ShardRate getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public ShardRate getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final akka.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final akka.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ShardRate(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      akka.protobuf.UnknownFieldSet.Builder unknownFields =
+          akka.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              entityTypeName_ = bs;
+              break;
+            }
+            case 18: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              shardId_ = bs;
+              break;
+            }
+            case 25: {
+              bitField0_ |= 0x00000004;
+              rate_ = input.readDouble();
+              break;
+            }
+          }
+        }
+      } catch (akka.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new akka.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final akka.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardRate_descriptor;
+    }
+
+    protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardRate_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder.class);
+    }
+
+    public static akka.protobuf.Parser<ShardRate> PARSER =
+        new akka.protobuf.AbstractParser<ShardRate>() {
+      public ShardRate parsePartialFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws akka.protobuf.InvalidProtocolBufferException {
+        return new ShardRate(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public akka.protobuf.Parser<ShardRate> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int ENTITYTYPENAME_FIELD_NUMBER = 1;
+    private java.lang.Object entityTypeName_;
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public boolean hasEntityTypeName() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public java.lang.String getEntityTypeName() {
+      java.lang.Object ref = entityTypeName_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          entityTypeName_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string entityTypeName = 1;</code>
+     */
+    public akka.protobuf.ByteString
+        getEntityTypeNameBytes() {
+      java.lang.Object ref = entityTypeName_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        entityTypeName_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int SHARDID_FIELD_NUMBER = 2;
+    private java.lang.Object shardId_;
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    public boolean hasShardId() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    public java.lang.String getShardId() {
+      java.lang.Object ref = shardId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          shardId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string shardId = 2;</code>
+     */
+    public akka.protobuf.ByteString
+        getShardIdBytes() {
+      java.lang.Object ref = shardId_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        shardId_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int RATE_FIELD_NUMBER = 3;
+    private double rate_;
+    /**
+     * <code>required double rate = 3;</code>
+     */
+    public boolean hasRate() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>required double rate = 3;</code>
+     */
+    public double getRate() {
+      return rate_;
+    }
+
+    private void initFields() {
+      entityTypeName_ = "";
+      shardId_ = "";
+      rate_ = 0D;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasEntityTypeName()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasShardId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasRate()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(akka.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, getEntityTypeNameBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, getShardIdBytes());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeDouble(3, rate_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(1, getEntityTypeNameBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(2, getShardIdBytes());
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeDoubleSize(3, rate_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseFrom(
+        akka.protobuf.ByteString data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseFrom(
+        akka.protobuf.ByteString data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseFrom(byte[] data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseFrom(
+        byte[] data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseDelimitedFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseFrom(
+        akka.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parseFrom(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        akka.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code com.lightbend.lagom.internal.persistence.ShardRate}
+     */
+    public static final class Builder extends
+        akka.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:com.lightbend.lagom.internal.persistence.ShardRate)
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder {
+      public static final akka.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardRate_descriptor;
+      }
+
+      protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardRate_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder.class);
+      }
+
+      // Construct using com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          akka.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        entityTypeName_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        shardId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        rate_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public akka.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardRate_descriptor;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate getDefaultInstanceForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.getDefaultInstance();
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate build() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate buildPartial() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate result = new com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.entityTypeName_ = entityTypeName_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.shardId_ = shardId_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.rate_ = rate_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(akka.protobuf.Message other) {
+        if (other instanceof com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate) {
+          return mergeFrom((com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate other) {
+        if (other == com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.getDefaultInstance()) return this;
+        if (other.hasEntityTypeName()) {
+          bitField0_ |= 0x00000001;
+          entityTypeName_ = other.entityTypeName_;
+          onChanged();
+        }
+        if (other.hasShardId()) {
+          bitField0_ |= 0x00000002;
+          shardId_ = other.shardId_;
+          onChanged();
+        }
+        if (other.hasRate()) {
+          setRate(other.getRate());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasEntityTypeName()) {
+          
+          return false;
+        }
+        if (!hasShardId()) {
+          
+          return false;
+        }
+        if (!hasRate()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (akka.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object entityTypeName_ = "";
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public boolean hasEntityTypeName() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public java.lang.String getEntityTypeName() {
+        java.lang.Object ref = entityTypeName_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            entityTypeName_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public akka.protobuf.ByteString
+          getEntityTypeNameBytes() {
+        java.lang.Object ref = entityTypeName_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          entityTypeName_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder setEntityTypeName(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        entityTypeName_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder clearEntityTypeName() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        entityTypeName_ = getDefaultInstance().getEntityTypeName();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string entityTypeName = 1;</code>
+       */
+      public Builder setEntityTypeNameBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        entityTypeName_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object shardId_ = "";
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public boolean hasShardId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public java.lang.String getShardId() {
+        java.lang.Object ref = shardId_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            shardId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public akka.protobuf.ByteString
+          getShardIdBytes() {
+        java.lang.Object ref = shardId_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          shardId_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public Builder setShardId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        shardId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public Builder clearShardId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        shardId_ = getDefaultInstance().getShardId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string shardId = 2;</code>
+       */
+      public Builder setShardIdBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        shardId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private double rate_ ;
+      /**
+       * <code>required double rate = 3;</code>
+       */
+      public boolean hasRate() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required double rate = 3;</code>
+       */
+      public double getRate() {
+        return rate_;
+      }
+      /**
+       * <code>required double rate = 3;</code>
+       */
+      public Builder setRate(double value) {
+        bitField0_ |= 0x00000004;
+        rate_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required double rate = 3;</code>
+       */
+      public Builder clearRate() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        rate_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:com.lightbend.lagom.internal.persistence.ShardRate)
+    }
+
+    static {
+      defaultInstance = new ShardRate(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.ShardRate)
+  }
+
+  public interface ShardLoadReportOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:com.lightbend.lagom.internal.persistence.ShardLoadReport)
+      akka.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string node = 1;</code>
+     */
+    boolean hasNode();
+    /**
+     * <code>required string node = 1;</code>
+     */
+    java.lang.String getNode();
+    /**
+     * <code>required string node = 1;</code>
+     */
+    akka.protobuf.ByteString
+        getNodeBytes();
+
+    /**
+     * <code>required double nodeLoad = 2;</code>
+     */
+    boolean hasNodeLoad();
+    /**
+     * <code>required double nodeLoad = 2;</code>
+     */
+    double getNodeLoad();
+
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate> 
+        getShardRatesList();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate getShardRates(int index);
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    int getShardRatesCount();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder> 
+        getShardRatesOrBuilderList();
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder getShardRatesOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code com.lightbend.lagom.internal.persistence.ShardLoadReport}
+   */
+  public static final class ShardLoadReport extends
+      akka.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:com.lightbend.lagom.internal.persistence.ShardLoadReport)
+      ShardLoadReportOrBuilder {
+    // Use ShardLoadReport.newBuilder() to construct.
+    private ShardLoadReport(akka.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private ShardLoadReport(boolean noInit) { this.unknownFields = akka.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final ShardLoadReport defaultInstance;
+    public static ShardLoadReport getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public ShardLoadReport getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final akka.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final akka.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ShardLoadReport(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      akka.protobuf.UnknownFieldSet.Builder unknownFields =
+          akka.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              akka.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              node_ = bs;
+              break;
+            }
+            case 17: {
+              bitField0_ |= 0x00000002;
+              nodeLoad_ = input.readDouble();
+              break;
+            }
+            case 26: {
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+                shardRates_ = new java.util.ArrayList<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate>();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              shardRates_.add(input.readMessage(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.PARSER, extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (akka.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new akka.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+          shardRates_ = java.util.Collections.unmodifiableList(shardRates_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final akka.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_descriptor;
+    }
+
+    protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport.Builder.class);
+    }
+
+    public static akka.protobuf.Parser<ShardLoadReport> PARSER =
+        new akka.protobuf.AbstractParser<ShardLoadReport>() {
+      public ShardLoadReport parsePartialFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws akka.protobuf.InvalidProtocolBufferException {
+        return new ShardLoadReport(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public akka.protobuf.Parser<ShardLoadReport> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int NODE_FIELD_NUMBER = 1;
+    private java.lang.Object node_;
+    /**
+     * <code>required string node = 1;</code>
+     */
+    public boolean hasNode() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string node = 1;</code>
+     */
+    public java.lang.String getNode() {
+      java.lang.Object ref = node_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        akka.protobuf.ByteString bs = 
+            (akka.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          node_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string node = 1;</code>
+     */
+    public akka.protobuf.ByteString
+        getNodeBytes() {
+      java.lang.Object ref = node_;
+      if (ref instanceof java.lang.String) {
+        akka.protobuf.ByteString b = 
+            akka.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        node_ = b;
+        return b;
+      } else {
+        return (akka.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int NODELOAD_FIELD_NUMBER = 2;
+    private double nodeLoad_;
+    /**
+     * <code>required double nodeLoad = 2;</code>
+     */
+    public boolean hasNodeLoad() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required double nodeLoad = 2;</code>
+     */
+    public double getNodeLoad() {
+      return nodeLoad_;
+    }
+
+    public static final int SHARDRATES_FIELD_NUMBER = 3;
+    private java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate> shardRates_;
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate> getShardRatesList() {
+      return shardRates_;
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    public java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder> 
+        getShardRatesOrBuilderList() {
+      return shardRates_;
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    public int getShardRatesCount() {
+      return shardRates_.size();
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate getShardRates(int index) {
+      return shardRates_.get(index);
+    }
+    /**
+     * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+     */
+    public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder getShardRatesOrBuilder(
+        int index) {
+      return shardRates_.get(index);
+    }
+
+    private void initFields() {
+      node_ = "";
+      nodeLoad_ = 0D;
+      shardRates_ = java.util.Collections.emptyList();
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasNode()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasNodeLoad()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      for (int i = 0; i < getShardRatesCount(); i++) {
+        if (!getShardRates(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(akka.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, getNodeBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeDouble(2, nodeLoad_);
+      }
+      for (int i = 0; i < shardRates_.size(); i++) {
+        output.writeMessage(3, shardRates_.get(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeBytesSize(1, getNodeBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += akka.protobuf.CodedOutputStream
+          .computeDoubleSize(2, nodeLoad_);
+      }
+      for (int i = 0; i < shardRates_.size(); i++) {
+        size += akka.protobuf.CodedOutputStream
+          .computeMessageSize(3, shardRates_.get(i));
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseFrom(
+        akka.protobuf.ByteString data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseFrom(
+        akka.protobuf.ByteString data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseFrom(byte[] data)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseFrom(
+        byte[] data,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws akka.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseDelimitedFrom(
+        java.io.InputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseFrom(
+        akka.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parseFrom(
+        akka.protobuf.CodedInputStream input,
+        akka.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        akka.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code com.lightbend.lagom.internal.persistence.ShardLoadReport}
+     */
+    public static final class Builder extends
+        akka.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:com.lightbend.lagom.internal.persistence.ShardLoadReport)
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReportOrBuilder {
+      public static final akka.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_descriptor;
+      }
+
+      protected akka.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport.class, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport.Builder.class);
+      }
+
+      // Construct using com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          akka.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getShardRatesFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        node_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        nodeLoad_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        if (shardRatesBuilder_ == null) {
+          shardRates_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000004);
+        } else {
+          shardRatesBuilder_.clear();
+        }
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public akka.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_descriptor;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport getDefaultInstanceForType() {
+        return com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport.getDefaultInstance();
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport build() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport buildPartial() {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport result = new com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.node_ = node_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.nodeLoad_ = nodeLoad_;
+        if (shardRatesBuilder_ == null) {
+          if (((bitField0_ & 0x00000004) == 0x00000004)) {
+            shardRates_ = java.util.Collections.unmodifiableList(shardRates_);
+            bitField0_ = (bitField0_ & ~0x00000004);
+          }
+          result.shardRates_ = shardRates_;
+        } else {
+          result.shardRates_ = shardRatesBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(akka.protobuf.Message other) {
+        if (other instanceof com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport) {
+          return mergeFrom((com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport other) {
+        if (other == com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport.getDefaultInstance()) return this;
+        if (other.hasNode()) {
+          bitField0_ |= 0x00000001;
+          node_ = other.node_;
+          onChanged();
+        }
+        if (other.hasNodeLoad()) {
+          setNodeLoad(other.getNodeLoad());
+        }
+        if (shardRatesBuilder_ == null) {
+          if (!other.shardRates_.isEmpty()) {
+            if (shardRates_.isEmpty()) {
+              shardRates_ = other.shardRates_;
+              bitField0_ = (bitField0_ & ~0x00000004);
+            } else {
+              ensureShardRatesIsMutable();
+              shardRates_.addAll(other.shardRates_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.shardRates_.isEmpty()) {
+            if (shardRatesBuilder_.isEmpty()) {
+              shardRatesBuilder_.dispose();
+              shardRatesBuilder_ = null;
+              shardRates_ = other.shardRates_;
+              bitField0_ = (bitField0_ & ~0x00000004);
+              shardRatesBuilder_ = 
+                akka.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getShardRatesFieldBuilder() : null;
+            } else {
+              shardRatesBuilder_.addAllMessages(other.shardRates_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasNode()) {
+          
+          return false;
+        }
+        if (!hasNodeLoad()) {
+          
+          return false;
+        }
+        for (int i = 0; i < getShardRatesCount(); i++) {
+          if (!getShardRates(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          akka.protobuf.CodedInputStream input,
+          akka.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (akka.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardLoadReport) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object node_ = "";
+      /**
+       * <code>required string node = 1;</code>
+       */
+      public boolean hasNode() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string node = 1;</code>
+       */
+      public java.lang.String getNode() {
+        java.lang.Object ref = node_;
+        if (!(ref instanceof java.lang.String)) {
+          akka.protobuf.ByteString bs =
+              (akka.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            node_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string node = 1;</code>
+       */
+      public akka.protobuf.ByteString
+          getNodeBytes() {
+        java.lang.Object ref = node_;
+        if (ref instanceof String) {
+          akka.protobuf.ByteString b = 
+              akka.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          node_ = b;
+          return b;
+        } else {
+          return (akka.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string node = 1;</code>
+       */
+      public Builder setNode(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        node_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string node = 1;</code>
+       */
+      public Builder clearNode() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        node_ = getDefaultInstance().getNode();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string node = 1;</code>
+       */
+      public Builder setNodeBytes(
+          akka.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        node_ = value;
+        onChanged();
+        return this;
+      }
+
+      private double nodeLoad_ ;
+      /**
+       * <code>required double nodeLoad = 2;</code>
+       */
+      public boolean hasNodeLoad() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required double nodeLoad = 2;</code>
+       */
+      public double getNodeLoad() {
+        return nodeLoad_;
+      }
+      /**
+       * <code>required double nodeLoad = 2;</code>
+       */
+      public Builder setNodeLoad(double value) {
+        bitField0_ |= 0x00000002;
+        nodeLoad_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required double nodeLoad = 2;</code>
+       */
+      public Builder clearNodeLoad() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        nodeLoad_ = 0D;
+        onChanged();
+        return this;
+      }
+
+
+      private java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate> shardRates_ =
+        java.util.Collections.emptyList();
+      private void ensureShardRatesIsMutable() {
+        if (!((bitField0_ & 0x00000004) == 0x00000004)) {
+          shardRates_ = new java.util.ArrayList<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate>(shardRates_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+
+      private akka.protobuf.RepeatedFieldBuilder<
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder> shardRatesBuilder_;
+
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate> getShardRatesList() {
+        if (shardRatesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(shardRates_);
+        } else {
+          return shardRatesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public int getShardRatesCount() {
+        if (shardRatesBuilder_ == null) {
+          return shardRates_.size();
+        } else {
+          return shardRatesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate getShardRates(int index) {
+        if (shardRatesBuilder_ == null) {
+          return shardRates_.get(index);
+        } else {
+          return shardRatesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder setShardRates(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate value) {
+        if (shardRatesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureShardRatesIsMutable();
+          shardRates_.set(index, value);
+          onChanged();
+        } else {
+          shardRatesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder setShardRates(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder builderForValue) {
+        if (shardRatesBuilder_ == null) {
+          ensureShardRatesIsMutable();
+          shardRates_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          shardRatesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder addShardRates(com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate value) {
+        if (shardRatesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureShardRatesIsMutable();
+          shardRates_.add(value);
+          onChanged();
+        } else {
+          shardRatesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder addShardRates(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate value) {
+        if (shardRatesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureShardRatesIsMutable();
+          shardRates_.add(index, value);
+          onChanged();
+        } else {
+          shardRatesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder addShardRates(
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder builderForValue) {
+        if (shardRatesBuilder_ == null) {
+          ensureShardRatesIsMutable();
+          shardRates_.add(builderForValue.build());
+          onChanged();
+        } else {
+          shardRatesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder addShardRates(
+          int index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder builderForValue) {
+        if (shardRatesBuilder_ == null) {
+          ensureShardRatesIsMutable();
+          shardRates_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          shardRatesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder addAllShardRates(
+          java.lang.Iterable<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate> values) {
+        if (shardRatesBuilder_ == null) {
+          ensureShardRatesIsMutable();
+          akka.protobuf.AbstractMessageLite.Builder.addAll(
+              values, shardRates_);
+          onChanged();
+        } else {
+          shardRatesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder clearShardRates() {
+        if (shardRatesBuilder_ == null) {
+          shardRates_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000004);
+          onChanged();
+        } else {
+          shardRatesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public Builder removeShardRates(int index) {
+        if (shardRatesBuilder_ == null) {
+          ensureShardRatesIsMutable();
+          shardRates_.remove(index);
+          onChanged();
+        } else {
+          shardRatesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder getShardRatesBuilder(
+          int index) {
+        return getShardRatesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder getShardRatesOrBuilder(
+          int index) {
+        if (shardRatesBuilder_ == null) {
+          return shardRates_.get(index);  } else {
+          return shardRatesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public java.util.List<? extends com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder> 
+           getShardRatesOrBuilderList() {
+        if (shardRatesBuilder_ != null) {
+          return shardRatesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(shardRates_);
+        }
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder addShardRatesBuilder() {
+        return getShardRatesFieldBuilder().addBuilder(
+            com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder addShardRatesBuilder(
+          int index) {
+        return getShardRatesFieldBuilder().addBuilder(
+            index, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .com.lightbend.lagom.internal.persistence.ShardRate shardRates = 3;</code>
+       */
+      public java.util.List<com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder> 
+           getShardRatesBuilderList() {
+        return getShardRatesFieldBuilder().getBuilderList();
+      }
+      private akka.protobuf.RepeatedFieldBuilder<
+          com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder> 
+          getShardRatesFieldBuilder() {
+        if (shardRatesBuilder_ == null) {
+          shardRatesBuilder_ = new akka.protobuf.RepeatedFieldBuilder<
+              com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRate.Builder, com.lightbend.lagom.internal.persistence.protobuf.msg.PersistenceMessages.ShardRateOrBuilder>(
+                  shardRates_,
+                  ((bitField0_ & 0x00000004) == 0x00000004),
+                  getParentForChildren(),
+                  isClean());
+          shardRates_ = null;
+        }
+        return shardRatesBuilder_;
+      }
+      // @@protoc_insertion_point(builder_scope:com.lightbend.lagom.internal.persistence.ShardLoadReport)
+    }
+
+    static {
+      defaultInstance = new ShardLoadReport(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:com.lightbend.lagom.internal.persistence.ShardLoadReport)
+  }
+
   private static final akka.protobuf.Descriptors.Descriptor
     internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelope_descriptor;
   private static
@@ -1726,6 +7871,46 @@ public final class PersistenceMessages {
   private static
     akka.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_com_lightbend_lagom_internal_persistence_EnsureActive_fieldAccessorTable;
+  private static final akka.protobuf.Descriptors.Descriptor
+    internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_descriptor;
+  private static
+    akka.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_fieldAccessorTable;
+  private static final akka.protobuf.Descriptors.Descriptor
+    internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_descriptor;
+  private static
+    akka.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_fieldAccessorTable;
+  private static final akka.protobuf.Descriptors.Descriptor
+    internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_descriptor;
+  private static
+    akka.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_fieldAccessorTable;
+  private static final akka.protobuf.Descriptors.Descriptor
+    internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_descriptor;
+  private static
+    akka.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_fieldAccessorTable;
+  private static final akka.protobuf.Descriptors.Descriptor
+    internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_descriptor;
+  private static
+    akka.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_fieldAccessorTable;
+  private static final akka.protobuf.Descriptors.Descriptor
+    internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_descriptor;
+  private static
+    akka.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_fieldAccessorTable;
+  private static final akka.protobuf.Descriptors.Descriptor
+    internal_static_com_lightbend_lagom_internal_persistence_ShardRate_descriptor;
+  private static
+    akka.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_lightbend_lagom_internal_persistence_ShardRate_fieldAccessorTable;
+  private static final akka.protobuf.Descriptors.Descriptor
+    internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_descriptor;
+  private static
+    akka.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_fieldAccessorTable;
 
   public static akka.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -1741,8 +7926,27 @@ public final class PersistenceMessages {
       "ssage\030\002 \002(\014\022\024\n\014serializerId\030\003 \002(\005\022\027\n\017mes" +
       "sageManifest\030\004 \001(\014\"\034\n\tException\022\017\n\007messa" +
       "ge\030\001 \001(\t\" \n\014EnsureActive\022\020\n\010entityId\030\001 \002" +
-      "(\tB9\n5com.lightbend.lagom.internal.persi" +
-      "stence.protobuf.msgH\001"
+      "(\t\"c\n\024CommandEnvelopeBatch\022K\n\010commands\030\001" +
+      " \003(\01329.com.lightbend.lagom.internal.pers" +
+      "istence.CommandEnvelope\"n\n\020SequencedMess" +
+      "age\022\022\n\nsequenceNr\030\001 \002(\003\022\027\n\017enclosedMessa" +
+      "ge\030\002 \002(\014\022\024\n\014serializerId\030\003 \002(\005\022\027\n\017messag" +
+      "eManifest\030\004 \001(\014\"\243\001\n\013EntityTimer\022\026\n\016entit" +
+      "yTypeName\030\001 \002(\t\022\020\n\010entityId\030\002 \002(\t\022\020\n\010tim" +
+      "erKey\030\003 \002(\t\022\020\n\010deadline\030\004 \001(\003\022\027\n\017enclose" +
+      "dMessage\030\005 \001(\014\022\024\n\014serializerId\030\006 \001(\005\022\027\n\017" +
+      "messageManifest\030\007 \001(\014\"U\n\014EntityTimers\022E\n" +
+      "\006timers\030\001 \003(\01325.com.lightbend.lagom.inte" +
+      "rnal.persistence.EntityTimer\"2\n\rEntityHa" +
+      "ndoff\022\020\n\010entityId\030\001 \002(\t\022\017\n\007shardId\030\002 \002(\t" +
+      "\"9\n\rEntityPrewarm\022\026\n\016entityTypeName\030\001 \002(" +
+      "\t\022\020\n\010entityId\030\002 \002(\t\"B\n\tShardRate\022\026\n\016enti" +
+      "tyTypeName\030\001 \002(\t\022\017\n\007shardId\030\002 \002(\t\022\014\n\004rat" +
+      "e\030\003 \002(\001\"z\n\017ShardLoadReport\022\014\n\004node\030\001 \002(\t" +
+      "\022\020\n\010nodeLoad\030\002 \002(\001\022G\n\nshardRates\030\003 \003(\01323" +
+      ".com.lightbend.lagom.internal.persistenc" +
+      "e.ShardRateB9\n5com.lightbend.lagom.inter" +
+      "nal.persistence.protobuf.msgH\001"
     };
     akka.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new akka.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -1774,6 +7978,54 @@ public final class PersistenceMessages {
       akka.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_com_lightbend_lagom_internal_persistence_EnsureActive_descriptor,
         new java.lang.String[] { "EntityId", });
+    internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_fieldAccessorTable = new
+      akka.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_com_lightbend_lagom_internal_persistence_CommandEnvelopeBatch_descriptor,
+        new java.lang.String[] { "Commands", });
+    internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_descriptor =
+      getDescriptor().getMessageTypes().get(4);
+    internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_fieldAccessorTable = new
+      akka.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_com_lightbend_lagom_internal_persistence_SequencedMessage_descriptor,
+        new java.lang.String[] { "SequenceNr", "EnclosedMessage", "SerializerId", "MessageManifest", });
+    internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_descriptor =
+      getDescriptor().getMessageTypes().get(5);
+    internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_fieldAccessorTable = new
+      akka.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_com_lightbend_lagom_internal_persistence_EntityTimer_descriptor,
+        new java.lang.String[] { "EntityTypeName", "EntityId", "TimerKey", "Deadline", "EnclosedMessage", "SerializerId", "MessageManifest", });
+    internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_descriptor =
+      getDescriptor().getMessageTypes().get(6);
+    internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_fieldAccessorTable = new
+      akka.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_com_lightbend_lagom_internal_persistence_EntityTimers_descriptor,
+        new java.lang.String[] { "Timers", });
+    internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_descriptor =
+      getDescriptor().getMessageTypes().get(7);
+    internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_fieldAccessorTable = new
+      akka.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_com_lightbend_lagom_internal_persistence_EntityHandoff_descriptor,
+        new java.lang.String[] { "EntityId", "ShardId", });
+    internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_descriptor =
+      getDescriptor().getMessageTypes().get(8);
+    internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_fieldAccessorTable = new
+      akka.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_com_lightbend_lagom_internal_persistence_EntityPrewarm_descriptor,
+        new java.lang.String[] { "EntityTypeName", "EntityId", });
+    internal_static_com_lightbend_lagom_internal_persistence_ShardRate_descriptor =
+      getDescriptor().getMessageTypes().get(9);
+    internal_static_com_lightbend_lagom_internal_persistence_ShardRate_fieldAccessorTable = new
+      akka.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_com_lightbend_lagom_internal_persistence_ShardRate_descriptor,
+        new java.lang.String[] { "EntityTypeName", "ShardId", "Rate",  });
+    internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_descriptor =
+      getDescriptor().getMessageTypes().get(10);
+    internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_fieldAccessorTable = new
+      akka.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_com_lightbend_lagom_internal_persistence_ShardLoadReport_descriptor,
+        new java.lang.String[] { "Node", "NodeLoad", "ShardRates",  });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
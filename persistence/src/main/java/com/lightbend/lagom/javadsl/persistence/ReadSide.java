@@ -3,6 +3,11 @@
  */
 package com.lightbend.lagom.javadsl.persistence;
 
+import akka.Done;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
 /**
  * The Lagom read-side registry.
  *
@@ -18,4 +23,36 @@ public interface ReadSide {
      */
     <Event extends AggregateEvent<Event>> void register(Class<? extends ReadSideProcessor<Event>> processorClass);
 
+    /**
+     * Rebuild a registered read-side processor into new tables while the registered processor keeps them up to date.
+     *
+     * The rebuild processor is run like a registered one, for all tags concurrently, from the beginning of the event
+     * streams and at most <code>lagom.persistence.read-side.rebuild.events-per-second</code> events per second of each
+     * tag. It must have another {@link ReadSideProcessor#readSideName()} than the registered processor, e.g. one with a
+     * version suffix, and store its offsets and write its tables under names of its own.
+     *
+     * When the rebuild processor has stored offsets that are as recent as those of the registered processor for all
+     * tags, the <code>swap</code> hook is run, typically to switch the queries over to the new tables, and the
+     * registered processor is then stopped, also after restarts, since the completed swap is stored in the journal.
+     * The hook is run on one node of the cluster, but it may run again, e.g. when that node leaves the cluster before
+     * the swap has been stored, so it must be idempotent. Once the tables are swapped, the rebuild processor should be
+     * registered in place of the registered processor with the next deployment of the service.
+     *
+     * The offsets are read from the offset stores of the handlers, so both processors must build their handlers with
+     * the <code>CassandraReadSide</code> or <code>JdbcReadSide</code> builders.
+     *
+     * The default implementation throws an {@link UnsupportedOperationException}, for implementations of this
+     * interface that do not support rebuilds.
+     *
+     * @param processorClass The class of the registered read-side processor, which must have been registered first.
+     * @param rebuildClass The read-side processor class to rebuild into. It will be instantiated using Guice, once for
+     *                     every shard that runs it.
+     * @param swap The hook that is run when the rebuild processor has caught up.
+     */
+    default <Event extends AggregateEvent<Event>> void rebuild(Class<? extends ReadSideProcessor<Event>> processorClass,
+            Class<? extends ReadSideProcessor<Event>> rebuildClass, Supplier<CompletionStage<Done>> swap) {
+        throw new UnsupportedOperationException("Rebuilding read-side processors is not supported by " +
+                getClass().getName());
+    }
+
 }
@@ -91,6 +91,22 @@ public abstract class ReadSideProcessor<Event extends AggregateEvent<Event>> {
          * allow for that blocking.
          */
         public abstract Flow<Pair<Event, Offset>, Done, ?> handle();
+
+        /**
+         * Flow to handle the events while the read side is catching up, i.e. while the events that it processes
+         * are older than <code>lagom.persistence.read-side.catch-up.lag-threshold</code>, e.g. one that processes the
+         * events in larger batches.
+         *
+         * When the events are that old, the stream is stopped and started again from the offset returned by
+         * {@link #prepare} with this flow, and when the read side has caught up it is started again with
+         * {@link #handle}. The lag is measured with the time of time based UUID offsets, so read sides with sequence
+         * offsets always use {@link #handle}.
+         *
+         * @return The catch-up flow, or empty to always use {@link #handle}, which is the default.
+         */
+        public Optional<Flow<Pair<Event, Offset>, Done, ?>> handleCatchUp() {
+            return Optional.empty();
+        }
     }
 
     /**
@@ -6,7 +6,7 @@ package com.lightbend.lagom.internal.persistence
 import java.util.Optional
 import java.util.concurrent.{ CompletionStage, ConcurrentHashMap, TimeUnit }
 
-import akka.actor.ActorSystem
+import akka.actor.{ ActorRef, ActorSystem, ExtendedActorSystem, PoisonPill }
 import akka.cluster.Cluster
 import akka.cluster.sharding.{ ClusterSharding, ClusterShardingSettings, ShardRegion }
 import akka.event.Logging
@@ -17,8 +17,12 @@ import akka.stream.javadsl
 import akka.util.Timeout
 import akka.{ Done, NotUsed }
 import com.google.inject.Injector
+import com.lightbend.lagom.internal.persistence.EntityResharding.EntityHandoff
+import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
+import com.lightbend.lagom.internal.spi.PersistentEntityMetricsProvider
 import com.lightbend.lagom.javadsl.persistence._
 
+import scala.concurrent.Promise
 import scala.concurrent.duration.{ FiniteDuration, _ }
 import scala.util.control.NonFatal
 
@@ -39,11 +43,17 @@ abstract class AbstractPersistentEntityRegistry(system: ActorSystem, injector: I
    */
   protected val eventsByTagQuery: Option[EventsByTagQuery] = None
 
+  /**
+   * The events by persistence id queries. Necessary for the read replicas of the entities.
+   */
+  protected val eventsByPersistenceIdQuery: Option[ReadReplicaActor.EventsQuery] = None
+
   private val sharding = ClusterSharding(system)
+  private val log = Logging(system, getClass)
   private val conf = system.settings.config.getConfig("lagom.persistence")
-  private val snapshotAfter: Optional[Int] = conf.getString("snapshot-after") match {
-    case "off" => Optional.empty()
-    case _     => Optional.of(conf.getInt("snapshot-after"))
+  private lazy val snapshotPolicy: SnapshotPolicy = conf.getString("snapshot-policy.class") match {
+    case ""        => SnapshotPolicy.fromConfig(conf.getConfig("snapshot-policy"))
+    case className => injector.getInstance(system.asInstanceOf[ExtendedActorSystem].dynamicAccess.getClassFor[SnapshotPolicy](className).get)
   }
   private val maxNumberOfShards: Int = conf.getInt("max-number-of-shards")
   private val role: Option[String] = conf.getString("run-entities-on-role") match {
@@ -53,15 +63,74 @@ abstract class AbstractPersistentEntityRegistry(system: ActorSystem, injector: I
   private val passivateAfterIdleTimeout: FiniteDuration =
     conf.getDuration("passivate-after-idle-timeout", TimeUnit.MILLISECONDS).millis
   private val askTimeout: FiniteDuration = conf.getDuration("ask-timeout", TimeUnit.MILLISECONDS).millis
+  private val groupCommitEnabled: Boolean = conf.getBoolean("group-commit.enabled")
+  private val groupCommitEntityTypes: Set[String] = {
+    import scala.collection.JavaConverters._
+    conf.getStringList("group-commit.entity-types").asScala.toSet
+  }
+  private val groupCommitMaxCommands: Int = conf.getInt("group-commit.max-commands")
+  private val readReplicaEntityTypes: Set[String] = {
+    import scala.collection.JavaConverters._
+    conf.getStringList("read-replicas.entity-types").asScala.toSet
+  }
+  private val readReplicas: Int = conf.getInt("read-replicas.replicas")
+  private val replicaMinBackoff: FiniteDuration =
+    conf.getDuration("read-replicas.restart-backoff.min", TimeUnit.MILLISECONDS).millis
+  private val replicaMaxBackoff: FiniteDuration =
+    conf.getDuration("read-replicas.restart-backoff.max", TimeUnit.MILLISECONDS).millis
+  private val replicaRandomFactor: Double = conf.getDouble("read-replicas.restart-backoff.random-factor")
+  override protected val eventStreamPrefetch: Int = conf.getInt("event-stream-prefetch")
   private val shardingSettings = ClusterShardingSettings(system).withRole(role)
+  // starts the pre-warming of the entities of leaving nodes on this node, when enabled
+  EntityPrewarming(system)
 
+  private lazy val metricsProvider: PersistentEntityMetricsProvider =
+    system.settings.config.getString("lagom.spi.persistent-entity-metrics-class") match {
+      case ""        => new PersistentEntityMetricsProviderImpl(system)
+      case className => injector.getInstance(system.asInstanceOf[ExtendedActorSystem].dynamicAccess.getClassFor[PersistentEntityMetricsProvider](className).get)
+    }
+
+  private val allocationStrategyProvider: Option[ShardAllocationStrategyProvider] =
+    conf.getString("shard-allocation.strategy") match {
+      case "default"    => None
+      case "load-aware" => Some(new LoadAwareShardAllocationStrategyProvider(system))
+      case className    => Some(injector.getInstance(system.asInstanceOf[ExtendedActorSystem].dynamicAccess.getClassFor[ShardAllocationStrategyProvider](className).get))
+    }
+  // the command rates are measured by the nodes that send the commands, also in proxy mode
+  private val shardLoadTracker: Option[ShardLoadTracker] = allocationStrategyProvider.map(_ => ShardLoadTracker(system))
+
+  // a batch is delivered to the entity of the first command, which passes on the others
   private val extractEntityId: ShardRegion.ExtractEntityId = {
-    case CommandEnvelope(entityId, payload) => (entityId, payload)
+    case CommandEnvelope(entityId, payload)     => (entityId, payload)
+    case batch @ CommandEnvelopeBatch(commands) => (commands.head.entityId, batch)
+    case handoff @ EntityHandoff(entityId, _)   => (entityId, handoff)
+    case prewarm @ EnsureActive(entityId)       => (entityId, prewarm)
   }
 
-  private val extractShardId: ShardRegion.ExtractShardId = {
-    case CommandEnvelope(entityId, payload) =>
-      (math.abs(entityId.hashCode) % maxNumberOfShards).toString
+  private def shardId(entityId: String): String =
+    EntityResharding.shardId(entityId, maxNumberOfShards)
+
+  // a handoff is sent to the shard of the other number of shards when resharding
+  private def extractShardId(entityTypeName: String): ShardRegion.ExtractShardId = shardLoadTracker match {
+    case None => {
+      case CommandEnvelope(entityId, payload) => shardId(entityId)
+      case CommandEnvelopeBatch(commands)     => shardId(commands.head.entityId)
+      case EntityHandoff(_, handoffShardId)   => handoffShardId
+      case EnsureActive(entityId)             => shardId(entityId)
+    }
+    case Some(tracker) => {
+      case CommandEnvelope(entityId, payload) =>
+        val id = shardId(entityId)
+        tracker.commandSent(entityTypeName, id)
+        id
+      case CommandEnvelopeBatch(commands) =>
+        val id = shardId(commands.head.entityId)
+        commands.foreach(_ => tracker.commandSent(entityTypeName, id))
+        id
+      case EntityHandoff(_, handoffShardId) => handoffShardId
+      // not counted, since it is not a command
+      case EnsureActive(entityId)           => shardId(entityId)
+    }
   }
 
   private val registeredTypeNames = new ConcurrentHashMap[String, Class[_]]()
@@ -88,26 +157,90 @@ abstract class AbstractPersistentEntityRegistry(system: ActorSystem, injector: I
         "Override entityTypeName in the PersistentEntity to define a unique name.")
     }
 
+    // the timer shards run on the same nodes as the entities
+    EntityTimers(system).start(shardingSettings)
+
     if (role.forall(Cluster(system).selfRoles.contains)) {
+      val groupCommit =
+        if (groupCommitEnabled || groupCommitEntityTypes(entityTypeName)) groupCommitMaxCommands
+        else 0
       val entityProps = PersistentEntityActor.props(
-        persistenceIdPrefix = entityTypeName, Optional.empty(), entityFactory, snapshotAfter, passivateAfterIdleTimeout
+        persistenceIdPrefix = entityTypeName, Optional.empty(), entityFactory, snapshotPolicy, passivateAfterIdleTimeout,
+        groupCommit, metricsProvider.start(entityTypeName)
       )
-      sharding.start(entityTypeName, entityProps, shardingSettings, extractEntityId, extractShardId)
+      allocationStrategyProvider match {
+        case None =>
+          sharding.start(entityTypeName, entityProps, shardingSettings, extractEntityId, extractShardId(entityTypeName))
+        case Some(provider) =>
+          sharding.start(entityTypeName, entityProps, shardingSettings, extractEntityId, extractShardId(entityTypeName),
+            provider.create(entityTypeName), PoisonPill)
+      }
     } else {
       // not required role, start in proxy mode
-      sharding.startProxy(entityTypeName, role, extractEntityId, extractShardId)
+      sharding.startProxy(entityTypeName, role, extractEntityId, extractShardId(entityTypeName))
+    }
+
+    if (readReplicaEntityTypes(entityTypeName)) eventsByPersistenceIdQuery match {
+      case Some(query) if readReplicas > 0 =>
+        // the replicas are sharded independently of the entities, so that the replicas
+        // of a popular entity are spread over the nodes
+        val replicaExtractShardId: ShardRegion.ExtractShardId = {
+          case CommandEnvelope(replicaEntityId, _) => shardId(replicaEntityId)
+        }
+        if (role.forall(Cluster(system).selfRoles.contains)) {
+          val replicaProps = ReadReplicaActor.props(
+            persistenceIdPrefix = entityTypeName, Optional.empty(), entityFactory, query, passivateAfterIdleTimeout,
+            replicaMinBackoff, replicaMaxBackoff, replicaRandomFactor
+          )
+          sharding.start(replicaTypeName(entityTypeName), replicaProps, shardingSettings, extractEntityId,
+            replicaExtractShardId)
+        } else
+          sharding.startProxy(replicaTypeName(entityTypeName), role, extractEntityId, replicaExtractShardId)
+      case Some(_) =>
+      case None =>
+        log.warning("Read replicas of [{}] are not started, since the {} Lagom persistence plugin does not " +
+          "support the events by persistence id query", entityTypeName, journalId)
     }
   }
 
+  private def replicaTypeName(entityTypeName: String): String = entityTypeName + "-read-replica"
+
+  private def readReplicasEnabled(entityTypeName: String): Boolean =
+    readReplicaEntityTypes(entityTypeName) && readReplicas > 0 && eventsByPersistenceIdQuery.isDefined
+
   override def refFor[C](entityClass: Class[_ <: PersistentEntity[C, _, _]], entityId: String): PersistentEntityRef[C] =
-    try
-      new PersistentEntityRef(entityId, sharding.shardRegion(entityTypeName(entityClass)), system, askTimeout)
-    catch {
+    try {
+      val typeName = entityTypeName(entityClass)
+      val replicaRegion: Option[ActorRef] =
+        if (readReplicasEnabled(typeName)) Some(sharding.shardRegion(replicaTypeName(typeName)))
+        else None
+      new PersistentEntityRef(entityId, sharding.shardRegion(typeName), system, askTimeout, replicaRegion, readReplicas)
+    } catch {
       case e: IllegalArgumentException =>
         // change the error message
         throw new IllegalArgumentException(s"[${entityClass.getName} must first be registered")
     }
 
+  // the commands to entities in the same shard are sent together
+  override protected def askEntities(
+    entityClass: Class[_ <: PersistentEntity[_, _, _]],
+    commands:    Vector[(String, Any)]
+  ): CompletionStage[Map[String, Any]] = {
+    import scala.compat.java8.FutureConverters._
+    val region = try sharding.shardRegion(entityTypeName(entityClass)) catch {
+      case e: IllegalArgumentException =>
+        // change the error message
+        throw new IllegalArgumentException(s"[${entityClass.getName} must first be registered")
+    }
+    val batches = commands
+      .map { case (entityId, command) => CommandEnvelope(entityId, command) }
+      .groupBy(envelope => shardId(envelope.entityId))
+      .values.map(CommandEnvelopeBatch(_)).toVector
+    val promise = Promise[Map[String, Any]]()
+    system.actorOf(BatchAsk.props(region, batches, askTimeout, promise))
+    promise.future.toJava
+  }
+
   private def entityTypeName(entityClass: Class[_]): String = Logging.simpleName(entityClass)
 
   override def eventStream[Event <: AggregateEvent[Event]](
@@ -122,8 +255,11 @@ abstract class AbstractPersistentEntityRegistry(system: ActorSystem, injector: I
           case seq: Offset.Sequence => seq.value() + 1
           case other                => throw new IllegalArgumentException(s"$journalId does not support ${other.getClass.getSimpleName} offsets")
         }
-        queries.eventsByTag(tag, offset)
-          .map { env => Pair.create(env.event.asInstanceOf[Event], Offset.sequence(env.offset)) }
+        val journalEvents = queries.eventsByTag(tag, offset).map { env =>
+          Pair.create(RecentEventsCache.RecentEvent(env.persistenceId, env.sequenceNr, env.event), Offset.sequence(env.offset))
+        }
+        RecentEventsCache(system).eventStream(tag, fromOffset, journalEvents)
+          .map { pair => Pair.create(pair.first.asInstanceOf[Event], pair.second) }
           .asJava
       case None =>
         throw new UnsupportedOperationException(s"The $journalId Lagom persistence plugin does not support streaming events by tag")
@@ -5,10 +5,14 @@ package com.lightbend.lagom.internal.persistence
 
 import akka.persistence.journal.Tagged
 import akka.persistence.journal.WriteEventAdapter
-import com.lightbend.lagom.javadsl.persistence.AggregateEvent
+import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, MultiTagAggregateEvent }
+
+import scala.collection.JavaConverters._
 
 private[lagom] class AggregateEventTagger extends WriteEventAdapter {
   override def toJournal(event: Any): Any = event match {
+    case a: MultiTagAggregateEvent[_] ⇒
+      Tagged(event, a.additionalTags.asScala.map(_.tag).toSet + a.aggregateTag.tag)
     case a: AggregateEvent[_] ⇒
       Tagged(event, Set(a.aggregateTag.tag))
     case _ ⇒
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import akka.actor.{ Actor, ActorRef, Props }
+import akka.pattern.AskTimeoutException
+
+import scala.collection.immutable
+import scala.concurrent.Promise
+import scala.concurrent.duration.FiniteDuration
+
+private[lagom] object BatchAsk {
+  def props(region: ActorRef, batches: immutable.Iterable[CommandEnvelopeBatch], timeout: FiniteDuration,
+            promise: Promise[Map[String, Any]]): Props =
+    Props(new BatchAsk(region, batches, timeout, promise))
+
+  private case object Timeout
+}
+
+/**
+ * Sends the batches of commands to the shard region, and completes the `promise` with
+ * the replies of all entities. It is used instead of one ask for each entity.
+ */
+private[lagom] class BatchAsk(
+  region:  ActorRef,
+  batches: immutable.Iterable[CommandEnvelopeBatch],
+  timeout: FiniteDuration,
+  promise: Promise[Map[String, Any]]
+) extends Actor {
+  import BatchAsk._
+  import context.dispatcher
+
+  private val expected: Set[String] = batches.flatMap(_.commands.map(_.entityId))(collection.breakOut)
+  private var replies = Map.empty[String, Any]
+  private val timeoutTask = context.system.scheduler.scheduleOnce(timeout, self, Timeout)
+
+  override def preStart(): Unit =
+    batches.foreach(region ! _)
+
+  override def postStop(): Unit =
+    timeoutTask.cancel()
+
+  def receive = {
+    case BatchedReply(_, exc: Throwable) =>
+      // not using akka.actor.Status.Failure because it is using Java serialization
+      promise.tryFailure(exc)
+      context.stop(self)
+
+    case BatchedReply(entityId, reply) =>
+      if (expected(entityId))
+        replies = replies.updated(entityId, reply)
+      if (replies.size == expected.size) {
+        promise.trySuccess(replies)
+        context.stop(self)
+      }
+
+    case Timeout =>
+      promise.tryFailure(new AskTimeoutException(s"Ask timed out on [$region] after [${timeout.toMillis} ms]. " +
+        s"Missing replies from ${expected.size - replies.size} of ${expected.size} entities."))
+      context.stop(self)
+  }
+
+}
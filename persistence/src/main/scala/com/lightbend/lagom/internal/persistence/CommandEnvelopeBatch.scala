@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import com.lightbend.lagom.javadsl.persistence.CommandEnvelope
+
+import scala.collection.immutable
+
+/**
+ * Commands to several entities in the same shard, sent with
+ * [[com.lightbend.lagom.javadsl.persistence.PersistentEntityRegistry#askAll]].
+ *
+ * The batch is delivered to the entity of the first command, which passes on the
+ * other commands to their entities via the local shard. Each entity replies with a
+ * [[BatchedReply]].
+ */
+private[lagom] final case class CommandEnvelopeBatch(commands: immutable.Seq[CommandEnvelope]) {
+  require(commands.nonEmpty, "CommandEnvelopeBatch must not be empty")
+}
+
+/**
+ * The reply to a command of a [[CommandEnvelopeBatch]], tagged with the id of the
+ * entity that sent it.
+ */
+private[lagom] final case class BatchedReply(entityId: String, reply: Any)
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.PriorityQueue
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.{ AtomicBoolean, AtomicLong }
+
+import akka.actor.{ ActorRef, ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+import com.lightbend.lagom.internal.spi.PersistentEntityMetrics
+
+import scala.collection.JavaConverters._
+
+private[lagom] object EntityPassivationBudget extends ExtensionId[EntityPassivationBudget] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): EntityPassivationBudget =
+    new EntityPassivationBudget(system)
+
+  override def lookup = EntityPassivationBudget
+
+  override def get(system: ActorSystem): EntityPassivationBudget = super.get(system)
+
+  private final class Candidate(val lastAccess: Long, val entry: Entry) extends Comparable[Candidate] {
+    override def compareTo(other: Candidate): Int = java.lang.Long.compare(lastAccess, other.lastAccess)
+  }
+
+  /**
+   * Sent to an entity that is one of the least recently used entities when the budget
+   * has been exceeded. The entity is supposed to passivate itself.
+   */
+  case object Evict
+
+  /**
+   * An active entity that is tracked by the budget.
+   */
+  final class Entry private[EntityPassivationBudget] (val entity: ActorRef, val metrics: PersistentEntityMetrics) {
+    @volatile private[EntityPassivationBudget] var lastAccess: Long = System.nanoTime()
+    @volatile private[EntityPassivationBudget] var stateSize: Long = 0L
+    @volatile private[EntityPassivationBudget] var evicted: Boolean = false
+    // the state size when the entity was evicted, which is pending until it has stopped
+    @volatile private[EntityPassivationBudget] var evictedStateSize: Long = 0L
+
+    /**
+     * Mark the entity as used, invoked for each command.
+     */
+    def touch(): Unit =
+      lastAccess = System.nanoTime()
+  }
+}
+
+/**
+ * Limits the number of active persistent entities on this node, across all
+ * entity types, by the number of entities and/or their estimated state size.
+ * When the budget is exceeded the least recently used entities are passivated.
+ *
+ * The entities register themselves when they have been activated, mark themselves
+ * as used for each command, and unregister when they are stopped. Entities are
+ * evicted in groups of `eviction-ratio` of the budget, to not have to find the least
+ * recently used entities for each new activation. The entities that have been evicted
+ * but have not stopped yet don't count against the budget, so that they are not evicted
+ * once more while they are stopping.
+ */
+private[lagom] class EntityPassivationBudget(system: ExtendedActorSystem) extends Extension {
+  import EntityPassivationBudget._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence.passivation-budget")
+
+  /**
+   * Maximum number of active entities on this node, 0 if not limited.
+   */
+  val maxEntities: Int = conf.getInt("max-entities")
+
+  /**
+   * Maximum total estimated state size of active entities on this node, 0 if not limited.
+   */
+  val maxStateSize: Long = conf.getString("max-state-size") match {
+    case "off" => 0L
+    case _     => conf.getBytes("max-state-size")
+  }
+
+  /**
+   * The state size of an entity is estimated again after this number of persisted events.
+   */
+  val stateSizeEstimateAfter: Int = conf.getInt("state-size-estimate-after")
+
+  private val evictionRatio: Double = conf.getDouble("eviction-ratio")
+
+  val isEnabled: Boolean = maxEntities > 0 || maxStateSize > 0
+
+  private val entries = ConcurrentHashMap.newKeySet[Entry]()
+  private val totalStateSize = new AtomicLong
+  private val evictionCount = new AtomicLong
+  private val pendingEvictions = new AtomicLong
+  private val pendingEvictionStateSize = new AtomicLong
+  private val evicting = new AtomicBoolean(false)
+
+  /**
+   * Number of entities that are currently active on this node.
+   */
+  def activeEntities: Int = entries.size
+
+  /**
+   * Total number of entities that have been evicted on this node.
+   */
+  def evictions: Long = evictionCount.get
+
+  /**
+   * Register an entity that has been activated.
+   */
+  def activated(entity: ActorRef, metrics: PersistentEntityMetrics): Entry = {
+    val entry = new Entry(entity, metrics)
+    entries.add(entry)
+    if (isOverBudget)
+      evict()
+    entry
+  }
+
+  /**
+   * Update the estimated state size of the entity.
+   */
+  def updateStateSize(entry: Entry, size: Long): Unit = {
+    val previous = entry.stateSize
+    entry.stateSize = size
+    if (entries.contains(entry)) {
+      totalStateSize.addAndGet(size - previous)
+      if (isOverBudget)
+        evict()
+    }
+  }
+
+  /**
+   * Unregister an entity that has been stopped.
+   */
+  def passivated(entry: Entry): Unit =
+    if (entries.remove(entry)) {
+      totalStateSize.addAndGet(-entry.stateSize)
+      if (entry.evicted) {
+        pendingEvictions.decrementAndGet()
+        pendingEvictionStateSize.addAndGet(-entry.evictedStateSize)
+      }
+    }
+
+  private def isOverBudget: Boolean =
+    (maxEntities > 0 && entries.size - pendingEvictions.get > maxEntities) ||
+      (maxStateSize > 0 && totalStateSize.get - pendingEvictionStateSize.get > maxStateSize)
+
+  /**
+   * Send `Evict` to the least recently used entities, until the remaining entities are
+   * `evictionRatio` below the budget. Only one thread performs eviction at a time, the
+   * others will see the effect when the evicted entities have been stopped.
+   *
+   * The candidates are put in a heap by their last access, which takes linear time, and
+   * only the entities that are evicted are taken from it.
+   */
+  private def evict(): Unit =
+    if (evicting.compareAndSet(false, true)) {
+      try {
+        // the last access is taken once, since it's updated concurrently
+        val candidates = new java.util.ArrayList[Candidate]
+        var remainingStateSize = 0L
+        entries.asScala.foreach { entry =>
+          if (!entry.evicted) {
+            candidates.add(new Candidate(entry.lastAccess, entry))
+            remainingStateSize += entry.stateSize
+          }
+        }
+        val targetEntities = (maxEntities * (1.0 - evictionRatio)).toLong
+        val targetStateSize = (maxStateSize * (1.0 - evictionRatio)).toLong
+        var remainingEntities = candidates.size.toLong
+
+        def needsEviction =
+          (maxEntities > 0 && remainingEntities > targetEntities) ||
+            (maxStateSize > 0 && remainingStateSize > targetStateSize)
+
+        if (needsEviction) {
+          val leastRecentlyUsed = new PriorityQueue[Candidate](candidates)
+          while (needsEviction && !leastRecentlyUsed.isEmpty) {
+            val entry = leastRecentlyUsed.poll().entry
+            entry.evictedStateSize = entry.stateSize
+            entry.evicted = true
+            pendingEvictions.incrementAndGet()
+            pendingEvictionStateSize.addAndGet(entry.evictedStateSize)
+            remainingEntities -= 1
+            remainingStateSize -= entry.stateSize
+            evictionCount.incrementAndGet()
+            entry.metrics.onEvicted()
+            entry.entity ! Evict
+          }
+        }
+      } finally evicting.set(false)
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.ConcurrentHashMap
+
+import akka.actor.{ Actor, ActorLogging, ActorSystem, Cancellable, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider, Props, RootActorPath }
+import akka.cluster.{ Cluster, MemberStatus }
+import akka.cluster.sharding.ClusterSharding
+import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+import scala.concurrent.duration._
+import scala.util.control.NonFatal
+
+private[lagom] object EntityPrewarming extends ExtensionId[EntityPrewarming] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): EntityPrewarming =
+    new EntityPrewarming(system)
+
+  override def lookup = EntityPrewarming
+
+  override def get(system: ActorSystem): EntityPrewarming = super.get(system)
+
+  /**
+   * Sent by a node that is leaving to the [[Prewarmer]] of another node, for an entity that
+   * was active on the leaving node.
+   */
+  final case class EntityPrewarm(entityTypeName: String, entityId: String)
+
+  private case object Tick
+
+  private val TickInterval = 100.millis
+
+  /**
+   * Wakes up the entities that were active on a leaving node, at most `entitiesPerSecond` of
+   * them per second, by sending `EnsureActive` to the shard region of their entity type. The
+   * shard region delivers it to the node that the shard of the entity has been moved to, where
+   * the entity is recovered.
+   */
+  private final class Prewarmer(entitiesPerSecond: Int, maxQueued: Int) extends Actor with ActorLogging {
+    import context.dispatcher
+
+    private val entitiesPerTick = math.max(entitiesPerSecond * TickInterval.toMillis / 1000, 1L).toInt
+    private val queue = mutable.Queue.empty[EntityPrewarm]
+    private var tick: Option[Cancellable] = None
+
+    override def postStop(): Unit =
+      tick.foreach(_.cancel())
+
+    def receive = {
+      case prewarm: EntityPrewarm =>
+        if (queue.size < maxQueued)
+          queue.enqueue(prewarm)
+        if (tick.isEmpty)
+          tick = Some(context.system.scheduler.schedule(TickInterval, TickInterval, self, Tick))
+
+      case Tick =>
+        var n = 0
+        while (n < entitiesPerTick && queue.nonEmpty) {
+          val prewarm = queue.dequeue()
+          try ClusterSharding(context.system).shardRegion(prewarm.entityTypeName) ! EnsureActive(prewarm.entityId)
+          catch {
+            case NonFatal(e) =>
+              // the entity type is not registered on this node
+              log.debug("Could not pre-warm entity [{}] of type [{}]: {}", prewarm.entityId,
+                prewarm.entityTypeName, e.getMessage)
+          }
+          n += 1
+        }
+        if (queue.isEmpty) {
+          tick.foreach(_.cancel())
+          tick = None
+        }
+    }
+  }
+}
+
+/**
+ * When the shards of a node that leaves gracefully are handed off, e.g. during a rolling update,
+ * their entities would be recovered by their new nodes when they receive their next command.
+ * When `lagom.persistence.prewarm-on-leave.enabled` is on, the node keeps track of the entities
+ * that are active on it. When it leaves, it sends the active entities to the other nodes after
+ * its shards have been handed off, and the other nodes recover them in the background.
+ */
+private[lagom] class EntityPrewarming(system: ExtendedActorSystem) extends Extension {
+  import EntityPrewarming._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence")
+
+  val isEnabled: Boolean = conf.getBoolean("prewarm-on-leave.enabled")
+  private val maxEntitiesPerType = conf.getInt("prewarm-on-leave.max-entities-per-type")
+  private val role: Option[String] = conf.getString("run-entities-on-role") match {
+    case "" => None
+    case r  => Some(r)
+  }
+
+  private val active = new ConcurrentHashMap[String, java.util.Set[String]]
+
+  if (isEnabled)
+    system.systemActorOf(Props(new Prewarmer(conf.getInt("prewarm-on-leave.entities-per-second"),
+      maxEntitiesPerType * 10)), "lagomEntityPrewarmer")
+
+  private def activeSet(entityTypeName: String): java.util.Set[String] = {
+    val s = active.get(entityTypeName)
+    if (s ne null) s
+    else {
+      active.putIfAbsent(entityTypeName, ConcurrentHashMap.newKeySet[String]())
+      active.get(entityTypeName)
+    }
+  }
+
+  /**
+   * Called by the entity when it has recovered.
+   */
+  def activated(entityTypeName: String, entityId: String): Unit =
+    if (isEnabled) activeSet(entityTypeName).add(entityId)
+
+  /**
+   * Called by the entity when it has been stopped.
+   */
+  def stopped(entityTypeName: String, entityId: String): Unit =
+    if (isEnabled) activeSet(entityTypeName).remove(entityId)
+
+  /**
+   * The entities of the given type that are active on this node, at most
+   * `max-entities-per-type` of them.
+   */
+  def activeEntities(entityTypeName: String): Vector[String] =
+    if (isEnabled) activeSet(entityTypeName).asScala.iterator.take(maxEntitiesPerType).toVector
+    else Vector.empty
+
+  /**
+   * Sends the entities to the other nodes that are up, which recover them in the background.
+   */
+  def prewarmOnOtherNodes(entities: Map[String, Vector[String]]): Unit =
+    if (isEnabled) {
+      val cluster = Cluster(system)
+      val nodes = cluster.state.members.toVector.collect {
+        case m if m.status == MemberStatus.Up && m.address != cluster.selfAddress && role.forall(m.hasRole) => m.address
+      }
+      if (nodes.nonEmpty) {
+        val prewarmers = nodes.map(address => system.actorSelection(RootActorPath(address) / "system" / "lagomEntityPrewarmer"))
+        var i = 0
+        for ((entityTypeName, entityIds) <- entities; entityId <- entityIds) {
+          prewarmers(i % prewarmers.size) ! EntityPrewarm(entityTypeName, entityId)
+          i += 1
+        }
+      }
+    }
+
+}
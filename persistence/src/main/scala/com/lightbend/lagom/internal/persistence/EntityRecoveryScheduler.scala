@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import akka.actor.{ Actor, ActorRef, ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider, Props, Terminated }
+
+import scala.collection.mutable
+
+private[lagom] object EntityRecoveryScheduler extends ExtensionId[EntityRecoveryScheduler] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): EntityRecoveryScheduler =
+    new EntityRecoveryScheduler(system)
+
+  override def lookup = EntityRecoveryScheduler
+
+  override def get(system: ActorSystem): EntityRecoveryScheduler = super.get(system)
+
+  /**
+   * Sent by an entity that wants to recover. It is answered with `PermitGranted`
+   * when the entity may start the recovery.
+   *
+   * @param prioritized `true` if the entity has commands waiting for it
+   */
+  final case class RequestPermit(prioritized: Boolean)
+
+  /**
+   * Sent by an entity that is waiting for a permit when it receives its first command.
+   */
+  case object Prioritize
+
+  /**
+   * Sent by an entity when it has completed its recovery. The permit is also returned
+   * when the entity is stopped.
+   */
+  case object ReturnPermit
+
+  case object PermitGranted
+
+  private final class Scheduler(extension: EntityRecoveryScheduler, maxConcurrentRecoveries: Int) extends Actor {
+
+    private var permitted = Set.empty[ActorRef]
+    private val prioritized = mutable.LinkedHashSet.empty[ActorRef]
+    private val queued = mutable.LinkedHashSet.empty[ActorRef]
+
+    def receive = {
+      case RequestPermit(prio) =>
+        val entity = sender()
+        context.watch(entity)
+        if (permitted.size < maxConcurrentRecoveries) grant(entity)
+        else if (prio) prioritized += entity
+        else queued += entity
+        updateQueueDepth()
+
+      case Prioritize =>
+        val entity = sender()
+        if (queued.remove(entity))
+          prioritized += entity
+
+      case ReturnPermit =>
+        val entity = sender()
+        if (permitted(entity)) {
+          context.unwatch(entity)
+          release(entity)
+        }
+
+      case Terminated(entity) =>
+        prioritized -= entity
+        queued -= entity
+        release(entity)
+    }
+
+    private def grant(entity: ActorRef): Unit = {
+      permitted += entity
+      entity ! PermitGranted
+    }
+
+    private def release(entity: ActorRef): Unit = {
+      permitted -= entity
+      while (permitted.size < maxConcurrentRecoveries && (prioritized.nonEmpty || queued.nonEmpty)) {
+        val next = if (prioritized.nonEmpty) prioritized.head else queued.head
+        prioritized -= next
+        queued -= next
+        grant(next)
+      }
+      updateQueueDepth()
+    }
+
+    private def updateQueueDepth(): Unit =
+      extension._queueDepth = prioritized.size + queued.size
+  }
+}
+
+/**
+ * Limits the number of persistent entities that recover their state at the same time on
+ * this node, to not overload the journal when many entities are started at once, e.g.
+ * when they are moved from a node that has been removed from the cluster.
+ *
+ * Entities with commands waiting for them are recovered before entities that have been
+ * started without commands, e.g. when remembered entities are restarted after rebalancing.
+ */
+private[lagom] class EntityRecoveryScheduler(system: ExtendedActorSystem) extends Extension {
+  import EntityRecoveryScheduler._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence.recovery")
+
+  /**
+   * Maximum number of entities that recover at the same time on this node, 0 if not limited.
+   */
+  val maxConcurrentRecoveries: Int = conf.getInt("max-concurrent-recoveries")
+
+  val isEnabled: Boolean = maxConcurrentRecoveries > 0
+
+  @volatile private[EntityRecoveryScheduler] var _queueDepth = 0
+
+  /**
+   * Number of entities that are waiting for a permit to recover on this node.
+   */
+  def queueDepth: Int = _queueDepth
+
+  /**
+   * The actor that grants the recovery permits, only started when the scheduler is enabled.
+   */
+  lazy val scheduler: ActorRef =
+    system.systemActorOf(Props(new Scheduler(this, maxConcurrentRecoveries)), "lagomEntityRecoveryScheduler")
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.{ ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+
+import scala.concurrent.duration._
+
+private[lagom] object EntityResharding extends ExtensionId[EntityResharding] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): EntityResharding =
+    new EntityResharding(system)
+
+  override def lookup = EntityResharding
+
+  override def get(system: ActorSystem): EntityResharding = super.get(system)
+
+  /**
+   * The shard of the entity when there are `numberOfShards` shards.
+   */
+  def shardId(entityId: String, numberOfShards: Int): String =
+    (math.abs(entityId.hashCode) % numberOfShards).toString
+
+  /**
+   * Sent by an entity to the instance of the same entity in the shard with the given id,
+   * before the entity is recovered. That instance stops, after its writes in progress have
+   * completed, and replies with [[EntityHandoffAck]].
+   */
+  final case class EntityHandoff(entityId: String, shardId: String)
+
+  /**
+   * The reply to [[EntityHandoff]], when the entity in the other shard has stopped.
+   */
+  final case class EntityHandoffAck(entityId: String)
+}
+
+/**
+ * Changing `lagom.persistence.max-number-of-shards` moves most entities to another shard.
+ * During a rolling update the nodes with the old and the new number of shards could run the
+ * same entity in both shards, with two writers of its events. When
+ * `lagom.persistence.resharding.other-number-of-shards` is defined, an entity that is started
+ * in one of the two shards first asks the instance in the other shard to stop, and is not
+ * recovered until that has been acknowledged.
+ */
+private[lagom] class EntityResharding(system: ExtendedActorSystem) extends Extension {
+  import EntityResharding._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence")
+
+  private val numberOfShards = conf.getInt("max-number-of-shards")
+  private val otherNumberOfShards: Int = conf.getString("resharding.other-number-of-shards") match {
+    case "off" => 0
+    case _     => conf.getInt("resharding.other-number-of-shards")
+  }
+
+  val isEnabled: Boolean = otherNumberOfShards > 0 && otherNumberOfShards != numberOfShards
+
+  /**
+   * How long to wait for the [[EntityHandoffAck]] before the handoff is requested again.
+   */
+  val handoffTimeout: FiniteDuration =
+    conf.getDuration("resharding.handoff-timeout", TimeUnit.MILLISECONDS).millis
+
+  /**
+   * The shard that may also run the entity that is running in the shard `currentShardId`,
+   * if any.
+   */
+  def otherShardId(entityId: String, currentShardId: String): Option[String] =
+    if (!isEnabled) None
+    else {
+      val shard = shardId(entityId, numberOfShards)
+      val otherShard = shardId(entityId, otherNumberOfShards)
+      if (shard == otherShard) None
+      else if (currentShardId == shard) Some(otherShard)
+      else Some(shard)
+    }
+
+}
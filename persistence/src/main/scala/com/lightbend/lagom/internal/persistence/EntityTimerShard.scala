@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.net.URLDecoder
+
+import akka.actor.{ ActorLogging, DeadLetterSuppression, Props }
+import akka.cluster.sharding.ClusterSharding
+import akka.pattern.{ ask, pipe }
+import akka.persistence._
+import akka.util.{ ByteString, Timeout }
+import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
+import com.lightbend.lagom.javadsl.persistence.CommandEnvelope
+
+import scala.collection.immutable.Queue
+import scala.concurrent.duration.FiniteDuration
+import scala.util.control.NonFatal
+
+private[lagom] object EntityTimerShard {
+
+  final case class Settings(
+    tick:          FiniteDuration,
+    wheelSize:     Int,
+    retryAfter:    FiniteDuration,
+    maxInFlight:   Int,
+    snapshotAfter: Int,
+    askTimeout:    FiniteDuration
+  )
+
+  def props(settings: Settings): Props =
+    Props(new EntityTimerShard(settings))
+
+  private case object Tick extends DeadLetterSuppression
+  private final case class Delivered(timer: EntityTimers.ScheduleTimer)
+  private final case class DeliveryFailed(timer: EntityTimers.ScheduleTimer, cause: Throwable)
+}
+
+/**
+ * One shard of the [[EntityTimers]]. The timers are persisted as `ScheduleTimer` and
+ * `CancelTimer` events, and the pending timers are kept in a [[TimingWheel]] that is
+ * advanced at each tick. Each update of the entities is confirmed when it has been stored.
+ * The commands of the due timers are delivered in deadline order, with at most
+ * `maxInFlight` deliveries waiting for a reply at the same time.
+ */
+private[lagom] class EntityTimerShard(settings: EntityTimerShard.Settings) extends PersistentActor with ActorLogging {
+  import EntityTimerShard._
+  import EntityTimers._
+  import context.dispatcher
+
+  override val persistenceId: String =
+    TypeName + "-" + URLDecoder.decode(self.path.name, ByteString.UTF_8)
+
+  private var timers = Map.empty[TimerId, ScheduleTimer]
+  private val wheel = new TimingWheel[TimerId](settings.tick.toMillis, settings.wheelSize, System.currentTimeMillis())
+  // the timers that are due, in deadline order
+  private var due = Queue.empty[ScheduleTimer]
+  private var inFlight = 0
+  private var eventsSinceSnapshot = 0
+
+  private val tick = context.system.scheduler.schedule(settings.tick, settings.tick, self, Tick)
+
+  override def postStop(): Unit = {
+    tick.cancel()
+    super.postStop()
+  }
+
+  override def receiveRecover: Receive = {
+    case SnapshotOffer(_, TimerShardSnapshot(snapshot)) =>
+      timers = snapshot.map(t => t.id -> t)(collection.breakOut)
+    case t: ScheduleTimer =>
+      timers = timers.updated(t.id, t)
+      eventsSinceSnapshot += 1
+    case CancelTimer(id) =>
+      timers -= id
+      eventsSinceSnapshot += 1
+    case RecoveryCompleted =>
+      timers.valuesIterator.foreach(t => wheel.add(t.id, t.deadline))
+  }
+
+  override def receiveCommand: Receive = {
+    case t: ScheduleTimer =>
+      persist(t) { _ =>
+        timers = timers.updated(t.id, t)
+        wheel.add(t.id, t.deadline)
+        eventPersisted()
+        sender() ! TimerUpdated(t.id)
+      }
+
+    case c @ CancelTimer(id) =>
+      if (timers.contains(id))
+        persist(c) { _ =>
+          removeTimer(id)
+          sender() ! TimerUpdated(id)
+        }
+      else
+        sender() ! TimerUpdated(id)
+
+    case Tick =>
+      wheel.advance(System.currentTimeMillis()) { id =>
+        timers.get(id).foreach(t => due = due.enqueue(t))
+      }
+      deliver()
+
+    case Delivered(t) =>
+      inFlight -= 1
+      // not if the timer has been replaced or cancelled meanwhile
+      if (timers.get(t.id).exists(_ eq t))
+        persist(CancelTimer(t.id))(_ => removeTimer(t.id))
+      deliver()
+
+    case DeliveryFailed(t, cause) =>
+      inFlight -= 1
+      if (timers.get(t.id).exists(_ eq t)) {
+        log.warning("Delivery of scheduled command to [{}] with id [{}] failed, retrying in {}, caused by: {}",
+          t.id.entityTypeName, t.id.entityId, settings.retryAfter, cause.getMessage)
+        wheel.add(t.id, System.currentTimeMillis() + settings.retryAfter.toMillis)
+      }
+      deliver()
+
+    case EnsureActive(_) =>
+    // keeps the shard running, so that its timers fire
+
+    case SaveSnapshotSuccess(metadata) =>
+      // the snapshot contains all timers, the events before it are not needed anymore
+      deleteMessages(metadata.sequenceNr)
+
+    case SaveSnapshotFailure(_, cause) =>
+      log.warning("Snapshot of timer shard [{}] failed, caused by: {}", persistenceId, cause.getMessage)
+
+    case _: DeleteMessagesSuccess =>
+    case DeleteMessagesFailure(cause, _) =>
+      log.warning("Deleting the events of timer shard [{}] failed, caused by: {}", persistenceId, cause.getMessage)
+  }
+
+  private def removeTimer(id: TimerId): Unit = {
+    timers -= id
+    wheel.remove(id)
+    eventPersisted()
+  }
+
+  private def eventPersisted(): Unit = {
+    eventsSinceSnapshot += 1
+    if (settings.snapshotAfter > 0 && eventsSinceSnapshot >= settings.snapshotAfter) {
+      saveSnapshot(TimerShardSnapshot(timers.values.toVector))
+      eventsSinceSnapshot = 0
+    }
+  }
+
+  private def deliver(): Unit =
+    while (inFlight < settings.maxInFlight && due.nonEmpty) {
+      val (t, rest) = due.dequeue
+      due = rest
+      // skip the timers that have been replaced or cancelled while they were due
+      if (timers.get(t.id).exists(_ eq t)) {
+        inFlight += 1
+        try {
+          val region = ClusterSharding(context.system).shardRegion(t.id.entityTypeName)
+          implicit val timeout = Timeout(settings.askTimeout)
+          // any reply means that the command has been handled, also a failure reply
+          (region ? CommandEnvelope(t.id.entityId, t.command))
+            .map(_ => Delivered(t))
+            .recover { case NonFatal(e) => DeliveryFailed(t, e) }
+            .pipeTo(self)
+        } catch {
+          // the entity type has not been registered on this node
+          case NonFatal(e) => self ! DeliveryFailed(t, e)
+        }
+      }
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.TimeUnit
+
+import akka.Done
+import akka.actor.{ ActorRef, ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+import akka.cluster.sharding.ClusterShardingSettings
+import akka.event.Logging
+import akka.pattern.{ after, ask }
+import akka.util.Timeout
+import com.lightbend.lagom.internal.persistence.cluster.{ ClusterDistribution, ClusterDistributionSettings }
+
+import scala.collection.immutable
+import scala.concurrent.Future
+import scala.concurrent.duration._
+import scala.util.control.NonFatal
+
+private[lagom] object EntityTimers extends ExtensionId[EntityTimers] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): EntityTimers =
+    new EntityTimers(system)
+
+  override def lookup = EntityTimers
+
+  override def get(system: ActorSystem): EntityTimers = super.get(system)
+
+  /**
+   * The cluster sharding type name of the timer shards.
+   */
+  val TypeName = "lagom-entity-timers"
+
+  /**
+   * Identifies a timer. An entity has at most one timer with each key.
+   */
+  final case class TimerId(entityTypeName: String, entityId: String, timerKey: String)
+
+  /**
+   * A change of a timer, which the timer shard confirms with a [[TimerUpdated]] when it has
+   * stored it.
+   */
+  sealed trait TimerUpdate {
+    def id: TimerId
+  }
+
+  /**
+   * Schedule the command to be sent to the entity at the deadline, in epoch milliseconds.
+   * Replaces the timer with the same id. Also the event of the timer shard.
+   */
+  final case class ScheduleTimer(id: TimerId, deadline: Long, command: Any) extends TimerUpdate
+
+  /**
+   * Cancel the timer with the given id. Also the event of the timer shard, which is
+   * persisted when the command of the timer has been delivered.
+   */
+  final case class CancelTimer(id: TimerId) extends TimerUpdate
+
+  /**
+   * The reply of the timer shard when it has stored a [[TimerUpdate]]. Also the event of the
+   * entity that the update has been confirmed.
+   */
+  final case class TimerUpdated(id: TimerId)
+
+  /**
+   * The snapshot of a timer shard.
+   */
+  final case class TimerShardSnapshot(timers: immutable.Seq[ScheduleTimer])
+}
+
+/**
+ * Persistent timers of the persistent entities. The timers are kept by a fixed number of
+ * timer shards, which are spread over the cluster with [[ClusterDistribution]]. Each timer
+ * shard stores its timers as events in the journal, and keeps the pending timers in a
+ * [[TimingWheel]] so that many timers can be kept at a low cost. When a timer is due its
+ * command is sent to the entity through the shard region of the entity type, like
+ * `PersistentEntityRef.ask` does, and the timer is removed when the entity has replied.
+ * Delivery is retried until the entity replies, so a command may be delivered more than
+ * once.
+ *
+ * The entities store the timer updates of a command in their own journal, in the same atomic
+ * write as the events of the command, and then send them and likewise retry them until the
+ * timer shard has confirmed that it has stored them. The confirmations are stored as
+ * [[TimerUpdated]] events in the journal of the entity, and the updates without confirmation
+ * are sent again when the entity is recovered, so an update may be stored more than once.
+ */
+private[lagom] class EntityTimers(system: ExtendedActorSystem) extends Extension {
+  import EntityTimers._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence.timers")
+  private val log = Logging(system, getClass)
+
+  val isEnabled: Boolean = conf.getBoolean("enabled")
+  private val numberOfShards = conf.getInt("shards")
+  private val settings = EntityTimerShard.Settings(
+    tick = conf.getDuration("tick", TimeUnit.MILLISECONDS).millis,
+    wheelSize = conf.getInt("wheel-size"),
+    retryAfter = conf.getDuration("retry-after", TimeUnit.MILLISECONDS).millis,
+    maxInFlight = conf.getInt("max-in-flight"),
+    snapshotAfter = conf.getString("snapshot-after") match {
+      case "off" => 0
+      case _     => conf.getInt("snapshot-after")
+    },
+    askTimeout = system.settings.config.getDuration("lagom.persistence.ask-timeout", TimeUnit.MILLISECONDS).millis
+  )
+
+  @volatile private var region: ActorRef = null
+
+  /**
+   * Start the timer shards, or the proxy of the timer shards on nodes without the role of
+   * the sharding settings. Subsequent calls have no effect.
+   */
+  def start(shardingSettings: ClusterShardingSettings): Unit =
+    if (isEnabled && (region eq null)) synchronized {
+      if (region eq null)
+        region = ClusterDistribution(system).start(
+          TypeName,
+          EntityTimerShard.props(settings),
+          (0 until numberOfShards).map(_.toString)(collection.breakOut),
+          ClusterDistributionSettings(system).copy(clusterShardingSettings = shardingSettings),
+          {
+            case ScheduleTimer(id, _, _) => shardOf(id)
+            case CancelTimer(id)         => shardOf(id)
+          }
+        )
+    }
+
+  // all timers of an entity are kept by the same timer shard
+  private def shardOf(id: TimerId): String =
+    math.abs((id.entityTypeName + id.entityId).hashCode % numberOfShards).toString
+
+  /**
+   * The update that schedules `command` to be sent to the entity after `delay`, replacing the
+   * timer of the entity with the same key.
+   */
+  def scheduleTimer(entityTypeName: String, entityId: String, timerKey: String, delay: FiniteDuration,
+                    command: Any): ScheduleTimer = {
+    requireStarted()
+    ScheduleTimer(TimerId(entityTypeName, entityId, timerKey), System.currentTimeMillis() + delay.toMillis, command)
+  }
+
+  /**
+   * The update that cancels the timer of the entity with the given key, if any.
+   */
+  def cancelTimer(entityTypeName: String, entityId: String, timerKey: String): CancelTimer = {
+    requireStarted()
+    CancelTimer(TimerId(entityTypeName, entityId, timerKey))
+  }
+
+  /**
+   * Send the updates to the timer shards one after the other, in order. Each update is sent
+   * again after `retry-after` until its timer shard has confirmed it, like the timer shards
+   * deliver the commands of the timers, so the returned future is only completed when all
+   * updates have been stored.
+   */
+  def update(updates: immutable.Seq[TimerUpdate]): Future[Done] = {
+    import system.dispatcher
+    updates.foldLeft(Future.successful[Done](Done)) {
+      (previous, u) => previous.flatMap(_ => confirmed(u))
+    }
+  }
+
+  private def confirmed(update: TimerUpdate): Future[Done] = {
+    import system.dispatcher
+    implicit val timeout = Timeout(settings.askTimeout)
+    (timerShards ? update).map(_ => Done).recoverWith {
+      case NonFatal(e) =>
+        log.warning("Update of a timer of [{}] with id [{}] failed, retrying in {}, caused by: {}",
+          update.id.entityTypeName, update.id.entityId, settings.retryAfter, e.getMessage)
+        after(settings.retryAfter, system.scheduler)(confirmed(update))
+    }
+  }
+
+  private def requireStarted(): Unit =
+    if (region eq null)
+      throw new IllegalStateException("Persistent entity timers are not enabled, " +
+        "enable them with lagom.persistence.timers.enabled = on")
+
+  private def timerShards: ActorRef = {
+    requireStarted()
+    region
+  }
+
+}
@@ -26,6 +26,7 @@ private[lagom] class GracefulLeave(entityTypeNames: Set[String])
   import context.dispatcher
   val system = context.system
   val cluster = Cluster(system)
+  val prewarming = EntityPrewarming(system)
 
   def receive = {
     case Leave ⇒
@@ -33,23 +34,27 @@ private[lagom] class GracefulLeave(entityTypeNames: Set[String])
         cluster.leave(cluster.selfAddress)
         context.become(leavingInProgress(sender()))
       } else {
+        // before the shard regions stop the entities
+        val activeEntities = entityTypeNames.map(name => name -> prewarming.activeEntities(name)).toMap
         entityTypeNames.foreach { name =>
           val region = ClusterSharding(system).shardRegion(name)
           context.watch(region)
           region ! ShardRegion.GracefulShutdown
         }
-        context.become(shardingInProgress(sender(), entityTypeNames.size))
+        context.become(shardingInProgress(sender(), entityTypeNames.size, activeEntities))
       }
   }
 
-  def shardingInProgress(replyTo: ActorRef, count: Int): Receive = {
+  def shardingInProgress(replyTo: ActorRef, count: Int, activeEntities: Map[String, Vector[String]]): Receive = {
     case Terminated(_) ⇒
       if (count == 1) {
+        // the shards have been handed off, and are allocated to the other nodes on demand
+        prewarming.prewarmOnOtherNodes(activeEntities)
         cluster.registerOnMemberRemoved(self ! Removed)
         cluster.leave(cluster.selfAddress)
         context.become(leavingInProgress(replyTo))
       } else
-        context.become(shardingInProgress(replyTo, count - 1))
+        context.become(shardingInProgress(replyTo, count - 1, activeEntities))
   }
 
   def leavingInProgress(replyTo: ActorRef): Receive = {
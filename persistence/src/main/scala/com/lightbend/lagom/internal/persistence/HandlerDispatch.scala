@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.ConcurrentHashMap
+
+private[lagom] object HandlerDispatch {
+
+  /**
+   * The resolution of message classes to handler classes, shared by all behaviors of an
+   * entity class that have handlers for the same classes. It is kept with the entity class
+   * so that it does not hold on to classes of other class loaders, e.g. when the application
+   * is reloaded in development mode.
+   */
+  private val indexes = new ClassValue[ConcurrentHashMap[Vector[Class[_]], HandlerIndex]] {
+    override def computeValue(entityClass: Class[_]) = new ConcurrentHashMap
+  }
+
+  def apply[H](entityClass: Class[_], handlers: Map[_ <: Class[_], H]): HandlerDispatch[H] = {
+    val handlerClasses: Vector[Class[_]] = handlers.keys.toVector.sortBy(_.getName)
+    val cache = indexes.get(entityClass)
+    val index = {
+      val existing = cache.get(handlerClasses)
+      if (existing ne null) existing
+      else {
+        cache.putIfAbsent(handlerClasses, new HandlerIndex(handlerClasses))
+        cache.get(handlerClasses)
+      }
+    }
+    val resolved: Array[Option[H]] =
+      handlerClasses.map(c => handlers.asInstanceOf[Map[Class[_], H]].get(c))(collection.breakOut)
+    new HandlerDispatch(index, resolved)
+  }
+
+  /**
+   * Resolves a message class to the position of its handler class, or -1 if there is no
+   * handler for it. The handler class is the class itself, or else its closest superclass,
+   * or else the closest of its interfaces, i.e. breadth first starting with the interfaces
+   * of the class itself and then of its superclasses, in declaration order.
+   * The result is computed once per message class.
+   */
+  private final class HandlerIndex(handlerClasses: Vector[Class[_]]) extends ClassValue[Integer] {
+
+    override def computeValue(messageClass: Class[_]): Integer = {
+      val superclasses = Iterator.iterate[Class[_]](messageClass)(_.getSuperclass).takeWhile(_ ne null).toVector
+      var result = superclasses.iterator.map(handlerClasses.indexOf).find(_ >= 0).getOrElse(-1)
+      var visited = Set.empty[Class[_]]
+      var level = superclasses.flatMap(_.getInterfaces)
+      while (result < 0 && level.nonEmpty) {
+        val unvisited = level.filterNot(visited).distinct
+        visited ++= unvisited
+        result = unvisited.iterator.map(handlerClasses.indexOf).find(_ >= 0).getOrElse(-1)
+        level = unvisited.flatMap(_.getInterfaces)
+      }
+      result
+    }
+  }
+}
+
+/**
+ * The handlers of a [[com.lightbend.lagom.javadsl.persistence.PersistentEntity]] behavior,
+ * compiled into a dispatch table that finds the handler of a message class with one
+ * `ClassValue` lookup. Handlers that are registered for a superclass or an interface are
+ * also used for the subclasses and implementations.
+ */
+private[lagom] final class HandlerDispatch[H] private (
+  index:    ClassValue[Integer],
+  handlers: Array[Option[H]]
+) {
+
+  def apply(messageClass: Class[_]): Option[H] = {
+    val i = index.get(messageClass).intValue
+    if (i < 0) None else handlers(i)
+  }
+
+}
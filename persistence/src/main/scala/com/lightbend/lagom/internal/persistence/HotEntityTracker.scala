@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.{ ConcurrentHashMap, TimeUnit }
+import java.util.concurrent.atomic.AtomicBoolean
+import javax.inject.Inject
+
+import akka.actor.{ ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+import com.lightbend.lagom.internal.spi.HotEntitiesProvider
+import com.lightbend.lagom.internal.spi.HotEntitiesProvider.{ HotEntities, HotEntity }
+
+import scala.collection.JavaConverters._
+import scala.concurrent.duration._
+
+private[lagom] object HotEntityTracker extends ExtensionId[HotEntityTracker] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): HotEntityTracker =
+    new HotEntityTracker(system)
+
+  override def lookup = HotEntityTracker
+
+  override def get(system: ActorSystem): HotEntityTracker = super.get(system)
+
+  /**
+   * Samples the commands and the persist time of the entities of one entity type. The entities
+   * are spread over a number of stripes by their id, each with its own lock and its own
+   * [[TopKSketch]] for the commands and for the persist time, so that the entities of a hot
+   * entity type don't all contend for one lock. Since each entity is only counted by one stripe,
+   * the hottest entities of the entity type are the hottest of all stripes. The sketches are reset
+   * at the end of each window, when the hottest entities of the window are published.
+   */
+  final class Sampler private[HotEntityTracker] (entityTypeName: String, capacity: Int, topK: Int,
+                                                 window: FiniteDuration, stripes: Int) {
+
+    private final class Stripe {
+      val commands = new TopKSketch(capacity)
+      val persistTime = new TopKSketch(capacity)
+    }
+
+    private val stripeArray = Array.fill(stripes)(new Stripe)
+    private val windowNanos = window.toNanos
+    @volatile private var windowStart = System.nanoTime()
+    // held by the thread that ends the window
+    private val rotating = new AtomicBoolean
+    @volatile private var latest = new HotEntities(entityTypeName, java.util.Collections.emptyList(),
+      java.util.Collections.emptyList())
+
+    def commandReceived(entityId: String): Unit = {
+      rotateIfDue()
+      val stripe = stripeOf(entityId)
+      stripe.synchronized(stripe.commands.offer(entityId, 1L))
+    }
+
+    def persisted(entityId: String, nanos: Long): Unit = {
+      rotateIfDue()
+      val stripe = stripeOf(entityId)
+      stripe.synchronized(stripe.persistTime.offer(entityId, nanos))
+    }
+
+    /**
+     * The hottest entities of the last completed window.
+     */
+    def hotEntities: HotEntities = {
+      rotateIfDue()
+      latest
+    }
+
+    private def stripeOf(entityId: String): Stripe = {
+      val h = entityId.hashCode
+      stripeArray(((h ^ (h >>> 16)) & Int.MaxValue) % stripeArray.length)
+    }
+
+    private def rotateIfDue(): Unit =
+      if (System.nanoTime() - windowStart >= windowNanos && rotating.compareAndSet(false, true)) {
+        try {
+          // another thread may have ended the window in the meantime
+          val now = System.nanoTime()
+          if (now - windowStart >= windowNanos)
+            rotate(now)
+        } finally rotating.set(false)
+      }
+
+    private def rotate(now: Long): Unit = {
+      val seconds = (now - windowStart).toDouble / 1.second.toNanos
+      var commands = Vector.empty[TopKSketch.Entry]
+      var persistTime = Vector.empty[TopKSketch.Entry]
+      stripeArray.foreach { stripe =>
+        stripe.synchronized {
+          commands ++= stripe.commands.top(topK)
+          persistTime ++= stripe.persistTime.top(topK)
+          stripe.commands.clear()
+          stripe.persistTime.clear()
+        }
+      }
+      def entries(top: Vector[TopKSketch.Entry], scale: Double): java.util.List[HotEntity] =
+        top.sortBy(-_.weight).take(topK).map(e => new HotEntity(e.key, e.weight * scale, e.error * scale)).asJava
+      latest = new HotEntities(
+        entityTypeName,
+        entries(commands, 1.0 / seconds),
+        entries(persistTime, 1.0 / 1.milli.toNanos / seconds)
+      )
+      windowStart = now
+    }
+  }
+}
+
+/**
+ * Tracks the hottest persistent entities on this node for each entity type, by command
+ * rate and by the time spent waiting for their events to be persisted. This makes it
+ * possible to see which entities are hot before their commands start to time out.
+ */
+private[lagom] class HotEntityTracker(system: ExtendedActorSystem) extends Extension {
+  import HotEntityTracker._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence.hot-entities")
+
+  val isEnabled: Boolean = conf.getBoolean("enabled")
+  private val topK = conf.getInt("top-k")
+  private val capacity = math.max(conf.getInt("sketch-capacity"), topK)
+  private val window = conf.getDuration("window", TimeUnit.MILLISECONDS).millis
+  private val stripes = conf.getString("stripes") match {
+    case "auto" => math.min(Runtime.getRuntime.availableProcessors, 64)
+    case _      => math.max(conf.getInt("stripes"), 1)
+  }
+
+  private val samplers = new ConcurrentHashMap[String, Sampler]
+
+  /**
+   * The sampler of the given entity type, `null` if the tracker is not enabled.
+   */
+  def sampler(entityTypeName: String): Sampler =
+    if (!isEnabled) null
+    else {
+      val s = samplers.get(entityTypeName)
+      if (s ne null) s
+      else {
+        samplers.putIfAbsent(entityTypeName, new Sampler(entityTypeName, capacity, topK, window, stripes))
+        samplers.get(entityTypeName)
+      }
+    }
+
+  /**
+   * The hottest entities of each entity type.
+   */
+  def hotEntities: java.util.List[HotEntities] =
+    samplers.values.asScala.toVector.map(_.hotEntities).sortBy(_.getEntityTypeName).asJava
+
+}
+
+/**
+ * Provides the hottest entities from the [[HotEntityTracker]] to the status endpoint.
+ */
+private[lagom] class HotEntitiesProviderImpl @Inject() (system: ActorSystem) extends HotEntitiesProvider {
+  override def hotEntities(): java.util.List[HotEntities] = HotEntityTracker(system).hotEntities
+}
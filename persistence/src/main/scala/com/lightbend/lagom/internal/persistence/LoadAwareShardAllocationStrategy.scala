@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import javax.inject.Inject
+
+import akka.actor.{ ActorRef, ActorSystem, Address }
+import akka.cluster.Cluster
+import akka.cluster.sharding.ShardCoordinator.{ LeastShardAllocationStrategy, ShardAllocationStrategy }
+import akka.cluster.sharding.ClusterShardingSettings
+import akka.cluster.sharding.ShardRegion.ShardId
+
+import scala.collection.immutable
+import scala.concurrent.Future
+
+/**
+ * Creates the shard allocation strategy of each persistent entity type.
+ *
+ * A custom implementation can be configured with the fully qualified class name in
+ * `lagom.persistence.shard-allocation.strategy`. It is created by the injector.
+ */
+trait ShardAllocationStrategyProvider {
+  def create(entityTypeName: String): ShardAllocationStrategy
+}
+
+/**
+ * Provides the [[LoadAwareShardAllocationStrategy]], configured by
+ * `lagom.persistence.shard-allocation.load-aware`.
+ */
+class LoadAwareShardAllocationStrategyProvider @Inject() (system: ActorSystem) extends ShardAllocationStrategyProvider {
+
+  private val conf = system.settings.config.getConfig("lagom.persistence.shard-allocation.load-aware")
+  private val nodeLoadWeight = conf.getDouble("node-load-weight")
+  private val rebalanceThreshold = conf.getDouble("rebalance-threshold")
+  private val maxSimultaneousRebalance = conf.getInt("max-simultaneous-rebalance")
+  private val tuningParameters = ClusterShardingSettings(system).tuningParameters
+  private lazy val tracker = ShardLoadTracker(system)
+
+  override def create(entityTypeName: String): ShardAllocationStrategy =
+    new LoadAwareShardAllocationStrategy(
+      Cluster(system).selfAddress,
+      () => tracker.shardRates(entityTypeName),
+      () => tracker.nodeLoads,
+      nodeLoadWeight,
+      rebalanceThreshold,
+      maxSimultaneousRebalance,
+      new LeastShardAllocationStrategy(
+        tuningParameters.leastShardAllocationRebalanceThreshold,
+        tuningParameters.leastShardAllocationMaxSimultaneousRebalance
+      )
+    )
+}
+
+/**
+ * Allocates and rebalances shards based on the measured command rate of each shard and the
+ * load of each node.
+ *
+ * The load of a shard region is its share of the total command rate of the entity type,
+ * i.e. the sum of the rates of its shards divided by the rate of all shards, plus the
+ * system load of its node multiplied by `nodeLoadWeight`. New shards are allocated to the
+ * region with the lowest load. Since the rates are only reported periodically, the shards that
+ * have not been measured yet, e.g. those that were allocated since the last report, count with
+ * the average share of the measured shards, or with an equal share of all shards when no rate
+ * has been measured, so that the shards that are allocated between two reports are spread over
+ * the regions instead of all going to the same region. Shards are moved away from the region with the highest load
+ * when it exceeds the load of the least loaded region by more than `rebalanceThreshold`.
+ * The hottest shards that reduce the difference without reversing it are moved first.
+ *
+ * As long as nothing has been measured, e.g. right after the cluster has been started, the
+ * `fallback` strategy is used.
+ *
+ * @param selfAddress The address of this node, used for the local shard region.
+ * @param shardRates The command rate of each shard, summed over all nodes.
+ * @param nodeLoads The system load of each node, divided by its number of processors.
+ */
+class LoadAwareShardAllocationStrategy(
+  selfAddress:              Address,
+  shardRates:               () => Map[ShardId, Double],
+  nodeLoads:                () => Map[Address, Double],
+  nodeLoadWeight:           Double,
+  rebalanceThreshold:       Double,
+  maxSimultaneousRebalance: Int,
+  fallback:                 ShardAllocationStrategy
+) extends ShardAllocationStrategy {
+
+  override def allocateShard(requester: ActorRef, shardId: ShardId,
+                             currentShardAllocations: Map[ActorRef, immutable.IndexedSeq[ShardId]]): Future[ActorRef] =
+    measure(currentShardAllocations) match {
+      case Some(measurement) =>
+        val (region, _) = currentShardAllocations.minBy {
+          case (r, shards) => (measurement.estimatedLoad(r), shards.size)
+        }
+        Future.successful(region)
+      case None =>
+        fallback.allocateShard(requester, shardId, currentShardAllocations)
+    }
+
+  override def rebalance(currentShardAllocations: Map[ActorRef, immutable.IndexedSeq[ShardId]],
+                         rebalanceInProgress: Set[ShardId]): Future[Set[ShardId]] =
+    if (rebalanceInProgress.size >= maxSimultaneousRebalance) Future.successful(Set.empty)
+    else measure(currentShardAllocations) match {
+      case Some(measurement) =>
+        val rates = measurement.rates
+        val totalRate = measurement.totalRate
+        val (mostLoaded, maxLoad) = currentShardAllocations.keys.map(r => r -> measurement.load(r)).maxBy(_._2)
+        val minLoad = currentShardAllocations.keys.map(measurement.load).min
+        val difference = maxLoad - minLoad
+        val shards = currentShardAllocations(mostLoaded)
+        if (difference <= rebalanceThreshold || shards.size <= 1 || totalRate <= 0.0) Future.successful(Set.empty)
+        else {
+          // move half of the difference, so that the most loaded region doesn't become the least loaded
+          val candidates = shards.filterNot(rebalanceInProgress)
+            .map(shardId => shardId -> rates.getOrElse(shardId, 0.0) / totalRate)
+            .filter(_._2 > 0.0)
+            .sortBy(-_._2)
+          var remaining = difference / 2
+          val selected = Set.newBuilder[ShardId]
+          var count = rebalanceInProgress.size
+          candidates.foreach {
+            case (shardId, share) =>
+              if (count < maxSimultaneousRebalance && share <= remaining) {
+                selected += shardId
+                remaining -= share
+                count += 1
+              }
+          }
+          Future.successful(selected.result())
+        }
+      case None =>
+        fallback.rebalance(currentShardAllocations, rebalanceInProgress)
+    }
+
+  /**
+   * The measured rates and loads, or `None` if nothing has been measured for any of the regions.
+   */
+  private def measure(currentShardAllocations: Map[ActorRef, immutable.IndexedSeq[ShardId]]): Option[Measurement] = {
+    val rates = shardRates()
+    val loads = nodeLoads()
+    val totalRate = rates.values.sum
+    val regionNodeLoads = currentShardAllocations.keys.flatMap(r => loads.get(address(r)))
+    if (currentShardAllocations.isEmpty || (totalRate <= 0.0 && regionNodeLoads.isEmpty)) None
+    else Some(new Measurement(rates, totalRate, loads, currentShardAllocations))
+  }
+
+  private final class Measurement(
+    val rates:               Map[ShardId, Double],
+    val totalRate:           Double,
+    loads:                   Map[Address, Double],
+    currentShardAllocations: Map[ActorRef, immutable.IndexedSeq[ShardId]]
+  ) {
+
+    /**
+     * The share of the command rate of the region plus the weighted load of its node.
+     */
+    def load(region: ActorRef): Double = {
+      val commandShare =
+        if (totalRate <= 0.0) 0.0
+        else currentShardAllocations(region).iterator.map(rates.getOrElse(_, 0.0)).sum / totalRate
+      commandShare + nodeLoadWeight * loads.getOrElse(address(region), 0.0)
+    }
+
+    // the share that a shard without measured rate is expected to have
+    private val unmeasuredShare = {
+      val measured = rates.count(_._2 > 0.0)
+      if (totalRate > 0.0 && measured > 0) 1.0 / measured
+      else 1.0 / math.max(currentShardAllocations.valuesIterator.map(_.size).sum, 1)
+    }
+
+    /**
+     * Like [[load]], with the expected share of the shards that have not been measured.
+     */
+    def estimatedLoad(region: ActorRef): Double = {
+      val unmeasured = currentShardAllocations(region).count(shardId => rates.getOrElse(shardId, 0.0) <= 0.0)
+      load(region) + unmeasured * unmeasuredShare
+    }
+  }
+
+  private def address(region: ActorRef): Address =
+    if (region.path.address.hasLocalScope) selfAddress
+    else region.path.address
+
+}
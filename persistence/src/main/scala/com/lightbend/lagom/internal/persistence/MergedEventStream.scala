@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import akka.NotUsed
+import akka.japi.Pair
+import akka.stream.OverflowStrategy
+import akka.stream.scaladsl.Source
+import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, AggregateEventTag, Offset, TaggedEvent }
+
+import scala.collection.immutable
+
+/**
+ * The stream of the events of several tags, see `PersistentEntityRegistry.eventStream`.
+ */
+private[lagom] object MergedEventStream {
+
+  /**
+   * Run the event streams of the tags concurrently, each buffering up to `prefetch` events
+   * that have not been emitted yet, and emit their events as they arrive.
+   *
+   * @param fromOffsets the offset of each tag by tag name, the tags without offset are
+   *   streamed from the beginning
+   */
+  def apply[Event <: AggregateEvent[Event]](
+    tags:        immutable.Seq[AggregateEventTag[Event]],
+    fromOffsets: Map[String, Offset],
+    eventStream: (AggregateEventTag[Event], Offset) => Source[Pair[Event, Offset], NotUsed],
+    prefetch:    Int
+  ): Source[TaggedEvent[Event], NotUsed] = {
+    val distinctTags = tags.distinct
+    Source(distinctTags).flatMapMerge(math.max(distinctTags.size, 1), { tag =>
+      eventStream(tag, fromOffsets.getOrElse(tag.tag, Offset.NONE))
+        .buffer(prefetch, OverflowStrategy.backpressure)
+        .map(pair => TaggedEvent(tag, pair.first, pair.second))
+    })
+  }
+
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import com.lightbend.lagom.internal.spi.{ PersistentEntityMetrics, PersistentEntityMetricsProvider }
+
+/**
+ * A `PersistentEntityMetricsProvider` that doesn't collect anything.
+ */
+private[lagom] object NoopPersistentEntityMetricsProvider extends PersistentEntityMetricsProvider {
+  override def start(entityTypeName: String): PersistentEntityMetrics = NoopPersistentEntityMetrics
+}
+
+private[lagom] object NoopPersistentEntityMetrics extends PersistentEntityMetrics {
+  override def onActivated(): Unit = ()
+  override def onPassivated(): Unit = ()
+  override def onEvicted(): Unit = ()
+  override def onRecoveryQueued(): Unit = ()
+  override def onRecoveryDequeued(waitNanos: Long): Unit = ()
+  override def onRecoveryCompleted(replayNanos: Long, replayedEvents: Long, fromSnapshot: Boolean): Unit = ()
+  override def onPersisted(eventCount: Int, persistNanos: Long): Unit = ()
+  override def onSnapshotSaved(sizeBytes: Long): Unit = ()
+}
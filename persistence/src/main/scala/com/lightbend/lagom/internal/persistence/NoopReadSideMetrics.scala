@@ -0,0 +1,20 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import com.lightbend.lagom.internal.spi.{ ReadSideMetrics, ReadSideMetricsProvider }
+
+/**
+ * A `ReadSideMetricsProvider` that doesn't collect anything.
+ */
+private[lagom] object NoopReadSideMetricsProvider extends ReadSideMetricsProvider {
+  override def start(readSideName: String, tag: String): ReadSideMetrics = NoopReadSideMetrics
+}
+
+private[lagom] object NoopReadSideMetrics extends ReadSideMetrics {
+  override def onStarted(): Unit = ()
+  override def onEventsHandled(eventCount: Int, handleNanos: Long, offset: String, lagMillis: Long): Unit = ()
+  override def onCatchUpStarted(lagMillis: Long): Unit = ()
+  override def onCatchUpCompleted(lagMillis: Long, catchUpNanos: Long): Unit = ()
+}
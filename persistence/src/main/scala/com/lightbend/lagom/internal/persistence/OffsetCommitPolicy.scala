@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.TimeUnit
+
+import akka.{ Done, NotUsed }
+import akka.japi.Pair
+import akka.stream.ThrottleMode
+import akka.stream.scaladsl.Flow
+import com.lightbend.lagom.javadsl.persistence.Offset
+import com.typesafe.config.Config
+
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+/**
+ * When a read-side handler that processes the events one at a time stores the offset of the
+ * processed events, as configured with `lagom.persistence.read-side.offset-commit`.
+ */
+private[lagom] sealed abstract class OffsetCommitPolicy
+
+private[lagom] object OffsetCommitPolicy {
+
+  /**
+   * The offset is stored with the updates of every event.
+   */
+  case object EveryEvent extends OffsetCommitPolicy
+
+  /**
+   * The offset is stored with the updates of every `n`th handled event, so at most `n - 1`
+   * events are processed again after a restart.
+   */
+  final case class EveryNEvents(n: Int) extends OffsetCommitPolicy {
+    require(n > 0, "offset-commit.n-events must be greater than 0")
+  }
+
+  /**
+   * The offset of the last processed event is stored separately from the updates of the events,
+   * at most once per `interval`. The stored offset may be one that was the latest one an
+   * interval earlier, so the events that were processed within the last two intervals are
+   * processed again after a restart.
+   */
+  final case class Interval(interval: FiniteDuration) extends OffsetCommitPolicy {
+    require(interval > Duration.Zero, "offset-commit.interval must be greater than 0")
+  }
+
+  def apply(config: Config): OffsetCommitPolicy = config.getString("policy") match {
+    case "every-event"    => EveryEvent
+    case "every-n-events" => EveryNEvents(config.getInt("n-events"))
+    case "interval"       => Interval(config.getDuration("interval", TimeUnit.MILLISECONDS).millis)
+    case other => throw new IllegalArgumentException(s"Unknown offset-commit.policy [$other], " +
+      "must be one of every-event, every-n-events or interval")
+  }
+
+  /**
+   * A flow that stores the offsets of the events that it receives in the order in which they
+   * were processed. The offset of the latest event is stored when the previous `commit` has
+   * completed, skipping the events that arrived in the meantime, and with the `Interval` policy
+   * at most once per interval.
+   */
+  def commits[Event](policy: OffsetCommitPolicy)(commit: Pair[Event, Offset] => Future[Done]): Flow[Pair[Event, Offset], Done, NotUsed] = {
+    val latest = Flow[Pair[Event, Offset]].conflate((_, latest) => latest)
+    val throttled = policy match {
+      case Interval(interval) => latest.throttle(1, interval, 1, ThrottleMode.Shaping)
+      case _                  => latest
+    }
+    throttled.mapAsync(parallelism = 1)(commit)
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
+import java.util.concurrent.atomic.AtomicLong
+import java.util.zip.{ Deflater, Inflater }
+
+import akka.actor.{ ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+import akka.event.Logging
+import akka.serialization.{ SerializationExtension, SerializerWithStringManifest }
+
+import scala.util.control.NonFatal
+import scala.util.{ Failure, Success }
+
+private[lagom] object PassivatedStateCache extends ExtensionId[PassivatedStateCache] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): PassivatedStateCache =
+    new PassivatedStateCache(system)
+
+  override def lookup = PassivatedStateCache
+
+  override def get(system: ActorSystem): PassivatedStateCache = super.get(system)
+
+  /**
+   * The state of an entity as of the event with `sequenceNr`.
+   */
+  final case class CachedState(sequenceNr: Long, state: Any)
+
+  /**
+   * The index entry of a serialized and compressed state, which is stored in the
+   * `blocks` of the arena.
+   */
+  private final class Entry(
+    val sequenceNr:       Long,
+    val serializerId:     Int,
+    val manifest:         String,
+    val uncompressedSize: Int,
+    val length:           Int,
+    val blocks:           Array[Int]
+  )
+}
+
+/**
+ * Node local cache of the state of passivated persistent entities, so that an entity
+ * that is activated again soon after it has been passivated does not have to replay
+ * its snapshot and events from the journal.
+ *
+ * The states are serialized, compressed and stored in an arena of direct memory of
+ * `maxSize` bytes, which is allocated when the first state is cached, so that the cached
+ * states neither add to the heap nor to the work of the garbage collector. The arena is
+ * divided into blocks of `blockSize` bytes, and a state is stored in as many blocks as
+ * it needs. Only the index of the states, with the numbers of their blocks, is kept on
+ * the heap. The least recently cached states are evicted when there are not enough free
+ * blocks for a new state.
+ *
+ * A state is removed from the cache when it is taken by the activated entity, since
+ * the entity changes it from then on.
+ */
+private[lagom] class PassivatedStateCache(system: ExtendedActorSystem) extends Extension {
+  import PassivatedStateCache._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence.passivated-state-cache")
+  private val log = Logging(system, getClass)
+  private lazy val serialization = SerializationExtension(system)
+
+  /**
+   * The size of the blocks that the arena is divided into.
+   */
+  val blockSize: Int = conf.getBytes("block-size").toInt
+  require(blockSize > 0, "lagom.persistence.passivated-state-cache.block-size must be > 0")
+
+  private val blockCount: Int = conf.getString("max-size") match {
+    case "off" => 0
+    case _     => math.min(conf.getBytes("max-size") / blockSize, Int.MaxValue.toLong).toInt
+  }
+
+  /**
+   * The size of the arena, i.e. the upper bound of the total size of the blocks of the
+   * compressed states, 0 if the cache is disabled.
+   */
+  val maxSize: Long = blockCount.toLong * blockSize
+
+  private val compressionLevel: Int = conf.getInt("compression-level")
+
+  val isEnabled: Boolean = blockCount > 0
+
+  // a direct buffer can't be larger than Int.MaxValue bytes, so the arena is split into segments
+  private val blocksPerSegment: Int = Int.MaxValue / blockSize
+
+  // the arena and its free blocks, allocated when the first state is cached, and only
+  // accessed while holding the lock of entries
+  private lazy val segments: Array[ByteBuffer] =
+    Array.tabulate((blockCount + blocksPerSegment - 1) / blocksPerSegment) { i =>
+      ByteBuffer.allocateDirect(math.min(blockCount - i * blocksPerSegment, blocksPerSegment) * blockSize)
+    }
+  private lazy val freeBlocks: Array[Int] = Array.range(0, blockCount)
+  private var freeCount = blockCount
+
+  // the index of the arena, access ordered, i.e. the eldest entry is the least recently used
+  private val entries = new java.util.LinkedHashMap[String, Entry](16, 0.75f, true)
+
+  private val hitCount = new AtomicLong
+  private val missCount = new AtomicLong
+  private val evictionCount = new AtomicLong
+
+  /**
+   * Cache the state of a passivated entity, as of the event with `sequenceNr`.
+   * Nothing is cached if the state can't be serialized.
+   */
+  def put(persistenceId: String, sequenceNr: Long, state: Any): Unit =
+    if (isEnabled) {
+      serialize(persistenceId, state.asInstanceOf[AnyRef]).foreach { serialized =>
+        val bytes = compress(serialized._3)
+        val neededBlocks = (bytes.length + blockSize - 1) / blockSize
+        entries.synchronized {
+          release(entries.remove(persistenceId))
+          if (neededBlocks <= blockCount) {
+            evict(neededBlocks)
+            val entry = new Entry(sequenceNr, serialized._1, serialized._2, serialized._3.length, bytes.length,
+              allocate(neededBlocks))
+            write(entry, bytes)
+            entries.put(persistenceId, entry)
+          }
+        }
+      }
+    }
+
+  /**
+   * Remove the cached state of an entity that is activated, if there is one.
+   */
+  def take(persistenceId: String): Option[CachedState] =
+    if (!isEnabled) None
+    else {
+      // the blocks are copied before they are released, so that they are not overwritten
+      val taken = entries.synchronized {
+        val entry = entries.remove(persistenceId)
+        if (entry eq null) null
+        else {
+          val bytes = read(entry)
+          release(entry)
+          (entry, bytes)
+        }
+      }
+      if (taken eq null) {
+        missCount.incrementAndGet()
+        None
+      } else {
+        val (entry, compressed) = taken
+        val bytes = decompress(compressed, entry.uncompressedSize)
+        serialization.deserialize(bytes, entry.serializerId, entry.manifest) match {
+          case Success(state) =>
+            hitCount.incrementAndGet()
+            Some(CachedState(entry.sequenceNr, state))
+          case Failure(e) =>
+            missCount.incrementAndGet()
+            log.warning("Could not deserialize cached state of [{}], caused by: {}", persistenceId, e.getMessage)
+            None
+        }
+      }
+    }
+
+  /**
+   * The number of activations that found the state in the cache.
+   */
+  def hits: Long = hitCount.get
+
+  /**
+   * The number of activations that did not find the state in the cache.
+   */
+  def misses: Long = missCount.get
+
+  /**
+   * The number of states that were evicted to stay within `maxSize`.
+   */
+  def evictions: Long = evictionCount.get
+
+  /**
+   * The total size of the blocks of the compressed states in the cache.
+   */
+  def size: Long = entries.synchronized((blockCount - freeCount).toLong * blockSize)
+
+  /**
+   * The number of states in the cache.
+   */
+  def cachedStates: Int = entries.synchronized(entries.size)
+
+  // must be called while holding the lock of entries
+  private def evict(neededBlocks: Int): Unit = {
+    val iter = entries.values.iterator
+    while (freeCount < neededBlocks && iter.hasNext) {
+      release(iter.next())
+      iter.remove()
+      evictionCount.incrementAndGet()
+    }
+  }
+
+  // must be called while holding the lock of entries
+  private def allocate(n: Int): Array[Int] = {
+    freeCount -= n
+    java.util.Arrays.copyOfRange(freeBlocks, freeCount, freeCount + n)
+  }
+
+  // must be called while holding the lock of entries
+  private def release(entry: Entry): Unit =
+    if (entry ne null) {
+      System.arraycopy(entry.blocks, 0, freeBlocks, freeCount, entry.blocks.length)
+      freeCount += entry.blocks.length
+    }
+
+  // must be called while holding the lock of entries
+  private def write(entry: Entry, bytes: Array[Byte]): Unit = {
+    var i = 0
+    while (i < entry.blocks.length) {
+      val offset = i * blockSize
+      block(entry.blocks(i)).put(bytes, offset, math.min(blockSize, bytes.length - offset))
+      i += 1
+    }
+  }
+
+  // must be called while holding the lock of entries
+  private def read(entry: Entry): Array[Byte] = {
+    val bytes = new Array[Byte](entry.length)
+    var i = 0
+    while (i < entry.blocks.length) {
+      val offset = i * blockSize
+      block(entry.blocks(i)).get(bytes, offset, math.min(blockSize, bytes.length - offset))
+      i += 1
+    }
+    bytes
+  }
+
+  // the segment of the block, positioned at the start of the block
+  private def block(n: Int): ByteBuffer = {
+    val segment = segments(n / blocksPerSegment)
+    segment.clear()
+    segment.position((n % blocksPerSegment) * blockSize)
+    segment
+  }
+
+  private def serialize(persistenceId: String, state: AnyRef): Option[(Int, String, Array[Byte])] =
+    try {
+      val serializer = serialization.findSerializerFor(state)
+      val manifest = serializer match {
+        case s: SerializerWithStringManifest => s.manifest(state)
+        case s if s.includeManifest          => state.getClass.getName
+        case _                               => ""
+      }
+      Some((serializer.identifier, manifest, serializer.toBinary(state)))
+    } catch {
+      case NonFatal(e) =>
+        log.warning("Could not serialize state of [{}] for the passivated state cache, caused by: {}",
+          persistenceId, e.getMessage)
+        None
+    }
+
+  private def compress(bytes: Array[Byte]): Array[Byte] = {
+    val deflater = new Deflater(compressionLevel)
+    try {
+      deflater.setInput(bytes)
+      deflater.finish()
+      val out = new ByteArrayOutputStream(math.max(bytes.length / 2, 64))
+      val chunk = new Array[Byte](4096)
+      while (!deflater.finished()) {
+        val n = deflater.deflate(chunk)
+        out.write(chunk, 0, n)
+      }
+      out.toByteArray
+    } finally deflater.end()
+  }
+
+  private def decompress(compressed: Array[Byte], uncompressedSize: Int): Array[Byte] = {
+    val inflater = new Inflater
+    try {
+      inflater.setInput(compressed)
+      val bytes = new Array[Byte](uncompressedSize)
+      var offset = 0
+      while (offset < bytes.length && !inflater.finished())
+        offset += inflater.inflate(bytes, offset, bytes.length - offset)
+      bytes
+    } finally inflater.end()
+  }
+
+}
@@ -10,37 +10,90 @@ import java.util.function.{ Function => JFunction }
 import scala.util.control.NonFatal
 import akka.actor.ActorLogging
 import akka.actor.ActorRef
+import akka.actor.Cancellable
 import akka.actor.Props
 import akka.event.LoggingAdapter
+import akka.persistence.DeleteSnapshotsFailure
+import akka.persistence.DeleteSnapshotsSuccess
 import akka.persistence.PersistentActor
+import akka.persistence.Recovery
 import akka.persistence.RecoveryCompleted
+import akka.persistence.SaveSnapshotFailure
+import akka.persistence.SaveSnapshotSuccess
 import akka.persistence.SnapshotOffer
+import akka.persistence.SnapshotSelectionCriteria
 import akka.util.ByteString
-import scala.concurrent.duration.FiniteDuration
+import scala.collection.immutable
+import scala.concurrent.duration._
 import akka.actor.ReceiveTimeout
+import akka.cluster.sharding.ClusterSharding
 import akka.cluster.sharding.ShardRegion
 import akka.actor.actorRef2Scala
-import com.lightbend.lagom.javadsl.persistence.PersistentEntity
+import akka.pattern.pipe
+import akka.serialization.SerializationExtension
+import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
+import com.lightbend.lagom.internal.spi.PersistentEntityMetrics
+import com.lightbend.lagom.javadsl.persistence.{ CommandEnvelope, PersistentEntity, SequencedReply, SnapshotPolicy }
 import java.util.function.{ BiFunction => JBiFunction }
 import java.util.function.{ Function => JFunction }
 import play.api.Logger;
 
 private[lagom] object PersistentEntityActor {
+  /**
+   * @param groupCommitMaxCommands when greater than 0 commands that are queued for the entity
+   *   while a write is in progress are handled together, and their events are written with one
+   *   atomic `persistAll`. At most this number of commands are included in one such write.
+   *   0 disables group commit.
+   * @param snapshotPolicy the snapshot policy, unless the entity defines its own
+   * @param metrics the metrics of the entity type
+   */
   def props[C, E, S](
     persistenceIdPrefix:       String,
     entityId:                  Optional[String],
     entityFactory:             () => PersistentEntity[C, E, S],
-    snapshotAfter:             Optional[Int],
-    passivateAfterIdleTimeout: FiniteDuration
+    snapshotPolicy:            SnapshotPolicy,
+    passivateAfterIdleTimeout: FiniteDuration,
+    groupCommitMaxCommands:    Int                     = 0,
+    metrics:                   PersistentEntityMetrics = NoopPersistentEntityMetrics
   ): Props =
-    Props(new PersistentEntityActor(persistenceIdPrefix, entityId, entityFactory(), snapshotAfter.orElse(0),
-      passivateAfterIdleTimeout))
+    Props(new PersistentEntityActor(persistenceIdPrefix, entityId, entityFactory(), snapshotPolicy,
+      passivateAfterIdleTimeout, groupCommitMaxCommands, metrics))
 
   /**
    * Stop the actor for passivation. `PoisonPill` does not work well
    * with persistent actors.
    */
   case object Stop
+
+  /**
+   * How the replies to a command are sent: as they are, wrapped in a [[BatchedReply]] for
+   * the commands of a [[CommandEnvelopeBatch]], or wrapped in a [[SequencedReply]] for a
+   * [[SequencedCommand]].
+   */
+  private sealed trait ReplyMode
+  private case object ReplyAsIs extends ReplyMode
+  private case object ReplyBatched extends ReplyMode
+  private case object ReplySequenced extends ReplyMode
+
+  /**
+   * A command that is waiting to be included in the next group commit.
+   */
+  private final case class PendingCommand(command: PersistentEntity.ReplyType[_], replyTo: ActorRef, replyMode: ReplyMode)
+
+  /**
+   * A command of a [[CommandEnvelopeBatch]] for this entity. The reply is wrapped in a [[BatchedReply]].
+   */
+  private final case class BatchedCommand(command: PersistentEntity.ReplyType[_])
+
+  /**
+   * Sent to self when the [[EntityResharding.EntityHandoffAck]] has not been received in time.
+   */
+  private case object HandoffTimeout
+
+  /**
+   * Sent to self when the timer shards have confirmed the first `count` updates of the timer outbox.
+   */
+  private final case class TimerUpdatesConfirmed(count: Int)
 }
 
 /**
@@ -50,9 +103,12 @@ private[lagom] class PersistentEntityActor[C, E, S](
   persistenceIdPrefix:       String,
   id:                        Optional[String],
   entity:                    PersistentEntity[C, E, S],
-  snapshotAfter:             Int,
-  passivateAfterIdleTimeout: FiniteDuration
+  defaultSnapshotPolicy:     SnapshotPolicy,
+  passivateAfterIdleTimeout: FiniteDuration,
+  groupCommitMaxCommands:    Int,
+  metrics:                   PersistentEntityMetrics
 ) extends PersistentActor {
+  import PersistentEntityActor._
   private val log = Logger(this.getClass)
 
   private val entityId: String = id.orElse(
@@ -65,30 +121,328 @@ private[lagom] class PersistentEntityActor[C, E, S](
 
   private var eventCount = 0L
 
+  private val snapshotPolicy = entity.snapshotPolicy.orElse(defaultSnapshotPolicy)
+  private var eventsSinceSnapshot = 0L
+  private var bytesSinceSnapshot = 0L
+  private var lastSnapshotAt = System.nanoTime()
+  // the sequence numbers of the known snapshots of the entity, oldest first
+  private var snapshotSequenceNrs = Vector.empty[Long]
+  private var stopAfterSnapshot = false
+  // serializing the snapshot again is only worth it when the metrics record its size
+  private val measuresSnapshotSize = metrics ne NoopPersistentEntityMetrics
+
+  // state of the non-stashing writes, only used for group commit or when the behavior has
+  // confirmed state command handlers
+  private var pendingCommands = Vector.empty[PendingCommand]
+  private var groupWriteInProgress = false
+  private var inProgressContexts = Vector.empty[entity.CommandContext[Any]]
+  private var stopRequested = false
+  // the behavior as of the last event that has been confirmed by the journal,
+  // only valid when groupWriteInProgress
+  private var confirmedBehavior: entity.Behavior = _
+  // while the commands of a group are handled, whether an earlier command of the group has
+  // emitted events, i.e. whether the state includes events that the journal has not confirmed
+  private var groupHasEvents = false
+  // the replies that were given from such state, sent when the write has completed
+  private var deferredReplies = Vector.empty[(ActorRef, ReplyMode, Any)]
+
+  private val maxCommandsPerWrite = math.max(groupCommitMaxCommands, 1)
+  // how to reply to the command of the write in progress of the stashing path
+  private var stashingWriteReplyMode: ReplyMode = ReplyAsIs
+
+  private val budget = EntityPassivationBudget(context.system)
+  private var budgetEntry: EntityPassivationBudget.Entry = null
+  private var activated = false
+  private var eventCountAtStateSizeEstimate = 0L
+
+  private val recoveryScheduler = EntityRecoveryScheduler(context.system)
+  private var waitingForRecoveryPermit = false
+  private var recoveryPrioritized = false
+  private var hasRecoveryPermit = false
+  private var recoveryQueuedAt = 0L
+  private var recoveryStartedAt = System.nanoTime() // also when recovering after restart
+
+  // null when the hot entities are not tracked
+  private val hotEntitySampler = HotEntityTracker(context.system).sampler(persistenceIdPrefix)
+  private var persistStartedAt = 0L
+
+  private val entityTimers = EntityTimers(context.system)
+  // the timer updates that have been stored in the journal of the entity, atomically with the
+  // events of their commands, but have not been confirmed by the timer shards yet, oldest first.
+  // They are recovered from the journal, so that they are sent again after a crash, and each
+  // confirmation is stored as a TimerUpdated event.
+  private var timerOutbox = Vector.empty[EntityTimers.TimerUpdate]
+  private var timerUpdatesSending = false
+
+  private val recentEvents = RecentEventsCache(context.system)
+
+  private val resharding = EntityResharding(context.system)
+
+  private val prewarming = EntityPrewarming(context.system)
+
+  // the other shard that may run this entity while the number of shards is changed, only
+  // when started by cluster sharding, where the parent is the shard
+  private lazy val handoffShardId: Option[String] =
+    if (id.isPresent) None
+    else resharding.otherShardId(entityId, currentShardId)
+  private def currentShardId: String = URLDecoder.decode(context.parent.path.name, ByteString.UTF_8)
+  private var waitingForHandoff = false
+  private var handoffRequested = false
+  private var handoffRetry: Option[Cancellable] = None
+  // the entities in the other shard that are waiting for this entity to stop
+  private var handoffRequesters = Vector.empty[ActorRef]
+
+  private val stateCache = PassivatedStateCache(context.system)
+  // the state that was cached when the entity was passivated on this node, taken from the
+  // cache when the recovery is started, i.e. not used again when recovering after restart
+  private lazy val cachedState: Option[PassivatedStateCache.CachedState] = stateCache.take(persistenceId)
+  // passivating before it has been activated, when the cached state was stale or when the
+  // entity was started by a handoff request
+  private var passivatingInactive = false
+  private var passivating = false
+
   context.setReceiveTimeout(passivateAfterIdleTimeout)
 
+  /**
+   * When the number of shards is being changed the recovery is not started until the
+   * instance of the entity in the other shard has stopped, see [[EntityResharding]].
+   * When the number of concurrent recoveries is limited the recovery is not started
+   * until the [[EntityRecoveryScheduler]] has granted a permit. Messages that arrive
+   * in the meantime are stashed.
+   */
+  override def aroundPreStart(): Unit =
+    if (handoffShardId.isDefined)
+      // the handoff is requested when the first message arrives, since the entity may
+      // have been started by the handoff request of the other shard
+      waitingForHandoff = true
+    else
+      requestRecoveryPermit()
+
+  private def requestRecoveryPermit(): Unit =
+    if (recoveryScheduler.isEnabled) {
+      waitingForRecoveryPermit = true
+      recoveryQueuedAt = System.nanoTime()
+      metrics.onRecoveryQueued()
+      recoveryScheduler.scheduler ! EntityRecoveryScheduler.RequestPermit(prioritized = false)
+    } else
+      startRecovery()
+
+  private def startRecovery(): Unit = {
+    recoveryStartedAt = System.nanoTime()
+    super.aroundPreStart()
+  }
+
+  /**
+   * When the state of the entity was cached when it was passivated on this node, no snapshot
+   * and no events are loaded. The journal is only asked for the highest sequence number, to
+   * verify that the cached state is up to date.
+   */
+  override def recovery: Recovery =
+    if (cachedState.isDefined) Recovery.none
+    else Recovery()
+
+  override def aroundReceive(receive: Receive, msg: Any): Unit = msg match {
+    case CommandEnvelopeBatch(commands) =>
+      // pass on the commands to the other entities right away, also when this entity is
+      // recovering, via the shard that is the parent of the entities. The own command is
+      // sent to self, since the batch itself must not be stashed.
+      commands.foreach {
+        case CommandEnvelope(`entityId`, cmd: PersistentEntity.ReplyType[_]) =>
+          self.tell(BatchedCommand(cmd), sender())
+        case other =>
+          context.parent.tell(CommandEnvelopeBatch(List(other)), sender())
+      }
+    case _ =>
+      receiveMessage(receive, msg)
+  }
+
+  private def receiveMessage(receive: Receive, msg: Any): Unit =
+    if (passivatingInactive) msg match {
+      // the shard buffers the messages for the entity while it is passivating, and starts
+      // it again with them when it has stopped, so the messages are handed back to the shard
+      case PersistentEntityActor.Stop =>
+        context.stop(self)
+      case BatchedCommand(cmd) =>
+        context.parent.tell(CommandEnvelopeBatch(List(CommandEnvelope(entityId, cmd))), sender())
+      case _: PersistentEntity.ReplyType[_] | _: SequencedCommand =>
+        context.parent.tell(CommandEnvelope(entityId, msg), sender())
+      case _: EntityResharding.EntityHandoff | _: EnsureActive =>
+        context.parent.tell(msg, sender())
+      case _ =>
+      // not addressed to the next incarnation
+    }
+    else if (waitingForHandoff) msg match {
+      case _: EntityResharding.EntityHandoff if !handoffRequested =>
+        // started by the request of the other shard, so there is nothing to hand off
+        sender() ! EntityResharding.EntityHandoffAck(entityId)
+        passivateInactive()
+      case _: EntityResharding.EntityHandoff =>
+        // both instances are waiting for each other, the one in the shard with the lowest id
+        // is recovered first, and the other requests the handoff again when it has been recovered
+        if (handoffShardId.exists(_ < currentShardId))
+          sender() ! EntityResharding.EntityHandoffAck(entityId)
+      case _: EntityResharding.EntityHandoffAck =>
+        waitingForHandoff = false
+        handoffRetry.foreach(_.cancel())
+        requestRecoveryPermit()
+        unstashAll()
+      case HandoffTimeout =>
+        requestHandoff()
+      case ReceiveTimeout =>
+      // not idle, only waiting for the handoff
+      case _ =>
+        if (!handoffRequested) {
+          handoffRequested = true
+          requestHandoff()
+        }
+        stash()
+    }
+    else if (waitingForRecoveryPermit) msg match {
+      case EntityRecoveryScheduler.PermitGranted =>
+        waitingForRecoveryPermit = false
+        hasRecoveryPermit = true
+        metrics.onRecoveryDequeued(System.nanoTime() - recoveryQueuedAt)
+        startRecovery()
+        unstashAll()
+      case _: PersistentEntity.ReplyType[_] | _: BatchedCommand | _: SequencedCommand =>
+        // entities with commands waiting are recovered before those started without commands
+        if (!recoveryPrioritized) {
+          recoveryPrioritized = true
+          recoveryScheduler.scheduler ! EntityRecoveryScheduler.Prioritize
+        }
+        stash()
+      case ReceiveTimeout =>
+      // not idle, only waiting for the recovery permit
+      case _ =>
+        stash()
+    }
+    else super.aroundReceive(receive, msg)
+
+  /**
+   * Let the shard stop the entity before it has been activated, like passivation does, so
+   * that the shard buffers the messages for the entity until it has stopped.
+   */
+  private def passivateInactive(): Unit = {
+    passivatingInactive = true
+    context.parent ! ShardRegion.Passivate(PersistentEntityActor.Stop)
+  }
+
+  private def requestHandoff(): Unit =
+    handoffShardId.foreach { shardId =>
+      // the persistenceIdPrefix is the type name of the shard region
+      ClusterSharding(context.system).shardRegion(persistenceIdPrefix) ! EntityResharding.EntityHandoff(entityId, shardId)
+      handoffRetry = Some(context.system.scheduler.scheduleOnce(resharding.handoffTimeout, self, HandoffTimeout)(context.dispatcher))
+    }
+
   // create a new instance every time, to capture sender()
-  private def newCtx(): entity.CommandContext[Any] = new entity.CommandContext[Any] {
-    private val replyTo: ActorRef = sender()
+  private def newCtx(replyMode: ReplyMode): EntityCommandContext = newCtx(sender(), replyMode)
+
+  private def newCtx(replyTo: ActorRef, replyMode: ReplyMode): EntityCommandContext =
+    new EntityCommandContext(replyTo, replyMode, storesTimerUpdates = true)
+
+  /**
+   * The context of a command. The timer updates of the command are collected, and stored in
+   * the journal together with the events of the command, see [[timerOutbox]]. The replies that
+   * are given while the command is handled are held back until it is known whether they have
+   * to wait for the timer updates to be stored.
+   *
+   * @param storesTimerUpdates false for the confirmed state commands, which store nothing and
+   *   therefore can't change the timers
+   */
+  private class EntityCommandContext(replyTo: ActorRef, replyMode: ReplyMode, storesTimerUpdates: Boolean)
+    extends entity.CommandContext[Any] {
+    var timerUpdates = Vector.empty[EntityTimers.TimerUpdate]
+    // null when the replies are not held back
+    private var heldReplies: Vector[Any] = null
+
+    def holdReplies(): Unit =
+      heldReplies = Vector.empty
+
+    def releaseReplies(): Unit =
+      if (heldReplies ne null) {
+        val held = heldReplies
+        heldReplies = null
+        held.foreach(reply)
+      }
 
     override def reply(msg: Any): Unit =
-      replyTo ! msg
+      if (heldReplies ne null) heldReplies :+= msg
+      else if (groupHasEvents) deferredReplies :+= ((replyTo, replyMode, msg))
+      else PersistentEntityActor.this.reply(replyTo, replyMode, msg)
 
     override def commandFailed(cause: Throwable): Unit =
       // not using akka.actor.Status.Failure because it is using Java serialization
       reply(cause)
 
+    override def scheduleCommand(timerKey: String, delay: java.time.Duration, command: C): Unit = {
+      requireStoresTimerUpdates()
+      timerUpdates :+= entityTimers.scheduleTimer(persistenceIdPrefix, entityId, timerKey, delay.toMillis.millis, command)
+    }
+
+    override def cancelScheduledCommand(timerKey: String): Unit = {
+      requireStoresTimerUpdates()
+      timerUpdates :+= entityTimers.cancelTimer(persistenceIdPrefix, entityId, timerKey)
+    }
+
+    private def requireStoresTimerUpdates(): Unit =
+      if (!storesTimerUpdates)
+        throw new UnsupportedOperationException("Confirmed state command handlers can't change the timers " +
+          s"of [${entity.getClass.getName}] with id [${entityId}], since they don't store anything")
+
   }
 
-  private def eventHandlers: Map[Class[E], JFunction[E, entity.Behavior]] =
-    entity.behavior.eventHandlers.asInstanceOf[Map[Class[E], JFunction[E, entity.Behavior]]]
+  /**
+   * Send the stored timer updates that have not been confirmed yet to the timer shards, unless
+   * they are being sent already. The updates that are stored meanwhile are sent when those
+   * have been confirmed, so that they are stored by the timer shards in order.
+   */
+  private def sendTimerOutbox(): Unit =
+    if (!timerUpdatesSending && timerOutbox.nonEmpty) {
+      val updates = timerOutbox
+      timerUpdatesSending = true
+      import context.dispatcher
+      entityTimers.update(updates).map(_ => TimerUpdatesConfirmed(updates.size)).pipeTo(self)
+    }
 
-  private def commandHandlers: Map[Class[C], JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]] =
-    entity.behavior.commandHandlers.asInstanceOf[Map[Class[C], JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]]]
+  private def removeConfirmedTimerUpdate(timerId: EntityTimers.TimerId): Unit = {
+    // the confirmations are stored in the order of the updates
+    val i = timerOutbox.indexWhere(_.id == timerId)
+    if (i >= 0)
+      timerOutbox = timerOutbox.patch(i, Nil, 1)
+  }
+
+  private def timerUpdatesConfirmed(count: Int): Unit = {
+    val (confirmed, rest) = timerOutbox.splitAt(count)
+    timerOutbox = rest
+    timerUpdatesSending = false
+    // until the confirmations have been stored the updates are sent again after a crash
+    persistAllAsync(confirmed.map(u => EntityTimers.TimerUpdated(u.id)))(_ => ())
+    sendTimerOutbox()
+    if (!groupWriteInProgress && !stopAfterSnapshot && snapshotDue)
+      saveStateSnapshot()
+  }
+
+  private def reply(replyTo: ActorRef, replyMode: ReplyMode, msg: Any): Unit = replyMode match {
+    case ReplyAsIs    => replyTo ! msg
+    case ReplyBatched => replyTo ! BatchedReply(entityId, msg)
+    case ReplySequenced => msg match {
+      case exc: Throwable => replyTo ! exc
+      // the events of a command have been stored when its reply is sent from afterPersist
+      case _              => replyTo ! SequencedReply(lastSequenceNr, msg)
+    }
+  }
+
+  private def eventHandler(event: Any): Option[JFunction[E, entity.Behavior]] =
+    entity.behavior.eventHandler(event.getClass).asInstanceOf[Option[JFunction[E, entity.Behavior]]]
+
+  private def commandHandler(cmd: Any): Option[JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]] =
+    entity.behavior.commandHandler(cmd.getClass).asInstanceOf[Option[JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]]]
 
   override def receiveRecover: Receive = {
 
     var initialized = false
+    var replayedEvents = 0L
+    var fromSnapshot = false
 
     def initEmpty(): Unit =
       if (!initialized) {
@@ -98,28 +452,64 @@ private[lagom] class PersistentEntityActor[C, E, S](
       }
 
     {
-      case SnapshotOffer(_, snapshot) =>
+      case SnapshotOffer(metadata, snapshot) =>
+        snapshotSequenceNrs = Vector(metadata.sequenceNr)
+        fromSnapshot = true
         if (!initialized) {
           val inital = entity.initialBehavior(Optional.ofNullable(snapshot.asInstanceOf[S]))
           entity.internalSetCurrentBehavior(inital)
           initialized = true
         }
 
+      case RecoveryCompleted if cachedState.exists(_.sequenceNr != lastSequenceNr) =>
+        // events have been written by another node since the state was cached. The entity is
+        // stopped, and when the shard starts it again it recovers from the journal, since the
+        // cached state has been taken.
+        log.debug(s"Cached state of [${entity.getClass.getName}] with id [${entityId}] is older than the journal, " +
+          s"recovering from the journal")
+        returnRecoveryPermit()
+        passivateInactive()
+
       case RecoveryCompleted =>
+        cachedState.foreach { cached =>
+          val inital = entity.initialBehavior(Optional.ofNullable(cached.state.asInstanceOf[S]))
+          entity.internalSetCurrentBehavior(inital)
+          initialized = true
+        }
         initEmpty()
+        lastSnapshotAt = System.nanoTime()
         val newBehavior = entity.recoveryCompleted()
         entity.internalSetCurrentBehavior(newBehavior)
+        returnRecoveryPermit()
+        metrics.onRecoveryCompleted(System.nanoTime() - recoveryStartedAt, replayedEvents, fromSnapshot)
+        activated = true
+        metrics.onActivated()
+        if (prewarming.isEnabled && !id.isPresent)
+          prewarming.activated(persistenceIdPrefix, entityId)
+        if (budget.isEnabled) {
+          budgetEntry = budget.activated(self, metrics)
+          updateStateSizeEstimate()
+        }
+        sendTimerOutbox()
+
+      case update: EntityTimers.TimerUpdate =>
+        timerOutbox :+= update
+
+      case EntityTimers.TimerUpdated(timerId) =>
+        removeConfirmedTimerUpdate(timerId)
 
       case evt =>
         initEmpty()
         applyEvent(evt)
         eventCount += 1
+        eventsSinceSnapshot += 1
+        replayedEvents += 1
 
     }
   }
 
   private def applyEvent(event: Any): Unit = {
-    eventHandlers.get(event.getClass.asInstanceOf[Class[E]]) match {
+    eventHandler(event) match {
       case Some(handler) =>
         val newBehavior = handler.apply(event.asInstanceOf[E])
         entity.internalSetCurrentBehavior(newBehavior)
@@ -128,90 +518,424 @@ private[lagom] class PersistentEntityActor[C, E, S](
     }
   }
 
+  private def returnRecoveryPermit(): Unit =
+    if (hasRecoveryPermit) {
+      hasRecoveryPermit = false
+      recoveryScheduler.scheduler ! EntityRecoveryScheduler.ReturnPermit
+    }
+
+  override def postStop(): Unit = {
+    // the scheduler is watching the entity, and takes back the permit when it is stopped
+    if (waitingForRecoveryPermit)
+      metrics.onRecoveryDequeued(System.nanoTime() - recoveryQueuedAt)
+    if (budgetEntry ne null)
+      budget.passivated(budgetEntry)
+    if (activated)
+      metrics.onPassivated()
+    if (activated && prewarming.isEnabled && !id.isPresent)
+      prewarming.stopped(persistenceIdPrefix, entityId)
+    // the unconfirmed timer updates are only recovered from the journal
+    if (passivating && activated && stateCache.isEnabled && lastSequenceNr > 0L && timerOutbox.isEmpty)
+      stateCache.put(persistenceId, lastSequenceNr, entity.behavior.state)
+    handoffRetry.foreach(_.cancel())
+    handoffRequesters.foreach(_ ! EntityResharding.EntityHandoffAck(entityId))
+    super.postStop()
+  }
+
+  /**
+   * Estimate the size of the state by serializing it, when the passivation budget
+   * is limiting the state size. Only done after `stateSizeEstimateAfter` events
+   * since the previous estimate.
+   */
+  private def updateStateSizeEstimate(): Unit =
+    if ((budgetEntry ne null) && budget.maxStateSize > 0 &&
+      (eventCountAtStateSizeEstimate == 0L || eventCount - eventCountAtStateSizeEstimate >= budget.stateSizeEstimateAfter)) {
+      eventCountAtStateSizeEstimate = math.max(eventCount, 1L)
+      SerializationExtension(context.system).serialize(entity.behavior.state.asInstanceOf[AnyRef]) match {
+        case scala.util.Success(bytes) => budget.updateStateSize(budgetEntry, bytes.length)
+        case scala.util.Failure(e) =>
+          log.warn(s"Could not estimate state size of [${entity.getClass.getName}] with id [${entityId}], " +
+            s"caused by: ${e.getMessage}")
+      }
+    }
+
   def receiveCommand: Receive = {
     case cmd: PersistentEntity.ReplyType[_] =>
-      commandHandlers.get(cmd.getClass.asInstanceOf[Class[C]]) match {
+      commandReceived()
+      handleCommand(cmd, ReplyAsIs)
+
+    case BatchedCommand(cmd) =>
+      commandReceived()
+      handleCommand(cmd, ReplyBatched)
+
+    case SequencedCommand(_, cmd: PersistentEntity.ReplyType[_]) =>
+      // the entity itself is always up to date
+      commandReceived()
+      handleCommand(cmd, ReplySequenced)
+
+    case ReceiveTimeout =>
+      context.parent ! ShardRegion.Passivate(PersistentEntityActor.Stop)
+
+    case _: EntityResharding.EntityHandoff =>
+      // the entity is started in the other shard, and may run there when this one has stopped
+      handoffRequesters :+= sender()
+      context.parent ! ShardRegion.Passivate(PersistentEntityActor.Stop)
+
+    case _: EntityResharding.EntityHandoffAck | HandoffTimeout =>
+    // of a handoff request that was repeated
+
+    case _: EnsureActive =>
+    // pre-warmed after a node has left, see EntityPrewarming
+
+    case TimerUpdatesConfirmed(count) =>
+      timerUpdatesConfirmed(count)
+
+    case EntityPassivationBudget.Evict =>
+      // one of the least recently used entities when the budget of the node was exceeded
+      context.parent ! ShardRegion.Passivate(PersistentEntityActor.Stop)
+
+    case PersistentEntityActor.Stop =>
+      passivating = true
+      // when using group commit the write is not stashing incoming messages,
+      // and we must not stop until queued commands have been handled
+      if (groupWriteInProgress || pendingCommands.nonEmpty)
+        stopRequested = true
+      else
+        passivate()
+
+    case SaveSnapshotSuccess(metadata) =>
+      snapshotSequenceNrs :+= metadata.sequenceNr
+      val keep = snapshotPolicy.snapshotsToKeep
+      if (keep > 0 && snapshotSequenceNrs.size > keep) {
+        // also deletes older snapshots that are not known by this incarnation
+        val (older, kept) = snapshotSequenceNrs.splitAt(snapshotSequenceNrs.size - keep)
+        deleteSnapshots(SnapshotSelectionCriteria(maxSequenceNr = older.last))
+        snapshotSequenceNrs = kept
+      }
+      if (stopAfterSnapshot)
+        context.stop(self)
+
+    case SaveSnapshotFailure(_, cause) =>
+      log.warn(s"Snapshot of [${entity.getClass.getName}] with id [${entityId}] failed, " +
+        s"caused by: ${cause.getMessage}")
+      if (stopAfterSnapshot)
+        context.stop(self)
+
+    case _: DeleteSnapshotsSuccess =>
+
+    case DeleteSnapshotsFailure(_, cause) =>
+      log.warn(s"Deleting old snapshots of [${entity.getClass.getName}] with id [${entityId}] failed, " +
+        s"caused by: ${cause.getMessage}")
+  }
+
+  /**
+   * Stop the entity when it is passivated, after saving a snapshot if the snapshot policy
+   * wants a snapshot on passivation.
+   */
+  private def passivate(): Unit =
+    if (!stopAfterSnapshot) {
+      // a snapshot would hide the unconfirmed timer updates from the recovery
+      if (snapshotPolicy.saveSnapshotOnPassivation(eventsSinceSnapshot) && timerOutbox.isEmpty) {
+        stopAfterSnapshot = true
+        saveStateSnapshot()
+      } else
+        context.stop(self)
+    }
+
+  private def commandReceived(): Unit = {
+    if (budgetEntry ne null)
+      budgetEntry.touch()
+    if (hotEntitySampler ne null)
+      hotEntitySampler.commandReceived(entityId)
+  }
+
+  private def persistCompleted(events: Int): Unit = {
+    val persistNanos = System.nanoTime() - persistStartedAt
+    metrics.onPersisted(events, persistNanos)
+    if (hotEntitySampler ne null)
+      hotEntitySampler.persisted(entityId, persistNanos)
+  }
+
+  private def eventPersisted(event: Any): Unit = {
+    eventCount += 1
+    eventsSinceSnapshot += 1
+    // lastSequenceNr is the sequence number of this event in the persist handler
+    if (recentEvents.isEnabled)
+      recentEvents.persisted(persistenceId, lastSequenceNr, event)
+    if (snapshotPolicy.measuresBytes)
+      SerializationExtension(context.system).serialize(event.asInstanceOf[AnyRef]).foreach { bytes =>
+        bytesSinceSnapshot += bytes.length
+      }
+  }
+
+  // not while there are unconfirmed timer updates, which are recovered from the events after
+  // the snapshot
+  private def snapshotDue: Boolean =
+    timerOutbox.isEmpty && snapshotPolicy.shouldSaveSnapshot(eventsSinceSnapshot, bytesSinceSnapshot,
+      java.time.Duration.ofNanos(System.nanoTime() - lastSnapshotAt))
+
+  private def saveStateSnapshot(): Unit = {
+    val state = entity.behavior.state
+    saveSnapshot(state)
+    eventsSinceSnapshot = 0L
+    bytesSinceSnapshot = 0L
+    lastSnapshotAt = System.nanoTime()
+    if (measuresSnapshotSize)
+      SerializationExtension(context.system).serialize(state.asInstanceOf[AnyRef]).foreach { bytes =>
+        metrics.onSnapshotSaved(bytes.length)
+      }
+  }
+
+  private def handleCommand(cmd: PersistentEntity.ReplyType[_], replyMode: ReplyMode): Unit = {
+    if (isConfirmedStateCommand(cmd)) {
+      // answered right away, also when a write is in progress
+      val confirmed = if (groupWriteInProgress) confirmedBehavior else entity.behavior
+      val ctx = new EntityCommandContext(sender(), replyMode, storesTimerUpdates = false)
+      try {
+        commandHandler(cmd).get
+          .asInstanceOf[entity.ConfirmedStateCommandHandler[Any, C]]
+          .handle(cmd.asInstanceOf[C], ctx, confirmed)
+      } catch {
+        case NonFatal(e) =>
+          ctx.commandFailed(e) // reply with failure
+      }
+
+    } else if (groupCommitMaxCommands > 0 || groupWriteInProgress || entity.behavior.hasConfirmedStateCommandHandlers) {
+      // commands are not stashed by the non-stashing writes
+      pendingCommands :+= PendingCommand(cmd, sender(), replyMode)
+      if (!groupWriteInProgress)
+        groupCommit()
+
+    } else {
+      commandHandler(cmd) match {
         case Some(handler) =>
-          val ctx = newCtx()
+          val ctx = newCtx(replyMode)
+          stashingWriteReplyMode = replyMode
+          ctx.holdReplies()
           try handler.apply(cmd.asInstanceOf[C], ctx) match {
-            case _: entity.PersistNone[_] => // done
+            case _: entity.PersistNone[_] =>
+              if (ctx.timerUpdates.isEmpty)
+                ctx.releaseReplies()
+              else
+                persistWithTimerUpdates(Nil, ctx)(() => ())
             case entity.PersistOne(event, afterPersist) =>
               // apply the event before persist so that validation exception is handled before persisting
               // the invalid event, in case such validation is implemented in the event handler.
               applyEvent(event)
-              persist(event) { evt =>
-                try {
-                  eventCount += 1
-                  if (afterPersist != null)
-                    afterPersist.accept(evt)
-                  if (snapshotAfter > 0 && eventCount % snapshotAfter == 0)
-                    saveSnapshot(entity.behavior.state)
-                } catch {
-                  case NonFatal(e) =>
-                    ctx.commandFailed(e) // reply with failure
-                    throw e
-                }
+              persistWithTimerUpdates(List(event), ctx) { () =>
+                if (afterPersist != null)
+                  afterPersist.accept(event)
               }
             case entity.PersistAll(events, afterPersist) =>
-              // if we trigger snapshot it makes sense to do it after handling all events
-              var count = events.size
-              var snap = false
               // apply the event before persist so that validation exception is handled before persisting
               // the invalid event, in case such validation is implemented in the event handler.
               events.foreach(applyEvent)
-              persistAll(events) { evt =>
-                try {
-                  eventCount += 1
-                  count -= 1
-                  if (afterPersist != null && count == 0)
-                    afterPersist.apply()
-                  if (snapshotAfter > 0 && eventCount % snapshotAfter == 0)
-                    snap = true
-                  if (count == 0 && snap)
-                    saveSnapshot(entity.behavior.state)
-                } catch {
-                  case NonFatal(e) =>
-                    ctx.commandFailed(e) // reply with failure
-                    throw e
-                }
+              persistWithTimerUpdates(events, ctx) { () =>
+                if (afterPersist != null)
+                  afterPersist.apply()
               }
           } catch { // exception thrown from handler.apply
             case NonFatal(e) =>
+              ctx.releaseReplies()
               ctx.commandFailed(e) // reply with failure
               throw e
           }
 
         case None =>
           // not using akka.actor.Status.Failure because it is using Java serialization
-          sender() ! PersistentEntity.UnhandledCommandException(
+          reply(sender(), replyMode, PersistentEntity.UnhandledCommandException(
             s"Unhandled command [${cmd.getClass.getName}] in [${entity.getClass.getName}] with id [${entityId}]"
-          )
+          ))
           unhandled(cmd)
       }
+    }
+  }
 
-    case ReceiveTimeout =>
-      context.parent ! ShardRegion.Passivate(PersistentEntityActor.Stop)
+  /**
+   * Persist the events of a command of the stashing path atomically with its timer updates, and
+   * run `afterPersist` when all of them have been stored. A snapshot is only saved after all
+   * events, if it is due.
+   */
+  private def persistWithTimerUpdates(events: immutable.Seq[Any], ctx: EntityCommandContext)(afterPersist: () => Unit): Unit = {
+    // the replies don't wait for the events, only for the timer updates
+    if (ctx.timerUpdates.isEmpty)
+      ctx.releaseReplies()
+    var count = events.size + ctx.timerUpdates.size
+    persistStartedAt = System.nanoTime()
+    persistAll(events ++ ctx.timerUpdates) { evt =>
+      try {
+        storedEvent(evt)
+        count -= 1
+        if (count == 0) {
+          if (events.nonEmpty)
+            persistCompleted(events.size)
+          ctx.releaseReplies()
+          afterPersist()
+          sendTimerOutbox()
+          if (snapshotDue)
+            saveStateSnapshot()
+          updateStateSizeEstimate()
+        }
+      } catch {
+        case NonFatal(e) =>
+          ctx.commandFailed(e) // reply with failure
+          throw e
+      }
+    }
+  }
 
-    case PersistentEntityActor.Stop =>
-      context.stop(self)
+  // an event of the entity or a timer update of the outbox
+  private def storedEvent(evt: Any): Unit = evt match {
+    case update: EntityTimers.TimerUpdate => timerOutbox :+= update
+    case _                                => eventPersisted(evt)
+  }
+
+  private def isConfirmedStateCommand(cmd: Any): Boolean =
+    entity.behavior.hasConfirmedStateCommandHandlers &&
+      commandHandler(cmd).exists(_.isInstanceOf[entity.ConfirmedStateCommandHandler[_, _]])
+
+  /**
+   * Handle the queued commands, at most `groupCommitMaxCommands` of them, and write
+   * all their events with one atomic `persistAllAsync`. Commands that arrive while
+   * the write is in progress are queued, and handled when the write has completed.
+   * Each command gets its own reply and `afterPersist` callback when all events of
+   * the group have been stored. The replies that the commands give while they are handled
+   * after an earlier command of the group has emitted events, e.g. those of read-only
+   * commands, are also sent when the events have been stored, since they may depend on the
+   * events.
+   *
+   * This is also used with one command per write when group commit is not enabled but
+   * the behavior has confirmed state command handlers, since those must be answered
+   * while the write is in progress, i.e. incoming messages must not be stashed.
+   */
+  private def groupCommit(): Unit = {
+    // everything before this write has been confirmed by the journal
+    confirmedBehavior = entity.behavior
+    var events = Vector.empty[Any]
+    var afterPersistCallbacks = Vector.empty[(entity.CommandContext[Any], () => Unit)]
+    var contexts = Vector.empty[entity.CommandContext[Any]]
+    var timerUpdates = Vector.empty[EntityTimers.TimerUpdate]
+    groupHasEvents = false
+
+    while (events.isEmpty && timerUpdates.isEmpty && pendingCommands.nonEmpty) {
+      val (group, rest) = pendingCommands.splitAt(maxCommandsPerWrite)
+      pendingCommands = rest
+
+      group.foreach {
+        case PendingCommand(cmd, replyTo, replyMode) =>
+          commandHandler(cmd) match {
+            case Some(handler) =>
+              val ctx = newCtx(replyTo, replyMode)
+              // restore the behavior if a command fails, so that the other commands in the
+              // group are not affected by partially applied events
+              val behaviorBefore = entity.behavior
+              ctx.holdReplies()
+              try {
+                handler.apply(cmd.asInstanceOf[C], ctx) match {
+                  case _: entity.PersistNone[_] => // done
+                  case entity.PersistOne(event, afterPersist) =>
+                    applyEvent(event)
+                    events :+= event
+                    contexts :+= ctx
+                    if (afterPersist != null)
+                      afterPersistCallbacks :+= (ctx -> (() => afterPersist.accept(event)))
+                  case entity.PersistAll(evts, afterPersist) =>
+                    evts.foreach(applyEvent)
+                    events ++= evts
+                    contexts :+= ctx
+                    if (afterPersist != null)
+                      afterPersistCallbacks :+= (ctx -> (() => afterPersist.apply()))
+                }
+                // also those of commands without events, which may depend on the events of the group
+                timerUpdates ++= ctx.timerUpdates
+                // the replies wait for the write of the group when the command has timer updates
+                groupHasEvents = events.nonEmpty || timerUpdates.nonEmpty
+                ctx.releaseReplies()
+              } catch {
+                case NonFatal(e) =>
+                  entity.internalSetCurrentBehavior(behaviorBefore)
+                  ctx.releaseReplies()
+                  log.warn(s"Command [${cmd.getClass.getName}] failed in [${entity.getClass.getName}] with id [${entityId}], " +
+                    s"caused by: ${e.getMessage}")
+                  ctx.commandFailed(e) // reply with failure
+              }
+              groupHasEvents = events.nonEmpty || timerUpdates.nonEmpty
+
+            case None =>
+              // not using akka.actor.Status.Failure because it is using Java serialization
+              reply(replyTo, replyMode, PersistentEntity.UnhandledCommandException(
+                s"Unhandled command [${cmd.getClass.getName}] in [${entity.getClass.getName}] with id [${entityId}]"
+              ))
+              unhandled(cmd)
+          }
+      }
+    }
+    groupHasEvents = false
+
+    if (events.isEmpty && timerUpdates.isEmpty) {
+      if (stopRequested)
+        passivate()
+    } else {
+      groupWriteInProgress = true
+      inProgressContexts = contexts
+      var count = events.size + timerUpdates.size
+      persistStartedAt = System.nanoTime()
+      // the timer updates are stored atomically with the events
+      persistAllAsync(events ++ timerUpdates) { evt =>
+        storedEvent(evt)
+        count -= 1
+        if (count == 0) {
+          if (events.nonEmpty)
+            persistCompleted(events.size)
+          sendTimerOutbox()
+          afterPersistCallbacks.foreach {
+            case (ctx, callback) =>
+              try callback()
+              catch {
+                case NonFatal(e) =>
+                  ctx.commandFailed(e) // reply with failure
+              }
+          }
+          deferredReplies.foreach { case (replyTo, replyMode, msg) => reply(replyTo, replyMode, msg) }
+          deferredReplies = Vector.empty
+          if (snapshotDue)
+            saveStateSnapshot()
+          updateStateSizeEstimate()
+          groupWriteInProgress = false
+          inProgressContexts = Vector.empty
+          groupCommit()
+        }
+      }
+    }
   }
 
   override protected def onPersistFailure(cause: Throwable, event: Any, seqNr: Long): Unit = {
-    // not using akka.actor.Status.Failure because it is using Java serialization
-    sender() ! PersistentEntity.PersistException(
+    replyPersistException(PersistentEntity.PersistException(
       s"Persist of [${event.getClass.getName}] failed in [${entity.getClass.getName}] with id [${entityId}], " +
         s"caused by: {${cause.getMessage}"
-    )
+    ))
     super.onPersistFailure(cause, event, seqNr)
   }
 
   override protected def onPersistRejected(cause: Throwable, event: Any, seqNr: Long): Unit = {
-    // not using akka.actor.Status.Failure because it is using Java serialization
-    sender() ! PersistentEntity.PersistException(
+    replyPersistException(PersistentEntity.PersistException(
       s"Persist of [${event.getClass.getName}] rejected in [${entity.getClass.getName}] with id [${entityId}], " +
         s"caused by: {${cause.getMessage}"
-    )
+    ))
     super.onPersistFailure(cause, event, seqNr)
   }
 
+  private def replyPersistException(exc: PersistentEntity.PersistException): Unit = {
+    // not using akka.actor.Status.Failure because it is using Java serialization
+    if (inProgressContexts.nonEmpty) {
+      // all commands of the failed group commit get the failure
+      inProgressContexts.foreach(_.commandFailed(exc))
+      inProgressContexts = Vector.empty
+      // the deferred replies are from state that was never stored
+      deferredReplies.foreach { case (replyTo, replyMode, _) => reply(replyTo, replyMode, exc) }
+      deferredReplies = Vector.empty
+    } else
+      reply(sender(), stashingWriteReplyMode, exc)
+  }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+import javax.inject.Inject
+
+import akka.actor.{ ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+import com.lightbend.lagom.internal.spi.{ PersistentEntityMetrics, PersistentEntityMetricsProvider, PersistentEntityStatsProvider }
+import com.lightbend.lagom.internal.spi.PersistentEntityStatsProvider.PersistentEntityStats
+
+import scala.collection.JavaConverters._
+
+private[lagom] object PersistentEntityMetricsCollector extends ExtensionId[PersistentEntityMetricsCollector] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): PersistentEntityMetricsCollector =
+    new PersistentEntityMetricsCollector
+
+  override def lookup = PersistentEntityMetricsCollector
+
+  override def get(system: ActorSystem): PersistentEntityMetricsCollector = super.get(system)
+
+  /**
+   * The metrics of the entities of one entity type, which are recorded concurrently by the
+   * entities with counters and histograms that don't lock and don't allocate.
+   */
+  final class EntityTypeMetrics private[PersistentEntityMetricsCollector] (entityTypeName: String)
+    extends PersistentEntityMetrics {
+
+    private val activeEntities = new LongAdder
+    private val snapshotRecoveries = new LongAdder
+    private val replayedEvents = new LongAdder
+    private val recoveryTime = new ValueHistogram
+    private val persistedEvents = new LongAdder
+    private val persistTime = new ValueHistogram
+    private val evictions = new LongAdder
+    private val queuedRecoveries = new LongAdder
+    private val recoveryWaitTime = new ValueHistogram
+    private val snapshotSize = new ValueHistogram
+
+    override def onActivated(): Unit = activeEntities.increment()
+    override def onPassivated(): Unit = activeEntities.decrement()
+    override def onEvicted(): Unit = evictions.increment()
+    override def onRecoveryQueued(): Unit = queuedRecoveries.increment()
+
+    override def onRecoveryDequeued(waitNanos: Long): Unit = {
+      queuedRecoveries.decrement()
+      recoveryWaitTime.record(waitNanos)
+    }
+
+    override def onRecoveryCompleted(replayNanos: Long, replayed: Long, fromSnapshot: Boolean): Unit = {
+      recoveryTime.record(replayNanos)
+      replayedEvents.add(replayed)
+      if (fromSnapshot)
+        snapshotRecoveries.increment()
+    }
+
+    override def onPersisted(eventCount: Int, persistNanos: Long): Unit = {
+      persistTime.record(persistNanos)
+      persistedEvents.add(eventCount)
+    }
+
+    override def onSnapshotSaved(sizeBytes: Long): Unit = snapshotSize.record(sizeBytes)
+
+    def stats: PersistentEntityStats = {
+      val recoveries = recoveryTime.distribution
+      val persists = persistTime.distribution
+      new PersistentEntityStats(entityTypeName, activeEntities.sum, recoveries.getCount, snapshotRecoveries.sum,
+        replayedEvents.sum, recoveries, persists.getCount, persistedEvents.sum, persists, evictions.sum,
+        math.max(queuedRecoveries.sum, 0L), recoveryWaitTime.distribution, snapshotSize.distribution)
+    }
+  }
+}
+
+/**
+ * Keeps the recovery, persist, eviction and snapshot metrics of the persistent entities on this node for the
+ * status endpoint, one [[PersistentEntityMetricsCollector.EntityTypeMetrics]] for each
+ * entity type.
+ */
+private[lagom] class PersistentEntityMetricsCollector extends Extension {
+  import PersistentEntityMetricsCollector._
+
+  private val metrics = new ConcurrentHashMap[String, EntityTypeMetrics]
+
+  def entityTypeMetrics(entityTypeName: String): EntityTypeMetrics = {
+    val m = metrics.get(entityTypeName)
+    if (m ne null) m
+    else {
+      metrics.putIfAbsent(entityTypeName, new EntityTypeMetrics(entityTypeName))
+      metrics.get(entityTypeName)
+    }
+  }
+
+  def stats: java.util.List[PersistentEntityStats] =
+    metrics.values.asScala.toVector.map(_.stats).sortBy(_.getEntityTypeName).asJava
+
+}
+
+/**
+ * The `PersistentEntityMetricsProvider` that is used when no other implementation is
+ * configured. Also provides the collected metrics to the status endpoint.
+ */
+private[lagom] class PersistentEntityMetricsProviderImpl @Inject() (system: ActorSystem)
+  extends PersistentEntityMetricsProvider with PersistentEntityStatsProvider {
+
+  private val collector = PersistentEntityMetricsCollector(system)
+
+  override def start(entityTypeName: String): PersistentEntityMetrics =
+    collector.entityTypeMetrics(entityTypeName)
+
+  override def persistentEntityStats(): java.util.List[PersistentEntityStats] =
+    collector.stats
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.net.URLDecoder
+import java.util.Optional
+import java.util.concurrent.ThreadLocalRandom
+import java.util.function.{ BiFunction => JBiFunction, Function => JFunction }
+
+import akka.actor.{ Actor, ActorRef, Cancellable, Props, ReceiveTimeout, Terminated }
+import akka.cluster.sharding.ShardRegion
+import akka.persistence.{ PersistentActor, Recovery, RecoveryCompleted, SnapshotOffer }
+import akka.persistence.query.EventEnvelope
+import akka.persistence.query.scaladsl.{ CurrentEventsByPersistenceIdQuery, EventsByPersistenceIdQuery }
+import akka.stream.ActorMaterializer
+import akka.stream.scaladsl.Sink
+import akka.util.ByteString
+import com.lightbend.lagom.javadsl.persistence.{ PersistentEntity, SequencedReply }
+import play.api.Logger
+
+import scala.concurrent.duration._
+import scala.util.control.NonFatal
+
+private[lagom] object ReadReplicaActor {
+
+  /**
+   * The query of the events of one entity that the read replicas follow. The current events
+   * are replayed first, then the replica follows the live events.
+   */
+  type EventsQuery = EventsByPersistenceIdQuery with CurrentEventsByPersistenceIdQuery
+
+  def props[C, E, S](
+    persistenceIdPrefix:       String,
+    entityId:                  Optional[String],
+    entityFactory:             () => PersistentEntity[C, E, S],
+    eventsQuery:               EventsQuery,
+    passivateAfterIdleTimeout: FiniteDuration,
+    restartMinBackoff:         FiniteDuration = 1.second,
+    restartMaxBackoff:         FiniteDuration = 30.seconds,
+    restartRandomFactor:       Double         = 0.2
+  ): Props =
+    Props(new ReadReplicaActor(persistenceIdPrefix, entityId, entityFactory(), eventsQuery, passivateAfterIdleTimeout,
+      restartMinBackoff, restartMaxBackoff, restartRandomFactor))
+
+  private val ReplicaSeparator = '#'
+
+  /**
+   * The sharding entity id of a replica of the entity with the given id.
+   */
+  def replicaEntityId(entityId: String, replica: Int): String =
+    entityId + ReplicaSeparator + replica
+
+  /**
+   * The id of the entity of a replica with the given sharding entity id.
+   */
+  def entityIdOfReplica(replicaEntityId: String): String =
+    replicaEntityId.substring(0, replicaEntityId.lastIndexOf(ReplicaSeparator))
+
+  /**
+   * Stop the replica for passivation.
+   */
+  case object Stop
+
+  private final case class Pending(command: PersistentEntity.ReplyType[_], minSequenceNr: Long, replyTo: ActorRef)
+
+  private case object StreamInit
+  private case object StreamAck
+  private case object CurrentEventsCompleted
+  private case object LiveEventsCompleted
+  private final case class StreamFailed(cause: Throwable)
+  private case object Restart
+
+  private final case class SnapshotLoaded(sequenceNr: Long, snapshot: Option[Any])
+
+  /**
+   * Loads the latest snapshot of the entity by recovering with the same persistence id, without
+   * replaying any events, and sends it to its parent. It never persists any events.
+   */
+  private class SnapshotLoader(override val persistenceId: String) extends PersistentActor {
+    private var loaded = SnapshotLoaded(0L, None)
+
+    override def recovery: Recovery = Recovery(replayMax = 0L)
+
+    override def receiveRecover: Receive = {
+      case SnapshotOffer(metadata, snapshot) =>
+        loaded = SnapshotLoaded(metadata.sequenceNr, Some(snapshot))
+      case RecoveryCompleted =>
+        context.parent ! loaded
+        context.stop(self)
+    }
+
+    override def receiveCommand: Receive = Actor.emptyBehavior
+  }
+}
+
+/**
+ * A read replica of a [[com.lightbend.lagom.javadsl.persistence.PersistentEntity]], which
+ * runs its own instance of the entity and applies the events of the entity as they are
+ * stored, by following them with the events by persistence id query. It starts from the
+ * latest snapshot of the entity, and never persists any events or saves any snapshots.
+ *
+ * The replica only answers [[SequencedCommand]]s whose command is handled by a read-only
+ * command handler, i.e. one that was registered with `setReadOnlyCommandHandler` or
+ * `setConfirmedStateCommandHandler`. Each reply carries the sequence number of the last
+ * event that the replica has applied, and a command is not answered until that is at
+ * least the `minSequenceNr` of the command.
+ *
+ * When the snapshot can't be loaded, or the events query fails or completes, it is started
+ * again after an exponential backoff, from the last applied event. The commands that are
+ * waiting for the replica are kept until then.
+ */
+private[lagom] class ReadReplicaActor[C, E, S](
+  persistenceIdPrefix:       String,
+  id:                        Optional[String],
+  entity:                    PersistentEntity[C, E, S],
+  eventsQuery:               ReadReplicaActor.EventsQuery,
+  passivateAfterIdleTimeout: FiniteDuration,
+  restartMinBackoff:         FiniteDuration,
+  restartMaxBackoff:         FiniteDuration,
+  restartRandomFactor:       Double
+) extends Actor {
+  import ReadReplicaActor._
+  private val log = Logger(this.getClass)
+
+  private val entityId: String = id.orElse(
+    entityIdOfReplica(URLDecoder.decode(self.path.name, ByteString.UTF_8))
+  )
+
+  private val persistenceId: String = persistenceIdPrefix + entityId
+
+  entity.internalSetEntityId(entityId)
+
+  private implicit val materializer = ActorMaterializer()(context)
+
+  // the sequence number of the last applied event
+  private var sequenceNr = 0L
+  private var snapshotLoaded = false
+  // the commands are answered when the current events have been applied
+  private var caughtUp = false
+  private var pending = Vector.empty[Pending]
+  // the number of restarts since the last event that was applied
+  private var restarts = 0
+  private var scheduledRestart: Option[Cancellable] = None
+
+  context.setReceiveTimeout(passivateAfterIdleTimeout)
+
+  override def preStart(): Unit = {
+    entity.internalSetCurrentBehavior(entity.initialBehavior(Optional.empty[S]))
+    loadSnapshot()
+  }
+
+  override def postStop(): Unit =
+    scheduledRestart.foreach(_.cancel())
+
+  private def loadSnapshot(): Unit =
+    context.watch(context.actorOf(Props(classOf[SnapshotLoader], persistenceId)))
+
+  // continues after the last applied event, with the current events until it has caught up
+  private def followEvents(): Unit =
+    if (caughtUp)
+      eventsQuery.eventsByPersistenceId(persistenceId, sequenceNr + 1, Long.MaxValue)
+        .runWith(Sink.actorRefWithAck(self, StreamInit, StreamAck, LiveEventsCompleted, StreamFailed))
+    else
+      eventsQuery.currentEventsByPersistenceId(persistenceId, sequenceNr + 1, Long.MaxValue)
+        .runWith(Sink.actorRefWithAck(self, StreamInit, StreamAck, CurrentEventsCompleted, StreamFailed))
+
+  private def scheduleRestart(): Unit = {
+    val backoff = math.min(restartMaxBackoff.toMillis.toDouble, restartMinBackoff.toMillis * math.pow(2, restarts)) *
+      (1.0 + ThreadLocalRandom.current().nextDouble() * restartRandomFactor)
+    restarts += 1
+    import context.dispatcher
+    scheduledRestart = Some(context.system.scheduler.scheduleOnce(backoff.toLong.millis, self, Restart))
+  }
+
+  def receive: Receive = {
+    case SequencedCommand(minSequenceNr, cmd: PersistentEntity.ReplyType[_]) =>
+      if (!isReadOnlyCommand(cmd))
+        // not using akka.actor.Status.Failure because it is using Java serialization
+        sender() ! PersistentEntity.UnhandledCommandException(
+          s"Command [${cmd.getClass.getName}] of [${entity.getClass.getName}] with id [${entityId}] " +
+            "is not read-only and can't be handled by a read replica"
+        )
+      else if (caughtUp && sequenceNr >= minSequenceNr)
+        handleCommand(cmd, sender())
+      else
+        pending :+= Pending(cmd, minSequenceNr, sender())
+
+    case SnapshotLoaded(seqNr, snapshot) =>
+      context.unwatch(sender())
+      snapshot.foreach { state =>
+        entity.internalSetCurrentBehavior(entity.initialBehavior(Optional.ofNullable(state.asInstanceOf[S])))
+      }
+      sequenceNr = seqNr
+      snapshotLoaded = true
+      followEvents()
+
+    case Terminated(_) =>
+      // the snapshot loader stops without a snapshot when the recovery failed
+      log.warn(s"Loading the snapshot of [${persistenceId}] for a read replica failed, restarting")
+      scheduleRestart()
+
+    case StreamInit =>
+      sender() ! StreamAck
+
+    case EventEnvelope(_, _, seqNr, event) =>
+      applyEvent(event)
+      sequenceNr = seqNr
+      restarts = 0
+      if (caughtUp)
+        handlePending()
+      sender() ! StreamAck
+
+    case CurrentEventsCompleted =>
+      caughtUp = true
+      entity.internalSetCurrentBehavior(entity.recoveryCompleted())
+      followEvents()
+      handlePending()
+
+    case LiveEventsCompleted =>
+      log.warn(s"Events of [${persistenceId}] completed unexpectedly, restarting")
+      scheduleRestart()
+
+    case StreamFailed(cause) =>
+      log.warn(s"Following the events of [${persistenceId}] failed, restarting, caused by: ${cause.getMessage}")
+      scheduleRestart()
+
+    case Restart =>
+      scheduledRestart = None
+      if (snapshotLoaded) followEvents()
+      else loadSnapshot()
+
+    case ReceiveTimeout =>
+      context.parent ! ShardRegion.Passivate(Stop)
+
+    case Stop =>
+      context.stop(self)
+  }
+
+  private def eventHandler(event: Any): Option[JFunction[E, entity.Behavior]] =
+    entity.behavior.eventHandler(event.getClass).asInstanceOf[Option[JFunction[E, entity.Behavior]]]
+
+  private def commandHandler(cmd: Any): Option[JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]] =
+    entity.behavior.commandHandler(cmd.getClass).asInstanceOf[Option[JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]]]
+
+  private def isReadOnlyCommand(cmd: Any): Boolean =
+    commandHandler(cmd).exists { handler =>
+      handler.isInstanceOf[entity.ReadOnlyCommandHandler[_, _]] ||
+        handler.isInstanceOf[entity.ConfirmedStateCommandHandler[_, _]]
+    }
+
+  private def applyEvent(event: Any): Unit =
+    event match {
+      // the timer outbox of the entity, see PersistentEntityActor
+      case _: EntityTimers.TimerUpdate | _: EntityTimers.TimerUpdated =>
+      case _                                                          => applyEntityEvent(event)
+    }
+
+  private def applyEntityEvent(event: Any): Unit =
+    eventHandler(event) match {
+      case Some(handler) =>
+        entity.internalSetCurrentBehavior(handler.apply(event.asInstanceOf[E]))
+      case None =>
+        log.warn(s"Unhandled event [${event.getClass.getName}] in read replica of [${entity.getClass.getName}] " +
+          s"with id [${entityId}]")
+    }
+
+  private def handlePending(): Unit =
+    if (pending.nonEmpty) {
+      val (due, waiting) = pending.partition(_.minSequenceNr <= sequenceNr)
+      pending = waiting
+      due.foreach(p => handleCommand(p.command, p.replyTo))
+    }
+
+  private def handleCommand(cmd: PersistentEntity.ReplyType[_], replyTo: ActorRef): Unit = {
+    val ctx = new entity.CommandContext[Any] {
+      override def reply(msg: Any): Unit = msg match {
+        case exc: Throwable => replyTo ! exc
+        case _              => replyTo ! SequencedReply(sequenceNr, msg)
+      }
+
+      override def commandFailed(cause: Throwable): Unit =
+        // not using akka.actor.Status.Failure because it is using Java serialization
+        reply(cause)
+
+      // the replica can't store the timer updates with the events of the entity
+      override def scheduleCommand(timerKey: String, delay: java.time.Duration, command: C): Unit =
+        timersUnsupported()
+
+      override def cancelScheduledCommand(timerKey: String): Unit =
+        timersUnsupported()
+
+      private def timersUnsupported(): Nothing =
+        throw new UnsupportedOperationException(s"A read replica of [${entity.getClass.getName}] " +
+          s"with id [${entityId}] can't change the timers of the entity")
+    }
+    try commandHandler(cmd).get.apply(cmd.asInstanceOf[C], ctx)
+    catch {
+      case NonFatal(e) =>
+        ctx.commandFailed(e) // reply with failure
+    }
+  }
+
+}
@@ -3,46 +3,152 @@
  */
 package com.lightbend.lagom.internal.persistence
 
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicReference
+
 import akka.{ Done, NotUsed }
-import akka.actor.{ Actor, ActorLogging, Props, Status }
+import akka.actor.{ Actor, ActorLogging, ActorRef, Cancellable, Props, Status }
 import akka.stream.javadsl.Source
 import akka.stream.scaladsl.{ Keep, Sink }
 import akka.stream.{ KillSwitch, KillSwitches, Materializer }
 import akka.util.Timeout
 import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
 import com.lightbend.lagom.internal.persistence.cluster.ClusterStartupTask
+import com.lightbend.lagom.internal.spi.{ ReadSideMetrics, ReadSideMetricsProvider }
 import com.lightbend.lagom.javadsl.persistence._
 
 import scala.compat.java8.FutureConverters._
-import scala.concurrent.duration.FiniteDuration
+import scala.concurrent.duration._
 
 private[lagom] object ReadSideActor {
 
   def props[Event <: AggregateEvent[Event]](
     processor:            () => ReadSideProcessor[Event],
     eventStreamFactory:   (AggregateEventTag[Event], Offset) => Source[akka.japi.Pair[Event, Offset], NotUsed],
-    clazz:                Class[Event],
+    tags:                 Map[String, AggregateEventTag[Event]],
     globalPrepareTask:    ClusterStartupTask,
-    globalPrepareTimeout: FiniteDuration
+    globalPrepareTimeout: FiniteDuration,
+    readSideName:         String,
+    catchUp:              CatchUpSettings,
+    metricsProvider:      ReadSideMetricsProvider,
+    rebuild:              () => Option[ActorRef]
   )(implicit mat: Materializer) = {
-    Props(classOf[ReadSideActor[Event]], processor, eventStreamFactory, clazz, globalPrepareTask, globalPrepareTimeout, mat)
+    Props(classOf[ReadSideActor[Event]], processor, eventStreamFactory, tags, globalPrepareTask, globalPrepareTimeout,
+      readSideName, catchUp, metricsProvider, rebuild, mat)
   }
 
   /**
    * Start processing from the given offset
    */
   case class Start(offset: Offset)
+
+  /**
+   * Stops processing the events of the tag for good, sent when a rebuild of the read side has
+   * replaced it. The actor stays alive, so that it isn't started again by `EnsureActive`, and
+   * replies with `Retired`.
+   */
+  final case class Retire(tagName: String)
+
+  /**
+   * The reply to `Retire`.
+   */
+  final case class Retired(tagName: String)
+
+  private case object CheckLag
+
+  /**
+   * When a handler with a catch-up flow switches to it, and back to its live flow, see
+   * `lagom.persistence.read-side.catch-up`.
+   */
+  final case class CatchUpSettings(lagThreshold: FiniteDuration, liveWindow: FiniteDuration, checkInterval: FiniteDuration) {
+    require(liveWindow < lagThreshold, "catch-up.live-window must be less than catch-up.lag-threshold")
+  }
+
+  // the offset of time based UUIDs is the number of 100 nanosecond intervals since 1582-10-15
+  private val UuidEpochOffset = 0x01B21DD213814000L
+
+  /**
+   * The time when the event of the offset was persisted, in milliseconds since the epoch, for
+   * the offsets that contain the time.
+   */
+  def offsetTimestamp(offset: Offset): Option[Long] = offset match {
+    case uuid: Offset.TimeBasedUUID => Some((uuid.value.timestamp - UuidEpochOffset) / 10000)
+    case _                          => None
+  }
+
+  private def offsetString(offset: Offset): String = offset match {
+    case seq: Offset.Sequence       => seq.value.toString
+    case uuid: Offset.TimeBasedUUID => uuid.value.toString
+    case _                          => null
+  }
+
+  /**
+   * An event that was passed to the handler at `millis`, and that was persisted at
+   * `persistedMillis`, or -1 when that is not known, in milliseconds since the epoch.
+   */
+  private final class Received(val offset: Offset, val millis: Long, val persistedMillis: Long)
+
+  /**
+   * An event that was passed to the handler at `nanos`, and that was persisted at
+   * `persistedMillis`, or -1 when that is not known.
+   */
+  private final class Passed(val nanos: Long, val offset: Offset, val persistedMillis: Long)
+
+  /**
+   * When the event of the offset was persisted, or -1 when that is not known. An event with the
+   * offset of the event before it, or of the start of the stream, was emitted from the recent
+   * events of this node as soon as it was persisted, see [[RecentEventsStage]], and its offset
+   * is that of an older event.
+   */
+  private def persistedMillis(offset: Offset, previousOffset: Offset, now: Long): Long =
+    if (offset == previousOffset) now
+    else offsetTimestamp(offset).getOrElse(-1L)
+
+  /**
+   * Reports the events that were passed to the handler before it emitted an element to the
+   * metrics. A handler that processes the events one at a time emits an element for each event.
+   */
+  private def reportHandled(passed: ConcurrentLinkedQueue[Passed], metrics: ReadSideMetrics): Unit = {
+    var first: Passed = null
+    var last: Passed = null
+    var count = 0
+    var p = passed.poll()
+    while (p ne null) {
+      if (first eq null) first = p
+      last = p
+      count += 1
+      p = passed.poll()
+    }
+    if (count > 0) {
+      val lag = if (last.persistedMillis >= 0) System.currentTimeMillis() - last.persistedMillis else -1L
+      metrics.onEventsHandled(count, System.nanoTime() - first.nanos, offsetString(last.offset), lag)
+    }
+  }
 }
 
 /**
  * Read side actor
+ *
+ * @param tags the tags of the processor by tag name, so that the handler is prepared with the
+ *   tag as defined by the processor, including its previous tags
+ * @param rebuild the rebuild of the read side, if it is being rebuilt, which is asked whether
+ *   the read side has been retired when the actor is started
+ *
+ * When the handler has a catch-up flow, the actor measures how old the events were when they
+ * were received, and restarts the stream with the catch-up flow when they are older than
+ * `catchUp.lagThreshold`, and with the live flow again when they are within `catchUp.liveWindow`,
+ * or when no event has been received for `catchUp.liveWindow`, since an idle stream has caught up.
  */
 private[lagom] class ReadSideActor[Event <: AggregateEvent[Event]](
   processorFactory:     () => ReadSideProcessor[Event],
   eventStreamFactory:   (AggregateEventTag[Event], Offset) => Source[akka.japi.Pair[Event, Offset], NotUsed],
-  clazz:                Class[Event],
+  tags:                 Map[String, AggregateEventTag[Event]],
   globalPrepareTask:    ClusterStartupTask,
-  globalPrepareTimeout: FiniteDuration
+  globalPrepareTimeout: FiniteDuration,
+  readSideName:         String,
+  catchUp:              ReadSideActor.CatchUpSettings,
+  metricsProvider:      ReadSideMetricsProvider,
+  rebuild:              () => Option[ActorRef]
 )(implicit mat: Materializer) extends Actor with ActorLogging {
   import ReadSideActor._
   import akka.pattern.pipe
@@ -50,20 +156,36 @@ private[lagom] class ReadSideActor[Event <: AggregateEvent[Event]](
   import context.dispatcher
 
   private var shutdown: Option[KillSwitch] = None
+  private var checkLag: Option[Cancellable] = None
+  private var metrics: ReadSideMetrics = NoopReadSideMetrics
+
+  // the last event that was passed to the handler, updated by the stream
+  private val lastReceived = new AtomicReference[Received]
+  // the offset that the current stream was started from
+  private var startOffset: Offset = Offset.NONE
+  private var catchingUp = false
+  private var catchUpStartNanos = 0L
 
   override def postStop: Unit = {
     shutdown.foreach(_.shutdown())
+    checkLag.foreach(_.cancel())
   }
 
   def receive = {
     case EnsureActive(tagName) =>
 
-      val tag = AggregateEventTag.of(clazz, tagName)
+      val tag = tags(tagName)
+      metrics = metricsProvider.start(readSideName, tagName)
+      metrics.onStarted()
 
       implicit val timeout = Timeout(globalPrepareTimeout)
 
+      rebuild().foreach(_ ! ReadSideRebuild.CheckRetired(tagName))
       globalPrepareTask.askExecute() pipeTo self
       context become preparing(tag)
+
+    case Retire(tagName) =>
+      retire(tagName)
   }
 
   def preparing(tag: AggregateEventTag[Event]): Receive = {
@@ -71,8 +193,13 @@ private[lagom] class ReadSideActor[Event <: AggregateEvent[Event]](
     case Done =>
       val handler = processorFactory().buildHandler()
       handler.prepare(tag).toScala.map(Start(_)) pipeTo self
+      if (handler.handleCatchUp().isPresent)
+        checkLag = Some(context.system.scheduler.schedule(catchUp.checkInterval, catchUp.checkInterval, self, CheckLag))
       context become active(handler, tag)
 
+    case Retire(tagName) =>
+      retire(tagName)
+
     case Status.Failure(e) =>
       throw e
 
@@ -82,18 +209,58 @@ private[lagom] class ReadSideActor[Event <: AggregateEvent[Event]](
 
     case Start(offset) =>
 
+      startOffset = offset
+      val flow = if (catchingUp) handler.handleCatchUp().get else handler.handle()
+      val passed = new ConcurrentLinkedQueue[Passed]
+      val tagMetrics = metrics
+      // only accessed by the map stage
+      var previousOffset = offset
       val (killSwitch, streamDone) = eventStreamFactory(tag, offset).asScala
         .viaMat(KillSwitches.single)(Keep.right)
-        .via(handler.handle())
+        .map { pair =>
+          val now = System.currentTimeMillis()
+          val persisted = persistedMillis(pair.second, previousOffset, now)
+          previousOffset = pair.second
+          if (checkLag.isDefined) lastReceived.set(new Received(pair.second, now, persisted))
+          passed.add(new Passed(System.nanoTime(), pair.second, persisted))
+          pair
+        }
+        .via(flow)
+        .map { done =>
+          reportHandled(passed, tagMetrics)
+          done
+        }
         .toMat(Sink.ignore)(Keep.both)
         .run()
 
       shutdown = Some(killSwitch)
       streamDone pipeTo self
 
+    case CheckLag =>
+      val received = lastReceived.get
+      if ((received ne null) && received.persistedMillis >= 0) {
+        val idle = System.currentTimeMillis() - received.millis > catchUp.liveWindow.toMillis
+        val lag: FiniteDuration = if (idle) Duration.Zero else (received.millis - received.persistedMillis).millis
+        if (!catchingUp && lag > catchUp.lagThreshold) {
+          log.info("Read side [{}] is [{}] ms behind on tag [{}], switching to catch-up mode",
+            readSideName, lag.toMillis, tag.tag)
+          catchUpStartNanos = System.nanoTime()
+          metrics.onCatchUpStarted(lag.toMillis)
+          restart(handler, tag, toCatchUp = true)
+        } else if (catchingUp && lag <= catchUp.liveWindow) {
+          log.info("Read side [{}] has caught up on tag [{}] and is [{}] ms behind, switching to live mode",
+            readSideName, tag.tag, lag.toMillis)
+          metrics.onCatchUpCompleted(lag.toMillis, System.nanoTime() - catchUpStartNanos)
+          restart(handler, tag, toCatchUp = false)
+        }
+      }
+
     case EnsureActive(_) =>
     // Yes, we are active
 
+    case Retire(tagName) =>
+      retire(tagName)
+
     case Status.Failure(e) =>
       throw e
 
@@ -102,4 +269,53 @@ private[lagom] class ReadSideActor[Event <: AggregateEvent[Event]](
 
   }
 
+  /**
+   * Stops the stream, and starts it again with the catch-up or the live flow after the last
+   * event that was passed to the handler, when the events that were passed to the handler have
+   * been processed. The handler is not prepared again.
+   */
+  private def restart(handler: ReadSideProcessor.ReadSideHandler[Event], tag: AggregateEventTag[Event], toCatchUp: Boolean): Unit = {
+    catchingUp = toCatchUp
+    shutdown.foreach(_.shutdown())
+    shutdown = None
+    context become restarting(handler, tag)
+  }
+
+  def restarting(handler: ReadSideProcessor.ReadSideHandler[Event], tag: AggregateEventTag[Event]): Receive = {
+
+    case Done =>
+      val received = lastReceived.get
+      self ! Start(if (received ne null) received.offset else startOffset)
+      context become active(handler, tag)
+
+    case CheckLag        =>
+    case EnsureActive(_) =>
+
+    case Retire(tagName) =>
+      retire(tagName)
+
+    case Status.Failure(e) =>
+      throw e
+
+  }
+
+  private def retire(tagName: String): Unit = {
+    sender() ! Retired(tagName)
+    log.info("Read side [{}] has been replaced by a rebuild, stopping to process tag [{}]", readSideName, tagName)
+    shutdown.foreach(_.shutdown())
+    shutdown = None
+    checkLag.foreach(_.cancel())
+    checkLag = None
+    context become retired
+  }
+
+  /**
+   * Ignores everything but `Retire`, including the completion of the stream and the offsets of
+   * pending prepares.
+   */
+  def retired: Receive = {
+    case Retire(tagName) => sender() ! Retired(tagName)
+    case _               =>
+  }
+
 }
@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.duration._
+
+/**
+ * How the events of a read-side handler are grouped when it processes them in batches: at most
+ * `maxEvents` events, or the events that arrived within `maxDelay` after the first one.
+ */
+private[lagom] final case class ReadSideBatching(maxEvents: Int, maxDelay: FiniteDuration) {
+  require(maxEvents > 0, "maxEvents must be greater than 0")
+  require(maxDelay > Duration.Zero, "maxDelay must be greater than 0")
+}
+
+private[lagom] object ReadSideBatching {
+  def apply(maxEvents: Int, maxDelay: java.time.Duration): ReadSideBatching =
+    ReadSideBatching(maxEvents, FiniteDuration(maxDelay.toNanos, TimeUnit.NANOSECONDS))
+}
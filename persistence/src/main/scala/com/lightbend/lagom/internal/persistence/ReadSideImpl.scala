@@ -4,17 +4,23 @@
 package com.lightbend.lagom.internal.persistence
 
 import java.net.URLEncoder
-import java.util.concurrent.TimeUnit
+import java.util.concurrent.{ CompletionStage, ConcurrentHashMap, TimeUnit }
+import java.util.function.Supplier
 import javax.inject.{ Inject, Singleton }
 
-import akka.actor.{ ActorSystem, SupervisorStrategy }
+import akka.{ Done, NotUsed }
+import akka.actor.{ ActorRef, ActorSystem, ExtendedActorSystem, PoisonPill, SupervisorStrategy }
 import akka.cluster.Cluster
-import akka.cluster.sharding.ClusterShardingSettings
+import akka.cluster.sharding.{ ClusterSharding, ClusterShardingSettings }
+import akka.cluster.singleton.{ ClusterSingletonManager, ClusterSingletonManagerSettings, ClusterSingletonProxy, ClusterSingletonProxySettings }
+import akka.japi.Pair
 import akka.pattern.BackoffSupervisor
 import akka.stream.Materializer
+import akka.stream.javadsl.Source
 import com.google.inject.Injector
 import com.lightbend.lagom.internal.persistence.cluster.{ ClusterDistribution, ClusterDistributionSettings, ClusterStartupTask }
-import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, PersistentEntityRegistry, ReadSide, ReadSideProcessor }
+import com.lightbend.lagom.internal.spi.ReadSideMetricsProvider
+import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, AggregateEventTag, Offset, PersistentEntityRegistry, ReadSide, ReadSideProcessor }
 
 import scala.concurrent.ExecutionContext
 import scala.concurrent.duration._
@@ -37,6 +43,22 @@ private[lagom] class ReadSideImpl @Inject() (
     case "" => None
     case r  => Some(r)
   }
+  private val catchUp = ReadSideActor.CatchUpSettings(
+    conf.getDuration("catch-up.lag-threshold", TimeUnit.MILLISECONDS).millis,
+    conf.getDuration("catch-up.live-window", TimeUnit.MILLISECONDS).millis,
+    conf.getDuration("catch-up.check-interval", TimeUnit.MILLISECONDS).millis
+  )
+
+  private lazy val metricsProvider: ReadSideMetricsProvider =
+    system.settings.config.getString("lagom.spi.read-side-metrics-class") match {
+      case ""        => new ReadSideMetricsProviderImpl(system)
+      case className => injector.getInstance(system.asInstanceOf[ExtendedActorSystem].dynamicAccess.getClassFor[ReadSideMetricsProvider](className).get)
+    }
+
+  private val rebuildSettings = ReadSideRebuild.Settings(conf.getConfig("rebuild"))
+
+  // the proxies of the rebuild singletons by the name of the read side that they rebuild
+  private val rebuilds = new ConcurrentHashMap[String, ActorRef]
 
   override def register[Event <: AggregateEvent[Event]](
     processorClass: Class[_ <: ReadSideProcessor[Event]]
@@ -48,50 +70,113 @@ private[lagom] class ReadSideImpl @Inject() (
     registerFactory(processorFactory, processorClass)
   }
 
-  private[lagom] def registerFactory[Event <: AggregateEvent[Event]](
-    processorFactory: () => ReadSideProcessor[Event], clazz: Class[_]
-  ) = {
+  override def rebuild[Event <: AggregateEvent[Event]](
+    processorClass: Class[_ <: ReadSideProcessor[Event]],
+    rebuildClass:   Class[_ <: ReadSideProcessor[Event]],
+    swap:           Supplier[CompletionStage[Done]]
+  ): Unit = {
 
     // Only run if we're configured to run on this role
     if (role.forall(Cluster(system).selfRoles.contains)) {
-      // try to create one instance to fail fast (e.g. wrong constructor)
-      val dummyProcessor = try {
-        processorFactory()
-      } catch {
-        case NonFatal(e) => throw new IllegalArgumentException("Cannot create instance of " +
-          s"[${clazz.getName}]", e)
-      }
-
-      val readSideName = dummyProcessor.readSideName()
-      val encodedReadSideName = URLEncoder.encode(readSideName, "utf-8")
-      val tags = dummyProcessor.aggregateTags().asScala
-      val entityIds = tags.map(_.tag)
-      val eventClass = tags.headOption match {
-        case Some(tag) => tag.eventType
-        case None      => throw new IllegalArgumentException(s"ReadSideProcessor ${clazz.getName} returned 0 tags")
+      val processorFactory: () => ReadSideProcessor[Event] =
+        () => injector.getInstance(processorClass)
+      val rebuildFactory: () => ReadSideProcessor[Event] =
+        () => injector.getInstance(rebuildClass)
+
+      val processor = createProcessor(processorFactory, processorClass)
+      val rebuildProcessor = createProcessor(rebuildFactory, rebuildClass)
+      val readSideName = processor.readSideName()
+      val rebuildName = rebuildProcessor.readSideName()
+      if (rebuildName == readSideName)
+        throw new IllegalArgumentException(s"ReadSideProcessor ${rebuildClass.getName} must have another read side " +
+          s"name than the processor [$readSideName] that it rebuilds")
+      val tags = rebuildProcessor.aggregateTags().asScala
+      if (tags.map(_.tag).toSet != processor.aggregateTags().asScala.map(_.tag).toSet)
+        throw new IllegalArgumentException(s"ReadSideProcessor ${rebuildClass.getName} must have the same tags as " +
+          s"the processor [$readSideName] that it rebuilds")
+      ReadSideRebuild.offsetReader(processor)
+      ReadSideRebuild.offsetReader(rebuildProcessor)
+
+      val liveRegion = try ClusterSharding(system).shardRegion(readSideName) catch {
+        case e: IllegalArgumentException => throw new IllegalArgumentException(s"ReadSideProcessor " +
+          s"${processorClass.getName} must be registered before it is rebuilt", e)
       }
 
-      val globalPrepareTask = ClusterStartupTask(
-        system, s"readSideGlobalPrepare-$encodedReadSideName",
-        () => processorFactory().buildHandler().globalPrepare().toScala,
-        globalPrepareTimeout, role, minBackoff, maxBackoff, randomBackoffFactor
-      )
-
-      val processorProps = ReadSideActor.props(processorFactory, registry.eventStream[Event], eventClass, globalPrepareTask, globalPrepareTimeout)
+      startProcessor(rebuildFactory, rebuildClass,
+        ReadSideRebuild.throttled[Event](registry.eventStream[Event], rebuildSettings.eventsPerSecond))
 
+      val rebuildProps = ReadSideRebuildActor.props(readSideName, rebuildName, processorFactory, rebuildFactory, tags,
+        () => swap.get().toScala, liveRegion, rebuildSettings)
       val backoffProps = BackoffSupervisor.propsWithSupervisorStrategy(
-        processorProps, "processor", minBackoff, maxBackoff, randomBackoffFactor, SupervisorStrategy.stoppingStrategy
+        rebuildProps, "rebuild", minBackoff, maxBackoff, randomBackoffFactor, SupervisorStrategy.stoppingStrategy
+      )
+      val singletonName = s"readSideRebuild-${URLEncoder.encode(rebuildName, "utf-8")}-singleton"
+      system.actorOf(
+        ClusterSingletonManager.props(backoffProps, PoisonPill, ClusterSingletonManagerSettings(system).withRole(role)),
+        singletonName
       )
+      rebuilds.put(readSideName, system.actorOf(
+        ClusterSingletonProxy.props(s"/user/$singletonName", ClusterSingletonProxySettings(system).withRole(role)),
+        s"$singletonName-proxy"
+      ))
+    }
+  }
 
-      val shardingSettings = ClusterShardingSettings(system).withRole(role)
+  private[lagom] def registerFactory[Event <: AggregateEvent[Event]](
+    processorFactory: () => ReadSideProcessor[Event], clazz: Class[_]
+  ) = {
 
-      ClusterDistribution(system).start(
-        readSideName,
-        backoffProps,
-        entityIds.toSet,
-        ClusterDistributionSettings(system).copy(clusterShardingSettings = shardingSettings)
-      )
+    // Only run if we're configured to run on this role
+    if (role.forall(Cluster(system).selfRoles.contains))
+      startProcessor(processorFactory, clazz, registry.eventStream[Event])
+  }
+
+  // try to create one instance to fail fast (e.g. wrong constructor)
+  private def createProcessor[Event <: AggregateEvent[Event]](
+    processorFactory: () => ReadSideProcessor[Event], clazz: Class[_]
+  ): ReadSideProcessor[Event] =
+    try {
+      processorFactory()
+    } catch {
+      case NonFatal(e) => throw new IllegalArgumentException("Cannot create instance of " +
+        s"[${clazz.getName}]", e)
     }
 
+  private def startProcessor[Event <: AggregateEvent[Event]](
+    processorFactory:   () => ReadSideProcessor[Event],
+    clazz:              Class[_],
+    eventStreamFactory: (AggregateEventTag[Event], Offset) => Source[Pair[Event, Offset], NotUsed]
+  ): Unit = {
+    val dummyProcessor = createProcessor(processorFactory, clazz)
+
+    val readSideName = dummyProcessor.readSideName()
+    val encodedReadSideName = URLEncoder.encode(readSideName, "utf-8")
+    val tags = dummyProcessor.aggregateTags().asScala
+    if (tags.isEmpty)
+      throw new IllegalArgumentException(s"ReadSideProcessor ${clazz.getName} returned 0 tags")
+    val tagsByName = tags.map(tag => tag.tag -> tag).toMap
+
+    val globalPrepareTask = ClusterStartupTask(
+      system, s"readSideGlobalPrepare-$encodedReadSideName",
+      () => processorFactory().buildHandler().globalPrepare().toScala,
+      globalPrepareTimeout, role, minBackoff, maxBackoff, randomBackoffFactor
+    )
+
+    val processorProps = ReadSideActor.props(processorFactory, eventStreamFactory, tagsByName, globalPrepareTask,
+      globalPrepareTimeout, readSideName, catchUp, metricsProvider, () => Option(rebuilds.get(readSideName)))
+
+    val backoffProps = BackoffSupervisor.propsWithSupervisorStrategy(
+      processorProps, "processor", minBackoff, maxBackoff, randomBackoffFactor, SupervisorStrategy.stoppingStrategy
+    )
+
+    val shardingSettings = ClusterShardingSettings(system).withRole(role)
+
+    ClusterDistribution(system).start(
+      readSideName,
+      backoffProps,
+      tagsByName.keySet,
+      ClusterDistributionSettings(system).copy(clusterShardingSettings = shardingSettings),
+      { case ReadSideActor.Retire(tagName) => tagName }
+    )
   }
 }
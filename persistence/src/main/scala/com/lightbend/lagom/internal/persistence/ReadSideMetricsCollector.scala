@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.{ AtomicLong, LongAdder }
+import javax.inject.Inject
+
+import akka.actor.{ ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+import com.lightbend.lagom.internal.spi.{ ReadSideMetrics, ReadSideMetricsProvider, ReadSideStatsProvider }
+import com.lightbend.lagom.internal.spi.ReadSideStatsProvider.ReadSideStats
+
+import scala.collection.JavaConverters._
+
+private[lagom] object ReadSideMetricsCollector extends ExtensionId[ReadSideMetricsCollector] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): ReadSideMetricsCollector =
+    new ReadSideMetricsCollector
+
+  override def lookup = ReadSideMetricsCollector
+
+  override def get(system: ActorSystem): ReadSideMetricsCollector = super.get(system)
+
+  /**
+   * The number of events of each of the last seconds, for the events per second of the last
+   * `seconds` complete seconds. Recorded by the one stream of the tag, so it doesn't need to
+   * scale with concurrent writers.
+   */
+  final class EventRate(seconds: Int) {
+    private val counts = new Array[Long](seconds + 1)
+    private val stamps = Array.fill(seconds + 1)(-1L)
+
+    def record(events: Int, nowSecond: Long): Unit = synchronized {
+      val i = (nowSecond % counts.length).toInt
+      if (stamps(i) != nowSecond) {
+        stamps(i) = nowSecond
+        counts(i) = 0
+      }
+      counts(i) += events
+    }
+
+    def perSecond(nowSecond: Long): Double = synchronized {
+      var sum = 0L
+      var i = 0
+      while (i < counts.length) {
+        if (stamps(i) < nowSecond && stamps(i) >= nowSecond - seconds)
+          sum += counts(i)
+        i += 1
+      }
+      sum.toDouble / seconds
+    }
+  }
+
+  /**
+   * The metrics of one tag of a read-side processor.
+   */
+  final class TagMetrics private[ReadSideMetricsCollector] (readSideName: String, tag: String)
+    extends ReadSideMetrics {
+
+    private val starts = new LongAdder
+    private val catchUps = new LongAdder
+    @volatile private var catchingUp = false
+    @volatile private var lastOffset: String = null
+    private val lagMillis = new AtomicLong(-1L)
+    private val handledEvents = new LongAdder
+    private val handleTime = new ValueHistogram
+    private val rate = new EventRate(10)
+
+    override def onStarted(): Unit = {
+      starts.increment()
+      catchingUp = false
+    }
+
+    override def onEventsHandled(eventCount: Int, handleNanos: Long, offset: String, lag: Long): Unit = {
+      handleTime.record(handleNanos)
+      handledEvents.add(eventCount)
+      rate.record(eventCount, System.currentTimeMillis() / 1000)
+      lastOffset = offset
+      lagMillis.set(lag)
+    }
+
+    override def onCatchUpStarted(lag: Long): Unit = {
+      catchUps.increment()
+      catchingUp = true
+    }
+
+    override def onCatchUpCompleted(lag: Long, catchUpNanos: Long): Unit =
+      catchingUp = false
+
+    def stats: ReadSideStats =
+      new ReadSideStats(readSideName, tag, starts.sum, catchingUp, catchUps.sum, lastOffset, lagMillis.get,
+        handledEvents.sum, rate.perSecond(System.currentTimeMillis() / 1000), handleTime.distribution)
+  }
+}
+
+/**
+ * Keeps the metrics of the read-side processors on this node for the status endpoint, one
+ * [[ReadSideMetricsCollector.TagMetrics]] for each tag of each processor.
+ */
+private[lagom] class ReadSideMetricsCollector extends Extension {
+  import ReadSideMetricsCollector._
+
+  private val metrics = new ConcurrentHashMap[(String, String), TagMetrics]
+
+  def tagMetrics(readSideName: String, tag: String): TagMetrics = {
+    val key = (readSideName, tag)
+    val m = metrics.get(key)
+    if (m ne null) m
+    else {
+      metrics.putIfAbsent(key, new TagMetrics(readSideName, tag))
+      metrics.get(key)
+    }
+  }
+
+  def stats: java.util.List[ReadSideStats] =
+    metrics.values.asScala.toVector.map(_.stats).sortBy(s => (s.getReadSideName, s.getTag)).asJava
+
+}
+
+/**
+ * The `ReadSideMetricsProvider` that is used when no other implementation is configured. Also
+ * provides the collected metrics to the status endpoint.
+ */
+private[lagom] class ReadSideMetricsProviderImpl @Inject() (system: ActorSystem)
+  extends ReadSideMetricsProvider with ReadSideStatsProvider {
+
+  private val collector = ReadSideMetricsCollector(system)
+
+  override def start(readSideName: String, tag: String): ReadSideMetrics =
+    collector.tagMetrics(readSideName, tag)
+
+  override def readSideStats(): java.util.List[ReadSideStats] =
+    collector.stats
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import akka.{ Done, NotUsed }
+import akka.japi.Pair
+import akka.stream.scaladsl.Flow
+import com.lightbend.lagom.javadsl.persistence.Offset
+
+import scala.concurrent.{ ExecutionContext, Future }
+
+/**
+ * How many events of a tag a read-side handler processes concurrently. The events of the same
+ * entity, as identified by `entityId`, are processed one after the other.
+ */
+private[lagom] final case class ReadSideParallelism[Event](parallelism: Int, entityId: Event => String) {
+  require(parallelism > 0, "parallelism must be greater than 0")
+
+  /**
+   * A flow that invokes `handle` for up to `parallelism` events at a time, where the
+   * invocation for an event starts when the invocation for the previous event of the same
+   * entity has completed. The events are emitted in the order of the stream when they and all
+   * events before them have been handled, so the offset of an emitted event is one below which
+   * all events have been handled.
+   *
+   * The flow keeps the last invocation of each entity, so it must only be materialized once.
+   */
+  def flow(handle: Pair[Event, Offset] => Future[Done])(implicit ec: ExecutionContext): Flow[Pair[Event, Offset], Pair[Event, Offset], NotUsed] = {
+    // only accessed by the mapAsync stage
+    var lastByEntity = Map.empty[String, Future[Done]]
+
+    Flow[Pair[Event, Offset]].mapAsync(parallelism) { pair =>
+      val id = entityId(pair.first)
+      val handled = lastByEntity.get(id) match {
+        case Some(previous) if !previous.isCompleted => previous.flatMap(_ => handle(pair))
+        case _                                       => handle(pair)
+      }
+      // at most `parallelism` invocations are in progress, so this drops all entries but
+      // those of the entities with one in progress, every `parallelism` events at most
+      if (lastByEntity.size >= parallelism * 2)
+        lastByEntity = lastByEntity.filterNot(_._2.isCompleted)
+      lastByEntity = lastByEntity.updated(id, handled)
+      handled.map(_ => pair)
+    }
+  }
+}
+
+private[lagom] object ReadSideParallelism {
+  def apply[Event](parallelism: Int, entityId: java.util.function.Function[Event, String]): ReadSideParallelism[Event] =
+    ReadSideParallelism[Event](parallelism, entityId.apply _)
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.net.URLEncoder
+import java.util.concurrent.TimeUnit
+
+import akka.{ Done, NotUsed }
+import akka.actor.{ ActorLogging, ActorRef, Props, Status }
+import akka.japi.Pair
+import akka.persistence.{ PersistentActor, RecoveryCompleted }
+import akka.stream.ThrottleMode
+import akka.stream.javadsl.Source
+import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, AggregateEventTag, Offset, ReadSideProcessor }
+import com.typesafe.config.Config
+
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+private[lagom] object ReadSideRebuild {
+
+  /**
+   * The settings of `lagom.persistence.read-side.rebuild`.
+   */
+  final case class Settings(eventsPerSecond: Int, checkInterval: FiniteDuration, liveWindow: FiniteDuration) {
+    require(eventsPerSecond >= 0, "rebuild.events-per-second must not be negative")
+  }
+
+  object Settings {
+    def apply(config: Config): Settings = Settings(
+      config.getInt("events-per-second"),
+      config.getDuration("check-interval", TimeUnit.MILLISECONDS).millis,
+      config.getDuration("live-window", TimeUnit.MILLISECONDS).millis
+    )
+  }
+
+  /**
+   * Implemented by the handlers that store the offsets of the events that they have processed,
+   * so that the offsets of a rebuild and of the processor that it replaces can be compared
+   * without preparing the handlers.
+   */
+  trait OffsetReader[Event <: AggregateEvent[Event]] {
+    /**
+     * The offset that the handler has stored for the tag, or `Offset.NONE`.
+     */
+    def readOffset(tag: AggregateEventTag[Event]): Future[Offset]
+  }
+
+  /**
+   * The offset reader of the handler of the processor.
+   */
+  def offsetReader[Event <: AggregateEvent[Event]](processor: ReadSideProcessor[Event]): OffsetReader[Event] =
+    processor.buildHandler() match {
+      case reader: OffsetReader[Event @unchecked] => reader
+      case _ => throw new IllegalArgumentException(s"ReadSideProcessor ${processor.getClass.getName} must build its " +
+        "handler with CassandraReadSide or JdbcReadSide to be rebuilt, since the rebuild reads the stored offsets")
+    }
+
+  /**
+   * Sent by a tag actor of a read side that is being rebuilt to the rebuild when it is started,
+   * answered with `ReadSideActor.Retire` when the rebuild has been swapped in.
+   */
+  final case class CheckRetired(tagName: String)
+
+  /**
+   * Stored by the rebuild when it has been swapped in, so that the read side that it replaced
+   * is retired again after a restart.
+   */
+  final case class Swapped(rebuildName: String)
+
+  /**
+   * The event streams of a rebuild, of at most `eventsPerSecond` events per second of each tag,
+   * or unlimited with 0.
+   */
+  def throttled[Event](
+    eventStream:     (AggregateEventTag[Event], Offset) => Source[Pair[Event, Offset], NotUsed],
+    eventsPerSecond: Int
+  ): (AggregateEventTag[Event], Offset) => Source[Pair[Event, Offset], NotUsed] =
+    if (eventsPerSecond == 0) eventStream
+    else (tag, offset) => eventStream(tag, offset).throttle(eventsPerSecond, 1.second, eventsPerSecond, ThrottleMode.Shaping)
+
+  /**
+   * Whether the rebuild has stored an offset of a tag that is as recent as the offset that the
+   * registered processor has stored. Time based UUID offsets within `liveWindow` of each other
+   * are as recent, since the registered processor moves on while the offsets are read.
+   */
+  def caughtUp(rebuild: Offset, live: Offset, liveWindow: FiniteDuration): Boolean = (rebuild, live) match {
+    case (_, Offset.NONE)                         => true
+    case (r: Offset.Sequence, l: Offset.Sequence) => r.value >= l.value
+    case (r: Offset.TimeBasedUUID, l: Offset.TimeBasedUUID) =>
+      (for {
+        rebuildTimestamp <- ReadSideActor.offsetTimestamp(r)
+        liveTimestamp <- ReadSideActor.offsetTimestamp(l)
+      } yield rebuildTimestamp >= liveTimestamp - liveWindow.toMillis).getOrElse(false)
+    case _ => false
+  }
+}
+
+private[lagom] object ReadSideRebuildActor {
+
+  def props[Event <: AggregateEvent[Event]](
+    readSideName:     String,
+    rebuildName:      String,
+    liveProcessor:    () => ReadSideProcessor[Event],
+    rebuildProcessor: () => ReadSideProcessor[Event],
+    tags:             Iterable[AggregateEventTag[Event]],
+    swap:             () => Future[Done],
+    liveRegion:       ActorRef,
+    settings:         ReadSideRebuild.Settings
+  ) =
+    Props(classOf[ReadSideRebuildActor[Event]], readSideName, rebuildName, liveProcessor, rebuildProcessor, tags,
+      swap, liveRegion, settings)
+
+  private case object Tick
+  private final case class CaughtUp(caughtUp: Boolean)
+  private case object SwapCompleted
+}
+
+/**
+ * Runs as a cluster singleton for each rebuild. Compares the offsets that the rebuild and the
+ * registered processor have stored for each tag every `checkInterval`, and when the rebuild has
+ * caught up on all tags runs the swap hook and retires the registered processor.
+ *
+ * The completed swap is persisted, and the registered processor is retired by sending `Retire` to
+ * each of its tags until it is acknowledged, also after a restart. Tag actors of the registered
+ * processor that are started again, e.g. when their shard is moved to another node, are retired
+ * when they check in with `CheckRetired`.
+ */
+private[lagom] class ReadSideRebuildActor[Event <: AggregateEvent[Event]](
+  readSideName:     String,
+  rebuildName:      String,
+  liveProcessor:    () => ReadSideProcessor[Event],
+  rebuildProcessor: () => ReadSideProcessor[Event],
+  tags:             Iterable[AggregateEventTag[Event]],
+  swap:             () => Future[Done],
+  liveRegion:       ActorRef,
+  settings:         ReadSideRebuild.Settings
+) extends PersistentActor with ActorLogging {
+  import ReadSideRebuild.{ CheckRetired, Swapped }
+  import ReadSideRebuildActor._
+  import akka.pattern.pipe
+  import context.dispatcher
+
+  override val persistenceId: String = "readSideRebuild-" + URLEncoder.encode(rebuildName, "utf-8")
+
+  private val tick = context.system.scheduler.schedule(settings.checkInterval, settings.checkInterval, self, Tick)
+
+  private val liveOffsets = ReadSideRebuild.offsetReader(liveProcessor())
+  private val rebuildOffsets = ReadSideRebuild.offsetReader(rebuildProcessor())
+
+  // whether the recovered rebuild had been swapped in
+  private var swapped = false
+
+  override def postStop(): Unit = {
+    tick.cancel()
+    super.postStop()
+  }
+
+  override def receiveRecover: Receive = {
+    case _: Swapped =>
+      swapped = true
+
+    case RecoveryCompleted =>
+      if (swapped) retireLive()
+  }
+
+  override def receiveCommand: Receive = {
+    case Tick =>
+      checkCaughtUp() pipeTo self
+      context become checking
+
+    case CheckRetired(_) =>
+  }
+
+  def checking: Receive = {
+    case Tick =>
+
+    case CheckRetired(_) =>
+
+    case CaughtUp(false) =>
+      context become receiveCommand
+
+    case CaughtUp(true) =>
+      log.info("Rebuild [{}] of read side [{}] has caught up, swapping", rebuildName, readSideName)
+      swap().map(_ => SwapCompleted) pipeTo self
+
+    case SwapCompleted =>
+      persist(Swapped(rebuildName)) { _ =>
+        log.info("Rebuild [{}] of read side [{}] has been swapped in, retiring read side [{}]", rebuildName,
+          readSideName, readSideName)
+        retireLive()
+      }
+
+    case Status.Failure(e) =>
+      log.warning("Rebuild [{}] of read side [{}] failed to check its progress or to swap, retrying: {}",
+        rebuildName, readSideName, e.getMessage)
+      context become receiveCommand
+  }
+
+  /**
+   * The tags of the registered processor that have not acknowledged their retirement yet.
+   */
+  def retiring(unacknowledged: Set[String]): Receive = {
+    case Tick =>
+      unacknowledged.foreach(tagName => liveRegion ! ReadSideActor.Retire(tagName))
+
+    case ReadSideActor.Retired(tagName) =>
+      val remaining = unacknowledged - tagName
+      if (remaining.isEmpty && unacknowledged.nonEmpty)
+        log.info("Read side [{}] has been retired on all tags", readSideName)
+      context become retiring(remaining)
+
+    case CheckRetired(tagName) =>
+      sender() ! ReadSideActor.Retire(tagName)
+  }
+
+  private def retireLive(): Unit = {
+    val tagNames = tags.map(_.tag).toSet
+    tagNames.foreach(tagName => liveRegion ! ReadSideActor.Retire(tagName))
+    context become retiring(tagNames)
+  }
+
+  private def checkCaughtUp(): Future[CaughtUp] =
+    Future.traverse(tags) { tag =>
+      // the registered processor's offset first, so the rebuild's is read after it
+      for {
+        live <- liveOffsets.readOffset(tag)
+        rebuild <- rebuildOffsets.readOffset(tag)
+      } yield ReadSideRebuild.caughtUp(rebuild, live, settings.liveWindow)
+    }.map(caughtUp => CaughtUp(caughtUp.forall(identity)))
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.{ ConcurrentHashMap, CopyOnWriteArrayList }
+
+import akka.NotUsed
+import akka.actor.{ ActorSystem, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider }
+import akka.japi.Pair
+import akka.stream.{ Attributes, FlowShape, Inlet, Outlet }
+import akka.stream.scaladsl.{ Flow, Source }
+import akka.stream.stage.{ GraphStage, GraphStageLogic, InHandler, OutHandler }
+import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, MultiTagAggregateEvent, Offset }
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+private[lagom] object RecentEventsCache extends ExtensionId[RecentEventsCache] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): RecentEventsCache =
+    new RecentEventsCache(system)
+
+  override def lookup = RecentEventsCache
+
+  override def get(system: ActorSystem): RecentEventsCache = super.get(system)
+
+  /**
+   * An event that has been persisted.
+   */
+  final case class RecentEvent(persistenceId: String, sequenceNr: Long, event: Any)
+
+  /**
+   * The recent events of one tag, in the order that they were persisted on this node.
+   * When more than `capacity` events have been added the oldest are overwritten.
+   */
+  private[persistence] final class TagBuffer(capacity: Int) {
+    private val entries = new Array[RecentEvent](capacity)
+    // the index of the next event, which increases with each event
+    private var nextIndex = 0L
+    private val listeners = new CopyOnWriteArrayList[() => Unit]
+
+    def add(event: RecentEvent): Unit = {
+      synchronized {
+        entries((nextIndex % capacity).toInt) = event
+        nextIndex += 1
+      }
+      listeners.asScala.foreach(_.apply())
+    }
+
+    def next: Long = synchronized(nextIndex)
+
+    /**
+     * The events from `index`, or from the oldest event that has not been overwritten,
+     * and the index of the next event.
+     */
+    def readFrom(index: Long): (Vector[RecentEvent], Long) = synchronized {
+      val from = math.max(index, nextIndex - capacity)
+      ((from until nextIndex).map(i => entries((i % capacity).toInt))(collection.breakOut), nextIndex)
+    }
+
+    def addListener(listener: () => Unit): Unit = listeners.add(listener)
+
+    def removeListener(listener: () => Unit): Unit = listeners.remove(listener)
+  }
+}
+
+/**
+ * The events that were recently persisted by the entities on this node, kept in a bounded
+ * buffer for each tag. The `eventStream` of the registry emits these events as soon as they
+ * have been persisted, instead of when the events by tag query of the journal finds them, see
+ * [[RecentEventsStage]]. The query of the journal remains the source of the events of other
+ * nodes, and of the events that were not emitted from the buffer.
+ */
+private[lagom] class RecentEventsCache(system: ExtendedActorSystem) extends Extension {
+  import RecentEventsCache._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence.recent-events")
+
+  val isEnabled: Boolean = conf.getBoolean("enabled")
+  private val capacity = conf.getInt("size-per-tag")
+
+  private val buffers = new ConcurrentHashMap[String, TagBuffer]
+
+  private def buffer(tag: String): TagBuffer = {
+    val b = buffers.get(tag)
+    if (b ne null) b
+    else {
+      val newBuffer = new TagBuffer(capacity)
+      val existing = buffers.putIfAbsent(tag, newBuffer)
+      if (existing ne null) existing else newBuffer
+    }
+  }
+
+  /**
+   * Called by the entity when the event has been persisted.
+   */
+  def persisted(persistenceId: String, sequenceNr: Long, event: Any): Unit =
+    if (isEnabled) event match {
+      case multi: MultiTagAggregateEvent[_] =>
+        val recent = RecentEvent(persistenceId, sequenceNr, event)
+        buffer(multi.aggregateTag.tag).add(recent)
+        multi.additionalTags.asScala.foreach(tag => buffer(tag.tag).add(recent))
+      case a: AggregateEvent[_] =>
+        buffer(a.aggregateTag.tag).add(RecentEvent(persistenceId, sequenceNr, event))
+      case _ =>
+    }
+
+  /**
+   * The events of the journal query of the tag, together with the recent events of the tag
+   * that were persisted on this node, when enabled.
+   *
+   * @param journalEvents the events by tag query of the journal, with the offset of each event
+   */
+  def eventStream(
+    tag:           String,
+    fromOffset:    Offset,
+    journalEvents: Source[Pair[RecentEvent, Offset], NotUsed]
+  ): Source[Pair[Any, Offset], NotUsed] =
+    if (isEnabled) journalEvents.via(Flow.fromGraph(new RecentEventsStage(buffer(tag), fromOffset, capacity)))
+    else journalEvents.map(pair => Pair.create(pair.first.event, pair.second))
+
+}
+
+/**
+ * Emits the events of the journal query, and the recent events of the [[RecentEventsCache.TagBuffer]]
+ * that were persisted after the stream was started.
+ *
+ * A recent event is only emitted when the previous event of the same entity has been emitted, or
+ * when it is the first event of the entity, so that the events of an entity are still emitted in
+ * order. The others are kept until the journal query has emitted the previous event. Recent events
+ * are emitted with the offset of the last event of the journal query, or with `fromOffset`, since
+ * their own offset is not known until the journal query finds them. An event with the offset of the
+ * event before it was therefore persisted just before it was emitted, which the read sides use to
+ * measure their lag. The events that the journal query finds after they were
+ * emitted from the buffer are dropped. At most `capacity` recent events are kept by the stage, the
+ * events that don't fit are left to the journal query.
+ *
+ * The last emitted sequence number is only remembered for the `capacity` most recently active
+ * entities, so an event of an entity that was forgotten may be emitted twice.
+ */
+private[lagom] class RecentEventsStage(buffer: RecentEventsCache.TagBuffer, fromOffset: Offset, capacity: Int)
+  extends GraphStage[FlowShape[Pair[RecentEventsCache.RecentEvent, Offset], Pair[Any, Offset]]] {
+  import RecentEventsCache.RecentEvent
+
+  val in: Inlet[Pair[RecentEvent, Offset]] = Inlet("RecentEventsStage.in")
+  val out: Outlet[Pair[Any, Offset]] = Outlet("RecentEventsStage.out")
+  override val shape = FlowShape(in, out)
+
+  override def createLogic(inheritedAttributes: Attributes): GraphStageLogic = new GraphStageLogic(shape) with InHandler with OutHandler {
+    private var cursor = 0L
+    private var lastOffset = fromOffset
+    private val queue = mutable.Queue.empty[Pair[Any, Offset]]
+    // the recent events that are waiting for the previous event of their entity
+    private val waiting = new java.util.LinkedHashMap[(String, Long), RecentEvent]
+    // the sequence number of the last emitted event of each entity, least recently used first
+    private val lastSequenceNrs = new java.util.LinkedHashMap[String, java.lang.Long](16, 0.75f, true) {
+      override def removeEldestEntry(eldest: java.util.Map.Entry[String, java.lang.Long]): Boolean =
+        size > capacity
+    }
+
+    private val eventsAdded = getAsyncCallback[Unit](_ => readRecentEvents())
+    private val listener: () => Unit = () => eventsAdded.invoke(())
+
+    override def preStart(): Unit = {
+      buffer.addListener(listener)
+      // only the events that are persisted from now on
+      cursor = buffer.next
+    }
+
+    override def postStop(): Unit =
+      buffer.removeListener(listener)
+
+    private def lastSequenceNr(persistenceId: String): Long = {
+      val seqNr = lastSequenceNrs.get(persistenceId)
+      if (seqNr eq null) 0L else seqNr.longValue
+    }
+
+    private def emit(persistenceId: String, sequenceNr: Long, event: Any, offset: Offset): Unit = {
+      lastSequenceNrs.put(persistenceId, sequenceNr)
+      queue.enqueue(Pair.create(event, offset))
+      // the recent events of the entity that were waiting for this one
+      val next = waiting.remove((persistenceId, sequenceNr + 1))
+      if (next ne null)
+        emit(persistenceId, next.sequenceNr, next.event, lastOffset)
+    }
+
+    private def readRecentEvents(): Unit = {
+      val (events, next) = buffer.readFrom(cursor)
+      cursor = next
+      events.foreach { e =>
+        val last = lastSequenceNr(e.persistenceId)
+        if (queue.size + waiting.size < capacity) {
+          if (e.sequenceNr == last + 1)
+            emit(e.persistenceId, e.sequenceNr, e.event, lastOffset)
+          else if (e.sequenceNr > last)
+            waiting.put((e.persistenceId, e.sequenceNr), e)
+        }
+      }
+      pushQueued()
+    }
+
+    private def pushQueued(): Unit =
+      if (isAvailable(out)) {
+        if (queue.nonEmpty)
+          push(out, queue.dequeue())
+        if (queue.isEmpty) {
+          if (isClosed(in)) completeStage()
+          else if (!hasBeenPulled(in)) pull(in)
+        }
+      }
+
+    override def onPush(): Unit = {
+      val pair = grab(in)
+      val e = pair.first
+      lastOffset = pair.second
+      waiting.remove((e.persistenceId, e.sequenceNr))
+      // already emitted from the buffer when not greater
+      if (e.sequenceNr > lastSequenceNr(e.persistenceId))
+        emit(e.persistenceId, e.sequenceNr, e.event, pair.second)
+      pushQueued()
+    }
+
+    override def onPull(): Unit =
+      pushQueued()
+
+    override def onUpstreamFinish(): Unit =
+      if (queue.isEmpty) completeStage()
+
+    setHandlers(in, out, this)
+  }
+}
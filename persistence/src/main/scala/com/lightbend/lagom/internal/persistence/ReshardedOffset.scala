@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import com.lightbend.lagom.javadsl.persistence.Offset
+
+import scala.collection.immutable
+
+/**
+ * The offset that a read side starts a resharded tag with, when it has not processed any events
+ * of the tag, see `AggregateEventTag.reshardedShards`.
+ */
+private[lagom] object ReshardedOffset {
+
+  /**
+   * The lowest of the offsets of the previous tags, which is before all events of the new tag when
+   * the read side is updated with the new tag before the events are tagged with it. `Offset.NONE`
+   * if any of the previous tags has no offset, or when the offsets are of different types.
+   */
+  def derive(previousOffsets: immutable.Seq[Offset]): Offset =
+    if (previousOffsets.isEmpty) Offset.NONE
+    else previousOffsets.reduce[Offset] {
+      case (a: Offset.Sequence, b: Offset.Sequence)           => if (a.compareTo(b) <= 0) a else b
+      // the UUIDs are compared by their time, not with compareTo
+      case (a: Offset.TimeBasedUUID, b: Offset.TimeBasedUUID) => if (a.value.timestamp <= b.value.timestamp) a else b
+      case _                                                  => Offset.NONE
+    }
+
+}
@@ -0,0 +1,14 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+/**
+ * A command that is answered with a [[com.lightbend.lagom.javadsl.persistence.SequencedReply]],
+ * sent with `askSequenced` or `askReplica` of the
+ * [[com.lightbend.lagom.javadsl.persistence.PersistentEntityRef]].
+ *
+ * The entity itself answers right away. A [[ReadReplicaActor]] does not answer until it has
+ * applied the events up to `minSequenceNr`.
+ */
+private[lagom] final case class SequencedCommand(minSequenceNr: Long, command: Any)
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.{ ConcurrentHashMap, TimeUnit }
+import java.util.concurrent.atomic.LongAdder
+
+import akka.actor.{ Actor, ActorLogging, ActorSystem, Address, ExtendedActorSystem, Extension, ExtensionId, ExtensionIdProvider, Props }
+import akka.cluster.Cluster
+import akka.cluster.ClusterEvent.{ InitialStateAsEvents, MemberRemoved }
+import akka.cluster.pubsub.{ DistributedPubSub, DistributedPubSubMediator }
+import akka.cluster.sharding.ShardRegion.ShardId
+
+import scala.collection.JavaConverters._
+import scala.concurrent.duration._
+
+private[lagom] object ShardLoadTracker extends ExtensionId[ShardLoadTracker] with ExtensionIdProvider {
+
+  override def createExtension(system: ExtendedActorSystem): ShardLoadTracker =
+    new ShardLoadTracker(system)
+
+  override def lookup = ShardLoadTracker
+
+  override def get(system: ActorSystem): ShardLoadTracker = super.get(system)
+
+  /**
+   * The load measured by one node, published to all nodes at each report interval.
+   *
+   * @param node The address of the node.
+   * @param nodeLoad The system load average of the node divided by its number of
+   *                 processors, or a negative value if it is not available.
+   * @param shardRates The smoothed command rate (commands per second) that the node has
+   *                   sent to each shard, per entity type name.
+   */
+  final case class ShardLoadReport(node: Address, nodeLoad: Double, shardRates: Map[String, Map[ShardId, Double]])
+
+  private val Topic = "lagom-shard-load"
+
+  private case object Tick
+
+  private final class Reporter(tracker: ShardLoadTracker) extends Actor with ActorLogging {
+    import context.dispatcher
+
+    private val cluster = Cluster(context.system)
+    private val mediator = DistributedPubSub(context.system).mediator
+    private val tick = context.system.scheduler.schedule(tracker.reportInterval, tracker.reportInterval, self, Tick)
+
+    override def preStart(): Unit = {
+      mediator ! DistributedPubSubMediator.Subscribe(Topic, self)
+      cluster.subscribe(self, InitialStateAsEvents, classOf[MemberRemoved])
+    }
+
+    override def postStop(): Unit = {
+      tick.cancel()
+      cluster.unsubscribe(self)
+    }
+
+    def receive = {
+      case Tick =>
+        mediator ! DistributedPubSubMediator.Publish(Topic, tracker.measure(cluster.selfAddress))
+        tracker.expireReports()
+      case report: ShardLoadReport =>
+        tracker.reports.put(report.node, (report, System.nanoTime()))
+      case MemberRemoved(member, _) =>
+        tracker.reports.remove(member.address)
+      case _: DistributedPubSubMediator.SubscribeAck =>
+    }
+  }
+}
+
+/**
+ * Measures the rate of commands that are sent to each shard of the persistent entities,
+ * and the load of each node, for the load aware shard allocation strategy.
+ *
+ * Each node counts the commands that it sends to each shard, and periodically publishes
+ * the smoothed rates together with its system load to all other nodes. The load of the
+ * cluster, as seen by this node, is the sum of the latest reports of all nodes.
+ */
+private[lagom] class ShardLoadTracker(system: ExtendedActorSystem) extends Extension {
+  import ShardLoadTracker._
+
+  private val conf = system.settings.config.getConfig("lagom.persistence.shard-allocation.load-aware")
+
+  /**
+   * The interval at which each node publishes its measured load.
+   */
+  val reportInterval: FiniteDuration = conf.getDuration("report-interval", TimeUnit.MILLISECONDS).millis
+
+  private val rateSmoothing: Double = conf.getDouble("rate-smoothing")
+
+  private val counters = new ConcurrentHashMap[String, ConcurrentHashMap[ShardId, LongAdder]]
+  @volatile private var localRates = Map.empty[String, Map[ShardId, Double]]
+  private var lastMeasurement = System.nanoTime()
+
+  private[ShardLoadTracker] val reports = new ConcurrentHashMap[Address, (ShardLoadReport, Long)]
+
+  system.systemActorOf(Props(new Reporter(this)), "lagomShardLoadTracker")
+
+  /**
+   * Count a command that is sent to a shard of the given entity type.
+   */
+  def commandSent(entityTypeName: String, shardId: ShardId): Unit = {
+    val shards = {
+      val s = counters.get(entityTypeName)
+      if (s ne null) s
+      else {
+        counters.putIfAbsent(entityTypeName, new ConcurrentHashMap)
+        counters.get(entityTypeName)
+      }
+    }
+    val counter = {
+      val c = shards.get(shardId)
+      if (c ne null) c
+      else {
+        shards.putIfAbsent(shardId, new LongAdder)
+        shards.get(shardId)
+      }
+    }
+    counter.increment()
+  }
+
+  /**
+   * The command rate of each shard of the given entity type, summed over all nodes.
+   */
+  def shardRates(entityTypeName: String): Map[ShardId, Double] =
+    reports.values.asScala.foldLeft(Map.empty[ShardId, Double]) {
+      case (acc, (report, _)) =>
+        report.shardRates.getOrElse(entityTypeName, Map.empty).foldLeft(acc) {
+          case (a, (shardId, rate)) => a.updated(shardId, a.getOrElse(shardId, 0.0) + rate)
+        }
+    }
+
+  /**
+   * The load of each node that has reported a system load.
+   */
+  def nodeLoads: Map[Address, Double] =
+    reports.values.asScala.collect {
+      case (report, _) if report.nodeLoad >= 0.0 => report.node -> report.nodeLoad
+    }(collection.breakOut)
+
+  /**
+   * Turn the counters into smoothed rates and create a report of the load of this node.
+   * Only invoked by the reporter actor.
+   */
+  private[ShardLoadTracker] def measure(self: Address): ShardLoadReport = {
+    val now = System.nanoTime()
+    val seconds = math.max((now - lastMeasurement).nanos.toMillis, 1L) / 1000.0
+    lastMeasurement = now
+
+    val previousRates = localRates
+    val rates = counters.asScala.map {
+      case (typeName, shards) =>
+        val previous = previousRates.getOrElse(typeName, Map.empty)
+        val current = shards.asScala.map {
+          case (shardId, counter) => shardId -> counter.sumThenReset() / seconds
+        }
+        val smoothed = (previous.keySet ++ current.keySet).iterator.map { shardId =>
+          val rate = current.getOrElse(shardId, 0.0)
+          shardId -> previous.get(shardId).fold(rate)(p => rateSmoothing * p + (1.0 - rateSmoothing) * rate)
+        }.filter(_._2 >= 0.01).toMap
+        typeName -> smoothed
+    }.toMap
+    localRates = rates
+
+    val os = ManagementFactory.getOperatingSystemMXBean
+    val loadAverage = os.getSystemLoadAverage
+    val nodeLoad = if (loadAverage < 0) -1.0 else loadAverage / os.getAvailableProcessors
+    ShardLoadReport(self, nodeLoad, rates)
+  }
+
+  /**
+   * Drop reports of nodes that have not reported anything for a few intervals.
+   */
+  private[ShardLoadTracker] def expireReports(): Unit = {
+    val deadline = System.nanoTime() - (reportInterval * 3).toNanos
+    reports.asScala.foreach {
+      case (node, entry @ (_, receivedAt)) if receivedAt < deadline => reports.remove(node, entry)
+      case _ =>
+    }
+  }
+
+}
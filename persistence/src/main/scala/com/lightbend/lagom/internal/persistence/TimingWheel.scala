@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import scala.collection.mutable
+
+/**
+ * Hierarchical timing wheel, as described by Varghese and Lauck, that keeps keys with a
+ * deadline and expires them when the time passes their deadline. Adding, removing and
+ * expiring a key are constant time operations, independent of the number of keys.
+ *
+ * Time is divided into ticks of `tickMillis`. Level 0 has one slot per tick, and each
+ * higher level has slots that span a whole revolution of the level below it. A key is
+ * placed in the lowest level where its deadline shares the slots of the higher levels
+ * with the current tick, and it is moved (cascaded) to the lower levels when the
+ * current tick enters its slot. A key never expires before its deadline, and expires
+ * at most one tick after it.
+ *
+ * The `wheelSize` is rounded up to a power of two.
+ *
+ * Not thread safe.
+ */
+private[lagom] final class TimingWheel[K](val tickMillis: Long, wheelSize: Int, startMillis: Long) {
+
+  require(tickMillis > 0, "tickMillis must be > 0")
+  require(wheelSize > 1, "wheelSize must be > 1")
+
+  private val bits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1)
+  private val mask = (1L << bits) - 1
+  // enough levels to hold any deadline
+  private val levels = (62 + bits) / bits
+
+  private val slots = new Array[mutable.Set[K]](levels << bits)
+  // the deadline tick and the slot of each key
+  private val deadlines = mutable.HashMap.empty[K, Long]
+  private val slotOfKey = mutable.HashMap.empty[K, Int]
+
+  // the last tick that has been expired
+  private var currentTick = startMillis / tickMillis
+
+  def size: Int = deadlines.size
+
+  def isEmpty: Boolean = deadlines.isEmpty
+
+  def contains(key: K): Boolean = deadlines.contains(key)
+
+  /**
+   * Add `key` with the given deadline, replacing the deadline of the key if it is
+   * already in the wheel. A deadline that has already passed expires on the next tick.
+   */
+  def add(key: K, deadlineMillis: Long): Unit = {
+    remove(key)
+    // round up, so that the key doesn't expire before its deadline
+    val deadline = math.max(deadlineMillis / tickMillis + (if (deadlineMillis % tickMillis == 0) 0 else 1), currentTick + 1)
+    deadlines.put(key, deadline)
+    place(key, deadline)
+  }
+
+  /**
+   * Remove `key` from the wheel, returns `false` if it was not in the wheel.
+   */
+  def remove(key: K): Boolean =
+    slotOfKey.remove(key) match {
+      case Some(slot) =>
+        slots(slot) -= key
+        deadlines -= key
+        true
+      case None => false
+    }
+
+  /**
+   * Advance the time to `nowMillis` and call `expired` for each key whose deadline has
+   * passed, in deadline order. The expired keys are removed from the wheel before
+   * `expired` is called.
+   */
+  def advance(nowMillis: Long)(expired: K => Unit): Unit = {
+    val targetTick = nowMillis / tickMillis
+    while (currentTick < targetTick) {
+      if (deadlines.isEmpty)
+        // nothing to expire, jump directly to the target
+        currentTick = targetTick
+      else {
+        val tick = currentTick + 1
+        currentTick = tick
+        // cascade the slots of the higher levels that the tick enters, highest first
+        var level = levels - 1
+        while (level > 0) {
+          if ((tick & ((1L << (bits * level)) - 1)) == 0)
+            cascade(level, ((tick >>> (bits * level)) & mask).toInt)
+          level -= 1
+        }
+        val slot = (tick & mask).toInt
+        val keys = slots(slot)
+        if ((keys ne null) && keys.nonEmpty) {
+          slots(slot) = null
+          keys.foreach { key =>
+            slotOfKey -= key
+            deadlines -= key
+          }
+          keys.foreach(expired)
+        }
+      }
+    }
+  }
+
+  private def cascade(level: Int, index: Int): Unit = {
+    val slot = (level << bits) + index
+    val keys = slots(slot)
+    if ((keys ne null) && keys.nonEmpty) {
+      slots(slot) = null
+      keys.foreach(key => place(key, deadlines(key)))
+    }
+  }
+
+  // the deadline must be at or after the current tick
+  private def place(key: K, deadline: Long): Unit = {
+    var level = 0
+    while (level < levels - 1 && (deadline >>> (bits * (level + 1))) != (currentTick >>> (bits * (level + 1))))
+      level += 1
+    val slot = (level << bits) + ((deadline >>> (bits * level)) & mask).toInt
+    if (slots(slot) eq null) slots(slot) = mutable.LinkedHashSet.empty[K]
+    slots(slot) += key
+    slotOfKey.put(key, slot)
+  }
+
+}
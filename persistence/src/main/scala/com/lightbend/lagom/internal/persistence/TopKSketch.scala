@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.Arrays
+
+private[lagom] object TopKSketch {
+
+  /**
+   * A tracked key. Its true weight is between `weight - error` and `weight`.
+   */
+  final case class Entry(key: String, weight: Long, error: Long)
+}
+
+/**
+ * Space-Saving sketch that tracks the heaviest keys of a stream with a fixed number of
+ * counters. When all counters are taken a new key takes over the counter with the lowest
+ * weight, and inherits that weight as its error. Each key with a weight above
+ * `totalWeight / capacity` is guaranteed to be tracked.
+ *
+ * The counters are kept in preallocated arrays, ordered by a min-heap on the weight and
+ * found by an open addressing hash index, so that `offer` does not allocate.
+ *
+ * Not thread safe.
+ */
+private[lagom] final class TopKSketch(val capacity: Int) {
+  import TopKSketch.Entry
+
+  require(capacity > 0, "capacity must be > 0")
+
+  private val keys = new Array[String](capacity)
+  private val weights = new Array[Long](capacity)
+  private val errors = new Array[Long](capacity)
+  private var size = 0
+
+  // min-heap of counters by weight, and the position of each counter in the heap
+  private val heap = new Array[Int](capacity)
+  private val heapPosition = new Array[Int](capacity)
+
+  // linear probing hash index from key to counter, -1 for free buckets, at most half full
+  private val index = new Array[Int](Integer.highestOneBit(capacity * 2 - 1) << 1)
+  private val mask = index.length - 1
+  Arrays.fill(index, -1)
+
+  /**
+   * Add `weight` to the weight of `key`.
+   */
+  def offer(key: String, weight: Long): Unit = {
+    val counter = find(key)
+    if (counter >= 0) {
+      weights(counter) += weight
+      siftDown(heapPosition(counter))
+    } else if (size < capacity) {
+      val c = size
+      size += 1
+      keys(c) = key
+      weights(c) = weight
+      errors(c) = 0L
+      heap(c) = c
+      heapPosition(c) = c
+      siftUp(c)
+      insert(key, c)
+    } else {
+      // take over the counter with the lowest weight
+      val c = heap(0)
+      remove(keys(c))
+      errors(c) = weights(c)
+      weights(c) += weight
+      keys(c) = key
+      insert(key, c)
+      siftDown(0)
+    }
+  }
+
+  /**
+   * The `n` heaviest keys, heaviest first.
+   */
+  def top(n: Int): Vector[Entry] =
+    (0 until size).map(c => Entry(keys(c), weights(c), errors(c)))
+      .sortBy(-_.weight).take(n).toVector
+
+  def clear(): Unit = {
+    Arrays.fill(keys.asInstanceOf[Array[AnyRef]], null)
+    Arrays.fill(index, -1)
+    size = 0
+  }
+
+  private def bucketOf(key: String): Int = {
+    val h = key.hashCode
+    (h ^ (h >>> 16)) & mask
+  }
+
+  private def find(key: String): Int = {
+    var b = bucketOf(key)
+    while (index(b) != -1) {
+      if (keys(index(b)) == key) return index(b)
+      b = (b + 1) & mask
+    }
+    -1
+  }
+
+  private def insert(key: String, counter: Int): Unit = {
+    var b = bucketOf(key)
+    while (index(b) != -1)
+      b = (b + 1) & mask
+    index(b) = counter
+  }
+
+  // backward shift deletion, so that no tombstones are needed
+  private def remove(key: String): Unit = {
+    var free = bucketOf(key)
+    while (keys(index(free)) != key)
+      free = (free + 1) & mask
+    index(free) = -1
+    var b = (free + 1) & mask
+    while (index(b) != -1) {
+      val home = bucketOf(keys(index(b)))
+      // move the entry to the free bucket unless its home is cyclically in (free, b]
+      val stays =
+        if (free <= b) home > free && home <= b
+        else home > free || home <= b
+      if (!stays) {
+        index(free) = index(b)
+        index(b) = -1
+        free = b
+      }
+      b = (b + 1) & mask
+    }
+  }
+
+  private def siftUp(pos: Int): Unit = {
+    var p = pos
+    while (p > 0 && weights(heap((p - 1) / 2)) > weights(heap(p))) {
+      swap(p, (p - 1) / 2)
+      p = (p - 1) / 2
+    }
+  }
+
+  private def siftDown(pos: Int): Unit = {
+    var p = pos
+    var done = false
+    while (!done) {
+      val left = 2 * p + 1
+      val right = left + 1
+      var smallest = p
+      if (left < size && weights(heap(left)) < weights(heap(smallest))) smallest = left
+      if (right < size && weights(heap(right)) < weights(heap(smallest))) smallest = right
+      if (smallest == p) done = true
+      else {
+        swap(p, smallest)
+        p = smallest
+      }
+    }
+  }
+
+  private def swap(i: Int, j: Int): Unit = {
+    val ci = heap(i)
+    val cj = heap(j)
+    heap(i) = cj
+    heap(j) = ci
+    heapPosition(cj) = i
+    heapPosition(ci) = j
+  }
+
+}
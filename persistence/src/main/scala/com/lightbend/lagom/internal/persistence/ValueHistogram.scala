@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.atomic.{ AtomicLong, AtomicLongArray, LongAdder }
+
+import com.lightbend.lagom.internal.spi.PersistentEntityStatsProvider.Distribution
+
+private[lagom] object ValueHistogram {
+  // the values below this are counted exactly
+  private val LinearBuckets = 16
+  // the number of buckets of each power of two above that
+  private val SubBuckets = 8
+  private val SubBucketBits = 3
+  private val NumberOfBuckets = LinearBuckets + (63 - 4) * SubBuckets
+
+  private[persistence] def bucket(value: Long): Int =
+    if (value < LinearBuckets) math.max(value, 0L).toInt
+    else {
+      val exponent = 63 - java.lang.Long.numberOfLeadingZeros(value)
+      LinearBuckets + (exponent - 4) * SubBuckets + ((value >>> (exponent - SubBucketBits)) & (SubBuckets - 1)).toInt
+    }
+
+  // the middle of the values of the bucket
+  private[persistence] def bucketValue(bucket: Int): Long =
+    if (bucket < LinearBuckets) bucket.toLong
+    else {
+      val k = bucket - LinearBuckets
+      val shift = k / SubBuckets + 4 - SubBucketBits
+      val lowest = (SubBuckets + k % SubBuckets).toLong << shift
+      lowest + ((1L << shift) - 1) / 2
+    }
+}
+
+/**
+ * A histogram of non-negative values, e.g. latencies in nanoseconds, that can be
+ * recorded concurrently without locks and without allocations. The values are counted
+ * in buckets of which the width is 1/8 of the lowest value of the bucket, so that the
+ * percentiles are approximated with a relative error of at most 1/16. The histogram
+ * keeps the values since it was created.
+ */
+private[lagom] final class ValueHistogram {
+  import ValueHistogram._
+
+  private val buckets = new AtomicLongArray(NumberOfBuckets)
+  private val sum = new LongAdder
+  private val min = new AtomicLong(Long.MaxValue)
+  private val max = new AtomicLong(Long.MinValue)
+
+  def record(value: Long): Unit = {
+    val v = math.max(value, 0L)
+    buckets.incrementAndGet(bucket(v))
+    sum.add(v)
+    var m = min.get
+    while (v < m && !min.compareAndSet(m, v)) m = min.get
+    m = max.get
+    while (v > m && !max.compareAndSet(m, v)) m = max.get
+  }
+
+  /**
+   * The distribution of the values that have been recorded so far. Values that are
+   * recorded concurrently may be missing from some of the numbers.
+   */
+  def distribution: Distribution = {
+    val counts = new Array[Long](NumberOfBuckets)
+    var count = 0L
+    var i = 0
+    while (i < NumberOfBuckets) {
+      counts(i) = buckets.get(i)
+      count += counts(i)
+      i += 1
+    }
+    if (count == 0L) new Distribution(0L, 0.0, 0L, 0L, 0L, 0L, 0L, 0L)
+    else {
+      val lowest = min.get
+      val highest = max.get
+      def percentile(p: Double): Long = {
+        val rank = math.max(math.ceil(p * count).toLong, 1L)
+        var seen = 0L
+        var b = 0
+        while (seen + counts(b) < rank) {
+          seen += counts(b)
+          b += 1
+        }
+        math.min(math.max(bucketValue(b), lowest), highest)
+      }
+      new Distribution(count, sum.sum.toDouble / count, lowest, highest, percentile(0.5), percentile(0.98),
+        percentile(0.99), percentile(0.999))
+    }
+  }
+}
@@ -86,19 +86,39 @@ class ClusterDistribution(system: ExtendedActorSystem) extends Extension {
     entityProps: Props,
     entityIds:   Set[EntityId],
     settings:    ClusterDistributionSettings
+  ): ActorRef =
+    start(typeName, entityProps, entityIds, settings, PartialFunction.empty)
+
+  /**
+   * Start a cluster distribution whose entities also receive other messages than
+   * [[com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive]]
+   * through the returned [[ShardRegion]].
+   *
+   * @param typeName The name of the type of entity. This is used as the cluster sharding type name.
+   * @param entityProps The props for the entity actor.
+   * @param entityIds The entity ids to distribute over the cluster.
+   * @param settings The cluster distribution settings.
+   * @param entityIdOf The id of the entity that each of the other messages is delivered to.
+   * @return the actor ref of the [[ShardRegion]] that is to be responsible for the shard
+   */
+  def start(
+    typeName:    String,
+    entityProps: Props,
+    entityIds:   Set[EntityId],
+    settings:    ClusterDistributionSettings,
+    entityIdOf:  PartialFunction[Any, EntityId]
   ): ActorRef = {
 
     val extractEntityId: ShardRegion.ExtractEntityId = {
-      case msg @ EnsureActive(entityId) => (entityId, msg)
+      case msg @ EnsureActive(entityId)       => (entityId, msg)
+      case msg if entityIdOf.isDefinedAt(msg) => (entityIdOf(msg), msg)
     }
-    val extractShardId: ShardRegion.ExtractShardId = if (entityIds.size > MaxShards) {
-      {
-        case EnsureActive(entityId) => Math.abs(entityId.hashCode % 1000).toString
-      }
-    } else {
-      {
-        case EnsureActive(entityId) => entityId
-      }
+    val shardOf: EntityId => ShardRegion.ShardId =
+      if (entityIds.size > MaxShards) entityId => Math.abs(entityId.hashCode % 1000).toString
+      else entityId => entityId
+    val extractShardId: ShardRegion.ExtractShardId = {
+      case EnsureActive(entityId)             => shardOf(entityId)
+      case msg if entityIdOf.isDefinedAt(msg) => shardOf(entityIdOf(msg))
     }
 
     val sharding = ClusterSharding(system)
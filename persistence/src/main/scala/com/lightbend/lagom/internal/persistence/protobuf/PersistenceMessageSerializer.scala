@@ -3,15 +3,23 @@
  */
 package com.lightbend.lagom.internal.persistence.protobuf
 
-import akka.actor.ExtendedActorSystem
+import akka.actor.{ AddressFromURIString, ExtendedActorSystem }
 import akka.protobuf.ByteString
 import akka.serialization.BaseSerializer
 import akka.serialization.Serialization
 import akka.serialization.SerializationExtension
 import akka.serialization.SerializerWithStringManifest
+import com.lightbend.lagom.internal.persistence.{ BatchedReply, CommandEnvelopeBatch, SequencedCommand }
+import com.lightbend.lagom.internal.persistence.EntityPrewarming.EntityPrewarm
+import com.lightbend.lagom.internal.persistence.EntityResharding.{ EntityHandoff, EntityHandoffAck }
+import com.lightbend.lagom.internal.persistence.EntityTimers.{ CancelTimer, ScheduleTimer, TimerId, TimerShardSnapshot, TimerUpdated }
+import com.lightbend.lagom.internal.persistence.ReadSideActor.{ Retire, Retired }
+import com.lightbend.lagom.internal.persistence.ReadSideRebuild.{ CheckRetired, Swapped }
+import com.lightbend.lagom.internal.persistence.ShardLoadTracker.ShardLoadReport
 import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
 import com.lightbend.lagom.javadsl.persistence.CommandEnvelope
 import com.lightbend.lagom.javadsl.persistence.PersistentEntity
+import com.lightbend.lagom.javadsl.persistence.SequencedReply
 import com.lightbend.lagom.javadsl.persistence.PersistentEntity._
 import com.lightbend.lagom.internal.persistence.protobuf.msg.{ PersistenceMessages => pm }
 
@@ -34,6 +42,22 @@ private[lagom] class PersistenceMessageSerializer(val system: ExtendedActorSyste
   val UnhandledCommandExceptionManifest = "C"
   val PersistExceptionManifest = "D"
   val EnsureActiveManifest = "E"
+  val CommandEnvelopeBatchManifest = "F"
+  val BatchedReplyManifest = "G"
+  val SequencedCommandManifest = "H"
+  val SequencedReplyManifest = "I"
+  val ScheduleTimerManifest = "J"
+  val CancelTimerManifest = "K"
+  val TimerShardSnapshotManifest = "L"
+  val EntityHandoffManifest = "M"
+  val EntityHandoffAckManifest = "N"
+  val EntityPrewarmManifest = "O"
+  val ShardLoadReportManifest = "P"
+  val TimerUpdatedManifest = "Q"
+  val RetireManifest = "R"
+  val RetiredManifest = "S"
+  val CheckRetiredManifest = "T"
+  val RebuildSwappedManifest = "U"
 
   private val emptyByteArray = Array.empty[Byte]
 
@@ -42,7 +66,23 @@ private[lagom] class PersistenceMessageSerializer(val system: ExtendedActorSyste
     InvalidCommandExceptionManifest -> invalidCommandExceptionFromBinary,
     UnhandledCommandExceptionManifest -> unhandledCommandExceptionFromBinary,
     PersistExceptionManifest -> persistExceptionFromBinary,
-    EnsureActiveManifest -> ensureActiveFromBinary
+    EnsureActiveManifest -> ensureActiveFromBinary,
+    CommandEnvelopeBatchManifest -> commandEnvelopeBatchFromBinary,
+    BatchedReplyManifest -> batchedReplyFromBinary,
+    SequencedCommandManifest -> sequencedCommandFromBinary,
+    SequencedReplyManifest -> sequencedReplyFromBinary,
+    ScheduleTimerManifest -> scheduleTimerFromBinary,
+    CancelTimerManifest -> cancelTimerFromBinary,
+    TimerShardSnapshotManifest -> timerShardSnapshotFromBinary,
+    EntityHandoffManifest -> entityHandoffFromBinary,
+    EntityHandoffAckManifest -> entityHandoffAckFromBinary,
+    EntityPrewarmManifest -> entityPrewarmFromBinary,
+    ShardLoadReportManifest -> shardLoadReportFromBinary,
+    TimerUpdatedManifest -> timerUpdatedFromBinary,
+    RetireManifest -> retireFromBinary,
+    RetiredManifest -> retiredFromBinary,
+    CheckRetiredManifest -> checkRetiredFromBinary,
+    RebuildSwappedManifest -> rebuildSwappedFromBinary
   )
 
   override def manifest(obj: AnyRef): String = obj match {
@@ -51,6 +91,22 @@ private[lagom] class PersistenceMessageSerializer(val system: ExtendedActorSyste
     case _: UnhandledCommandException => UnhandledCommandExceptionManifest
     case _: PersistException          => PersistExceptionManifest
     case _: EnsureActive              => EnsureActiveManifest
+    case _: CommandEnvelopeBatch      => CommandEnvelopeBatchManifest
+    case _: BatchedReply              => BatchedReplyManifest
+    case _: SequencedCommand          => SequencedCommandManifest
+    case _: SequencedReply[_]         => SequencedReplyManifest
+    case _: ScheduleTimer             => ScheduleTimerManifest
+    case _: CancelTimer               => CancelTimerManifest
+    case _: TimerShardSnapshot        => TimerShardSnapshotManifest
+    case _: EntityHandoff             => EntityHandoffManifest
+    case _: EntityHandoffAck          => EntityHandoffAckManifest
+    case _: EntityPrewarm             => EntityPrewarmManifest
+    case _: ShardLoadReport           => ShardLoadReportManifest
+    case _: TimerUpdated              => TimerUpdatedManifest
+    case _: Retire                    => RetireManifest
+    case _: Retired                   => RetiredManifest
+    case _: CheckRetired              => CheckRetiredManifest
+    case _: Swapped                   => RebuildSwappedManifest
     case _ ⇒
       throw new IllegalArgumentException(s"Can't serialize object of type ${obj.getClass} in [${getClass.getName}]")
   }
@@ -61,6 +117,22 @@ private[lagom] class PersistenceMessageSerializer(val system: ExtendedActorSyste
     case UnhandledCommandException(msg) => exceptionToProto(msg).toByteArray
     case PersistException(msg)          => exceptionToProto(msg).toByteArray
     case ea: EnsureActive               => ensureActiveToProto(ea).toByteArray
+    case b: CommandEnvelopeBatch        => commandEnvelopeBatchToProto(b).toByteArray
+    case r: BatchedReply                => batchedReplyToProto(r).toByteArray
+    case SequencedCommand(seqNr, cmd)   => sequencedMessageToProto(seqNr, cmd).toByteArray
+    case SequencedReply(seqNr, reply)   => sequencedMessageToProto(seqNr, reply).toByteArray
+    case t: ScheduleTimer               => scheduleTimerToProto(t).toByteArray
+    case CancelTimer(id)                => timerIdToProto(id).build().toByteArray
+    case s: TimerShardSnapshot          => timerShardSnapshotToProto(s).toByteArray
+    case h: EntityHandoff               => entityHandoffToProto(h).toByteArray
+    case EntityHandoffAck(entityId)     => stringToBinary(entityId)
+    case p: EntityPrewarm               => entityPrewarmToProto(p).toByteArray
+    case r: ShardLoadReport             => shardLoadReportToProto(r).toByteArray
+    case TimerUpdated(id)               => timerIdToProto(id).build().toByteArray
+    case Retire(tagName)                => stringToBinary(tagName)
+    case Retired(tagName)               => stringToBinary(tagName)
+    case CheckRetired(tagName)          => stringToBinary(tagName)
+    case Swapped(rebuildName)           => stringToBinary(rebuildName)
     case _ ⇒
       throw new IllegalArgumentException(s"Can't serialize object of type ${obj.getClass} in [${getClass.getName}]")
   }
@@ -73,38 +145,215 @@ private[lagom] class PersistenceMessageSerializer(val system: ExtendedActorSyste
       )
     }
 
-  private def commandEnvelopeToProto(commandEnvelope: CommandEnvelope): pm.CommandEnvelope = {
-    val payload = commandEnvelope.payload.asInstanceOf[AnyRef]
+  private def commandEnvelopeToProto(commandEnvelope: CommandEnvelope): pm.CommandEnvelope =
+    enclosedMessageToProto(commandEnvelope.entityId, commandEnvelope.payload)
+
+  private def enclosedMessageToProto(entityId: String, message: Any): pm.CommandEnvelope = {
+    val payload = message.asInstanceOf[AnyRef]
     val msgSerializer = serialization.findSerializerFor(payload)
     val builder = pm.CommandEnvelope.newBuilder()
-      .setEntityId(commandEnvelope.entityId)
+      .setEntityId(entityId)
       .setEnclosedMessage(ByteString.copyFrom(msgSerializer.toBinary(payload)))
       .setSerializerId(msgSerializer.identifier)
 
-    msgSerializer match {
-      case ser2: SerializerWithStringManifest ⇒
-        val manifest = ser2.manifest(payload)
-        if (manifest != "")
-          builder.setMessageManifest(ByteString.copyFromUtf8(manifest))
-      case _ ⇒
-        if (msgSerializer.includeManifest)
-          builder.setMessageManifest(ByteString.copyFromUtf8(payload.getClass.getName))
-    }
+    val manifest = messageManifest(msgSerializer, payload)
+    if (manifest != "")
+      builder.setMessageManifest(ByteString.copyFromUtf8(manifest))
 
     builder.build()
   }
 
+  private def messageManifest(msgSerializer: akka.serialization.Serializer, payload: AnyRef): String =
+    msgSerializer match {
+      case ser2: SerializerWithStringManifest ⇒ ser2.manifest(payload)
+      case _ ⇒
+        if (msgSerializer.includeManifest) payload.getClass.getName
+        else ""
+    }
+
   private def commandEnvelopeFromBinary(bytes: Array[Byte]): CommandEnvelope =
     commandEnvelopeFromProto(pm.CommandEnvelope.parseFrom(bytes))
 
-  private def commandEnvelopeFromProto(commandEnvelope: pm.CommandEnvelope): CommandEnvelope = {
+  private def commandEnvelopeFromProto(commandEnvelope: pm.CommandEnvelope): CommandEnvelope =
+    CommandEnvelope(commandEnvelope.getEntityId, enclosedMessageFromProto(commandEnvelope))
+
+  private def enclosedMessageFromProto(commandEnvelope: pm.CommandEnvelope): Any = {
     val manifest = if (commandEnvelope.hasMessageManifest) commandEnvelope.getMessageManifest.toStringUtf8 else ""
-    val payload = serialization.deserialize(
+    serialization.deserialize(
       commandEnvelope.getEnclosedMessage.toByteArray,
       commandEnvelope.getSerializerId,
       manifest
     ).get
-    CommandEnvelope(commandEnvelope.getEntityId, payload)
+  }
+
+  private def commandEnvelopeBatchToProto(batch: CommandEnvelopeBatch): pm.CommandEnvelopeBatch = {
+    val builder = pm.CommandEnvelopeBatch.newBuilder()
+    batch.commands.foreach(c => builder.addCommands(commandEnvelopeToProto(c)))
+    builder.build()
+  }
+
+  private def commandEnvelopeBatchFromBinary(bytes: Array[Byte]): CommandEnvelopeBatch =
+    commandEnvelopeBatchFromProto(pm.CommandEnvelopeBatch.parseFrom(bytes))
+
+  private def commandEnvelopeBatchFromProto(batch: pm.CommandEnvelopeBatch): CommandEnvelopeBatch = {
+    import scala.collection.JavaConverters._
+    CommandEnvelopeBatch(batch.getCommandsList.asScala.map(commandEnvelopeFromProto)(collection.breakOut))
+  }
+
+  // same fields as CommandEnvelope, with the reply as the enclosed message
+  private def batchedReplyToProto(reply: BatchedReply): pm.CommandEnvelope =
+    enclosedMessageToProto(reply.entityId, reply.reply)
+
+  private def batchedReplyFromBinary(bytes: Array[Byte]): BatchedReply = {
+    val proto = pm.CommandEnvelope.parseFrom(bytes)
+    BatchedReply(proto.getEntityId, enclosedMessageFromProto(proto))
+  }
+
+  private def sequencedMessageToProto(sequenceNr: Long, message: Any): pm.SequencedMessage = {
+    val payload = message.asInstanceOf[AnyRef]
+    val msgSerializer = serialization.findSerializerFor(payload)
+    val builder = pm.SequencedMessage.newBuilder()
+      .setSequenceNr(sequenceNr)
+      .setEnclosedMessage(ByteString.copyFrom(msgSerializer.toBinary(payload)))
+      .setSerializerId(msgSerializer.identifier)
+
+    val manifest = messageManifest(msgSerializer, payload)
+    if (manifest != "")
+      builder.setMessageManifest(ByteString.copyFromUtf8(manifest))
+
+    builder.build()
+  }
+
+  private def sequencedMessageFromProto(sequencedMessage: pm.SequencedMessage): Any = {
+    val manifest = if (sequencedMessage.hasMessageManifest) sequencedMessage.getMessageManifest.toStringUtf8 else ""
+    serialization.deserialize(
+      sequencedMessage.getEnclosedMessage.toByteArray,
+      sequencedMessage.getSerializerId,
+      manifest
+    ).get
+  }
+
+  private def sequencedCommandFromBinary(bytes: Array[Byte]): SequencedCommand = {
+    val proto = pm.SequencedMessage.parseFrom(bytes)
+    SequencedCommand(proto.getSequenceNr, sequencedMessageFromProto(proto))
+  }
+
+  private def sequencedReplyFromBinary(bytes: Array[Byte]): SequencedReply[Any] = {
+    val proto = pm.SequencedMessage.parseFrom(bytes)
+    SequencedReply(proto.getSequenceNr, sequencedMessageFromProto(proto))
+  }
+
+  private def timerIdToProto(id: TimerId): pm.EntityTimer.Builder =
+    pm.EntityTimer.newBuilder()
+      .setEntityTypeName(id.entityTypeName)
+      .setEntityId(id.entityId)
+      .setTimerKey(id.timerKey)
+
+  private def timerIdFromProto(timer: pm.EntityTimer): TimerId =
+    TimerId(timer.getEntityTypeName, timer.getEntityId, timer.getTimerKey)
+
+  private def scheduleTimerToProto(timer: ScheduleTimer): pm.EntityTimer = {
+    val payload = timer.command.asInstanceOf[AnyRef]
+    val msgSerializer = serialization.findSerializerFor(payload)
+    val builder = timerIdToProto(timer.id)
+      .setDeadline(timer.deadline)
+      .setEnclosedMessage(ByteString.copyFrom(msgSerializer.toBinary(payload)))
+      .setSerializerId(msgSerializer.identifier)
+
+    val manifest = messageManifest(msgSerializer, payload)
+    if (manifest != "")
+      builder.setMessageManifest(ByteString.copyFromUtf8(manifest))
+
+    builder.build()
+  }
+
+  private def scheduleTimerFromProto(timer: pm.EntityTimer): ScheduleTimer = {
+    val manifest = if (timer.hasMessageManifest) timer.getMessageManifest.toStringUtf8 else ""
+    val command = serialization.deserialize(
+      timer.getEnclosedMessage.toByteArray,
+      timer.getSerializerId,
+      manifest
+    ).get
+    ScheduleTimer(timerIdFromProto(timer), timer.getDeadline, command)
+  }
+
+  private def scheduleTimerFromBinary(bytes: Array[Byte]): ScheduleTimer =
+    scheduleTimerFromProto(pm.EntityTimer.parseFrom(bytes))
+
+  private def cancelTimerFromBinary(bytes: Array[Byte]): CancelTimer =
+    CancelTimer(timerIdFromProto(pm.EntityTimer.parseFrom(bytes)))
+
+  private def timerUpdatedFromBinary(bytes: Array[Byte]): TimerUpdated =
+    TimerUpdated(timerIdFromProto(pm.EntityTimer.parseFrom(bytes)))
+
+  private def timerShardSnapshotToProto(snapshot: TimerShardSnapshot): pm.EntityTimers = {
+    val builder = pm.EntityTimers.newBuilder()
+    snapshot.timers.foreach(t => builder.addTimers(scheduleTimerToProto(t)))
+    builder.build()
+  }
+
+  private def timerShardSnapshotFromBinary(bytes: Array[Byte]): TimerShardSnapshot = {
+    import scala.collection.JavaConverters._
+    TimerShardSnapshot(pm.EntityTimers.parseFrom(bytes).getTimersList.asScala.map(scheduleTimerFromProto)(collection.breakOut))
+  }
+
+  private def entityHandoffToProto(handoff: EntityHandoff): pm.EntityHandoff =
+    pm.EntityHandoff.newBuilder().setEntityId(handoff.entityId).setShardId(handoff.shardId).build()
+
+  private def entityHandoffFromBinary(bytes: Array[Byte]): EntityHandoff = {
+    val handoff = pm.EntityHandoff.parseFrom(bytes)
+    EntityHandoff(handoff.getEntityId, handoff.getShardId)
+  }
+
+  // the acknowledgement has the same structure as EnsureActive
+  private def entityHandoffAckFromBinary(bytes: Array[Byte]): EntityHandoffAck =
+    EntityHandoffAck(stringFromBinary(bytes))
+
+  private def retireFromBinary(bytes: Array[Byte]): Retire =
+    Retire(stringFromBinary(bytes))
+
+  private def retiredFromBinary(bytes: Array[Byte]): Retired =
+    Retired(stringFromBinary(bytes))
+
+  private def checkRetiredFromBinary(bytes: Array[Byte]): CheckRetired =
+    CheckRetired(stringFromBinary(bytes))
+
+  private def rebuildSwappedFromBinary(bytes: Array[Byte]): Swapped =
+    Swapped(stringFromBinary(bytes))
+
+  // the messages that only contain a string are encoded like EnsureActive
+  private def stringToBinary(value: String): Array[Byte] =
+    pm.EnsureActive.newBuilder().setEntityId(value).build().toByteArray
+
+  private def stringFromBinary(bytes: Array[Byte]): String =
+    pm.EnsureActive.parseFrom(bytes).getEntityId
+
+  private def entityPrewarmToProto(prewarm: EntityPrewarm): pm.EntityPrewarm =
+    pm.EntityPrewarm.newBuilder().setEntityTypeName(prewarm.entityTypeName).setEntityId(prewarm.entityId).build()
+
+  private def entityPrewarmFromBinary(bytes: Array[Byte]): EntityPrewarm = {
+    val prewarm = pm.EntityPrewarm.parseFrom(bytes)
+    EntityPrewarm(prewarm.getEntityTypeName, prewarm.getEntityId)
+  }
+
+  private def shardLoadReportToProto(report: ShardLoadReport): pm.ShardLoadReport = {
+    val builder = pm.ShardLoadReport.newBuilder()
+      .setNode(report.node.toString)
+      .setNodeLoad(report.nodeLoad)
+    for {
+      (entityTypeName, shardRates) <- report.shardRates
+      (shardId, rate) <- shardRates
+    } builder.addShardRates(pm.ShardRate.newBuilder().setEntityTypeName(entityTypeName).setShardId(shardId).setRate(rate))
+    builder.build()
+  }
+
+  private def shardLoadReportFromBinary(bytes: Array[Byte]): ShardLoadReport = {
+    import scala.collection.JavaConverters._
+    val report = pm.ShardLoadReport.parseFrom(bytes)
+    val shardRates = report.getShardRatesList.asScala.groupBy(_.getEntityTypeName).map {
+      case (entityTypeName, rates) => entityTypeName -> rates.map(r => r.getShardId -> r.getRate).toMap
+    }
+    ShardLoadReport(AddressFromURIString(report.getNode), report.getNodeLoad, shardRates)
   }
 
   private def ensureActiveToProto(ensureActive: EnsureActive): pm.EnsureActive = {
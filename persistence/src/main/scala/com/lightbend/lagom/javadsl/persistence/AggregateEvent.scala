@@ -7,6 +7,7 @@ import scala.annotation.tailrec
 import akka.persistence.journal.WriteEventAdapter
 import akka.persistence.journal.WriteEventAdapter
 import akka.persistence.journal.Tagged
+import org.pcollections.PSequence
 
 /**
  * The base type of [[PersistentEntity]] events may implement this
@@ -15,3 +16,25 @@ import akka.persistence.journal.Tagged
 trait AggregateEvent[E <: AggregateEvent[E]] {
   def aggregateTag: AggregateEventTag[E]
 }
+
+/**
+ * [[PersistentEntity]] events may implement this interface instead of
+ * [[AggregateEvent]] to be tagged with more tags than the `aggregateTag`,
+ * for example with a sharded tag and a tag for all events of one type.
+ * The events of each tag can be consumed as a separate stream, e.g. with
+ * `PersistentEntityRegistry.eventStream` or by a read-side processor.
+ *
+ * Each of the tags should be unique among the event types of the service,
+ * and like the `aggregateTag` it is needed to retain the tags because they
+ * are part of the stored event data.
+ *
+ * The Cassandra journal stores at most 3 tags of an event, each in its own
+ * column as mapped by `cassandra-journal.tags`, and rejects the events with
+ * more tags or with tags that are mapped to the same column.
+ */
+trait MultiTagAggregateEvent[E <: AggregateEvent[E]] extends AggregateEvent[E] {
+  /**
+   * The tags of the event in addition to the `aggregateTag`.
+   */
+  def additionalTags: PSequence[AggregateEventTag[E]]
+}
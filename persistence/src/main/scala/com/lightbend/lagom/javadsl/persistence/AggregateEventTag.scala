@@ -96,6 +96,58 @@ object AggregateEventTag {
     TreePVector.from(shardTags.asJava)
   }
 
+  /**
+   * Create a sequence of sharded tags when the number of shards is changed from
+   * `previousNumShards` to `numShards`.
+   *
+   * This is a convenience function that uses the name of the class as the tag name. Note that if the class name
+   * changes, the tag name must be retained, and so this method will no longer be suitable for use.
+   *
+   * @param eventType The type of the event.
+   * @param numShards The new number of shards.
+   * @param previousNumShards The number of shards that the events were tagged with before.
+   * @return The aggregate event tags.
+   * @see [[reshardedShards(Class, String, Int, Int)]]
+   */
+  def reshardedShards[Event <: AggregateEvent[Event]](eventType: Class[Event], numShards: Int, previousNumShards: Int): PSequence[AggregateEventTag[Event]] =
+    reshardedShards(eventType, eventType.getName, numShards, previousNumShards)
+
+  /**
+   * Create a sequence of sharded tags when the number of shards is changed from
+   * `previousNumShards` to `numShards`.
+   *
+   * The tags are intended for the `aggregateTags` of a [[ReadSideProcessor]], while the events are
+   * tagged with [[shard(Class, String, Int, String)]] using the new number of shards. Each tag knows
+   * the previous tags that the events of its entities were tagged with, see [[previousTags]]. When
+   * a read-side processor has not processed any events of a new tag yet, the built-in offset stores
+   * start the tag at the lowest offset of those previous tags, instead of at the beginning.
+   *
+   * This requires that the read side is updated with these tags before the events are tagged with
+   * the new number of shards. The events of one entity that were tagged before the change may still
+   * be handled after its events tagged after the change, when the read side of the previous tag is
+   * lagging behind at the time of the change.
+   *
+   * When `numShards` is a multiple of `previousNumShards` the events of the entities of a tag were
+   * tagged with one previous tag, otherwise with any of the previous tags.
+   *
+   * @param eventType The type of the event.
+   * @param baseTagName The base tag name.
+   * @param numShards The new number of shards.
+   * @param previousNumShards The number of shards that the events were tagged with before.
+   * @return The aggregate event tags.
+   */
+  def reshardedShards[Event <: AggregateEvent[Event]](eventType: Class[Event], baseTagName: String, numShards: Int, previousNumShards: Int): PSequence[AggregateEventTag[Event]] = {
+    val shardTags = for (shardNo <- 0 until numShards) yield {
+      val tag = shardTag(baseTagName, shardNo)
+      val previousShards =
+        if (numShards % previousNumShards == 0) List(shardNo % previousNumShards)
+        else 0 until previousNumShards
+      val previousTags = previousShards.map(shardTag(baseTagName, _)).filterNot(_ == tag)
+      new AggregateEventTag(eventType, tag, TreePVector.from(previousTags.asJava))
+    }
+    TreePVector.from(shardTags.asJava)
+  }
+
   /**
    * Select a shard given the number of shards and the ID of the entity.
    *
@@ -128,12 +180,21 @@ object AggregateEventTag {
  * The class name can be used as `tag`, but note that it is needed
  * to retain the original tag when the class name is changed because
  * the tag is part of the store event data.
+ *
+ * The `previousTags` are the tags that the events of the entities of
+ * this tag were tagged with before the number of shards was changed,
+ * see [[AggregateEventTag#reshardedShards]]. They are not part of the
+ * identity of the tag.
  */
 final class AggregateEventTag[Event <: AggregateEvent[Event]](
-  val eventType: Class[Event],
-  val tag:       String
+  val eventType:    Class[Event],
+  val tag:          String,
+  val previousTags: PSequence[String]
 ) {
 
+  def this(eventType: Class[Event], tag: String) =
+    this(eventType, tag, TreePVector.empty[String])
+
   override def toString: String = s"AggregateEventTag($eventType, $tag)"
 
   override def equals(other: Any): Boolean = other match {
@@ -11,7 +11,8 @@ import com.google.inject.spi.TypeListener
 import com.lightbend.lagom.javadsl.api.ServiceLocator
 import com.lightbend.lagom.javadsl.persistence.PersistenceModule.InitServiceLocatorHolder
 import akka.actor.ActorSystem
-import com.lightbend.lagom.internal.persistence.{ ReadSideImpl, ServiceLocatorHolder }
+import com.lightbend.lagom.internal.persistence.{ HotEntitiesProviderImpl, PersistentEntityMetricsProviderImpl, ReadSideImpl, ReadSideMetricsProviderImpl, ServiceLocatorHolder }
+import com.lightbend.lagom.internal.spi.{ HotEntitiesProvider, PersistentEntityStatsProvider, ReadSideStatsProvider }
 
 /**
  * Guice module for the Persistence API.
@@ -20,6 +21,9 @@ class PersistenceModule extends AbstractModule {
   override def configure(): Unit = {
     binder.bind(classOf[PersistenceModule.InitServiceLocatorHolder]).asEagerSingleton()
     binder.bind(classOf[ReadSide]).to(classOf[ReadSideImpl])
+    binder.bind(classOf[HotEntitiesProvider]).to(classOf[HotEntitiesProviderImpl])
+    binder.bind(classOf[PersistentEntityStatsProvider]).to(classOf[PersistentEntityMetricsProviderImpl])
+    binder.bind(classOf[ReadSideStatsProvider]).to(classOf[ReadSideMetricsProviderImpl])
     initServiceLocatorHolder()
   }
 
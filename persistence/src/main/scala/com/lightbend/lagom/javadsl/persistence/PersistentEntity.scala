@@ -17,6 +17,7 @@ import scala.util.control.NoStackTrace
 import scala.annotation.tailrec
 import akka.japi.Effect
 import akka.event.Logging
+import com.lightbend.lagom.internal.persistence.HandlerDispatch
 
 object PersistentEntity {
   /**
@@ -62,7 +63,9 @@ object PersistentEntity {
  * A command may also be read-only and only perform some side-effect, such as replying
  * to the request. Such command handlers are registered using `setReadOnlyCommandHandler`
  * of the `BehaviorBuilder`. Replies are sent with the `reply` method of the context that
- * is passed to the command handler function.
+ * is passed to the command handler function. Read-only commands that may be answered
+ * from the last state that has been confirmed by the journal, without waiting for
+ * writes that are in progress, are registered with `setConfirmedStateCommandHandler`.
  *
  * A command handler returns a `Persist` directive that defines what event or events,
  * if any, to persist. Use the `thenPersist`, `thenPersistAll` or `done` methods of the
@@ -155,6 +158,13 @@ abstract class PersistentEntity[Command, Event, State] {
    */
   def recoveryCompleted(): Behavior = _behavior
 
+  /**
+   * Override to define when this entity type saves snapshots of its state. By default
+   * the [[SnapshotPolicy]] that is configured in `lagom.persistence.snapshot-policy`
+   * is used.
+   */
+  def snapshotPolicy: Optional[SnapshotPolicy] = Optional.empty()
+
   /**
    * Current state of the entity. Typically accessed from event and command handlers.
    */
@@ -184,8 +194,11 @@ abstract class PersistentEntity[Command, Event, State] {
     /**
      * @return new instance with the given state
      */
-    def withState(newState: State): Behavior =
-      copy(state = newState)
+    def withState(newState: State): Behavior = {
+      val b = copy(state = newState)
+      b._compiled = _compiled
+      b
+    }
 
     /**
      * Create a `BehaviorBuilder` that corresponds to this `Behavior`, i.e. the builder
@@ -193,6 +206,46 @@ abstract class PersistentEntity[Command, Event, State] {
      */
     def builder(): BehaviorBuilder = new BehaviorBuilder(state, eventHandlers, commandHandlers)
 
+    // the handlers don't change with the state, so they are only compiled once and
+    // shared with the behaviors that are created by `withState`
+    @volatile private var _compiled: CompiledHandlers = _
+
+    private def compiled: CompiledHandlers = {
+      if (_compiled eq null)
+        _compiled = new CompiledHandlers(eventHandlers, commandHandlers)
+      _compiled
+    }
+
+    /**
+     * INTERNAL API: The event handler for the class of an event, or for its
+     * closest superclass or interface.
+     */
+    private[lagom] def eventHandler(eventClass: Class[_]): Option[JFunction[_ <: Event, Behavior]] =
+      compiled.eventDispatch(eventClass)
+
+    /**
+     * INTERNAL API: The command handler for the class of a command, or for its
+     * closest superclass or interface.
+     */
+    private[lagom] def commandHandler(commandClass: Class[_]): Option[JBiFunction[_ <: Command, CommandContext[Any], Persist[_ <: Event]]] =
+      compiled.commandDispatch(commandClass)
+
+    /**
+     * INTERNAL API
+     */
+    private[lagom] def hasConfirmedStateCommandHandlers: Boolean =
+      compiled.hasConfirmedStateCommandHandlers
+
+  }
+
+  private final class CompiledHandlers(
+    eventHandlers:   Map[Class[_ <: Event], JFunction[_ <: Event, Behavior]],
+    commandHandlers: Map[Class[_ <: Command], JBiFunction[_ <: Command, CommandContext[Any], Persist[_ <: Event]]]
+  ) {
+    val eventDispatch = HandlerDispatch(PersistentEntity.this.getClass, eventHandlers)
+    val commandDispatch = HandlerDispatch(PersistentEntity.this.getClass, commandHandlers)
+    val hasConfirmedStateCommandHandlers: Boolean =
+      commandHandlers.valuesIterator.exists(_.isInstanceOf[ConfirmedStateCommandHandler[_, _]])
   }
 
   /**
@@ -286,12 +339,29 @@ abstract class PersistentEntity[Command, Event, State] {
       commandClass: Class[A],
       handler:      JBiConsumer[A, ReadOnlyCommandContext[R]]
     ): Unit = {
-      setCommandHandler[R, A](commandClass, new JBiFunction[A, CommandContext[R], Persist[_ <: Event]] {
-        override def apply(cmd: A, ctx: CommandContext[R]): Persist[Event] = {
-          handler.accept(cmd, ctx)
-          ctx.done()
-        }
-      });
+      setCommandHandler[R, A](commandClass, new ReadOnlyCommandHandler[R, A](handler))
+    }
+
+    /**
+     * Register a read-only command handler for a given command class that is answered
+     * from the last state that has been confirmed by the journal.
+     *
+     * Commands handled by such a handler are not waiting for writes of events that are
+     * in progress, i.e. they are not queued behind commands that are persisting events.
+     * The consequence is that the state seen by the handler, via the `confirmedState`
+     * method of the context or the `state` method of the `PersistentEntity`, may not
+     * include the effects of commands that were sent before this command but whose
+     * events have not been stored yet. When no write is in progress the confirmed
+     * state is the same as the current state.
+     *
+     * The handler must not change the behavior or persist events. Replies are sent
+     * with the `reply` method of the context that is passed to the handler function.
+     */
+    def setConfirmedStateCommandHandler[R, A <: Command with ReplyType[R]](
+      commandClass: Class[A],
+      handler:      JBiConsumer[A, ConfirmedStateCommandContext[R]]
+    ): Unit = {
+      setCommandHandler[R, A](commandClass, new ConfirmedStateCommandHandler[R, A](handler))
     }
 
     /**
@@ -326,6 +396,64 @@ abstract class PersistentEntity[Command, Event, State] {
       commandFailed(new PersistentEntity.InvalidCommandException(message))
   }
 
+  /**
+   * The context that is passed to read-only command handlers that are registered
+   * with `setConfirmedStateCommandHandler`. Such handlers are answered from the
+   * last state that has been confirmed by the journal.
+   */
+  abstract class ConfirmedStateCommandContext[R] extends ReadOnlyCommandContext[R] {
+
+    /**
+     * The last state that has been confirmed by the journal, i.e. the state
+     * without the events of writes that are in progress.
+     */
+    def confirmedState: State
+  }
+
+  /**
+   * INTERNAL API: Marks the command handlers that were registered with
+   * `setReadOnlyCommandHandler`, which may also be run by read replicas.
+   */
+  private[lagom] final class ReadOnlyCommandHandler[R, A <: Command](
+    handler: JBiConsumer[A, ReadOnlyCommandContext[R]]
+  ) extends JBiFunction[A, CommandContext[R], Persist[_ <: Event]] {
+
+    override def apply(cmd: A, ctx: CommandContext[R]): Persist[Event] = {
+      handler.accept(cmd, ctx)
+      ctx.done()
+    }
+  }
+
+  /**
+   * INTERNAL API: Marks the command handlers that were registered with
+   * `setConfirmedStateCommandHandler`. When used as an ordinary command
+   * handler the current state is used as confirmed state.
+   */
+  private[lagom] final class ConfirmedStateCommandHandler[R, A <: Command](
+    handler: JBiConsumer[A, ConfirmedStateCommandContext[R]]
+  ) extends JBiFunction[A, CommandContext[R], Persist[_ <: Event]] {
+
+    override def apply(cmd: A, ctx: CommandContext[R]): Persist[Event] = {
+      handle(cmd, ctx, _behavior)
+      ctx.done()
+    }
+
+    /**
+     * Run the handler with the `confirmed` behavior as current behavior,
+     * the current behavior is restored afterwards.
+     */
+    def handle(cmd: A, ctx: ReadOnlyCommandContext[R], confirmed: Behavior): Unit = {
+      val current = _behavior
+      _behavior = confirmed
+      try handler.accept(cmd, new ConfirmedStateCommandContext[R] {
+        override def confirmedState: State = confirmed.state
+        override def reply(msg: R): Unit = ctx.reply(msg)
+        override def commandFailed(cause: Throwable): Unit = ctx.commandFailed(cause)
+      })
+      finally _behavior = current
+    }
+  }
+
   /**
    * The context that is passed to command handler function.
    */
@@ -380,6 +508,33 @@ abstract class PersistentEntity[Command, Event, State] {
      */
     def done[B <: Event](): Persist[B] = persistNone.asInstanceOf[Persist[B]]
 
+    /**
+     * Schedule `command` to be sent to this entity after `delay`. The timer is stored
+     * in the journal, so the command is also sent if the entity has been passivated or
+     * moved to another node in the meantime. The command is handled like any other
+     * command and its reply is ignored. It is sent again if the entity does not reply,
+     * so it may be handled more than once. A timer with the same `timerKey` that has
+     * not fired yet is replaced.
+     *
+     * The timer update is stored in the journal of the entity atomically with the events of
+     * the command, i.e. it is not stored if the events can't be stored, and the replies of
+     * the command are sent when it has been stored. It is then sent to the timer shard, also
+     * again after a crash until the timer shard has confirmed it.
+     *
+     * Confirmed state command handlers and read replicas can't change the timers, since they
+     * don't store anything.
+     *
+     * The timers must be enabled with `lagom.persistence.timers.enabled = on`.
+     */
+    def scheduleCommand(timerKey: String, delay: java.time.Duration, command: Command): Unit
+
+    /**
+     * Cancel the timer with the given `timerKey` that was started with `scheduleCommand`,
+     * if it has not fired yet. Like scheduling, the cancellation takes effect when the
+     * events of the command have been stored.
+     */
+    def cancelScheduledCommand(timerKey: String): Unit
+
   }
 
   /**
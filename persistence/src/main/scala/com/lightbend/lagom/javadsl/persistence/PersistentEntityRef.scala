@@ -12,19 +12,26 @@ import java.util.concurrent.CompletionStage
 import akka.actor.ActorSystem
 import akka.util.Timeout
 import akka.pattern.{ ask => akkaAsk }
+import java.util.concurrent.ThreadLocalRandom
+import com.lightbend.lagom.internal.persistence.{ ReadReplicaActor, SequencedCommand }
 
 /**
  * Commands are sent to a [[PersistentEntity]] using a
  * `PersistentEntityRef`. It is retrieved with [[PersistentEntityRegistry#refFor]].
  */
-final class PersistentEntityRef[Command](
-  val entityId: String,
-  region:       ActorRef,
-  system:       ActorSystem,
-  askTimeout:   FiniteDuration
+final class PersistentEntityRef[Command] private[lagom] (
+  val entityId:  String,
+  region:        ActorRef,
+  system:        ActorSystem,
+  askTimeout:    FiniteDuration,
+  replicaRegion: Option[ActorRef],
+  replicas:      Int
 )
   extends NoSerializationVerificationNeeded {
 
+  def this(entityId: String, region: ActorRef, system: ActorSystem, askTimeout: FiniteDuration) =
+    this(entityId, region, system, askTimeout, replicaRegion = None, replicas = 0)
+
   implicit private val timeout = Timeout(askTimeout)
 
   /**
@@ -36,16 +43,65 @@ final class PersistentEntityRef[Command](
    * or a `akka.pattern.AskTimeoutException` if there is no reply within a timeout.
    * The timeout can defined in configuration or overridden using [[#withAskTimeout]].
    */
-  def ask[Reply, Cmd <: Command with PersistentEntity.ReplyType[Reply]](command: Cmd): CompletionStage[Reply] = {
+  def ask[Reply, Cmd <: Command with PersistentEntity.ReplyType[Reply]](command: Cmd): CompletionStage[Reply] =
+    askVia(region, CommandEnvelope(entityId, command)).asInstanceOf[CompletionStage[Reply]]
+
+  /**
+   * Send the `command` to the [[PersistentEntity]], like [[#ask]], and complete the returned
+   * `CompletionStage` with the reply together with the sequence number of the last event that
+   * was included in the state of the entity when the reply was sent. The sequence number can
+   * be passed to [[#askReplica]] to read your own writes.
+   */
+  def askSequenced[Reply, Cmd <: Command with PersistentEntity.ReplyType[Reply]](command: Cmd): CompletionStage[SequencedReply[Reply]] =
+    askVia(region, CommandEnvelope(entityId, SequencedCommand(0L, command)))
+      .asInstanceOf[CompletionStage[SequencedReply[Reply]]]
+
+  /**
+   * Send the read-only `command` to one of the read replicas of the [[PersistentEntity]],
+   * chosen at random. The replicas are enabled for an entity type with the
+   * `lagom.persistence.read-replicas.entity-types` configuration, otherwise the command
+   * is sent to the entity itself, as with [[#askSequenced]].
+   *
+   * The replicas follow the events of the entity after they have been stored, so the reply
+   * may be based on a state that does not include the most recent events. The sequence
+   * number of the last event that is included is part of the reply.
+   *
+   * The command must be handled by a handler that was registered with `setReadOnlyCommandHandler`
+   * or `setConfirmedStateCommandHandler`, otherwise the `CompletionStage` is completed with a
+   * [[PersistentEntity.UnhandledCommandException]].
+   */
+  def askReplica[Reply, Cmd <: Command with PersistentEntity.ReplyType[Reply]](command: Cmd): CompletionStage[SequencedReply[Reply]] =
+    askReplica[Reply, Cmd](command, 0L)
+
+  /**
+   * Send the read-only `command` to one of the read replicas of the [[PersistentEntity]], like
+   * [[#askReplica]], which replies when it has applied at least the events up to `minSequenceNr`,
+   * e.g. the sequence number of the reply to a command that was sent with [[#askSequenced]].
+   * The `CompletionStage` is completed with a `akka.pattern.AskTimeoutException` if the replica has
+   * not caught up within the ask timeout.
+   */
+  def askReplica[Reply, Cmd <: Command with PersistentEntity.ReplyType[Reply]](command: Cmd, minSequenceNr: Long): CompletionStage[SequencedReply[Reply]] = {
+    val reply = replicaRegion match {
+      case Some(replicaRef) if replicas > 0 =>
+        val replica = ThreadLocalRandom.current.nextInt(replicas)
+        askVia(replicaRef, CommandEnvelope(ReadReplicaActor.replicaEntityId(entityId, replica),
+          SequencedCommand(minSequenceNr, command)))
+      case _ =>
+        askVia(region, CommandEnvelope(entityId, SequencedCommand(minSequenceNr, command)))
+    }
+    reply.asInstanceOf[CompletionStage[SequencedReply[Reply]]]
+  }
+
+  private def askVia(ref: ActorRef, envelope: CommandEnvelope): CompletionStage[Any] = {
     import scala.compat.java8.FutureConverters._
     import system.dispatcher
-    val reply = (region ? CommandEnvelope(entityId, command)).flatMap {
+    val reply = (ref ? envelope).flatMap {
       case exc: Throwable =>
         // not using akka.actor.Status.Failure because it is using Java serialization
         Future.failed(exc)
       case result => Future.successful(result)
     }
-    reply.toJava.asInstanceOf[CompletionStage[Reply]]
+    reply.toJava
   }
 
   /**
@@ -55,7 +111,7 @@ final class PersistentEntityRef[Command](
    * (`PersistentEntityRef` is immutable).
    */
   def withAskTimeout(timeout: FiniteDuration): PersistentEntityRef[Command] =
-    new PersistentEntityRef(entityId, region, system, askTimeout = timeout)
+    new PersistentEntityRef(entityId, region, system, askTimeout = timeout, replicaRegion, replicas)
 
   //  Reasons for why we don't not support serialization of the PersistentEntityRef:
   //  - it will rarely be sent as a message itself, so providing a serializer will not help
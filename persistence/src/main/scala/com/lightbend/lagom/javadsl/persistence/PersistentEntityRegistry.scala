@@ -10,10 +10,13 @@ import scala.concurrent.duration._
 import akka.japi.Pair
 import akka.stream.javadsl
 import akka.NotUsed
-import java.util.concurrent.CompletionStage
+import java.util.concurrent.{ CompletableFuture, CompletionStage }
+import java.util.function.{ Function => JFunction }
 
 import akka.Done
+import com.lightbend.lagom.internal.persistence.MergedEventStream
 import com.lightbend.lagom.javadsl.persistence.Offset.{ Sequence, TimeBasedUUID }
+import org.pcollections.PSequence
 
 /**
  * At system startup all [[PersistentEntity]] classes must be registered here
@@ -36,6 +39,54 @@ trait PersistentEntityRegistry {
    */
   def refFor[C](entityClass: Class[_ <: PersistentEntity[C, _, _]], entityId: String): PersistentEntityRef[C]
 
+  /**
+   * Send one command to each of several entities of the given [[PersistentEntity]] class,
+   * e.g. the same type of command to many entities. The returned `CompletionStage` is
+   * completed with the replies, keyed by entity identifier, when all entities have replied.
+   *
+   * This is more efficient than using a [[PersistentEntityRef]] for each entity, since
+   * the commands to entities in the same shard are sent together.
+   *
+   * The `CompletionStage` is completed with failure if any of the entities replies with
+   * failure, or with a `akka.pattern.AskTimeoutException` if not all entities have replied
+   * within the configured `ask-timeout`.
+   *
+   * @param commands the command to send to each entity, keyed by entity identifier
+   */
+  def askAll[C, Reply, Cmd <: C with PersistentEntity.ReplyType[Reply]](
+    entityClass: Class[_ <: PersistentEntity[C, _, _]],
+    commands:    java.util.Map[String, Cmd]
+  ): CompletionStage[java.util.Map[String, Reply]] = {
+    import scala.collection.JavaConverters._
+    if (commands.isEmpty)
+      CompletableFuture.completedFuture(java.util.Collections.emptyMap[String, Reply])
+    else
+      askEntities(entityClass, commands.asScala.toVector).thenApply(new JFunction[Map[String, Any], java.util.Map[String, Reply]] {
+        override def apply(replies: Map[String, Any]): java.util.Map[String, Reply] =
+          java.util.Collections.unmodifiableMap(replies.asInstanceOf[Map[String, Reply]].asJava)
+      })
+  }
+
+  /**
+   * Sends the commands of [[#askAll]], which are not empty, and completes with the replies
+   * keyed by entity identifier. By default each command is sent with its own [[PersistentEntityRef]].
+   */
+  protected def askEntities(
+    entityClass: Class[_ <: PersistentEntity[_, _, _]],
+    commands:    Vector[(String, Any)]
+  ): CompletionStage[Map[String, Any]] = {
+    val replies = commands.map {
+      case (entityId, command) =>
+        entityId -> refFor(entityClass.asInstanceOf[Class[_ <: PersistentEntity[Any, _, _]]], entityId)
+          .ask[Any, PersistentEntity.ReplyType[Any]](command.asInstanceOf[PersistentEntity.ReplyType[Any]])
+          .toCompletableFuture
+    }
+    CompletableFuture.allOf(replies.map(_._2): _*).thenApply(new JFunction[Void, Map[String, Any]] {
+      override def apply(done: Void): Map[String, Any] =
+        replies.map { case (entityId, reply) => entityId -> reply.join() }.toMap
+    })
+  }
+
   /**
    * A stream of the persistent events that have the given `aggregateTag`, e.g.
    * all persistent events of all `Order` entities.
@@ -53,6 +104,32 @@ trait PersistentEntityRegistry {
     fromOffset:   Offset
   ): javadsl.Source[Pair[Event, Offset], NotUsed]
 
+  /**
+   * A stream of the persistent events of several tags, e.g. all shards of a sharded tag.
+   * The events of each tag are read concurrently, and are emitted in the order of their
+   * tag, but the events of different tags are interleaved as they arrive. Each element
+   * contains the tag of the event and its offset in the stream of that tag, which can be
+   * passed in `fromOffsets` to resume the stream.
+   *
+   * @param fromOffsets the offset of each tag, keyed by the tag name. The tags that are
+   *   not included are streamed from the beginning. The offsets must have been produced
+   *   by this journal, see [[#eventStream(AggregateEventTag, Offset)]].
+   */
+  def eventStream[Event <: AggregateEvent[Event]](
+    aggregateTags: PSequence[AggregateEventTag[Event]],
+    fromOffsets:   java.util.Map[String, Offset]
+  ): javadsl.Source[TaggedEvent[Event], NotUsed] = {
+    import scala.collection.JavaConverters._
+    MergedEventStream(aggregateTags.asScala.toVector, fromOffsets.asScala.toMap,
+      (tag: AggregateEventTag[Event], offset: Offset) => eventStream(tag, offset).asScala, eventStreamPrefetch).asJava
+  }
+
+  /**
+   * The number of events of each tag that are buffered by [[#eventStream(PSequence, java.util.Map)]]
+   * while the events of the other tags are emitted.
+   */
+  protected def eventStreamPrefetch: Int = 16
+
   /**
    * A stream of the persistent events that have the given `aggregateTag`, e.g.
    * all persistent events of all `Order` entities.
@@ -0,0 +1,14 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence
+
+/**
+ * The reply to a command that was sent with `askSequenced` or `askReplica` of the
+ * [[PersistentEntityRef]], together with the sequence number of the last event of the
+ * entity that was included in the state when the reply was sent.
+ *
+ * The sequence number can be passed to `askReplica` to read from a replica that has
+ * caught up with the state at that time, e.g. to read your own writes.
+ */
+final case class SequencedReply[Reply](sequenceNr: Long, reply: Reply)
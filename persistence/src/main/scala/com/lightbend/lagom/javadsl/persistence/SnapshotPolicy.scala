@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence
+
+import java.time.Duration
+
+import com.typesafe.config.Config
+
+object SnapshotPolicy {
+
+  /**
+   * Never save snapshots.
+   */
+  val none: Triggers = new Triggers(0, 0L, Duration.ZERO, onPassivation = false, keepSnapshots = 0)
+
+  /**
+   * Save a snapshot after the given number of events.
+   */
+  def afterEvents(events: Int): Triggers = none.withAfterEvents(events)
+
+  /**
+   * Create the policy that is defined by the triggers of the given config, e.g.
+   * `lagom.persistence.snapshot-policy`.
+   */
+  def fromConfig(config: Config): Triggers = {
+    def off(path: String): Boolean = config.getString(path) == "off"
+    new Triggers(
+      afterEvents = if (off("after-events")) 0 else config.getInt("after-events"),
+      afterBytes = if (off("after-bytes")) 0L else config.getBytes("after-bytes"),
+      afterTime = if (off("after-time")) Duration.ZERO else config.getDuration("after-time"),
+      onPassivation = config.getBoolean("on-passivation"),
+      keepSnapshots = config.getInt("keep-snapshots")
+    )
+  }
+
+  /**
+   * Saves a snapshot when any of the triggers fires. A trigger with the value 0 is
+   * disabled.
+   *
+   * @param afterEvents Save a snapshot after this number of events since the last snapshot.
+   * @param afterBytes Save a snapshot after events of this total serialized size have been
+   *   persisted since the last snapshot. Measuring the size requires serializing the events
+   *   once more.
+   * @param afterTime Save a snapshot when events are persisted and this time has passed since
+   *   the last snapshot, or since the entity was started.
+   * @param onPassivation Save a snapshot when the entity is passivated and there are events
+   *   since the last snapshot.
+   * @param keepSnapshots Delete older snapshots when a snapshot has been saved, so that this
+   *   number of snapshots are kept. 0 keeps all snapshots.
+   */
+  final class Triggers(
+    val afterEvents:   Int,
+    val afterBytes:    Long,
+    val afterTime:     Duration,
+    val onPassivation: Boolean,
+    keepSnapshots:     Int
+  ) extends SnapshotPolicy {
+
+    def withAfterEvents(events: Int): Triggers =
+      new Triggers(events, afterBytes, afterTime, onPassivation, keepSnapshots)
+
+    def withAfterBytes(bytes: Long): Triggers =
+      new Triggers(afterEvents, bytes, afterTime, onPassivation, keepSnapshots)
+
+    def withAfterTime(time: Duration): Triggers =
+      new Triggers(afterEvents, afterBytes, time, onPassivation, keepSnapshots)
+
+    def withOnPassivation(enabled: Boolean): Triggers =
+      new Triggers(afterEvents, afterBytes, afterTime, enabled, keepSnapshots)
+
+    def withSnapshotsToKeep(snapshots: Int): Triggers =
+      new Triggers(afterEvents, afterBytes, afterTime, onPassivation, snapshots)
+
+    override def snapshotsToKeep: Int = keepSnapshots
+
+    override def measuresBytes: Boolean = afterBytes > 0
+
+    override def shouldSaveSnapshot(eventsSinceSnapshot: Long, bytesSinceSnapshot: Long,
+                                    timeSinceSnapshot: Duration): Boolean =
+      eventsSinceSnapshot > 0 && (
+        (afterEvents > 0 && eventsSinceSnapshot >= afterEvents) ||
+        (afterBytes > 0 && bytesSinceSnapshot >= afterBytes) ||
+        (!afterTime.isZero && timeSinceSnapshot.compareTo(afterTime) >= 0)
+      )
+
+    override def saveSnapshotOnPassivation(eventsSinceSnapshot: Long): Boolean =
+      onPassivation && eventsSinceSnapshot > 0
+
+    override def toString: String =
+      s"SnapshotPolicy.Triggers($afterEvents, $afterBytes, $afterTime, $onPassivation, $keepSnapshots)"
+  }
+}
+
+/**
+ * Decides when a [[PersistentEntity]] saves a snapshot of its state, and how many of its
+ * snapshots are kept. Snapshots reduce the number of events that are replayed when the
+ * entity is started, but each snapshot is an additional write.
+ *
+ * The policy of an entity type can be defined by overriding `snapshotPolicy` of the
+ * `PersistentEntity`. Other entity types use the policy that is configured in
+ * `lagom.persistence.snapshot-policy`, which may also be the fully qualified class name
+ * of a custom implementation of this class that is created by the injector.
+ */
+abstract class SnapshotPolicy {
+
+  /**
+   * Decide if a snapshot should be saved when events have been persisted.
+   *
+   * @param eventsSinceSnapshot The number of events that have been persisted or replayed since
+   *   the last snapshot.
+   * @param bytesSinceSnapshot The serialized size of the events that have been persisted since
+   *   the last snapshot or since the entity was started, only measured when `measuresBytes`
+   *   is `true`, otherwise 0.
+   * @param timeSinceSnapshot The time since the last snapshot, or since the entity was started.
+   */
+  def shouldSaveSnapshot(eventsSinceSnapshot: Long, bytesSinceSnapshot: Long, timeSinceSnapshot: Duration): Boolean
+
+  /**
+   * Decide if a snapshot should be saved when the entity is passivated. The entity is
+   * stopped when the snapshot has been saved.
+   *
+   * @param eventsSinceSnapshot The number of events that have been persisted or replayed since
+   *   the last snapshot.
+   */
+  def saveSnapshotOnPassivation(eventsSinceSnapshot: Long): Boolean = false
+
+  /**
+   * Older snapshots are deleted when a snapshot has been saved, so that this number of snapshots
+   * are kept. 0 keeps all snapshots.
+   */
+  def snapshotsToKeep: Int = 0
+
+  /**
+   * `true` if the serialized size of the persisted events should be measured for
+   * `shouldSaveSnapshot`.
+   */
+  def measuresBytes: Boolean = false
+
+}
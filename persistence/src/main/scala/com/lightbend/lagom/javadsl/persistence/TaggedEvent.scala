@@ -0,0 +1,10 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence
+
+/**
+ * An event of the stream of several tags of `PersistentEntityRegistry.eventStream`, together
+ * with the tag of the stream that it was read from and its offset in that stream.
+ */
+final case class TaggedEvent[Event <: AggregateEvent[Event]](tag: AggregateEventTag[Event], event: Event, offset: Offset)
@@ -37,6 +37,18 @@ public class TestEntity extends PersistentEntity<TestEntity.Cmd, TestEntity.Evt,
     }
   }
 
+  public static class GetConfirmed implements Cmd, ReplyType<State> {
+    private static GetConfirmed instance = new GetConfirmed();
+
+    @JsonCreator
+    public static GetConfirmed instance() {
+      return GetConfirmed.instance;
+    }
+
+    private GetConfirmed() {
+    }
+  }
+
   public static class Add implements Cmd, ReplyType<Evt> {
     private final String element;
     private final int times;
@@ -443,16 +455,21 @@ public class TestEntity extends PersistentEntity<TestEntity.Cmd, TestEntity.Evt,
 
   private final ActorSystem system;
   private final Optional<ActorRef> probe;
+  private final boolean confirmedStateReads;
 
   @Inject
   public TestEntity(ActorSystem system) {
-    this.system = system;
-    this.probe = Optional.empty();
+    this(system, null);
   }
 
   public TestEntity(ActorSystem system, ActorRef probe) {
+    this(system, probe, false);
+  }
+
+  public TestEntity(ActorSystem system, ActorRef probe, boolean confirmedStateReads) {
     this.system = system;
     this.probe = Optional.ofNullable(probe);
+    this.confirmedStateReads = confirmedStateReads;
   }
 
   @Override
@@ -477,6 +494,12 @@ public class TestEntity extends PersistentEntity<TestEntity.Cmd, TestEntity.Evt,
       ctx.reply(state());
     });
 
+    if (confirmedStateReads) {
+      b.setConfirmedStateCommandHandler(GetConfirmed.class, (cmd, ctx) -> {
+        ctx.reply(ctx.confirmedState());
+      });
+    }
+
     b.setReadOnlyCommandHandler(GetAddress.class, (cmd, ctx) -> {
       ctx.reply(Cluster.get(system).selfAddress());
     });
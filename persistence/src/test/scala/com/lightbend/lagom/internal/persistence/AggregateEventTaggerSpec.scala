@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import akka.persistence.journal.Tagged
+import com.lightbend.lagom.javadsl.persistence.{ AggregateEvent, AggregateEventTag, MultiTagAggregateEvent }
+import org.pcollections.{ PSequence, TreePVector }
+import org.scalatest.{ Matchers, WordSpec }
+
+object AggregateEventTaggerSpec {
+  final case class SingleTagEvent(entityId: String) extends AggregateEvent[SingleTagEvent] {
+    override def aggregateTag: AggregateEventTag[SingleTagEvent] =
+      AggregateEventTag.shard(classOf[SingleTagEvent], "single", 4, entityId)
+  }
+
+  final case class MultiTagEvent(entityId: String) extends MultiTagAggregateEvent[MultiTagEvent] {
+    override def aggregateTag: AggregateEventTag[MultiTagEvent] =
+      AggregateEventTag.shard(classOf[MultiTagEvent], "multi", 4, entityId)
+    override def additionalTags: PSequence[AggregateEventTag[MultiTagEvent]] =
+      TreePVector.singleton(AggregateEventTag.of(classOf[MultiTagEvent], "all"))
+  }
+}
+
+class AggregateEventTaggerSpec extends WordSpec with Matchers {
+  import AggregateEventTaggerSpec._
+
+  private val tagger = new AggregateEventTagger
+
+  "AggregateEventTagger" must {
+
+    "tag an event with its aggregate tag" in {
+      val event = SingleTagEvent("1")
+      tagger.toJournal(event) should ===(Tagged(event, Set(event.aggregateTag.tag)))
+    }
+
+    "tag an event with its aggregate tag and the additional tags" in {
+      val event = MultiTagEvent("1")
+      tagger.toJournal(event) should ===(Tagged(event, Set(event.aggregateTag.tag, "all")))
+    }
+
+    "not tag other events" in {
+      tagger.toJournal("foo") should ===("foo")
+    }
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.{ Optional, UUID }
+
+import akka.actor.ActorRef
+import akka.cluster.Cluster
+import akka.cluster.sharding.{ ClusterSharding, ClusterShardingSettings, ShardRegion }
+import akka.testkit.TestProbe
+import com.lightbend.lagom.internal.persistence.EntityResharding.EntityHandoff
+import com.lightbend.lagom.javadsl.persistence.{ ActorSystemSpec, CommandEnvelope, SnapshotPolicy, TestEntity }
+import com.typesafe.config.ConfigFactory
+
+import scala.collection.JavaConverters._
+import scala.concurrent.duration._
+
+object EntityHandoffSpec {
+
+  val EntityTypeName = "handoff-test"
+
+  /**
+   * A command to the instance of the entity in the given shard, so that one node can run the
+   * instances of both numbers of shards.
+   */
+  final case class ToShard(shardId: String, envelope: CommandEnvelope)
+}
+
+class EntityHandoffSpec extends ActorSystemSpec(ConfigFactory.parseString(s"""
+  akka.actor.provider = "akka.cluster.ClusterActorRefProvider"
+  akka.remote.netty.tcp.hostname = "127.0.0.1"
+  akka.remote.netty.tcp.port = 0
+  akka.persistence.journal.plugin = "akka.persistence.journal.inmem"
+  akka.persistence.snapshot-store.plugin = "akka.persistence.snapshot-store.local"
+  akka.persistence.snapshot-store.local.dir = "target/snapshots-EntityHandoffSpec-${UUID.randomUUID()}"
+  lagom.persistence {
+    max-number-of-shards = 10
+    resharding {
+      other-number-of-shards = 7
+      handoff-timeout = 500ms
+    }
+  }
+  """)) {
+  import EntityHandoffSpec._
+
+  private val resharding = EntityResharding(system)
+
+  override def beforeAll(): Unit = {
+    super.beforeAll()
+    val cluster = Cluster(system)
+    cluster.join(cluster.selfAddress)
+    ClusterSharding(system).start(
+      EntityTypeName,
+      PersistentEntityActor.props(EntityTypeName, Optional.empty[String](), () => new TestEntity(system),
+        SnapshotPolicy.none, 10.seconds),
+      ClusterShardingSettings(system),
+      {
+        case ToShard(_, CommandEnvelope(entityId, cmd)) => (entityId, cmd)
+        case handoff @ EntityHandoff(entityId, _)       => (entityId, handoff)
+      }: ShardRegion.ExtractEntityId,
+      {
+        case ToShard(shardId, _)      => shardId
+        case EntityHandoff(_, shardId) => shardId
+      }: ShardRegion.ExtractShardId
+    )
+  }
+
+  private def region: ActorRef = ClusterSharding(system).shardRegion(EntityTypeName)
+
+  // the shards of the entity with the new and the old number of shards
+  private def shards(entityId: String): (String, String) = {
+    val newShard = EntityResharding.shardId(entityId, 10)
+    val oldShard = EntityResharding.shardId(entityId, 7)
+    newShard should !==(oldShard)
+    resharding.otherShardId(entityId, newShard) should ===(Some(oldShard))
+    (newShard, oldShard)
+  }
+
+  private def add(shardId: String, entityId: String, element: String, replyTo: TestProbe): Unit =
+    region.tell(ToShard(shardId, CommandEnvelope(entityId, TestEntity.Add.of(element))), replyTo.ref)
+
+  private def elements(shardId: String, entityId: String): List[String] = {
+    region ! ToShard(shardId, CommandEnvelope(entityId, TestEntity.Get.instance))
+    expectMsgType[TestEntity.State](10.seconds).getElements.asScala.toList
+  }
+
+  "An entity that is started in both shards while resharding" must {
+
+    "only persist in one shard at a time, after the other instance has stopped" in {
+      val (newShard, oldShard) = shards("1")
+      val probe = TestProbe()
+
+      add(oldShard, "1", "a", probe)
+      probe.expectMsg(10.seconds, new TestEntity.Appended("1", "A"))
+      // the instance in the new shard recovers when the one in the old shard has stopped
+      add(newShard, "1", "b", probe)
+      probe.expectMsg(10.seconds, new TestEntity.Appended("1", "B"))
+      elements(newShard, "1") should ===(List("A", "B"))
+
+      // and the other way around
+      add(oldShard, "1", "c", probe)
+      probe.expectMsg(10.seconds, new TestEntity.Appended("1", "C"))
+      elements(oldShard, "1") should ===(List("A", "B", "C"))
+      // every instance has seen all events of the others, i.e. they never wrote concurrently
+      elements(newShard, "1") should ===(List("A", "B", "C"))
+    }
+
+    "recover the instance in the shard with the lowest id first when both are waiting, and the other when it " +
+      "requests the handoff again after the handoff timeout" in {
+        val (newShard, oldShard) = shards("2")
+        val (lowest, highest) = if (newShard < oldShard) (newShard, oldShard) else (oldShard, newShard)
+        val lowestProbe = TestProbe()
+        val highestProbe = TestProbe()
+
+        // both instances are started, and wait for each other
+        add(highest, "2", "h", highestProbe)
+        add(lowest, "2", "l", lowestProbe)
+
+        lowestProbe.expectMsg(10.seconds, new TestEntity.Appended("2", "L"))
+        // the instance in the lowest shard did not acknowledge the request of the other one, which
+        // requests the handoff again after the handoff timeout, and the lowest one stops then
+        highestProbe.expectMsg(10.seconds, new TestEntity.Appended("2", "H"))
+        elements(highest, "2") should ===(List("L", "H"))
+      }
+  }
+
+}
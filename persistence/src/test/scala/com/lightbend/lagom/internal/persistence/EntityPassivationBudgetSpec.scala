@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import scala.concurrent.duration._
+import akka.testkit.TestProbe
+import com.lightbend.lagom.javadsl.persistence.ActorSystemSpec
+import com.typesafe.config.ConfigFactory
+
+class EntityPassivationBudgetSpec extends ActorSystemSpec(ConfigFactory.parseString("""
+  lagom.persistence.passivation-budget {
+    max-entities = 4
+    eviction-ratio = 0.5
+  }
+  """)) {
+
+  val budget = EntityPassivationBudget(system)
+
+  "EntityPassivationBudget" must {
+
+    "evict the least recently used entities when the budget is exceeded" in {
+      val probes = Vector.fill(5)(TestProbe())
+      val entries = probes.take(4).map { probe =>
+        Thread.sleep(2)
+        budget.activated(probe.ref, NoopPersistentEntityMetrics)
+      }
+      Thread.sleep(2)
+      entries(0).touch()
+      budget.activeEntities should ===(4)
+      probes.foreach(_.expectNoMsg(100.millis))
+
+      Thread.sleep(2)
+      val entry5 = budget.activated(probes(4).ref, NoopPersistentEntityMetrics)
+      probes(1).expectMsg(EntityPassivationBudget.Evict)
+      probes(2).expectMsg(EntityPassivationBudget.Evict)
+      probes(3).expectMsg(EntityPassivationBudget.Evict)
+      probes(0).expectNoMsg(100.millis)
+      probes(4).expectNoMsg(100.millis)
+      budget.evictions should ===(3L)
+
+      // the evicted entities that are still stopping don't count against the budget
+      val probe6 = TestProbe()
+      val entry6 = budget.activated(probe6.ref, NoopPersistentEntityMetrics)
+      probes.foreach(_.expectNoMsg(100.millis))
+      probe6.expectNoMsg(100.millis)
+      budget.evictions should ===(3L)
+
+      (entries.drop(1)).foreach(budget.passivated)
+      budget.activeEntities should ===(3)
+      budget.passivated(entries(0))
+      budget.passivated(entry5)
+      budget.passivated(entry6)
+      budget.activeEntities should ===(0)
+    }
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import akka.Done
+import akka.actor.{ Actor, ActorRef, ActorSystem, Address, Props }
+import akka.cluster.{ Cluster, MemberStatus }
+import akka.cluster.sharding.{ ClusterSharding, ClusterShardingSettings, ShardRegion }
+import akka.testkit.TestProbe
+import com.lightbend.lagom.internal.persistence.EntityPrewarming.EntityPrewarm
+import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
+import com.lightbend.lagom.javadsl.persistence.{ ActorSystemSpec, CommandEnvelope }
+import com.typesafe.config.ConfigFactory
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+object EntityPrewarmingSpec {
+
+  val EntityTypeName = "prewarm-test"
+  val LeavingEntityTypeName = "prewarm-leave-test"
+
+  final case class Received(node: Address, entityId: String, msg: Any)
+
+  /**
+   * Registers itself as active while it is running, like the persistent entities, and sends
+   * the messages it receives to the probe.
+   */
+  class PrewarmTestEntity(entityTypeName: String, probe: ActorRef) extends Actor {
+    private val prewarming = EntityPrewarming(context.system)
+    private val entityId = self.path.name
+
+    override def preStart(): Unit = prewarming.activated(entityTypeName, entityId)
+
+    override def postStop(): Unit = prewarming.stopped(entityTypeName, entityId)
+
+    def receive = {
+      case msg => probe ! Received(Cluster(context.system).selfAddress, entityId, msg)
+    }
+  }
+
+  def startSharding(system: ActorSystem, entityTypeName: String, probe: ActorRef): ActorRef =
+    ClusterSharding(system).start(
+      entityTypeName,
+      Props(new PrewarmTestEntity(entityTypeName, probe)),
+      ClusterShardingSettings(system),
+      {
+        case CommandEnvelope(entityId, msg) => (entityId, msg)
+        case msg @ EnsureActive(entityId)   => (entityId, msg)
+      }: ShardRegion.ExtractEntityId,
+      {
+        case CommandEnvelope(entityId, _) => EntityResharding.shardId(entityId, 10)
+        case EnsureActive(entityId)       => EntityResharding.shardId(entityId, 10)
+      }: ShardRegion.ExtractShardId
+    )
+}
+
+class EntityPrewarmingSpec extends ActorSystemSpec(ConfigFactory.parseString("""
+  akka.actor.provider = "akka.cluster.ClusterActorRefProvider"
+  akka.remote.netty.tcp.hostname = "127.0.0.1"
+  akka.remote.netty.tcp.port = 0
+  lagom.persistence.prewarm-on-leave {
+    enabled = on
+    max-entities-per-type = 2
+    entities-per-second = 20
+  }
+  """)) {
+  import EntityPrewarmingSpec._
+
+  private val entities = TestProbe()
+  private val prewarming = EntityPrewarming(system)
+
+  override def beforeAll(): Unit = {
+    super.beforeAll()
+    val cluster = Cluster(system)
+    cluster.join(cluster.selfAddress)
+    startSharding(system, EntityTypeName, entities.ref)
+  }
+
+  private def prewarmer = system.actorSelection("/system/lagomEntityPrewarmer")
+
+  private def prewarmed(n: Int): Seq[String] =
+    entities.receiveN(n, 10.seconds).map {
+      case Received(_, entityId, EnsureActive(_)) => entityId
+      case other                                  => fail(s"Unexpected $other")
+    }
+
+  "EntityPrewarming" must {
+
+    "keep track of the active entities, at most max-entities-per-type of them" in {
+      prewarming.activated("other-type", "a")
+      prewarming.activated("other-type", "b")
+      prewarming.activated("other-type", "c")
+      prewarming.activeEntities("other-type").size should ===(2)
+      prewarming.stopped("other-type", "a")
+      prewarming.stopped("other-type", "b")
+      prewarming.activeEntities("other-type") should ===(Vector("c"))
+      prewarming.activeEntities("unknown-type") should ===(Vector.empty[String])
+    }
+
+    "wake up at most entities-per-second entities per second" in {
+      val start = System.nanoTime()
+      (1 to 10).foreach(i => prewarmer ! EntityPrewarm(EntityTypeName, s"throttled-$i"))
+      prewarmed(10).toSet should ===((1 to 10).map(i => s"throttled-$i").toSet)
+      // 2 entities every 100 ms
+      (System.nanoTime() - start).nanos should be >= 400.millis
+    }
+
+    "drop the entities that exceed the queue" in {
+      // the queue holds 10 times max-entities-per-type
+      (1 to 25).foreach(i => prewarmer ! EntityPrewarm(EntityTypeName, s"queued-$i"))
+      prewarmed(20).toSet should ===((1 to 20).map(i => s"queued-$i").toSet)
+      entities.expectNoMsg(500.millis)
+    }
+  }
+
+  "GracefulLeave" must {
+
+    "send the entities that were active on the leaving node to the other nodes" in {
+      val leaving = ActorSystem(system.name, system.settings.config)
+      try {
+        Cluster(leaving).join(Cluster(system).selfAddress)
+        awaitAssert({
+          Cluster(system).state.members.count(_.status == MemberStatus.Up) should ===(2)
+        }, 10.seconds)
+        // an entity type without shards yet, so that the shards are allocated to both nodes
+        val region = startSharding(system, LeavingEntityTypeName, entities.ref)
+        val leavingRegion = startSharding(leaving, LeavingEntityTypeName, entities.ref)
+        // the region of the leaving node has registered when it has delivered a command
+        leavingRegion ! CommandEnvelope("leaving-0", "hello")
+        val first = entities.expectMsgType[Received](10.seconds)
+
+        (1 to 10).foreach(i => region ! CommandEnvelope(s"leaving-$i", "hello"))
+        val onLeavingNode = (first +: entities.receiveN(10, 10.seconds)).collect {
+          case Received(node, entityId, "hello") if node == Cluster(leaving).selfAddress => entityId
+        }.toSet
+        onLeavingNode should not be empty
+
+        val done = TestProbe()
+        leaving.actorOf(GracefulLeave.props(Set(LeavingEntityTypeName))).tell(GracefulLeave.Leave, done.ref)
+        done.expectMsg(20.seconds, Done)
+
+        // captured before the shard region stopped the entities, and recovered on this node
+        val recovered = prewarmed(math.min(onLeavingNode.size, 2))
+        recovered.toSet.subsetOf(onLeavingNode) should ===(true)
+        entities.expectNoMsg(500.millis)
+      } finally Await.ready(leaving.terminate(), 10.seconds)
+    }
+  }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import scala.concurrent.duration._
+import akka.testkit.TestProbe
+import com.lightbend.lagom.javadsl.persistence.ActorSystemSpec
+import com.typesafe.config.ConfigFactory
+
+class EntityRecoverySchedulerSpec extends ActorSystemSpec(ConfigFactory.parseString(
+  "lagom.persistence.recovery.max-concurrent-recoveries = 1"
+)) {
+  import EntityRecoveryScheduler._
+
+  val recoveryScheduler = EntityRecoveryScheduler(system)
+
+  "EntityRecoveryScheduler" must {
+
+    "grant permits to prioritized entities first" in {
+      val scheduler = recoveryScheduler.scheduler
+      val p1, p2, p3 = TestProbe()
+      p1.send(scheduler, RequestPermit(prioritized = false))
+      p1.expectMsg(PermitGranted)
+      p2.send(scheduler, RequestPermit(prioritized = false))
+      p3.send(scheduler, RequestPermit(prioritized = false))
+      p3.send(scheduler, Prioritize)
+      p2.expectNoMsg(100.millis)
+      p3.expectNoMsg(100.millis)
+      awaitAssert(recoveryScheduler.queueDepth should ===(2))
+
+      p1.send(scheduler, ReturnPermit)
+      p3.expectMsg(PermitGranted)
+      p2.expectNoMsg(100.millis)
+      awaitAssert(recoveryScheduler.queueDepth should ===(1))
+
+      // permit is returned when the entity is stopped
+      system.stop(p3.ref)
+      p2.expectMsg(PermitGranted)
+      awaitAssert(recoveryScheduler.queueDepth should ===(0))
+      p2.send(scheduler, ReturnPermit)
+    }
+  }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.UUID
+
+import akka.Done
+import akka.actor.{ Actor, ActorRef, Props }
+import akka.cluster.Cluster
+import akka.cluster.sharding.{ ClusterSharding, ClusterShardingSettings, ShardRegion }
+import akka.testkit.TestProbe
+import com.lightbend.lagom.internal.persistence.EntityTimers._
+import com.lightbend.lagom.javadsl.persistence.{ ActorSystemSpec, CommandEnvelope }
+import com.typesafe.config.ConfigFactory
+
+import scala.concurrent.duration._
+
+object EntityTimerShardSpec {
+
+  val EntityTypeName = "timer-test"
+
+  /**
+   * Sends the commands it receives to the probe, and replies to them, except to the first
+   * "ignored-once" command.
+   */
+  class TimerTestEntity(probe: ActorRef) extends Actor {
+    private var ignored = false
+
+    def receive = {
+      case "ignored-once" if !ignored =>
+        ignored = true
+        probe ! "ignored-once"
+      case cmd =>
+        probe ! cmd
+        sender() ! Done
+    }
+  }
+}
+
+class EntityTimerShardSpec extends ActorSystemSpec(ConfigFactory.parseString(s"""
+  akka.actor.provider = "akka.cluster.ClusterActorRefProvider"
+  akka.remote.netty.tcp.hostname = "127.0.0.1"
+  akka.remote.netty.tcp.port = 0
+  akka.persistence.journal.plugin = "akka.persistence.journal.inmem"
+  akka.persistence.snapshot-store.plugin = "akka.persistence.snapshot-store.local"
+  # the journal is in memory, so the snapshots of earlier runs must not be found
+  akka.persistence.snapshot-store.local.dir = "target/snapshots-EntityTimerShardSpec-${UUID.randomUUID()}"
+  """)) {
+  import EntityTimerShardSpec._
+
+  private val deliveries = TestProbe()
+
+  private val settings = EntityTimerShard.Settings(
+    tick = 50.millis,
+    wheelSize = 16,
+    retryAfter = 300.millis,
+    maxInFlight = 10,
+    snapshotAfter = 3,
+    askTimeout = 200.millis
+  )
+
+  override def beforeAll(): Unit = {
+    super.beforeAll()
+    val cluster = Cluster(system)
+    cluster.join(cluster.selfAddress)
+    ClusterSharding(system).start(
+      EntityTypeName,
+      Props(new TimerTestEntity(deliveries.ref)),
+      ClusterShardingSettings(system),
+      { case CommandEnvelope(entityId, cmd) => (entityId, cmd) }: ShardRegion.ExtractEntityId,
+      { case CommandEnvelope(entityId, _) => entityId }: ShardRegion.ExtractShardId
+    )
+  }
+
+  private def timerId(entityId: String, timerKey: String = "key") = TimerId(EntityTypeName, entityId, timerKey)
+
+  private def schedule(timerShard: ActorRef, id: TimerId, delay: FiniteDuration, command: Any): Unit = {
+    timerShard ! ScheduleTimer(id, System.currentTimeMillis() + delay.toMillis, command)
+    expectMsg(TimerUpdated(id))
+  }
+
+  private def startTimerShard(name: String): ActorRef =
+    system.actorOf(EntityTimerShard.props(settings), name)
+
+  private def restart(timerShard: ActorRef, name: String): ActorRef = {
+    watch(timerShard)
+    system.stop(timerShard)
+    expectTerminated(timerShard)
+    startTimerShard(name)
+  }
+
+  "EntityTimerShard" must {
+
+    "deliver the command of a timer to its entity when it is due" in {
+      val timerShard = startTimerShard("shard-1")
+      schedule(timerShard, timerId("e1"), 500.millis, "cmd-1")
+      deliveries.expectNoMsg(300.millis)
+      deliveries.expectMsg(5.seconds, "cmd-1")
+      // the timer is removed when the entity has replied
+      deliveries.expectNoMsg(1.second)
+      system.stop(timerShard)
+    }
+
+    "deliver the commands of due timers in deadline order" in {
+      val timerShard = startTimerShard("shard-2")
+      schedule(timerShard, timerId("e2", "late"), 400.millis, "cmd-late")
+      schedule(timerShard, timerId("e2", "early"), 200.millis, "cmd-early")
+      deliveries.expectMsg(5.seconds, "cmd-early")
+      deliveries.expectMsg(5.seconds, "cmd-late")
+      system.stop(timerShard)
+    }
+
+    "replace a timer with the same id, and not deliver a cancelled timer" in {
+      val timerShard = startTimerShard("shard-3")
+      schedule(timerShard, timerId("e3"), 300.millis, "cmd-replaced")
+      schedule(timerShard, timerId("e3"), 300.millis, "cmd-replacement")
+      schedule(timerShard, timerId("e4"), 300.millis, "cmd-cancelled")
+      timerShard ! CancelTimer(timerId("e4"))
+      expectMsg(TimerUpdated(timerId("e4")))
+      deliveries.expectMsg(5.seconds, "cmd-replacement")
+      deliveries.expectNoMsg(1.second)
+      system.stop(timerShard)
+    }
+
+    "confirm the cancellation of an unknown timer" in {
+      val timerShard = startTimerShard("shard-4")
+      timerShard ! CancelTimer(timerId("e5"))
+      expectMsg(TimerUpdated(timerId("e5")))
+      system.stop(timerShard)
+    }
+
+    "deliver the command again until the entity replies" in {
+      val timerShard = startTimerShard("shard-5")
+      schedule(timerShard, timerId("e6"), 100.millis, "ignored-once")
+      deliveries.expectMsg(5.seconds, "ignored-once")
+      // delivered again after the ask timeout and retry-after
+      deliveries.expectMsg(5.seconds, "ignored-once")
+      deliveries.expectNoMsg(1.second)
+      system.stop(timerShard)
+    }
+
+    "recover its timers after a restart" in {
+      val timerShard = startTimerShard("shard-6")
+      schedule(timerShard, timerId("e7"), 1.second, "cmd-recovered")
+      schedule(timerShard, timerId("e8"), 1.second, "cmd-cancelled-before-restart")
+      timerShard ! CancelTimer(timerId("e8"))
+      expectMsg(TimerUpdated(timerId("e8")))
+
+      val restarted = restart(timerShard, "shard-6")
+      deliveries.expectMsg(5.seconds, "cmd-recovered")
+      deliveries.expectNoMsg(1.second)
+      system.stop(restarted)
+    }
+
+    "recover its timers from a snapshot and the events after it" in {
+      val timerShard = startTimerShard("shard-7")
+      // a snapshot is saved after 3 events
+      (1 to 4).foreach(i => schedule(timerShard, timerId(s"e9-$i"), 1.second, s"cmd-$i"))
+
+      val restarted = restart(timerShard, "shard-7")
+      deliveries.receiveN(4, 5.seconds).toSet should ===(Set[AnyRef]("cmd-1", "cmd-2", "cmd-3", "cmd-4"))
+      system.stop(restarted)
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import org.scalatest.{ Matchers, WordSpec }
+
+object HandlerDispatchSpec {
+  trait Evt
+  trait Tagged
+  trait Important extends Tagged
+  class Base extends Evt
+  class Derived extends Base with Important
+  class Other extends Important
+  class Unrelated
+}
+
+class HandlerDispatchSpec extends WordSpec with Matchers {
+  import HandlerDispatchSpec._
+
+  // the entity class that owns the dispatch tables, any class will do here
+  private val entityClass = classOf[HandlerDispatchSpec]
+
+  "HandlerDispatch" must {
+
+    "find the handler of the exact class" in {
+      val dispatch = HandlerDispatch(entityClass, Map(classOf[Base] -> "base", classOf[Derived] -> "derived"))
+      dispatch(classOf[Base]) should ===(Some("base"))
+      dispatch(classOf[Derived]) should ===(Some("derived"))
+    }
+
+    "find the handler of the closest superclass before interfaces" in {
+      val dispatch = HandlerDispatch(entityClass, Map(classOf[Base] -> "base", classOf[Tagged] -> "tagged"))
+      dispatch(classOf[Derived]) should ===(Some("base"))
+      dispatch(classOf[Other]) should ===(Some("tagged"))
+    }
+
+    "find the handler of the closest interface" in {
+      val dispatch = HandlerDispatch(entityClass, Map(classOf[Evt] -> "evt", classOf[Tagged] -> "tagged"))
+      // Important is a direct interface of Derived, Evt is an interface of its superclass
+      dispatch(classOf[Derived]) should ===(Some("evt"))
+      val dispatch2 = HandlerDispatch(entityClass, Map(classOf[Important] -> "important", classOf[Evt] -> "evt"))
+      dispatch2(classOf[Derived]) should ===(Some("important"))
+    }
+
+    "not find a handler for unrelated classes" in {
+      val dispatch = HandlerDispatch(entityClass, Map(classOf[Evt] -> "evt"))
+      dispatch(classOf[Unrelated]) should ===(None)
+      dispatch(classOf[Other]) should ===(None)
+    }
+
+    "share the class resolution between dispatch tables with the same handler classes" in {
+      val dispatch1 = HandlerDispatch(entityClass, Map(classOf[Base] -> "one"))
+      val dispatch2 = HandlerDispatch(entityClass, Map(classOf[Base] -> "two"))
+      dispatch1(classOf[Derived]) should ===(Some("one"))
+      dispatch2(classOf[Derived]) should ===(Some("two"))
+    }
+
+  }
+
+}
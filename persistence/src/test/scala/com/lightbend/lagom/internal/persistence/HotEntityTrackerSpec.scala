@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import com.lightbend.lagom.javadsl.persistence.ActorSystemSpec
+import com.typesafe.config.ConfigFactory
+
+import scala.collection.JavaConverters._
+import scala.concurrent.{ Await, Future }
+import scala.concurrent.duration._
+
+class HotEntityTrackerSpec extends ActorSystemSpec(ConfigFactory.parseString("""
+  lagom.persistence.hot-entities {
+    enabled = on
+    top-k = 3
+    sketch-capacity = 10
+    stripes = 4
+    window = 1s
+  }
+  """)) {
+
+  import system.dispatcher
+
+  "HotEntityTracker" must {
+
+    "find the hottest entities of all stripes, also when commands are received concurrently" in {
+      val sampler = HotEntityTracker(system).sampler("test")
+      val threads = (1 to 4).map { t =>
+        Future {
+          (1 to 1000).foreach { i =>
+            sampler.commandReceived("hot-1")
+            if (i % 2 == 0) sampler.commandReceived("hot-2")
+            if (i % 4 == 0) sampler.commandReceived("hot-3")
+            sampler.commandReceived(s"cold-$t-$i")
+          }
+        }
+      }
+      Await.result(Future.sequence(threads), 10.seconds)
+
+      awaitAssert({
+        val hottest = sampler.hotEntities.getByCommandRate.asScala.map(_.getEntityId)
+        hottest should ===(Seq("hot-1", "hot-2", "hot-3"))
+      }, 5.seconds)
+    }
+  }
+
+}
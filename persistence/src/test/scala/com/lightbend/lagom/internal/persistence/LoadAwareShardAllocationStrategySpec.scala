@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+import akka.actor.{ ActorRef, Address, ExtendedActorSystem }
+import akka.cluster.sharding.ShardCoordinator.LeastShardAllocationStrategy
+import akka.cluster.sharding.ShardRegion.ShardId
+import akka.testkit.TestProbe
+import com.lightbend.lagom.javadsl.persistence.ActorSystemSpec
+import com.typesafe.config.ConfigFactory
+
+class LoadAwareShardAllocationStrategySpec extends ActorSystemSpec(ConfigFactory.parseString("""
+  akka.actor.provider = akka.remote.RemoteActorRefProvider
+  akka.remote.netty.tcp.port = 0
+  """)) {
+
+  val selfAddress = Address("akka.tcp", "test", "localhost", 2552)
+  val regionA = TestProbe().ref
+  val regionB = TestProbe().ref
+  val regionC = TestProbe().ref
+
+  // regions of other nodes, that are never sent anything
+  val nodeX = Address("akka.tcp", "test", "hostX", 2552)
+  val nodeY = Address("akka.tcp", "test", "hostY", 2552)
+  def remoteRegion(node: Address): ActorRef =
+    system.asInstanceOf[ExtendedActorSystem].provider.resolveActorRef(s"$node/system/sharding/test")
+  val regionX = remoteRegion(nodeX)
+  val regionY = remoteRegion(nodeY)
+
+  def strategy(rates: Map[ShardId, Double], nodeLoads: Map[Address, Double] = Map.empty) =
+    new LoadAwareShardAllocationStrategy(selfAddress, () => rates, () => nodeLoads,
+      nodeLoadWeight = 0.5, rebalanceThreshold = 0.2, maxSimultaneousRebalance = 2,
+      new LeastShardAllocationStrategy(rebalanceThreshold = 1, maxSimultaneousRebalance = 1))
+
+  def allocate(s: LoadAwareShardAllocationStrategy, shardId: ShardId, allocations: Map[ActorRef, Vector[ShardId]]) =
+    Await.result(s.allocateShard(regionA, shardId, allocations), 3.seconds)
+
+  def rebalance(s: LoadAwareShardAllocationStrategy, allocations: Map[ActorRef, Vector[ShardId]], inProgress: Set[ShardId] = Set.empty) =
+    Await.result(s.rebalance(allocations, inProgress), 3.seconds)
+
+  "LoadAwareShardAllocationStrategy" must {
+
+    "use the fallback strategy when nothing has been measured" in {
+      val s = strategy(Map.empty)
+      val allocations = Map(regionA -> Vector("1", "2"), regionB -> Vector("3"), regionC -> Vector.empty[ShardId])
+      allocate(s, "4", allocations) should ===(regionC)
+      rebalance(s, Map(regionA -> Vector("1", "2", "3"), regionB -> Vector.empty)) should ===(Set("1"))
+    }
+
+    "allocate to the region with the lowest command rate" in {
+      val s = strategy(Map("1" -> 100.0, "2" -> 1.0, "3" -> 1.0))
+      val allocations = Map(regionA -> Vector("1"), regionB -> Vector("2", "3"))
+      allocate(s, "4", allocations) should ===(regionB)
+    }
+
+    "spread the shards that are allocated between two reports over the regions" in {
+      val s = strategy(Map("1" -> 50.0, "2" -> 50.0))
+      // the rates of the new shards are not reported until the next report
+      val allocations = (3 to 10).foldLeft(Map(regionA -> Vector("1"), regionB -> Vector("2"))) {
+        (allocations, shard) =>
+          val region = allocate(s, shard.toString, allocations)
+          allocations.updated(region, allocations(region) :+ shard.toString)
+      }
+      allocations(regionA).size should ===(5)
+      allocations(regionB).size should ===(5)
+    }
+
+    "spread the shards that are allocated between two reports by the load of the nodes" in {
+      // Y is busier than X, but still gets some of the shards
+      val s = strategy(Map.empty, Map(nodeX -> 0.0, nodeY -> 0.6))
+      val allocations = (1 to 10).foldLeft(Map(regionX -> Vector.empty[ShardId], regionY -> Vector.empty[ShardId])) {
+        (allocations, shard) =>
+          val region = allocate(s, shard.toString, allocations)
+          allocations.updated(region, allocations(region) :+ shard.toString)
+      }
+      // the load of Y adds 0.5 * 0.6, i.e. as much as 3 of the 10 shards
+      allocations(regionX).size should ===(6)
+      allocations(regionY).size should ===(4)
+    }
+
+    "rebalance the hottest shards that reduce the difference" in {
+      val s = strategy(Map("1" -> 50.0, "2" -> 30.0, "3" -> 10.0, "4" -> 5.0, "5" -> 5.0))
+      val allocations = Map(regionA -> Vector("1", "2", "3", "4"), regionB -> Vector("5"))
+      // A has 95% and B 5%, moving 30% and 10% reduces the difference without reversing it
+      rebalance(s, allocations) should ===(Set("2", "3"))
+      rebalance(s, allocations, inProgress = Set("2")) should ===(Set("3"))
+      rebalance(s, allocations, inProgress = Set("2", "3")) should ===(Set.empty)
+    }
+
+    "not rebalance when the load is within the threshold" in {
+      val s = strategy(Map("1" -> 30.0, "2" -> 30.0, "3" -> 40.0))
+      rebalance(s, Map(regionA -> Vector("1", "2"), regionB -> Vector("3"))) should ===(Set.empty)
+    }
+
+    "take the load of the nodes into account" in {
+      val s = strategy(Map.empty, Map(selfAddress -> 1.0))
+      // all local regions are on the same node, so the number of shards decides
+      allocate(s, "4", Map(regionA -> Vector("1", "2"), regionB -> Vector("3"))) should ===(regionB)
+    }
+
+    "allocate and rebalance by the command rates and the load of the nodes" in {
+      val rates = Map("1" -> 40.0, "2" -> 30.0, "3" -> 20.0, "4" -> 10.0)
+      val allocations = Map(regionX -> Vector("1", "2"), regionY -> Vector("3", "4"))
+
+      // by the command rates alone, X has 70% and Y 30%
+      val byRates = strategy(rates)
+      allocate(byRates, "5", allocations) should ===(regionY)
+      rebalance(byRates, allocations) should ===(Set.empty)
+
+      // the load of node Y adds 0.5 * 2.0, so Y is at 130% and X at 70%
+      val byLoad = strategy(rates, Map(nodeX -> 0.0, nodeY -> 2.0))
+      allocate(byLoad, "5", allocations) should ===(regionX)
+      rebalance(byLoad, allocations) should ===(Set("3", "4"))
+    }
+  }
+
+}
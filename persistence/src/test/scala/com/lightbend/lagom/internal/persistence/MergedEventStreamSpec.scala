@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import akka.NotUsed
+import akka.japi.Pair
+import akka.stream.ActorMaterializer
+import akka.stream.scaladsl.{ Sink, Source }
+import com.lightbend.lagom.javadsl.persistence._
+
+import scala.collection.JavaConverters._
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+class MergedEventStreamSpec extends ActorSystemSpec {
+
+  private implicit val mat = ActorMaterializer()
+
+  private val tags = AggregateEventTag.shards(classOf[TestEntity.Evt], "tag", 3).asScala.toVector
+
+  // two events of each tag, with the offsets following the from offset
+  private def eventStream(tag: AggregateEventTag[TestEntity.Evt], fromOffset: Offset): Source[Pair[TestEntity.Evt, Offset], NotUsed] = {
+    val from = fromOffset match {
+      case seq: Offset.Sequence => seq.value + 1
+      case _                    => 0L
+    }
+    Source(List(from, from + 1)).map { seqNr =>
+      Pair.create[TestEntity.Evt, Offset](new TestEntity.Appended(tag.tag, seqNr.toString), Offset.sequence(seqNr))
+    }
+  }
+
+  private def run(fromOffsets: Map[String, Offset]): Vector[TaggedEvent[TestEntity.Evt]] =
+    Await.result(MergedEventStream(tags, fromOffsets, eventStream, prefetch = 1).runWith(Sink.seq), 5.seconds).toVector
+
+  "MergedEventStream" must {
+
+    "emit the events of all tags, in order for each tag" in {
+      val events = run(Map.empty)
+      events.size should ===(6)
+      tags.foreach { tag =>
+        events.filter(_.tag == tag).map(_.offset) should ===(Vector(Offset.sequence(0), Offset.sequence(1)))
+      }
+    }
+
+    "stream each tag from its offset" in {
+      val events = run(Map("tag1" -> Offset.sequence(10)))
+      events.filter(_.tag.tag == "tag1").map(_.offset) should ===(Vector(Offset.sequence(11), Offset.sequence(12)))
+      events.filter(_.tag.tag == "tag0").map(_.offset) should ===(Vector(Offset.sequence(0), Offset.sequence(1)))
+    }
+
+    "emit the events of the same tag once" in {
+      Await.result(MergedEventStream(tags :+ tags.head, Map.empty, eventStream, prefetch = 1).runWith(Sink.seq), 5.seconds)
+        .size should ===(6)
+    }
+  }
+
+}
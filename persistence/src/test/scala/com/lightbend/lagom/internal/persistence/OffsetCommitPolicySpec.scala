@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import akka.Done
+import akka.japi.Pair
+import akka.stream.ActorMaterializer
+import akka.stream.scaladsl.{ Sink, Source }
+import com.lightbend.lagom.javadsl.persistence._
+import com.typesafe.config.ConfigFactory
+
+import scala.collection.JavaConverters._
+import scala.concurrent.{ Await, Future }
+import scala.concurrent.duration._
+
+class OffsetCommitPolicySpec extends ActorSystemSpec {
+
+  private implicit val mat = ActorMaterializer()
+
+  private def policy(s: String): OffsetCommitPolicy =
+    OffsetCommitPolicy(ConfigFactory.parseString(s).withFallback(ConfigFactory.parseString(
+      "policy = every-event, n-events = 100, interval = 1s"
+    )))
+
+  private val events = (1 to 100).toVector.map { i =>
+    Pair.create[TestEntity.Evt, Offset](new TestEntity.Appended("1", i.toString), Offset.sequence(i))
+  }
+
+  private def commitAll(p: OffsetCommitPolicy, elements: Source[Pair[TestEntity.Evt, Offset], _]): Vector[Offset] = {
+    val committed = new ConcurrentLinkedQueue[Offset]
+    val commits = OffsetCommitPolicy.commits[TestEntity.Evt](p) { pair =>
+      committed.add(pair.second)
+      Future.successful(Done.getInstance())
+    }
+    Await.result(elements.via(commits).runWith(Sink.ignore), 10.seconds)
+    committed.asScala.toVector
+  }
+
+  "OffsetCommitPolicy" must {
+
+    "be read from the configuration" in {
+      policy("") should ===(OffsetCommitPolicy.EveryEvent)
+      policy("policy = every-n-events, n-events = 10") should ===(OffsetCommitPolicy.EveryNEvents(10))
+      policy("policy = interval, interval = 200ms") should ===(OffsetCommitPolicy.Interval(200.millis))
+      intercept[IllegalArgumentException] {
+        policy("policy = never")
+      }
+    }
+
+    "commit the offsets of some of the events with the interval policy, ending with the last one" in {
+      // the events arrive over about 500 milliseconds
+      val elements = Source(events).throttle(20, 100.millis, 20, akka.stream.ThrottleMode.Shaping)
+      val committed = commitAll(OffsetCommitPolicy.Interval(100.millis), elements)
+      committed.size should be < 20
+      committed.last should ===(Offset.sequence(100))
+      committed.map(_.asInstanceOf[Offset.Sequence].value) should ===(committed.map(_.asInstanceOf[Offset.Sequence].value).sorted)
+    }
+
+    "commit the offset of the last event" in {
+      commitAll(OffsetCommitPolicy.EveryEvent, Source(events)).last should ===(Offset.sequence(100))
+    }
+  }
+
+}
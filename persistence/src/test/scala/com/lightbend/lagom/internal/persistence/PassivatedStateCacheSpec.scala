@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import com.lightbend.lagom.javadsl.persistence.ActorSystemSpec
+import com.typesafe.config.ConfigFactory
+
+class PassivatedStateCacheSpec extends ActorSystemSpec(ConfigFactory.parseString("""
+  lagom.persistence.passivated-state-cache {
+    max-size = 1 KiB
+    block-size = 64 B
+  }
+  """)) {
+
+  val cache = PassivatedStateCache(system)
+
+  "PassivatedStateCache" must {
+
+    "take the cached state" in {
+      cache.put("test-1", 17L, "state-1")
+      cache.take("test-1") should ===(Some(PassivatedStateCache.CachedState(17L, "state-1")))
+      // taken, i.e. not cached any more
+      cache.take("test-1") should ===(None)
+      cache.take("test-2") should ===(None)
+    }
+
+    "replace the cached state of the same entity" in {
+      cache.put("test-3", 1L, "a")
+      cache.put("test-3", 2L, "b")
+      cache.cachedStates should ===(1)
+      cache.take("test-3") should ===(Some(PassivatedStateCache.CachedState(2L, "b")))
+      cache.size should ===(0L)
+    }
+
+    "compress the states" in {
+      val state = "abc" * 1000
+      cache.put("test-4", 1L, state)
+      cache.size should be < 1024L
+      cache.take("test-4") should ===(Some(PassivatedStateCache.CachedState(1L, state)))
+    }
+
+    "store a state in as many blocks as it needs" in {
+      val state = scala.util.Random.alphanumeric.take(200).mkString
+      cache.put("test-9", 1L, state)
+      cache.size should be > 64L
+      cache.size % 64L should ===(0L)
+      cache.take("test-9") should ===(Some(PassivatedStateCache.CachedState(1L, state)))
+      cache.size should ===(0L)
+    }
+
+    "evict the least recently cached states when the size is exceeded" in {
+      val random = new scala.util.Random(1)
+      // not compressible
+      def state() = random.alphanumeric.take(300).mkString
+      val evictionsBefore = cache.evictions
+      cache.put("test-5", 1L, state())
+      cache.put("test-6", 1L, state())
+      cache.put("test-7", 1L, state())
+      cache.put("test-8", 1L, state())
+      cache.size should be <= 1024L
+      cache.evictions - evictionsBefore should ===(1L)
+      cache.take("test-5") should ===(None)
+      cache.take("test-8").map(_.sequenceNr) should ===(Some(1L))
+    }
+
+  }
+
+}
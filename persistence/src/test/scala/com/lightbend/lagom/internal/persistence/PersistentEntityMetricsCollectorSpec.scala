@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import com.lightbend.lagom.javadsl.persistence.ActorSystemSpec
+
+import scala.collection.JavaConverters._
+
+class PersistentEntityMetricsCollectorSpec extends ActorSystemSpec {
+
+  "PersistentEntityMetricsCollector" must {
+
+    "keep the metrics of each entity type" in {
+      val collector = PersistentEntityMetricsCollector(system)
+      val metrics = collector.entityTypeMetrics("order")
+      collector.entityTypeMetrics("order") should be theSameInstanceAs metrics
+      collector.entityTypeMetrics("customer").onActivated()
+      collector.stats.asScala.map(_.getEntityTypeName) should ===(Seq("customer", "order"))
+    }
+
+    "record the evictions, queued recoveries and snapshot sizes" in {
+      val metrics = PersistentEntityMetricsCollector(system).entityTypeMetrics("invoice")
+      metrics.onEvicted()
+      metrics.onEvicted()
+      metrics.onRecoveryQueued()
+      metrics.onRecoveryQueued()
+      metrics.onRecoveryQueued()
+      metrics.onRecoveryDequeued(1000L)
+      metrics.onSnapshotSaved(100L)
+      metrics.onSnapshotSaved(300L)
+
+      val stats = metrics.stats
+      stats.getEvictions should ===(2L)
+      stats.getQueuedRecoveries should ===(2L)
+      stats.getRecoveryWaitNanos.getCount should ===(1L)
+      stats.getSnapshotSizeBytes.getCount should ===(2L)
+      stats.getSnapshotSizeBytes.getMax should ===(300L)
+    }
+  }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.{ Optional, UUID }
+import java.util.concurrent.CompletableFuture
+
+import akka.{ Done, NotUsed }
+import akka.actor.ActorRef
+import akka.japi.Pair
+import akka.stream.{ ActorMaterializer, OverflowStrategy }
+import akka.stream.scaladsl.{ Flow, Source }
+import akka.stream.testkit.TestPublisher
+import akka.stream.testkit.scaladsl.TestSource
+import com.lightbend.lagom.internal.persistence.RecentEventsCache.{ RecentEvent, TagBuffer }
+import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
+import com.lightbend.lagom.internal.persistence.cluster.ClusterStartupTask
+import com.lightbend.lagom.internal.persistence.cluster.ClusterStartupTaskActor.Execute
+import com.lightbend.lagom.internal.spi.{ ReadSideMetrics, ReadSideMetricsProvider }
+import com.lightbend.lagom.javadsl.persistence._
+import org.pcollections.{ PSequence, TreePVector }
+
+import scala.concurrent.duration._
+
+class ReadSideCatchUpSpec extends ActorSystemSpec {
+
+  private implicit val mat = ActorMaterializer()
+
+  private val tag = AggregateEventTag.of(classOf[TestEntity.Evt])
+
+  // a time based UUID of the given time, in milliseconds since the epoch
+  private def timeBasedUUID(millis: Long): Offset = {
+    val t = millis * 10000 + 0x01B21DD213814000L
+    val msb = (t << 32) | ((t & 0xFFFF00000000L) >>> 16) | 0x1000L | ((t >>> 48) & 0x0FFFL)
+    Offset.timeBasedUUID(new UUID(msb, 0x8000000000000000L))
+  }
+
+  private def event(offset: Offset) = Pair.create[TestEntity.Evt, Offset](new TestEntity.Appended("1", "A"), offset)
+
+  // sends the actor that the events of each started stream are sent to, to the test actor
+  private def eventStream(tag: AggregateEventTag[TestEntity.Evt], offset: Offset): akka.stream.javadsl.Source[Pair[TestEntity.Evt, Offset], NotUsed] =
+    Source.actorRef[Pair[TestEntity.Evt, Offset]](10, OverflowStrategy.fail)
+      .mapMaterializedValue { ref => testActor ! ref; NotUsed }
+      .asJava
+
+  // `startOffset` is the stored offset
+  private class Processor(startOffset: Offset = Offset.NONE) extends ReadSideProcessor[TestEntity.Evt] {
+    override def buildHandler() = new ReadSideProcessor.ReadSideHandler[TestEntity.Evt] {
+      override def prepare(tag: AggregateEventTag[TestEntity.Evt]) = CompletableFuture.completedFuture(startOffset)
+
+      private def flow(mode: String) = Flow[Pair[TestEntity.Evt, Offset]].map { pair =>
+        testActor ! mode
+        Done.getInstance()
+      }.asJava
+
+      override def handle() = flow("live")
+      override def handleCatchUp() =
+        Optional.of[akka.stream.javadsl.Flow[Pair[TestEntity.Evt, Offset], Done, _]](flow("catch-up"))
+    }
+
+    override def aggregateTags(): PSequence[AggregateEventTag[TestEntity.Evt]] = TreePVector.singleton(tag)
+  }
+
+  private val metricsProvider = new ReadSideMetricsProvider {
+    override def start(readSideName: String, tag: String): ReadSideMetrics = new ReadSideMetrics {
+      override def onStarted(): Unit = ()
+      override def onEventsHandled(eventCount: Int, handleNanos: Long, offset: String, lagMillis: Long): Unit = ()
+      override def onCatchUpStarted(lagMillis: Long): Unit = testActor ! "started"
+      override def onCatchUpCompleted(lagMillis: Long, catchUpNanos: Long): Unit = testActor ! "completed"
+    }
+  }
+
+  "A read side with a catch-up handler" must {
+
+    "switch to the catch-up flow when it is behind, and back when it has caught up" in {
+      val readSide = system.actorOf(ReadSideActor.props[TestEntity.Evt](
+        () => new Processor, eventStream, Map(tag.tag -> tag), new ClusterStartupTask(testActor), 20.seconds,
+        "test", ReadSideActor.CatchUpSettings(1.minute, 10.seconds, 100.millis), metricsProvider,
+        () => None
+      ))
+
+      readSide ! EnsureActive(tag.tag)
+      expectMsg(Execute)
+      readSide ! Done
+
+      val live = expectMsgType[ActorRef]
+      live ! event(timeBasedUUID(System.currentTimeMillis() - 1.hour.toMillis))
+      expectMsg("live")
+      expectMsg("started")
+
+      val catchingUp = expectMsgType[ActorRef]
+      catchingUp ! event(timeBasedUUID(System.currentTimeMillis() - 2.minutes.toMillis))
+      expectMsg("catch-up")
+      expectNoMsg(300.millis)
+      catchingUp ! event(timeBasedUUID(System.currentTimeMillis()))
+      expectMsg("catch-up")
+      expectMsg("completed")
+
+      val liveAgain = expectMsgType[ActorRef]
+      liveAgain ! event(timeBasedUUID(System.currentTimeMillis()))
+      expectMsg("live")
+
+      system.stop(readSide)
+    }
+
+    "stay on the live flow when it has caught up and no more events arrive" in {
+      val readSide = system.actorOf(ReadSideActor.props[TestEntity.Evt](
+        () => new Processor, eventStream, Map(tag.tag -> tag), new ClusterStartupTask(testActor), 20.seconds,
+        "test", ReadSideActor.CatchUpSettings(500.millis, 200.millis, 100.millis), metricsProvider,
+        () => None
+      ))
+
+      readSide ! EnsureActive(tag.tag)
+      expectMsg(Execute)
+      readSide ! Done
+
+      val live = expectMsgType[ActorRef]
+      live ! event(timeBasedUUID(System.currentTimeMillis()))
+      expectMsg("live")
+      // longer than the lag threshold after the time of the last event
+      expectNoMsg(1.second)
+
+      system.stop(readSide)
+    }
+
+    "switch back to the live flow when the catch-up stream is idle" in {
+      val readSide = system.actorOf(ReadSideActor.props[TestEntity.Evt](
+        () => new Processor, eventStream, Map(tag.tag -> tag), new ClusterStartupTask(testActor), 20.seconds,
+        "test", ReadSideActor.CatchUpSettings(1.minute, 500.millis, 100.millis), metricsProvider,
+        () => None
+      ))
+
+      readSide ! EnsureActive(tag.tag)
+      expectMsg(Execute)
+      readSide ! Done
+
+      val live = expectMsgType[ActorRef]
+      live ! event(timeBasedUUID(System.currentTimeMillis() - 1.hour.toMillis))
+      expectMsg("live")
+      expectMsg("started")
+
+      val catchingUp = expectMsgType[ActorRef]
+      catchingUp ! event(timeBasedUUID(System.currentTimeMillis() - 2.minutes.toMillis))
+      expectMsg("catch-up")
+      expectMsg("completed")
+      expectMsgType[ActorRef]
+
+      system.stop(readSide)
+    }
+
+    "measure the lag of recent events from when they were persisted, not from their offset" in {
+      val buffer = new TagBuffer(10)
+      // the journal query of a quiet tag, with the recent events of this node
+      val recentEventStream = (_: AggregateEventTag[TestEntity.Evt], offset: Offset) =>
+        TestSource.probe[Pair[RecentEvent, Offset]]
+          .mapMaterializedValue { probe => testActor ! probe; NotUsed }
+          .via(new RecentEventsStage(buffer, offset, capacity = 10))
+          .map(pair => Pair.create(pair.first.asInstanceOf[TestEntity.Evt], pair.second))
+          .asJava
+      val lagProvider = new ReadSideMetricsProvider {
+        override def start(readSideName: String, tag: String): ReadSideMetrics = new ReadSideMetrics {
+          override def onStarted(): Unit = ()
+          override def onEventsHandled(eventCount: Int, handleNanos: Long, offset: String, lagMillis: Long): Unit =
+            testActor ! lagMillis
+          override def onCatchUpStarted(lagMillis: Long): Unit = testActor ! "started"
+          override def onCatchUpCompleted(lagMillis: Long, catchUpNanos: Long): Unit = testActor ! "completed"
+        }
+      }
+      // the stored offset is an hour old
+      val storedOffset = timeBasedUUID(System.currentTimeMillis() - 1.hour.toMillis)
+      val readSide = system.actorOf(ReadSideActor.props[TestEntity.Evt](
+        () => new Processor(storedOffset), recentEventStream, Map(tag.tag -> tag), new ClusterStartupTask(testActor),
+        20.seconds, "test", ReadSideActor.CatchUpSettings(1.minute, 10.seconds, 100.millis), lagProvider,
+        () => None
+      ))
+
+      readSide ! EnsureActive(tag.tag)
+      expectMsg(Execute)
+      readSide ! Done
+
+      val journal = expectMsgType[TestPublisher.Probe[Pair[RecentEvent, Offset]]]
+      // the stage has been started when it requests the first journal event
+      journal.expectRequest()
+      buffer.add(RecentEvent("TestEntity|1", 1, new TestEntity.Appended("1", "A")))
+      expectMsg("live")
+      expectMsgType[java.lang.Long].longValue should be < 10.seconds.toMillis
+      buffer.add(RecentEvent("TestEntity|1", 2, new TestEntity.Appended("1", "B")))
+      expectMsg("live")
+      expectMsgType[java.lang.Long].longValue should be < 10.seconds.toMillis
+      // stays on the live flow
+      expectNoMsg(500.millis)
+
+      system.stop(readSide)
+    }
+
+    "not switch for offsets without time" in {
+      val readSide = system.actorOf(ReadSideActor.props[TestEntity.Evt](
+        () => new Processor, eventStream, Map(tag.tag -> tag), new ClusterStartupTask(testActor), 20.seconds,
+        "test", ReadSideActor.CatchUpSettings(1.minute, 10.seconds, 100.millis), metricsProvider,
+        () => None
+      ))
+
+      readSide ! EnsureActive(tag.tag)
+      expectMsg(Execute)
+      readSide ! Done
+
+      val live = expectMsgType[ActorRef]
+      live ! event(Offset.sequence(1))
+      expectMsg("live")
+      expectNoMsg(300.millis)
+
+      system.stop(readSide)
+    }
+  }
+
+}
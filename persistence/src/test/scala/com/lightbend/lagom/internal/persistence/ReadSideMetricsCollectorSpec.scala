@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import com.lightbend.lagom.internal.persistence.ReadSideMetricsCollector.EventRate
+import com.lightbend.lagom.javadsl.persistence.ActorSystemSpec
+
+class ReadSideMetricsCollectorSpec extends ActorSystemSpec {
+
+  "EventRate" must {
+
+    "count the events of the complete seconds within the window" in {
+      val rate = new EventRate(10)
+      rate.record(100, 1000)
+      rate.record(50, 1005)
+      rate.record(30, 1010)
+      // 1010 is not complete yet
+      rate.perSecond(1010) should ===(15.0)
+      // 1000 is outside of the window
+      rate.perSecond(1011) should ===(8.0)
+      rate.perSecond(1100) should ===(0.0)
+    }
+
+    "reuse the slot of a second that is outside of the window" in {
+      val rate = new EventRate(10)
+      rate.record(100, 1000)
+      rate.record(7, 1011)
+      rate.perSecond(1012) should ===(0.7)
+    }
+  }
+
+  "ReadSideMetricsCollector" must {
+
+    "keep the metrics of each tag of each read side" in {
+      val collector = ReadSideMetricsCollector(system)
+      val metrics = collector.tagMetrics("orders", "tag1")
+      collector.tagMetrics("orders", "tag1") should be theSameInstanceAs metrics
+      collector.tagMetrics("orders", "tag0").onStarted()
+
+      metrics.onStarted()
+      metrics.onStarted()
+      metrics.onEventsHandled(3, 2000000L, "17", -1L)
+      metrics.onEventsHandled(1, 1000000L, "18", -1L)
+      metrics.onCatchUpStarted(600000L)
+
+      val stats = collector.stats
+      stats.size should ===(2)
+      stats.get(0).getTag should ===("tag0")
+      val s = stats.get(1)
+      s.getReadSideName should ===("orders")
+      s.getStarts should ===(2L)
+      s.getHandledEvents should ===(4L)
+      s.getLastOffset should ===("18")
+      s.getLagMillis should ===(-1L)
+      s.isCatchingUp should ===(true)
+      s.getCatchUps should ===(1L)
+      s.getHandleNanos.getCount should ===(2L)
+      s.getHandleNanos.getMax should ===(2000000L)
+    }
+  }
+
+}
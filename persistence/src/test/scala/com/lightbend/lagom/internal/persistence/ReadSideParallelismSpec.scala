@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+
+import akka.Done
+import akka.japi.Pair
+import akka.pattern.after
+import akka.stream.ActorMaterializer
+import akka.stream.scaladsl.{ Sink, Source }
+import com.lightbend.lagom.javadsl.persistence._
+
+import scala.collection.JavaConverters._
+import scala.concurrent.{ Await, Future }
+import scala.concurrent.duration._
+
+class ReadSideParallelismSpec extends ActorSystemSpec {
+
+  private implicit val mat = ActorMaterializer()
+  import system.dispatcher
+
+  // the events of 3 entities, interleaved
+  private val events = (0 until 30).toVector.map { i =>
+    Pair.create[TestEntity.Evt, Offset](new TestEntity.Appended(s"entity-${i % 3}", i.toString), Offset.sequence(i))
+  }
+
+  private val parallelism = ReadSideParallelism[TestEntity.Evt](4, (e: TestEntity.Evt) => e.getEntityId)
+
+  "ReadSideParallelism" must {
+
+    "handle the events of an entity in order, and emit the events in the order of the stream" in {
+      val handled = new ConcurrentLinkedQueue[TestEntity.Appended]
+      val inProgress = new AtomicInteger
+      val maxInProgress = new AtomicInteger
+
+      def handle(pair: Pair[TestEntity.Evt, Offset]): Future[Done] = {
+        val n = inProgress.incrementAndGet()
+        maxInProgress.synchronized {
+          if (n > maxInProgress.get) maxInProgress.set(n)
+        }
+        // the later events of the stream complete first
+        after((30 - pair.second.asInstanceOf[Offset.Sequence].value).millis, system.scheduler) {
+          handled.add(pair.first.asInstanceOf[TestEntity.Appended])
+          inProgress.decrementAndGet()
+          Future.successful(Done.getInstance())
+        }
+      }
+
+      val emitted = Await.result(Source(events).via(parallelism.flow(handle)).runWith(Sink.seq), 10.seconds)
+
+      emitted should ===(events)
+      handled.asScala.toVector.groupBy(_.getEntityId).foreach {
+        case (entityId, entityEvents) =>
+          entityEvents.map(_.getElement) should ===(events.map(_.first.asInstanceOf[TestEntity.Appended])
+            .filter(_.getEntityId == entityId).map(_.getElement))
+      }
+      maxInProgress.get should be > 1
+      maxInProgress.get should be <= 3
+    }
+
+    "fail the stream when handling an event fails" in {
+      val failed = parallelism.flow { pair =>
+        if (pair.second == Offset.sequence(5)) Future.failed(new IllegalStateException("failed"))
+        else Future.successful(Done.getInstance())
+      }
+      intercept[IllegalStateException] {
+        Await.result(Source(events).via(failed).runWith(Sink.seq), 10.seconds)
+      }
+    }
+  }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.UUID
+
+import akka.Done
+import akka.japi.Pair
+import akka.stream.ActorMaterializer
+import akka.stream.scaladsl.{ Flow, Source }
+import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
+import com.lightbend.lagom.internal.persistence.cluster.ClusterStartupTask
+import com.lightbend.lagom.internal.persistence.cluster.ClusterStartupTaskActor.Execute
+import com.lightbend.lagom.javadsl.persistence._
+import com.typesafe.config.ConfigFactory
+import org.pcollections.{ PSequence, TreePVector }
+
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+class ReadSideRebuildSpec extends ActorSystemSpec(ConfigFactory.parseString("""
+  akka.persistence.journal.plugin = "akka.persistence.journal.inmem"
+  akka.persistence.snapshot-store.plugin = "akka.persistence.snapshot-store.local"
+  akka.persistence.snapshot-store.local.dir = "target/snapshots-ReadSideRebuildSpec"
+  """)) {
+
+  private implicit val mat = ActorMaterializer()
+
+  private val tag = AggregateEventTag.of(classOf[TestEntity.Evt])
+
+  // a time based UUID of the given time, in milliseconds since the epoch
+  private def timeBasedUUID(millis: Long): Offset = {
+    val t = millis * 10000 + 0x01B21DD213814000L
+    val msb = (t << 32) | ((t & 0xFFFF00000000L) >>> 16) | 0x1000L | ((t >>> 48) & 0x0FFFL)
+    Offset.timeBasedUUID(new UUID(msb, 0x8000000000000000L))
+  }
+
+  // returns the current value of `offset` as the stored offset
+  private class Processor(offset: () => Offset) extends ReadSideProcessor[TestEntity.Evt] {
+    override def buildHandler() = new ReadSideProcessor.ReadSideHandler[TestEntity.Evt] with ReadSideRebuild.OffsetReader[TestEntity.Evt] {
+      override def readOffset(tag: AggregateEventTag[TestEntity.Evt]): Future[Offset] = Future.successful(offset())
+      override def handle() = Flow[Pair[TestEntity.Evt, Offset]].map(_ => Done.getInstance()).asJava
+    }
+
+    override def aggregateTags(): PSequence[AggregateEventTag[TestEntity.Evt]] = TreePVector.singleton(tag)
+  }
+
+  private def rebuildProps(rebuildName: String, rebuildOffset: () => Offset, swap: () => Future[Done]) =
+    ReadSideRebuildActor.props[TestEntity.Evt](
+      "test", rebuildName, () => new Processor(() => Offset.sequence(10)), () => new Processor(rebuildOffset),
+      List(tag), swap, testActor, ReadSideRebuild.Settings(100, 100.millis, 30.seconds)
+    )
+
+  private def swapHook(): Future[Done] = {
+    testActor ! "swap"
+    Future.successful(Done.getInstance())
+  }
+
+  private def acknowledgeRetire(): Unit = {
+    lastSender ! ReadSideActor.Retired(tag.tag)
+    // a retirement that was sent again before the acknowledgement arrived
+    receiveWhile(200.millis) { case ReadSideActor.Retire(_) => }
+  }
+
+  "ReadSideRebuild" must {
+
+    "have caught up with sequence offsets that are at least those of the registered processor" in {
+      ReadSideRebuild.caughtUp(Offset.sequence(10), Offset.sequence(10), 30.seconds) should ===(true)
+      ReadSideRebuild.caughtUp(Offset.sequence(11), Offset.sequence(10), 30.seconds) should ===(true)
+      ReadSideRebuild.caughtUp(Offset.sequence(9), Offset.sequence(10), 30.seconds) should ===(false)
+      ReadSideRebuild.caughtUp(Offset.NONE, Offset.sequence(10), 30.seconds) should ===(false)
+      ReadSideRebuild.caughtUp(Offset.NONE, Offset.NONE, 30.seconds) should ===(true)
+    }
+
+    "have caught up with time based UUID offsets within the live window of those of the registered processor" in {
+      val now = System.currentTimeMillis()
+      ReadSideRebuild.caughtUp(timeBasedUUID(now - 10.seconds.toMillis), timeBasedUUID(now), 30.seconds) should ===(true)
+      ReadSideRebuild.caughtUp(timeBasedUUID(now - 1.minute.toMillis), timeBasedUUID(now), 30.seconds) should ===(false)
+    }
+
+    "only rebuild processors whose handlers read their stored offsets" in {
+      val processor = new ReadSideProcessor[TestEntity.Evt] {
+        override def buildHandler() = new ReadSideProcessor.ReadSideHandler[TestEntity.Evt] {
+          override def handle() = Flow[Pair[TestEntity.Evt, Offset]].map(_ => Done.getInstance()).asJava
+        }
+        override def aggregateTags(): PSequence[AggregateEventTag[TestEntity.Evt]] = TreePVector.singleton(tag)
+      }
+      intercept[IllegalArgumentException](ReadSideRebuild.offsetReader(processor))
+    }
+
+    "swap and retire the registered processor when the rebuild has caught up" in {
+      @volatile var rebuildOffset: Offset = Offset.sequence(5)
+      val rebuild = system.actorOf(rebuildProps("test-v2", () => rebuildOffset, swapHook _))
+
+      expectNoMsg(300.millis)
+      rebuildOffset = Offset.sequence(10)
+      expectMsg("swap")
+      expectMsg(ReadSideActor.Retire(tag.tag))
+      acknowledgeRetire()
+      // not sent again once acknowledged
+      expectNoMsg(300.millis)
+
+      system.stop(rebuild)
+    }
+
+    "send the retirement again until it is acknowledged" in {
+      val rebuild = system.actorOf(rebuildProps("test-v3", () => Offset.sequence(10), swapHook _))
+
+      expectMsg("swap")
+      expectMsg(ReadSideActor.Retire(tag.tag))
+      expectMsg(ReadSideActor.Retire(tag.tag))
+      acknowledgeRetire()
+      expectNoMsg(300.millis)
+
+      system.stop(rebuild)
+    }
+
+    "retire the registered processor after a restart without swapping again" in {
+      val rebuild = system.actorOf(rebuildProps("test-v4", () => Offset.sequence(10), swapHook _))
+
+      expectMsg("swap")
+      expectMsg(ReadSideActor.Retire(tag.tag))
+      acknowledgeRetire()
+      watch(rebuild)
+      system.stop(rebuild)
+      expectTerminated(rebuild)
+
+      val restarted = system.actorOf(rebuildProps("test-v4", () => Offset.sequence(10), swapHook _))
+      expectMsg(ReadSideActor.Retire(tag.tag))
+      acknowledgeRetire()
+      expectNoMsg(300.millis)
+
+      // a tag actor of the registered processor that is started again
+      restarted ! ReadSideRebuild.CheckRetired(tag.tag)
+      expectMsg(ReadSideActor.Retire(tag.tag))
+
+      system.stop(restarted)
+    }
+
+    "retry the swap when it fails" in {
+      @volatile var attempts = 0
+      val rebuild = system.actorOf(rebuildProps("test-v5", () => Offset.sequence(10), () => {
+        attempts += 1
+        testActor ! "swap"
+        if (attempts == 1) Future.failed(new IllegalStateException("swap failed"))
+        else Future.successful(Done.getInstance())
+      }))
+
+      expectMsg("swap")
+      expectMsg("swap")
+      expectMsg(ReadSideActor.Retire(tag.tag))
+      acknowledgeRetire()
+
+      system.stop(rebuild)
+    }
+
+    "check with the rebuild whether a started tag actor of the registered processor is retired" in {
+      val eventStream = (_: AggregateEventTag[TestEntity.Evt], _: Offset) =>
+        Source.empty[Pair[TestEntity.Evt, Offset]].asJava
+      val readSide = system.actorOf(ReadSideActor.props[TestEntity.Evt](
+        () => new Processor(() => Offset.NONE), eventStream, Map(tag.tag -> tag), new ClusterStartupTask(testActor),
+        20.seconds, "test", ReadSideActor.CatchUpSettings(5.minutes, 30.seconds, 5.seconds), NoopReadSideMetricsProvider,
+        () => Some(testActor)
+      ))
+
+      readSide ! EnsureActive(tag.tag)
+      expectMsg(ReadSideRebuild.CheckRetired(tag.tag))
+      expectMsg(Execute)
+      readSide ! ReadSideActor.Retire(tag.tag)
+      expectMsg(ReadSideActor.Retired(tag.tag))
+
+      system.stop(readSide)
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import akka.japi.Pair
+import akka.stream.ActorMaterializer
+import akka.stream.scaladsl.{ Flow, Keep }
+import akka.stream.testkit.scaladsl.{ TestSink, TestSource }
+import com.lightbend.lagom.internal.persistence.RecentEventsCache.{ RecentEvent, TagBuffer }
+import com.lightbend.lagom.javadsl.persistence.{ ActorSystemSpec, Offset }
+
+import scala.concurrent.duration._
+
+class RecentEventsStageSpec extends ActorSystemSpec {
+
+  private implicit val mat = ActorMaterializer()
+
+  private def run(buffer: TagBuffer) =
+    TestSource.probe[Pair[RecentEvent, Offset]]
+      .via(Flow.fromGraph(new RecentEventsStage(buffer, Offset.sequence(0), capacity = 10)))
+      .map(pair => (pair.first, pair.second))
+      .toMat(TestSink.probe[(Any, Offset)])(Keep.both)
+      .run()
+
+  private def journalEvent(persistenceId: String, seqNr: Long, offset: Long) =
+    Pair.create(RecentEvent(persistenceId, seqNr, s"$persistenceId-$seqNr"), Offset.sequence(offset))
+
+  "RecentEventsStage" must {
+
+    "emit recent events with the offset of the journal, and drop them from the journal" in {
+      val buffer = new TagBuffer(10)
+      val (journal, events) = run(buffer)
+      events.request(10)
+      journal.sendNext(journalEvent("a", 1, 5))
+      events.expectNext(("a-1", Offset.sequence(5)))
+
+      buffer.add(RecentEvent("a", 2, "a-2"))
+      events.expectNext(("a-2", Offset.sequence(5)))
+
+      // found by the journal query later
+      journal.sendNext(journalEvent("a", 2, 6))
+      journal.sendNext(journalEvent("b", 3, 7))
+      events.expectNext(("b-3", Offset.sequence(7)))
+    }
+
+    "emit the first event of an entity from the buffer" in {
+      val buffer = new TagBuffer(10)
+      val (journal, events) = run(buffer)
+      events.request(10)
+      // the stage has been started when it requests the first journal event
+      journal.expectRequest()
+      buffer.add(RecentEvent("c", 1, "c-1"))
+      events.expectNext(("c-1", Offset.sequence(0)))
+    }
+
+    "keep recent events until the journal has emitted the previous event of the entity" in {
+      val buffer = new TagBuffer(10)
+      val (journal, events) = run(buffer)
+      events.request(10)
+      // the stage has been started when it requests the first journal event
+      journal.expectRequest()
+      buffer.add(RecentEvent("a", 3, "a-3"))
+      buffer.add(RecentEvent("a", 4, "a-4"))
+      events.expectNoMsg(200.millis)
+
+      journal.sendNext(journalEvent("a", 2, 8))
+      events.expectNext(("a-2", Offset.sequence(8)))
+      events.expectNext(("a-3", Offset.sequence(8)))
+      events.expectNext(("a-4", Offset.sequence(8)))
+    }
+
+    "only emit the events that are persisted after the stream was started" in {
+      val buffer = new TagBuffer(10)
+      buffer.add(RecentEvent("d", 1, "d-1"))
+      val (journal, events) = run(buffer)
+      events.request(10)
+      journal.sendNext(journalEvent("d", 1, 9))
+      events.expectNext(("d-1", Offset.sequence(9)))
+    }
+  }
+
+  "TagBuffer" must {
+
+    "return the events that have not been overwritten" in {
+      val buffer = new TagBuffer(3)
+      (1 to 5).foreach(i => buffer.add(RecentEvent("a", i, i)))
+      val (events, next) = buffer.readFrom(0)
+      events.map(_.sequenceNr) should ===(Vector(3L, 4L, 5L))
+      next should ===(5L)
+      buffer.readFrom(4)._1.map(_.sequenceNr) should ===(Vector(5L))
+    }
+  }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import java.util.UUID
+
+import com.lightbend.lagom.javadsl.persistence.{ AggregateEventTag, Offset, TestEntity }
+import org.scalatest.{ Matchers, WordSpec }
+
+import scala.collection.JavaConverters._
+
+class ReshardedOffsetSpec extends WordSpec with Matchers {
+
+  private def timeUuid(timestamp: Long, node: Long): UUID = {
+    // version 1 UUID with the 60 bit timestamp in the most significant bits
+    val msb = ((timestamp & 0xFFFFFFFFL) << 32) | (((timestamp >>> 32) & 0xFFFFL) << 16) | 0x1000L |
+      ((timestamp >>> 48) & 0x0FFFL)
+    new UUID(msb, 0x8000000000000000L | node)
+  }
+
+  "ReshardedOffset" must {
+
+    "derive the lowest sequence offset" in {
+      ReshardedOffset.derive(List(Offset.sequence(17), Offset.sequence(5), Offset.sequence(9))) should ===(Offset.sequence(5))
+    }
+
+    "derive the earliest time based offset" in {
+      // the later UUID is lower in the order of UUID.compareTo
+      val earlier = timeUuid(0x100000010L, 1L)
+      val later = timeUuid(0x200000005L, 1L)
+      ReshardedOffset.derive(List(Offset.timeBasedUUID(later), Offset.timeBasedUUID(earlier))) should ===(Offset.timeBasedUUID(earlier))
+    }
+
+    "derive no offset when a previous tag has no offset" in {
+      ReshardedOffset.derive(List(Offset.sequence(17), Offset.NONE, Offset.sequence(9))) should ===(Offset.NONE)
+      ReshardedOffset.derive(Nil) should ===(Offset.NONE)
+    }
+  }
+
+  "AggregateEventTag.reshardedShards" must {
+
+    "refer to one previous tag when the number of shards is a multiple of the previous" in {
+      val tags = AggregateEventTag.reshardedShards(classOf[TestEntity.Evt], "tag", 8, 4).asScala
+      tags.map(_.tag) should ===((0 until 8).map("tag" + _))
+      tags.map(_.previousTags.asScala.toList) should ===(
+        List(Nil, Nil, Nil, Nil, List("tag0"), List("tag1"), List("tag2"), List("tag3"))
+      )
+    }
+
+    "refer to all other previous tags otherwise" in {
+      val tags = AggregateEventTag.reshardedShards(classOf[TestEntity.Evt], "tag", 3, 2).asScala
+      tags.map(_.previousTags.asScala.toList) should ===(
+        List(List("tag1"), List("tag0"), List("tag0", "tag1"))
+      )
+    }
+
+    "select the same tags as the new number of shards" in {
+      val tags = AggregateEventTag.reshardedShards(classOf[TestEntity.Evt], "tag", 8, 4).asScala
+      tags should ===(AggregateEventTag.shards(classOf[TestEntity.Evt], "tag", 8).asScala)
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import org.scalatest.{ Matchers, WordSpec }
+
+class TimingWheelSpec extends WordSpec with Matchers {
+
+  private def expire(wheel: TimingWheel[String], nowMillis: Long): Vector[String] = {
+    val b = Vector.newBuilder[String]
+    wheel.advance(nowMillis)(b += _)
+    b.result()
+  }
+
+  "TimingWheel" must {
+
+    "expire keys when their deadline has passed" in {
+      val wheel = new TimingWheel[String](10, 8, 0)
+      wheel.add("a", 25)
+      wheel.add("b", 40)
+      expire(wheel, 29) should ===(Vector.empty)
+      expire(wheel, 30) should ===(Vector("a"))
+      expire(wheel, 39) should ===(Vector.empty)
+      expire(wheel, 40) should ===(Vector("b"))
+      wheel.isEmpty should ===(true)
+    }
+
+    "expire keys with a passed deadline on the next tick" in {
+      val wheel = new TimingWheel[String](10, 8, 100)
+      wheel.add("a", 50)
+      expire(wheel, 105) should ===(Vector.empty)
+      expire(wheel, 110) should ===(Vector("a"))
+    }
+
+    "cascade keys from the higher levels" in {
+      val wheel = new TimingWheel[String](1, 4, 0)
+      wheel.add("c", 1000)
+      wheel.add("b", 70)
+      wheel.add("a", 5)
+      expire(wheel, 69) should ===(Vector("a"))
+      expire(wheel, 999) should ===(Vector("b"))
+      expire(wheel, 1000) should ===(Vector("c"))
+    }
+
+    "expire the keys in deadline order" in {
+      val wheel = new TimingWheel[String](1, 4, 0)
+      val deadlines = (1 to 200).map(n => s"k$n" -> ((n * 7919L) % 5000 + 1)).toMap
+      deadlines.foreach { case (key, deadline) => wheel.add(key, deadline) }
+      val expired = Vector.newBuilder[String]
+      (0L to 5000L by 13).foreach { now =>
+        wheel.advance(now) { key =>
+          deadlines(key) should be <= now
+          expired += key
+        }
+      }
+      expired.result() should ===(deadlines.toVector.sortBy(_._2).map(_._1))
+    }
+
+    "replace and remove keys" in {
+      val wheel = new TimingWheel[String](10, 8, 0)
+      wheel.add("a", 20)
+      wheel.add("b", 20)
+      wheel.add("a", 5000)
+      wheel.remove("b") should ===(true)
+      wheel.remove("c") should ===(false)
+      wheel.size should ===(1)
+      expire(wheel, 4990) should ===(Vector.empty)
+      expire(wheel, 5000) should ===(Vector("a"))
+    }
+
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import org.scalatest.{ Matchers, WordSpec }
+
+class TopKSketchSpec extends WordSpec with Matchers {
+
+  "TopKSketch" must {
+
+    "count the keys exactly while there are free counters" in {
+      val sketch = new TopKSketch(4)
+      sketch.offer("a", 1)
+      sketch.offer("b", 5)
+      sketch.offer("a", 2)
+      sketch.offer("c", 1)
+      sketch.top(2) should ===(Vector(TopKSketch.Entry("b", 5, 0), TopKSketch.Entry("a", 3, 0)))
+    }
+
+    "replace the lightest key and keep its weight as error" in {
+      val sketch = new TopKSketch(2)
+      sketch.offer("a", 10)
+      sketch.offer("b", 2)
+      sketch.offer("c", 1)
+      sketch.top(2) should ===(Vector(TopKSketch.Entry("a", 10, 0), TopKSketch.Entry("c", 3, 2)))
+    }
+
+    "find the heavy hitters among many light keys" in {
+      val sketch = new TopKSketch(20)
+      val random = new scala.util.Random(1)
+      for (_ <- 1 to 100000) {
+        if (random.nextBoolean()) sketch.offer("hot-" + random.nextInt(5), 1)
+        else sketch.offer("cold-" + random.nextInt(100000), 1)
+      }
+      val top = sketch.top(5)
+      top.map(_.key).toSet should ===((0 until 5).map("hot-" + _).toSet)
+      top.foreach(e => e.weight should be > 9000L)
+    }
+
+    "be empty after clear" in {
+      val sketch = new TopKSketch(2)
+      sketch.offer("a", 1)
+      sketch.offer("b", 1)
+      sketch.clear()
+      sketch.top(2) should ===(Vector.empty)
+      sketch.offer("c", 1)
+      sketch.top(2) should ===(Vector(TopKSketch.Entry("c", 1, 0)))
+    }
+
+  }
+
+}
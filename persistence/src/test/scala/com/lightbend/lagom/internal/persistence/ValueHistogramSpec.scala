@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.persistence
+
+import org.scalatest.{ Matchers, WordSpec }
+
+class ValueHistogramSpec extends WordSpec with Matchers {
+
+  "ValueHistogram" must {
+
+    "count small values exactly" in {
+      val histogram = new ValueHistogram
+      (1L to 10L).foreach(histogram.record)
+      val d = histogram.distribution
+      d.getCount should ===(10L)
+      d.getMin should ===(1L)
+      d.getMax should ===(10L)
+      d.getMean should ===(5.5)
+      d.getMedian should ===(5L)
+      d.getPercentile99th should ===(10L)
+    }
+
+    "approximate the percentiles of large values within 1/16" in {
+      val histogram = new ValueHistogram
+      (1L to 1000L).foreach(i => histogram.record(i * 1000L))
+      val d = histogram.distribution
+      d.getMedian.toDouble should ===(500000.0 +- 500000.0 / 16)
+      d.getPercentile98th.toDouble should ===(980000.0 +- 980000.0 / 16)
+      d.getPercentile999th.toDouble should ===(999000.0 +- 999000.0 / 16)
+      d.getMax should ===(1000000L)
+    }
+
+    "use contiguous buckets" in {
+      val values = (0L to 100000L) ++ Seq(Long.MaxValue / 2, Long.MaxValue)
+      values.map(ValueHistogram.bucket).sliding(2).foreach {
+        case Seq(a, b) => (b - a) should be <= 1
+      }
+      values.foreach { v =>
+        val b = ValueHistogram.bucket(v)
+        ValueHistogram.bucket(ValueHistogram.bucketValue(b)) should ===(b)
+      }
+    }
+
+    "have an empty distribution when nothing has been recorded" in {
+      new ValueHistogram().distribution.getCount should ===(0L)
+    }
+  }
+
+}
@@ -6,8 +6,15 @@ package com.lightbend.lagom.internal.persistence.protobuf
 import java.io.NotSerializableException
 
 import scala.concurrent.duration._
-import akka.actor.ExtendedActorSystem
+import akka.actor.{ Address, ExtendedActorSystem }
 import akka.serialization.SerializationExtension
+import com.lightbend.lagom.internal.persistence.{ BatchedReply, CommandEnvelopeBatch, SequencedCommand }
+import com.lightbend.lagom.internal.persistence.EntityPrewarming.EntityPrewarm
+import com.lightbend.lagom.internal.persistence.EntityResharding.{ EntityHandoff, EntityHandoffAck }
+import com.lightbend.lagom.internal.persistence.EntityTimers.{ CancelTimer, ScheduleTimer, TimerId, TimerShardSnapshot, TimerUpdated }
+import com.lightbend.lagom.internal.persistence.ReadSideActor.{ Retire, Retired }
+import com.lightbend.lagom.internal.persistence.ReadSideRebuild.{ CheckRetired, Swapped }
+import com.lightbend.lagom.internal.persistence.ShardLoadTracker.ShardLoadReport
 import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
 import com.lightbend.lagom.javadsl.persistence.ActorSystemSpec
 import com.lightbend.lagom.javadsl.persistence.CommandEnvelope
@@ -15,6 +22,7 @@ import com.lightbend.lagom.javadsl.persistence.PersistentEntity.InvalidCommandEx
 import com.lightbend.lagom.javadsl.persistence.PersistentEntity.PersistException
 import com.lightbend.lagom.javadsl.persistence.PersistentEntity.UnhandledCommandException
 import com.lightbend.lagom.javadsl.persistence.PersistentEntityRef
+import com.lightbend.lagom.javadsl.persistence.SequencedReply
 import com.lightbend.lagom.javadsl.persistence.TestEntity
 
 class PersistenceMessageSerializerSpec extends ActorSystemSpec {
@@ -37,6 +45,70 @@ class PersistenceMessageSerializerSpec extends ActorSystemSpec {
       checkSerialization(CommandEnvelope("entityId", TestEntity.Add.of("a")))
     }
 
+    "serialize CommandEnvelopeBatch" in {
+      checkSerialization(CommandEnvelopeBatch(List(
+        CommandEnvelope("entityId1", TestEntity.Add.of("a")),
+        CommandEnvelope("entityId2", TestEntity.Add.of("b"))
+      )))
+    }
+
+    "serialize BatchedReply" in {
+      checkSerialization(BatchedReply("entityId", new TestEntity.Appended("entityId", "A")))
+      checkSerialization(BatchedReply("entityId", PersistException("not stored")))
+    }
+
+    "serialize SequencedCommand" in {
+      checkSerialization(SequencedCommand(17L, TestEntity.Get.instance))
+    }
+
+    "serialize SequencedReply" in {
+      checkSerialization(SequencedReply(17L, new TestEntity.Appended("entityId", "A")))
+    }
+
+    "serialize ScheduleTimer" in {
+      checkSerialization(ScheduleTimer(TimerId("TestEntity", "entityId", "key"), 1000L, TestEntity.Add.of("a")))
+    }
+
+    "serialize CancelTimer" in {
+      checkSerialization(CancelTimer(TimerId("TestEntity", "entityId", "key")))
+    }
+
+    "serialize TimerUpdated" in {
+      checkSerialization(TimerUpdated(TimerId("TestEntity", "entityId", "key")))
+    }
+
+    "serialize TimerShardSnapshot" in {
+      checkSerialization(TimerShardSnapshot(List(
+        ScheduleTimer(TimerId("TestEntity", "entityId1", "key"), 1000L, TestEntity.Add.of("a")),
+        ScheduleTimer(TimerId("TestEntity", "entityId2", "key"), 2000L, TestEntity.Get.instance)
+      )))
+    }
+
+    "serialize EntityHandoff" in {
+      checkSerialization(EntityHandoff("entityId1", "17"))
+    }
+
+    "serialize EntityHandoffAck" in {
+      checkSerialization(EntityHandoffAck("entityId1"))
+    }
+
+    "serialize EntityPrewarm" in {
+      checkSerialization(EntityPrewarm("TestEntity", "entityId1"))
+    }
+
+    "serialize ShardLoadReport" in {
+      checkSerialization(ShardLoadReport(Address("akka.tcp", "sys", "host", 2552), 0.75,
+        Map("TestEntity" -> Map("1" -> 10.5, "2" -> 0.25), "OtherEntity" -> Map("1" -> 3.0))))
+      checkSerialization(ShardLoadReport(Address("akka.tcp", "sys", "host", 2552), -1.0, Map.empty))
+    }
+
+    "serialize the retirement of a rebuilt read side" in {
+      checkSerialization(Retire("tag1"))
+      checkSerialization(Retired("tag1"))
+      checkSerialization(CheckRetired("tag1"))
+      checkSerialization(Swapped("BlogEventProcessor-v2"))
+    }
+
     "serialize EnsureActive" in {
       checkSerialization(EnsureActive("foo"))
     }
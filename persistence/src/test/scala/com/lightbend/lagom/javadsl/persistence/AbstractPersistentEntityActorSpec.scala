@@ -7,18 +7,23 @@ import scala.collection.JavaConverters._
 import scala.concurrent.duration._
 import java.util.Optional
 
+import akka.NotUsed
 import akka.testkit.{ ImplicitSender, TestProbe }
 import akka.actor.Actor
+import akka.persistence.query.EventEnvelope
+import akka.persistence.query.scaladsl.{ CurrentEventsByPersistenceIdQuery, EventsByPersistenceIdQuery }
+import akka.stream.scaladsl.Source
 import akka.cluster.sharding.ShardRegion
 import akka.actor.Props
-import com.lightbend.lagom.internal.persistence.PersistentEntityActor
+import com.lightbend.lagom.internal.persistence.{ PersistentEntityActor, ReadReplicaActor, SequencedCommand }
+import com.lightbend.lagom.javadsl.persistence.testkit.SimulatedNullpointerException
 import org.scalatest.WordSpecLike
 
 object AbstractPersistentEntityActorSpec {
   class TestPassivationParent extends Actor {
 
     val child = context.actorOf(PersistentEntityActor.props("test", Optional.of("1"),
-      () => new TestEntity(context.system), Optional.empty(), 1.second))
+      () => new TestEntity(context.system), SnapshotPolicy.none, 1.second))
 
     def receive = {
       case ShardRegion.Passivate(stopMsg) =>
@@ -27,14 +32,40 @@ object AbstractPersistentEntityActorSpec {
         child.forward(msg)
     }
   }
+
+  /**
+   * Fails the first query of the current events, and delegates the others to the `underlying`
+   * query.
+   */
+  class FailingOnceEventsQuery(underlying: ReadReplicaActor.EventsQuery)
+    extends EventsByPersistenceIdQuery with CurrentEventsByPersistenceIdQuery {
+    @volatile private var failed = false
+
+    override def currentEventsByPersistenceId(persistenceId: String, fromSequenceNr: Long,
+                                              toSequenceNr: Long): Source[EventEnvelope, NotUsed] =
+      if (failed) underlying.currentEventsByPersistenceId(persistenceId, fromSequenceNr, toSequenceNr)
+      else {
+        failed = true
+        Source.failed(new IllegalStateException("simulated query failure"))
+      }
+
+    override def eventsByPersistenceId(persistenceId: String, fromSequenceNr: Long,
+                                       toSequenceNr: Long): Source[EventEnvelope, NotUsed] =
+      underlying.eventsByPersistenceId(persistenceId, fromSequenceNr, toSequenceNr)
+  }
 }
 
 trait AbstractPersistentEntityActorSpec { spec: ActorSystemSpec =>
 
+  /**
+   * The events by persistence id query of the journal, for the read replicas.
+   */
+  def eventsQuery: ReadReplicaActor.EventsQuery
+
   "PersistentEntityActor" must {
     "persist events" in {
       val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("1"),
-        () => new TestEntity(system), Optional.empty(), 10.seconds))
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
       p ! TestEntity.Get.instance
       val state = expectMsgType[TestEntity.State]
       state.getElements.size should ===(0)
@@ -50,7 +81,7 @@ trait AbstractPersistentEntityActorSpec { spec: ActorSystemSpec =>
 
       // start another with same persistenceId should recover state
       val p2 = system.actorOf(PersistentEntityActor.props("test", Optional.of("1"),
-        () => new TestEntity(system), Optional.empty(), 10.seconds))
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
       p2 ! TestEntity.Get.instance
       val state3 = expectMsgType[TestEntity.State]
       state3.getElements.asScala.toList should ===(List("A", "B", "C"))
@@ -58,7 +89,7 @@ trait AbstractPersistentEntityActorSpec { spec: ActorSystemSpec =>
 
     "be able to change behavior" in {
       val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("2"),
-        () => new TestEntity(system), Optional.empty(), 10.seconds))
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
       p ! TestEntity.Get.instance
       val state = expectMsgType[TestEntity.State]
       state.getMode() should ===(TestEntity.Mode.APPEND)
@@ -76,7 +107,7 @@ trait AbstractPersistentEntityActorSpec { spec: ActorSystemSpec =>
 
       // start another with same persistenceId should recover state
       val p2 = system.actorOf(PersistentEntityActor.props("test", Optional.of("2"),
-        () => new TestEntity(system), Optional.empty(), 10.seconds))
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
       p2 ! TestEntity.Get.instance
       val state3 = expectMsgType[TestEntity.State]
       state3.getMode() should ===(TestEntity.Mode.PREPEND)
@@ -99,13 +130,13 @@ trait AbstractPersistentEntityActorSpec { spec: ActorSystemSpec =>
     "notify when recovery is completed" in {
       val probe = TestProbe()
       val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("3"),
-        () => new TestEntity(system, probe.ref), Optional.empty(), 10.seconds))
+        () => new TestEntity(system, probe.ref), SnapshotPolicy.none, 10.seconds))
       probe.expectMsgType[TestEntity.AfterRecovery]
     }
 
     "save snapshots" in {
       val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("4"),
-        () => new TestEntity(system), Optional.of(3), 10.seconds))
+        () => new TestEntity(system), SnapshotPolicy.afterEvents(3), 10.seconds))
       for (n <- 1 to 10) {
         p ! TestEntity.Add.of(n.toString)
         expectMsg(new TestEntity.Appended("4", n.toString))
@@ -118,7 +149,7 @@ trait AbstractPersistentEntityActorSpec { spec: ActorSystemSpec =>
 
           val probe2 = TestProbe()
           val p2 = system.actorOf(PersistentEntityActor.props("test", Optional.of("4"),
-            () => new TestEntity(system, probe2.ref), Optional.of(3), 10.seconds))
+            () => new TestEntity(system, probe2.ref), SnapshotPolicy.afterEvents(3), 10.seconds))
           probe2.expectMsgType[TestEntity.Snapshot]
           p2 ! TestEntity.Get.instance
           val state2 = expectMsgType[TestEntity.State]
@@ -127,9 +158,28 @@ trait AbstractPersistentEntityActorSpec { spec: ActorSystemSpec =>
       }
     }
 
+    "save a snapshot when passivated" in {
+      val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("8"),
+        () => new TestEntity(system), SnapshotPolicy.none.withOnPassivation(true), 10.seconds))
+      p ! TestEntity.Add.of("a")
+      expectMsg(new TestEntity.Appended("8", "A"))
+      p ! TestEntity.Add.of("b")
+      expectMsg(new TestEntity.Appended("8", "B"))
+      watch(p)
+      p ! PersistentEntityActor.Stop
+      expectTerminated(p)
+
+      val probe2 = TestProbe()
+      val p2 = system.actorOf(PersistentEntityActor.props("test", Optional.of("8"),
+        () => new TestEntity(system, probe2.ref), SnapshotPolicy.none, 10.seconds))
+      probe2.expectMsgType[TestEntity.Snapshot]
+      p2 ! TestEntity.Get.instance
+      expectMsgType[TestEntity.State].getElements.asScala.toList should ===(List("A", "B"))
+    }
+
     "persist several events from one command" in {
       val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("5"),
-        () => new TestEntity(system), Optional.empty(), 10.seconds))
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
       p ! new TestEntity.Add("a", 3)
       expectMsg(new TestEntity.Appended("5", "A"))
       p ! TestEntity.Get.instance
@@ -137,6 +187,138 @@ trait AbstractPersistentEntityActorSpec { spec: ActorSystemSpec =>
       state2.getElements.asScala.toList should ===(List("A", "A", "A"))
     }
 
+    "persist events of queued commands with group commit" in {
+      val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("6"),
+        () => new TestEntity(system), SnapshotPolicy.afterEvents(3), 10.seconds, groupCommitMaxCommands = 10))
+      for (n <- 1 to 10)
+        p ! TestEntity.Add.of(n.toString)
+      p ! new TestEntity.Add("x", 3)
+      p ! TestEntity.Add.of(null) // failing command must not affect the others
+      p ! TestEntity.Add.of("y")
+      for (n <- 1 to 10)
+        expectMsg(new TestEntity.Appended("6", n.toString))
+      expectMsg(new TestEntity.Appended("6", "X"))
+      expectMsgType[SimulatedNullpointerException]
+      expectMsg(new TestEntity.Appended("6", "Y"))
+      p ! TestEntity.Get.instance
+      val expected = (1 to 10).map(_.toString).toList ::: List("X", "X", "X", "Y")
+      expectMsgType[TestEntity.State].getElements.asScala.toList should ===(expected)
+
+      // start another with same persistenceId should recover state
+      val p2 = system.actorOf(PersistentEntityActor.props("test", Optional.of("6"),
+        () => new TestEntity(system), SnapshotPolicy.afterEvents(3), 10.seconds, groupCommitMaxCommands = 10))
+      p2 ! TestEntity.Get.instance
+      expectMsgType[TestEntity.State].getElements.asScala.toList should ===(expected)
+    }
+
+    "answer read-only commands of a group commit when the events of the group have been stored" in {
+      val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("6b"),
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds, groupCommitMaxCommands = 10))
+      p ! TestEntity.Add.of("a")
+      p ! TestEntity.Add.of("b")
+      p ! TestEntity.Get.instance
+      expectMsg(new TestEntity.Appended("6b", "A"))
+      // not answered from the state with B before B has been stored
+      expectMsg(new TestEntity.Appended("6b", "B"))
+      expectMsgType[TestEntity.State].getElements.asScala.toList should ===(List("A", "B"))
+    }
+
+    "answer confirmed state commands without waiting for writes in progress" in {
+      val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("7"),
+        () => new TestEntity(system, null, true), SnapshotPolicy.none, 10.seconds))
+      p ! TestEntity.Add.of("a")
+      expectMsg(new TestEntity.Appended("7", "A"))
+      p ! new TestEntity.Add("b", 3)
+      p ! TestEntity.GetConfirmed.instance
+      // GetConfirmed is in the mailbox before the journal has confirmed the write, so it is
+      // answered while the write is in progress, from the state without the events of B
+      expectMsgType[TestEntity.State].getElements.asScala.toList should ===(List("A"))
+      expectMsg(new TestEntity.Appended("7", "B"))
+
+      p ! TestEntity.GetConfirmed.instance
+      expectMsgType[TestEntity.State].getElements.asScala.toList should ===(List("A", "B", "B", "B"))
+      p ! TestEntity.Get.instance
+      expectMsgType[TestEntity.State].getElements.asScala.toList should ===(List("A", "B", "B", "B"))
+    }
+
+    "reply with the sequence number to sequenced commands" in {
+      val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("9"),
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
+      p ! SequencedCommand(0L, TestEntity.Add.of("a"))
+      expectMsg(SequencedReply(1L, new TestEntity.Appended("9", "A")))
+      p ! SequencedCommand(0L, new TestEntity.Add("b", 2))
+      expectMsg(SequencedReply(3L, new TestEntity.Appended("9", "B")))
+      p ! SequencedCommand(0L, TestEntity.Get.instance)
+      expectMsgType[SequencedReply[TestEntity.State]].sequenceNr should ===(3L)
+    }
+
+    "answer read-only commands from a read replica" in {
+      val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("10"),
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
+      p ! TestEntity.Add.of("a")
+      expectMsg(new TestEntity.Appended("10", "A"))
+      p ! TestEntity.Add.of("b")
+      expectMsg(new TestEntity.Appended("10", "B"))
+
+      val replica = system.actorOf(ReadReplicaActor.props("test", Optional.of("10"),
+        () => new TestEntity(system), eventsQuery, 10.seconds))
+      replica ! SequencedCommand(2L, TestEntity.Get.instance)
+      val reply = expectMsgType[SequencedReply[TestEntity.State]](10.seconds)
+      reply.sequenceNr should ===(2L)
+      reply.reply.getElements.asScala.toList should ===(List("A", "B"))
+
+      // answered when the replica has caught up
+      replica ! SequencedCommand(3L, TestEntity.Get.instance)
+      expectNoMsg(200.millis)
+      p ! TestEntity.Add.of("c")
+      expectMsg(new TestEntity.Appended("10", "C"))
+      val reply2 = expectMsgType[SequencedReply[TestEntity.State]](10.seconds)
+      reply2.sequenceNr should ===(3L)
+      reply2.reply.getElements.asScala.toList should ===(List("A", "B", "C"))
+
+      // only read-only commands
+      replica ! SequencedCommand(0L, TestEntity.Add.of("d"))
+      expectMsgType[PersistentEntity.UnhandledCommandException]
+    }
+
+    "start a read replica from the latest snapshot" in {
+      val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("11"),
+        () => new TestEntity(system), SnapshotPolicy.afterEvents(2), 10.seconds))
+      for (n <- 1 to 3) {
+        p ! TestEntity.Add.of(n.toString)
+        expectMsg(new TestEntity.Appended("11", n.toString))
+      }
+
+      // awaitAssert because it is not guaranteed that we will see the snapshot immediately
+      within(10.seconds) {
+        awaitAssert {
+          val probe = TestProbe()
+          val replica = system.actorOf(ReadReplicaActor.props("test", Optional.of("11"),
+            () => new TestEntity(system, probe.ref), eventsQuery, 10.seconds))
+          probe.expectMsgType[TestEntity.Snapshot]
+          replica ! SequencedCommand(3L, TestEntity.Get.instance)
+          val reply = expectMsgType[SequencedReply[TestEntity.State]]
+          reply.sequenceNr should ===(3L)
+          reply.reply.getElements.asScala.toList should ===(List("1", "2", "3"))
+        }
+      }
+    }
+
+    "restart following the events of a read replica and keep the waiting commands" in {
+      val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("12"),
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
+      p ! TestEntity.Add.of("a")
+      expectMsg(new TestEntity.Appended("12", "A"))
+
+      val replica = system.actorOf(ReadReplicaActor.props("test", Optional.of("12"),
+        () => new TestEntity(system), new AbstractPersistentEntityActorSpec.FailingOnceEventsQuery(eventsQuery),
+        10.seconds, restartMinBackoff = 100.millis, restartMaxBackoff = 100.millis))
+      replica ! SequencedCommand(1L, TestEntity.Get.instance)
+      val reply = expectMsgType[SequencedReply[TestEntity.State]](10.seconds)
+      reply.sequenceNr should ===(1L)
+      reply.reply.getElements.asScala.toList should ===(List("A"))
+    }
+
     "passivate after idle" in {
       val p = system.actorOf(Props[AbstractPersistentEntityActorSpec.TestPassivationParent])
       p ! TestEntity.Add.of("a")
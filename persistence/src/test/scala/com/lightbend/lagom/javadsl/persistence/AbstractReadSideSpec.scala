@@ -14,7 +14,7 @@ import akka.testkit.ImplicitSender
 import scala.compat.java8.FutureConverters._
 import scala.concurrent.duration._
 import com.typesafe.config.ConfigFactory
-import com.lightbend.lagom.internal.persistence.{ PersistentEntityActor, ReadSideActor }
+import com.lightbend.lagom.internal.persistence.{ NoopReadSideMetricsProvider, PersistentEntityActor, ReadSideActor }
 import com.lightbend.lagom.internal.persistence.cluster.ClusterDistribution.EnsureActive
 import com.lightbend.lagom.internal.persistence.cluster.ClusterStartupTask
 import com.lightbend.lagom.internal.persistence.cluster.ClusterStartupTaskActor.Execute
@@ -49,7 +49,9 @@ trait AbstractReadSideSpec extends ImplicitSender { spec: ActorSystemSpec =>
     /* read side and injector only needed for deprecated register method */
     val readSide = system.actorOf(ReadSideActor.props[TestEntity.Evt](
       processorFactory,
-      eventStream, classOf[TestEntity.Evt], new ClusterStartupTask(testActor), 20.seconds
+      eventStream, Map(tag.tag -> tag), new ClusterStartupTask(testActor), 20.seconds, "test",
+      ReadSideActor.CatchUpSettings(5.minutes, 30.seconds, 5.seconds), NoopReadSideMetricsProvider,
+      () => None
     ))
 
     readSide ! EnsureActive(tag.tag)
@@ -73,7 +75,7 @@ trait AbstractReadSideSpec extends ImplicitSender { spec: ActorSystemSpec =>
 
     "process events and save query projection" in {
       val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("1"),
-        () => new TestEntity(system), Optional.empty(), 10.seconds))
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
       p ! TestEntity.Add.of("a")
       expectMsg(new TestEntity.Appended("1", "A"))
       p ! TestEntity.Add.of("b")
@@ -102,7 +104,7 @@ trait AbstractReadSideSpec extends ImplicitSender { spec: ActorSystemSpec =>
       val readSide = createReadSideProcessor(new TestEntity.Appended("1", "").aggregateTag())
 
       val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("1"),
-        () => new TestEntity(system), Optional.empty(), 10.seconds))
+        () => new TestEntity(system), SnapshotPolicy.none, 10.seconds))
       p ! TestEntity.Add.of("e")
       expectMsg(new TestEntity.Appended("1", "E"))
 
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.persistence
+
+import java.time.Duration
+
+import com.typesafe.config.ConfigFactory
+import org.scalatest.{ Matchers, WordSpec }
+
+class SnapshotPolicySpec extends WordSpec with Matchers {
+
+  "SnapshotPolicy.Triggers" must {
+
+    "save a snapshot after a number of events" in {
+      val policy = SnapshotPolicy.afterEvents(3)
+      policy.shouldSaveSnapshot(2, 0, Duration.ofDays(1)) should ===(false)
+      policy.shouldSaveSnapshot(3, 0, Duration.ZERO) should ===(true)
+      policy.measuresBytes should ===(false)
+    }
+
+    "save a snapshot after a number of bytes" in {
+      val policy = SnapshotPolicy.none.withAfterBytes(1000)
+      policy.measuresBytes should ===(true)
+      policy.shouldSaveSnapshot(100, 999, Duration.ZERO) should ===(false)
+      policy.shouldSaveSnapshot(1, 1000, Duration.ZERO) should ===(true)
+    }
+
+    "save a snapshot after some time" in {
+      val policy = SnapshotPolicy.none.withAfterTime(Duration.ofMinutes(1))
+      policy.shouldSaveSnapshot(1, 0, Duration.ofSeconds(59)) should ===(false)
+      policy.shouldSaveSnapshot(1, 0, Duration.ofMinutes(1)) should ===(true)
+      // nothing to save
+      policy.shouldSaveSnapshot(0, 0, Duration.ofMinutes(2)) should ===(false)
+    }
+
+    "save a snapshot on passivation when there are new events" in {
+      SnapshotPolicy.none.saveSnapshotOnPassivation(1) should ===(false)
+      val policy = SnapshotPolicy.none.withOnPassivation(true)
+      policy.saveSnapshotOnPassivation(0) should ===(false)
+      policy.saveSnapshotOnPassivation(1) should ===(true)
+    }
+
+    "be created from config" in {
+      val policy = SnapshotPolicy.fromConfig(ConfigFactory.parseString("""
+        after-events = off
+        after-bytes = 1 KiB
+        after-time = 10s
+        on-passivation = on
+        keep-snapshots = 3
+        """))
+      policy.afterEvents should ===(0)
+      policy.afterBytes should ===(1024L)
+      policy.afterTime should ===(Duration.ofSeconds(10))
+      policy.onPassivation should ===(true)
+      policy.snapshotsToKeep should ===(3)
+    }
+
+  }
+
+}
@@ -7,12 +7,20 @@ import com.codahale.metrics.Snapshot;
 import com.lightbend.lagom.internal.client.CircuitBreakerMetricsImpl;
 import com.lightbend.lagom.internal.client.CircuitBreakerMetricsProviderImpl;
 import com.lightbend.lagom.internal.spi.CircuitBreakerMetricsProvider;
+import com.lightbend.lagom.internal.spi.HotEntitiesProvider;
+import com.lightbend.lagom.internal.spi.PersistentEntityStatsProvider;
+import com.lightbend.lagom.internal.spi.ReadSideStatsProvider;
 import akka.NotUsed;
 import com.lightbend.lagom.javadsl.api.ServiceCall;
 import com.lightbend.lagom.javadsl.api.transport.NotFound;
 import com.lightbend.lagom.javadsl.server.status.CircuitBreakerStatus;
+import com.lightbend.lagom.javadsl.server.status.HotEntitiesStatus;
+import com.lightbend.lagom.javadsl.server.status.HotEntity;
 import com.lightbend.lagom.javadsl.server.status.Latency;
 import com.lightbend.lagom.javadsl.server.status.MetricsService;
+import com.lightbend.lagom.javadsl.server.status.PersistentEntityStatus;
+import com.lightbend.lagom.javadsl.server.status.ReadSideStatus;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -27,18 +35,41 @@ import akka.stream.javadsl.Source;
 public class MetricsServiceImpl implements MetricsService {
   
   private final Optional<CircuitBreakerMetricsProviderImpl> provider;
+  private final boolean statusEnabled;
+  // only bound when the persistence module is used
+  private volatile Optional<HotEntitiesProvider> hotEntitiesProvider = Optional.empty();
+  private volatile Optional<PersistentEntityStatsProvider> persistentEntityStatsProvider = Optional.empty();
+  private volatile Optional<ReadSideStatsProvider> readSideStatsProvider = Optional.empty();
 
   @Inject
   public MetricsServiceImpl(CircuitBreakerMetricsProvider metricsProvider, ActorSystem system) {
     // TODO it would be better to do this in ServiceGuiceSupport.bindServices,
     // but I'm not sure how to access config from there
-    boolean statusEnabled = system.settings().config().getBoolean("lagom.status-endpoint.enabled");
+    statusEnabled = system.settings().config().getBoolean("lagom.status-endpoint.enabled");
     if (statusEnabled && metricsProvider instanceof CircuitBreakerMetricsProviderImpl)
       provider = Optional.of((CircuitBreakerMetricsProviderImpl) metricsProvider);
     else
       provider = Optional.empty();
   }
 
+  @com.google.inject.Inject(optional = true)
+  public void setHotEntitiesProvider(HotEntitiesProvider hotEntitiesProvider) {
+    if (statusEnabled)
+      this.hotEntitiesProvider = Optional.of(hotEntitiesProvider);
+  }
+
+  @com.google.inject.Inject(optional = true)
+  public void setPersistentEntityStatsProvider(PersistentEntityStatsProvider persistentEntityStatsProvider) {
+    if (statusEnabled)
+      this.persistentEntityStatsProvider = Optional.of(persistentEntityStatsProvider);
+  }
+
+  @com.google.inject.Inject(optional = true)
+  public void setReadSideStatsProvider(ReadSideStatsProvider readSideStatsProvider) {
+    if (statusEnabled)
+      this.readSideStatsProvider = Optional.of(readSideStatsProvider);
+  }
+
   @Override
   public ServiceCall<NotUsed, List<CircuitBreakerStatus>> currentCircuitBreakers() {
     return request -> {
@@ -60,6 +91,87 @@ public class MetricsServiceImpl implements MetricsService {
     };
   }
 
+  @Override
+  public ServiceCall<NotUsed, List<HotEntitiesStatus>> currentHotEntities() {
+    return request -> {
+      if (!hotEntitiesProvider.isPresent())
+        throw new NotFound("No hot entities");
+      List<HotEntitiesStatus> all = new ArrayList<>();
+      Instant now = Instant.now();
+      for (HotEntitiesProvider.HotEntities h : hotEntitiesProvider.get().hotEntities()) {
+        all.add(new HotEntitiesStatus(h.getEntityTypeName(), now, hotEntities(h.getByCommandRate()),
+          hotEntities(h.getByPersistTime())));
+      }
+      return CompletableFuture.completedFuture(all);
+    };
+  }
+
+  @Override
+  public ServiceCall<NotUsed, List<PersistentEntityStatus>> currentPersistentEntities() {
+    return request -> {
+      if (!persistentEntityStatsProvider.isPresent())
+        throw new NotFound("No persistent entity metrics");
+      List<PersistentEntityStatus> all = new ArrayList<>();
+      Instant now = Instant.now();
+      for (PersistentEntityStatsProvider.PersistentEntityStats s : persistentEntityStatsProvider.get().persistentEntityStats()) {
+        all.add(new PersistentEntityStatus(s.getEntityTypeName(), now, s.getActiveEntities(), s.getRecoveries(),
+          s.getSnapshotRecoveries(), s.getReplayedEvents(), latencyMicros(s.getRecoveryNanos()), s.getPersists(),
+          s.getPersistedEvents(), latencyMicros(s.getPersistNanos()), s.getEvictions(), s.getQueuedRecoveries(),
+          latencyMicros(s.getRecoveryWaitNanos()), s.getSnapshotSizeBytes().getCount(),
+          distribution(s.getSnapshotSizeBytes())));
+      }
+      return CompletableFuture.completedFuture(all);
+    };
+  }
+
+  @Override
+  public ServiceCall<NotUsed, List<ReadSideStatus>> currentReadSides() {
+    return request -> {
+      if (!readSideStatsProvider.isPresent())
+        throw new NotFound("No read-side metrics");
+      List<ReadSideStatus> all = new ArrayList<>();
+      Instant now = Instant.now();
+      for (ReadSideStatsProvider.ReadSideStats s : readSideStatsProvider.get().readSideStats()) {
+        all.add(new ReadSideStatus(s.getReadSideName(), s.getTag(), now, Math.max(s.getStarts() - 1, 0),
+          s.isCatchingUp(), s.getCatchUps(), s.getLastOffset(), s.getLagMillis(), s.getHandledEvents(),
+          s.getEventsPerSecond(), latencyMicros(s.getHandleNanos())));
+      }
+      return CompletableFuture.completedFuture(all);
+    };
+  }
+
+  private Latency latencyMicros(PersistentEntityStatsProvider.Distribution nanos) {
+    return Latency.builder()
+      .median(nanos.getMedian() / 1000.0)
+      .percentile98th(nanos.getPercentile98th() / 1000.0)
+      .percentile99th(nanos.getPercentile99th() / 1000.0)
+      .percentile999th(nanos.getPercentile999th() / 1000.0)
+      .min(TimeUnit.NANOSECONDS.toMicros(nanos.getMin()))
+      .max(TimeUnit.NANOSECONDS.toMicros(nanos.getMax()))
+      .mean(nanos.getMean() / 1000.0)
+      .build();
+  }
+
+  private Latency distribution(PersistentEntityStatsProvider.Distribution values) {
+    return Latency.builder()
+      .median(values.getMedian())
+      .percentile98th(values.getPercentile98th())
+      .percentile99th(values.getPercentile99th())
+      .percentile999th(values.getPercentile999th())
+      .min(values.getMin())
+      .max(values.getMax())
+      .mean(values.getMean())
+      .build();
+  }
+
+  private List<HotEntity> hotEntities(List<HotEntitiesProvider.HotEntity> entities) {
+    List<HotEntity> result = new ArrayList<>(entities.size());
+    for (HotEntitiesProvider.HotEntity e : entities) {
+      result.add(new HotEntity(e.getEntityId(), e.getValue(), e.getMaxError()));
+    }
+    return result;
+  }
+
   private List<CircuitBreakerStatus> allCircuitBreakerStatus() {
     List<CircuitBreakerStatus> all = new ArrayList<>();
     for (CircuitBreakerMetricsImpl m : provider.get().allMetrics()) {
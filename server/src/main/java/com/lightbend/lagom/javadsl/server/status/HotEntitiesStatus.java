@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.server.status;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The hottest persistent entities of one entity type on a node, measured
+ * during the last completed sampling window.
+ */
+public final class HotEntitiesStatus {
+  private final String entityTypeName;
+  private final Instant timestamp;
+  private final List<HotEntity> byCommandRate;
+  private final List<HotEntity> byPersistTime;
+
+  @JsonCreator
+  public HotEntitiesStatus(@JsonProperty("entityTypeName") String entityTypeName,
+      @JsonProperty("timestamp") Instant timestamp,
+      @JsonProperty("byCommandRate") List<HotEntity> byCommandRate,
+      @JsonProperty("byPersistTime") List<HotEntity> byPersistTime) {
+    this.entityTypeName = Objects.requireNonNull(entityTypeName, "entityTypeName");
+    this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
+    this.byCommandRate = Collections.unmodifiableList(byCommandRate);
+    this.byPersistTime = Collections.unmodifiableList(byPersistTime);
+  }
+
+  @JsonProperty
+  public String getEntityTypeName() {
+    return entityTypeName;
+  }
+
+  @JsonProperty
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * The entities with the highest command rates, highest first. The value
+   * is the number of commands per second.
+   */
+  @JsonProperty
+  public List<HotEntity> getByCommandRate() {
+    return byCommandRate;
+  }
+
+  /**
+   * The entities that spent the most time waiting for their events to be
+   * persisted, highest first. The value is the number of milliseconds per
+   * second.
+   */
+  @JsonProperty
+  public List<HotEntity> getByPersistTime() {
+    return byPersistTime;
+  }
+
+  @Override
+  public boolean equals(Object another) {
+    if (this == another) return true;
+    if (!(another instanceof HotEntitiesStatus)) return false;
+    HotEntitiesStatus other = (HotEntitiesStatus) another;
+    return entityTypeName.equals(other.entityTypeName) && timestamp.equals(other.timestamp)
+        && byCommandRate.equals(other.byCommandRate) && byPersistTime.equals(other.byPersistTime);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(entityTypeName, timestamp, byCommandRate, byPersistTime);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper("HotEntitiesStatus")
+        .add("entityTypeName", entityTypeName)
+        .add("timestamp", timestamp)
+        .add("byCommandRate", byCommandRate)
+        .add("byPersistTime", byPersistTime)
+        .toString();
+  }
+}
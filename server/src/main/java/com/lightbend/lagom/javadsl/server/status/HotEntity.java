@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.server.status;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import java.util.Objects;
+
+/**
+ * A persistent entity that is one of the hottest of its entity type on a node.
+ */
+public final class HotEntity {
+  private final String entityId;
+  private final double value;
+  private final double maxError;
+
+  @JsonCreator
+  public HotEntity(@JsonProperty("entityId") String entityId, @JsonProperty("value") double value,
+      @JsonProperty("maxError") double maxError) {
+    this.entityId = Objects.requireNonNull(entityId, "entityId");
+    this.value = value;
+    this.maxError = maxError;
+  }
+
+  @JsonProperty
+  public String getEntityId() {
+    return entityId;
+  }
+
+  /**
+   * The measured value, commands per second or milliseconds per second
+   * depending on the ranking. It may be over-estimated by at most
+   * {@link #getMaxError}.
+   */
+  @JsonProperty
+  public double getValue() {
+    return value;
+  }
+
+  @JsonProperty
+  public double getMaxError() {
+    return maxError;
+  }
+
+  @Override
+  public boolean equals(Object another) {
+    if (this == another) return true;
+    if (!(another instanceof HotEntity)) return false;
+    HotEntity other = (HotEntity) another;
+    return entityId.equals(other.entityId) && Double.compare(value, other.value) == 0
+        && Double.compare(maxError, other.maxError) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(entityId, value, maxError);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper("HotEntity")
+        .add("entityId", entityId)
+        .add("value", value)
+        .add("maxError", maxError)
+        .toString();
+  }
+}
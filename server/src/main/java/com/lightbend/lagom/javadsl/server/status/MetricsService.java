@@ -24,12 +24,32 @@ public interface MetricsService extends Service {
    */
   ServiceCall<NotUsed, Source<List<CircuitBreakerStatus>, ?>> circuitBreakers();
 
+  /**
+   * Snapshot of the hottest persistent entities on this node
+   */
+  ServiceCall<NotUsed, List<HotEntitiesStatus>> currentHotEntities();
+
+  /**
+   * Snapshot of the recovery and persist metrics of the persistent entities
+   * on this node
+   */
+  ServiceCall<NotUsed, List<PersistentEntityStatus>> currentPersistentEntities();
+
+  /**
+   * Snapshot of the progress and throughput of the read-side processors
+   * on this node
+   */
+  ServiceCall<NotUsed, List<ReadSideStatus>> currentReadSides();
+
   @Override
   default Descriptor descriptor() {
     // @formatter:off
     return named("/metrics").withCalls(
         pathCall("/_status/circuit-breaker/current", this::currentCircuitBreakers),
-        pathCall("/_status/circuit-breaker/stream", this::circuitBreakers)
+        pathCall("/_status/circuit-breaker/stream", this::circuitBreakers),
+        pathCall("/_status/hot-entities/current", this::currentHotEntities),
+        pathCall("/_status/persistent-entity/current", this::currentPersistentEntities),
+        pathCall("/_status/read-side/current", this::currentReadSides)
     ).withLocatableService(false);
     // @formatter:on
   }
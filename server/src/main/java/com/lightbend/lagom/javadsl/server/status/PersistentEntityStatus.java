@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.server.status;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The recovery, persist, eviction and snapshot metrics of the persistent
+ * entities of one entity type on a node, since the node was started.
+ */
+public final class PersistentEntityStatus {
+  private final String entityTypeName;
+  private final Instant timestamp;
+  private final long activeEntities;
+  private final long totalRecoveryCount;
+  private final long totalSnapshotRecoveryCount;
+  private final long totalReplayedEventCount;
+  private final Latency recoveryTimeMicros;
+  private final long totalPersistCount;
+  private final long totalPersistedEventCount;
+  private final Latency persistLatencyMicros;
+  private final long totalEvictionCount;
+  private final long queuedRecoveryCount;
+  private final Latency recoveryWaitMicros;
+  private final long totalSnapshotCount;
+  private final Latency snapshotSizeBytes;
+
+  @JsonCreator
+  public PersistentEntityStatus(@JsonProperty("entityTypeName") String entityTypeName,
+      @JsonProperty("timestamp") Instant timestamp,
+      @JsonProperty("activeEntities") long activeEntities,
+      @JsonProperty("totalRecoveryCount") long totalRecoveryCount,
+      @JsonProperty("totalSnapshotRecoveryCount") long totalSnapshotRecoveryCount,
+      @JsonProperty("totalReplayedEventCount") long totalReplayedEventCount,
+      @JsonProperty("recoveryTimeMicros") Latency recoveryTimeMicros,
+      @JsonProperty("totalPersistCount") long totalPersistCount,
+      @JsonProperty("totalPersistedEventCount") long totalPersistedEventCount,
+      @JsonProperty("persistLatencyMicros") Latency persistLatencyMicros,
+      @JsonProperty("totalEvictionCount") long totalEvictionCount,
+      @JsonProperty("queuedRecoveryCount") long queuedRecoveryCount,
+      @JsonProperty("recoveryWaitMicros") Latency recoveryWaitMicros,
+      @JsonProperty("totalSnapshotCount") long totalSnapshotCount,
+      @JsonProperty("snapshotSizeBytes") Latency snapshotSizeBytes) {
+    this.entityTypeName = Objects.requireNonNull(entityTypeName, "entityTypeName");
+    this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
+    this.activeEntities = activeEntities;
+    this.totalRecoveryCount = totalRecoveryCount;
+    this.totalSnapshotRecoveryCount = totalSnapshotRecoveryCount;
+    this.totalReplayedEventCount = totalReplayedEventCount;
+    this.recoveryTimeMicros = Objects.requireNonNull(recoveryTimeMicros, "recoveryTimeMicros");
+    this.totalPersistCount = totalPersistCount;
+    this.totalPersistedEventCount = totalPersistedEventCount;
+    this.persistLatencyMicros = Objects.requireNonNull(persistLatencyMicros, "persistLatencyMicros");
+    this.totalEvictionCount = totalEvictionCount;
+    this.queuedRecoveryCount = queuedRecoveryCount;
+    this.recoveryWaitMicros = Objects.requireNonNull(recoveryWaitMicros, "recoveryWaitMicros");
+    this.totalSnapshotCount = totalSnapshotCount;
+    this.snapshotSizeBytes = Objects.requireNonNull(snapshotSizeBytes, "snapshotSizeBytes");
+  }
+
+  @JsonProperty
+  public String getEntityTypeName() {
+    return entityTypeName;
+  }
+
+  @JsonProperty
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * The number of entities that have recovered their state and are running.
+   */
+  @JsonProperty
+  public long getActiveEntities() {
+    return activeEntities;
+  }
+
+  @JsonProperty
+  public long getTotalRecoveryCount() {
+    return totalRecoveryCount;
+  }
+
+  /**
+   * The number of recoveries that started from a snapshot.
+   */
+  @JsonProperty
+  public long getTotalSnapshotRecoveryCount() {
+    return totalSnapshotRecoveryCount;
+  }
+
+  /**
+   * The number of events that were replayed by all recoveries.
+   */
+  @JsonProperty
+  public long getTotalReplayedEventCount() {
+    return totalReplayedEventCount;
+  }
+
+  /**
+   * The time it took to load the snapshot and replay the events.
+   */
+  @JsonProperty
+  public Latency getRecoveryTimeMicros() {
+    return recoveryTimeMicros;
+  }
+
+  /**
+   * The number of writes, i.e. of <code>persist</code> and <code>persistAll</code>.
+   */
+  @JsonProperty
+  public long getTotalPersistCount() {
+    return totalPersistCount;
+  }
+
+  @JsonProperty
+  public long getTotalPersistedEventCount() {
+    return totalPersistedEventCount;
+  }
+
+  /**
+   * The time it took the journal to confirm a write.
+   */
+  @JsonProperty
+  public Latency getPersistLatencyMicros() {
+    return persistLatencyMicros;
+  }
+
+  /**
+   * The number of entities that were passivated because the entity budget of
+   * the node was exceeded.
+   */
+  @JsonProperty
+  public long getTotalEvictionCount() {
+    return totalEvictionCount;
+  }
+
+  /**
+   * The number of entities that are waiting for a permit to recover their
+   * state, since the number of concurrent recoveries is limited.
+   */
+  @JsonProperty
+  public long getQueuedRecoveryCount() {
+    return queuedRecoveryCount;
+  }
+
+  /**
+   * The time entities waited for a permit to recover.
+   */
+  @JsonProperty
+  public Latency getRecoveryWaitMicros() {
+    return recoveryWaitMicros;
+  }
+
+  @JsonProperty
+  public long getTotalSnapshotCount() {
+    return totalSnapshotCount;
+  }
+
+  /**
+   * The distribution of the serialized size of the saved snapshots, in bytes.
+   */
+  @JsonProperty
+  public Latency getSnapshotSizeBytes() {
+    return snapshotSizeBytes;
+  }
+
+  @Override
+  public boolean equals(Object another) {
+    if (this == another) return true;
+    if (!(another instanceof PersistentEntityStatus)) return false;
+    PersistentEntityStatus other = (PersistentEntityStatus) another;
+    return entityTypeName.equals(other.entityTypeName) && timestamp.equals(other.timestamp)
+        && activeEntities == other.activeEntities && totalRecoveryCount == other.totalRecoveryCount
+        && totalSnapshotRecoveryCount == other.totalSnapshotRecoveryCount
+        && totalReplayedEventCount == other.totalReplayedEventCount
+        && recoveryTimeMicros.equals(other.recoveryTimeMicros) && totalPersistCount == other.totalPersistCount
+        && totalPersistedEventCount == other.totalPersistedEventCount
+        && persistLatencyMicros.equals(other.persistLatencyMicros) && totalEvictionCount == other.totalEvictionCount
+        && queuedRecoveryCount == other.queuedRecoveryCount && recoveryWaitMicros.equals(other.recoveryWaitMicros)
+        && totalSnapshotCount == other.totalSnapshotCount && snapshotSizeBytes.equals(other.snapshotSizeBytes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(entityTypeName, timestamp, activeEntities, totalRecoveryCount, totalSnapshotRecoveryCount,
+        totalReplayedEventCount, recoveryTimeMicros, totalPersistCount, totalPersistedEventCount,
+        persistLatencyMicros, totalEvictionCount, queuedRecoveryCount, recoveryWaitMicros, totalSnapshotCount,
+        snapshotSizeBytes);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper("PersistentEntityStatus")
+        .add("entityTypeName", entityTypeName)
+        .add("timestamp", timestamp)
+        .add("activeEntities", activeEntities)
+        .add("totalRecoveryCount", totalRecoveryCount)
+        .add("totalSnapshotRecoveryCount", totalSnapshotRecoveryCount)
+        .add("totalReplayedEventCount", totalReplayedEventCount)
+        .add("recoveryTimeMicros", recoveryTimeMicros)
+        .add("totalPersistCount", totalPersistCount)
+        .add("totalPersistedEventCount", totalPersistedEventCount)
+        .add("persistLatencyMicros", persistLatencyMicros)
+        .add("totalEvictionCount", totalEvictionCount)
+        .add("queuedRecoveryCount", queuedRecoveryCount)
+        .add("recoveryWaitMicros", recoveryWaitMicros)
+        .add("totalSnapshotCount", totalSnapshotCount)
+        .add("snapshotSizeBytes", snapshotSizeBytes)
+        .toString();
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.javadsl.server.status;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The progress and throughput of one tag of a read-side processor on a node,
+ * since the node was started.
+ */
+public final class ReadSideStatus {
+  private final String readSideName;
+  private final String tag;
+  private final Instant timestamp;
+  private final long totalRestartCount;
+  private final boolean catchingUp;
+  private final long totalCatchUpCount;
+  private final String lastOffset;
+  private final long lagMillis;
+  private final long totalEventCount;
+  private final double eventsPerSecond;
+  private final Latency handleLatencyMicros;
+
+  @JsonCreator
+  public ReadSideStatus(@JsonProperty("readSideName") String readSideName,
+      @JsonProperty("tag") String tag,
+      @JsonProperty("timestamp") Instant timestamp,
+      @JsonProperty("totalRestartCount") long totalRestartCount,
+      @JsonProperty("catchingUp") boolean catchingUp,
+      @JsonProperty("totalCatchUpCount") long totalCatchUpCount,
+      @JsonProperty("lastOffset") String lastOffset,
+      @JsonProperty("lagMillis") long lagMillis,
+      @JsonProperty("totalEventCount") long totalEventCount,
+      @JsonProperty("eventsPerSecond") double eventsPerSecond,
+      @JsonProperty("handleLatencyMicros") Latency handleLatencyMicros) {
+    this.readSideName = Objects.requireNonNull(readSideName, "readSideName");
+    this.tag = Objects.requireNonNull(tag, "tag");
+    this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
+    this.totalRestartCount = totalRestartCount;
+    this.catchingUp = catchingUp;
+    this.totalCatchUpCount = totalCatchUpCount;
+    this.lastOffset = lastOffset;
+    this.lagMillis = lagMillis;
+    this.totalEventCount = totalEventCount;
+    this.eventsPerSecond = eventsPerSecond;
+    this.handleLatencyMicros = Objects.requireNonNull(handleLatencyMicros, "handleLatencyMicros");
+  }
+
+  @JsonProperty
+  public String getReadSideName() {
+    return readSideName;
+  }
+
+  @JsonProperty
+  public String getTag() {
+    return tag;
+  }
+
+  @JsonProperty
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * The number of times the processing of the tag was started again on this
+   * node after a failure.
+   */
+  @JsonProperty
+  public long getTotalRestartCount() {
+    return totalRestartCount;
+  }
+
+  /**
+   * Whether the processor is using its catch-up handler, because it is far
+   * behind.
+   */
+  @JsonProperty
+  public boolean isCatchingUp() {
+    return catchingUp;
+  }
+
+  @JsonProperty
+  public long getTotalCatchUpCount() {
+    return totalCatchUpCount;
+  }
+
+  /**
+   * The offset of the last processed event, or null if no event has been
+   * processed on this node.
+   */
+  @JsonProperty
+  public String getLastOffset() {
+    return lastOffset;
+  }
+
+  /**
+   * The time since the last processed event was persisted, when it was
+   * processed, or -1 if the offsets of the events don't contain the time.
+   */
+  @JsonProperty
+  public long getLagMillis() {
+    return lagMillis;
+  }
+
+  @JsonProperty
+  public long getTotalEventCount() {
+    return totalEventCount;
+  }
+
+  /**
+   * The number of events that were processed per second during the last
+   * 10 seconds.
+   */
+  @JsonProperty
+  public double getEventsPerSecond() {
+    return eventsPerSecond;
+  }
+
+  /**
+   * The time from when events were passed to the handler until it completed
+   * them.
+   */
+  @JsonProperty
+  public Latency getHandleLatencyMicros() {
+    return handleLatencyMicros;
+  }
+
+  @Override
+  public boolean equals(Object another) {
+    if (this == another) return true;
+    if (!(another instanceof ReadSideStatus)) return false;
+    ReadSideStatus other = (ReadSideStatus) another;
+    return readSideName.equals(other.readSideName) && tag.equals(other.tag) && timestamp.equals(other.timestamp)
+        && totalRestartCount == other.totalRestartCount && catchingUp == other.catchingUp
+        && totalCatchUpCount == other.totalCatchUpCount && Objects.equals(lastOffset, other.lastOffset)
+        && lagMillis == other.lagMillis && totalEventCount == other.totalEventCount
+        && Double.compare(eventsPerSecond, other.eventsPerSecond) == 0
+        && handleLatencyMicros.equals(other.handleLatencyMicros);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(readSideName, tag, timestamp, totalRestartCount, catchingUp, totalCatchUpCount, lastOffset,
+        lagMillis, totalEventCount, eventsPerSecond, handleLatencyMicros);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper("ReadSideStatus")
+        .add("readSideName", readSideName)
+        .add("tag", tag)
+        .add("timestamp", timestamp)
+        .add("totalRestartCount", totalRestartCount)
+        .add("catchingUp", catchingUp)
+        .add("totalCatchUpCount", totalCatchUpCount)
+        .add("lastOffset", lastOffset)
+        .add("lagMillis", lagMillis)
+        .add("totalEventCount", totalEventCount)
+        .add("eventsPerSecond", eventsPerSecond)
+        .add("handleLatencyMicros", handleLatencyMicros)
+        .toString();
+  }
+}
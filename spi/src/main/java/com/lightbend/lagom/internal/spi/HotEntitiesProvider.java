@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.spi;
+
+import java.util.List;
+
+/**
+ * Service Provider Interface (SPI) for the persistent entities that are
+ * hottest on this node, e.g. for the status endpoint of the service.
+ */
+public interface HotEntitiesProvider {
+
+  /**
+   * The hottest entities of each entity type that is running on this node,
+   * measured during the last completed sampling window.
+   */
+  List<HotEntities> hotEntities();
+
+  final class HotEntities {
+    private final String entityTypeName;
+    private final List<HotEntity> byCommandRate;
+    private final List<HotEntity> byPersistTime;
+
+    public HotEntities(String entityTypeName, List<HotEntity> byCommandRate, List<HotEntity> byPersistTime) {
+      this.entityTypeName = entityTypeName;
+      this.byCommandRate = byCommandRate;
+      this.byPersistTime = byPersistTime;
+    }
+
+    public String getEntityTypeName() {
+      return entityTypeName;
+    }
+
+    /**
+     * The entities with the highest command rates, highest first. The value is
+     * the number of commands per second.
+     */
+    public List<HotEntity> getByCommandRate() {
+      return byCommandRate;
+    }
+
+    /**
+     * The entities that spent the most time waiting for their events to be
+     * persisted, highest first. The value is the number of milliseconds per
+     * second.
+     */
+    public List<HotEntity> getByPersistTime() {
+      return byPersistTime;
+    }
+  }
+
+  final class HotEntity {
+    private final String entityId;
+    private final double value;
+    private final double maxError;
+
+    public HotEntity(String entityId, double value, double maxError) {
+      this.entityId = entityId;
+      this.value = value;
+      this.maxError = maxError;
+    }
+
+    public String getEntityId() {
+      return entityId;
+    }
+
+    /**
+     * The measured value, which may be over-estimated by at most {@link #getMaxError}.
+     */
+    public double getValue() {
+      return value;
+    }
+
+    public double getMaxError() {
+      return maxError;
+    }
+  }
+}
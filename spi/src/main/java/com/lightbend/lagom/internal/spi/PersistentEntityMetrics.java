@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.spi;
+
+public interface PersistentEntityMetrics {
+
+  /**
+   * Invoked when an entity has been activated on this node, i.e. when
+   * it has recovered its state.
+   */
+  void onActivated();
+
+  /**
+   * Invoked when an activated entity has been stopped on this node,
+   * e.g. because of passivation.
+   */
+  void onPassivated();
+
+  /**
+   * Invoked when an entity is passivated because the entity budget of
+   * the node was exceeded and the entity was one of the least recently
+   * used entities. {@link #onPassivated} is also invoked when the entity
+   * has been stopped.
+   */
+  void onEvicted();
+
+  /**
+   * Invoked when an entity has to wait for a permit to recover its state,
+   * because the number of concurrent recoveries on this node is limited.
+   * The number of waiting entities is the number of invocations of this
+   * method minus the number of invocations of {@link #onRecoveryDequeued}.
+   */
+  void onRecoveryQueued();
+
+  /**
+   * Invoked when an entity is no longer waiting for a permit to recover,
+   * either because it got the permit or because it was stopped.
+   *
+   * @param waitNanos the time the entity was waiting, in nanoseconds
+   */
+  void onRecoveryDequeued(long waitNanos);
+
+  /**
+   * Invoked when an entity has recovered its state.
+   *
+   * @param replayNanos    the time it took to load the snapshot and replay the
+   *                       events, in nanoseconds
+   * @param replayedEvents the number of events that were replayed
+   * @param fromSnapshot   whether the recovery started from a snapshot
+   */
+  void onRecoveryCompleted(long replayNanos, long replayedEvents, boolean fromSnapshot);
+
+  /**
+   * Invoked when the events of a <code>persist</code> or <code>persistAll</code>
+   * have been written by the journal. Invoked from the entity, so implementations
+   * should not block and should avoid allocations.
+   *
+   * @param eventCount   the number of events that were written together
+   * @param persistNanos the time from when the events were handed to the journal
+   *                     until the write was confirmed, in nanoseconds
+   */
+  void onPersisted(int eventCount, long persistNanos);
+
+  /**
+   * Invoked when an entity saves a snapshot of its state.
+   *
+   * @param sizeBytes the serialized size of the state, in bytes
+   */
+  void onSnapshotSaved(long sizeBytes);
+
+}
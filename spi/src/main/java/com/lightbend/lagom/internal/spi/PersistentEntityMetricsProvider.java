@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.spi;
+
+/**
+ * Service Provider Interface (SPI) for collecting metrics from persistent
+ * entities.
+ */
+public interface PersistentEntityMetricsProvider {
+  /**
+   * Start metrics collection for the persistent entities of the type
+   * `entityTypeName`. Create (new or existing) instance of a
+   * {@link PersistentEntityMetrics} that will be used for all entities
+   * of this type on this node.
+   *
+   * The methods of the `PersistentEntityMetrics` are invoked concurrently
+   * by the entities of the type and must be thread safe.
+   */
+  PersistentEntityMetrics start(String entityTypeName);
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.spi;
+
+import java.util.List;
+
+/**
+ * Service Provider Interface (SPI) for the recovery, persist, eviction and
+ * snapshot statistics of the persistent entities on this node, e.g. for the
+ * status endpoint of the service.
+ */
+public interface PersistentEntityStatsProvider {
+
+  /**
+   * The statistics of each entity type that has been started on this node,
+   * since the node was started.
+   */
+  List<PersistentEntityStats> persistentEntityStats();
+
+  final class PersistentEntityStats {
+    private final String entityTypeName;
+    private final long activeEntities;
+    private final long recoveries;
+    private final long snapshotRecoveries;
+    private final long replayedEvents;
+    private final Distribution recoveryNanos;
+    private final long persists;
+    private final long persistedEvents;
+    private final Distribution persistNanos;
+    private final long evictions;
+    private final long queuedRecoveries;
+    private final Distribution recoveryWaitNanos;
+    private final Distribution snapshotSizeBytes;
+
+    public PersistentEntityStats(String entityTypeName, long activeEntities, long recoveries,
+        long snapshotRecoveries, long replayedEvents, Distribution recoveryNanos, long persists,
+        long persistedEvents, Distribution persistNanos, long evictions, long queuedRecoveries,
+        Distribution recoveryWaitNanos, Distribution snapshotSizeBytes) {
+      this.entityTypeName = entityTypeName;
+      this.activeEntities = activeEntities;
+      this.recoveries = recoveries;
+      this.snapshotRecoveries = snapshotRecoveries;
+      this.replayedEvents = replayedEvents;
+      this.recoveryNanos = recoveryNanos;
+      this.persists = persists;
+      this.persistedEvents = persistedEvents;
+      this.persistNanos = persistNanos;
+      this.evictions = evictions;
+      this.queuedRecoveries = queuedRecoveries;
+      this.recoveryWaitNanos = recoveryWaitNanos;
+      this.snapshotSizeBytes = snapshotSizeBytes;
+    }
+
+    public String getEntityTypeName() {
+      return entityTypeName;
+    }
+
+    /**
+     * The number of entities that have recovered their state and are running.
+     */
+    public long getActiveEntities() {
+      return activeEntities;
+    }
+
+    public long getRecoveries() {
+      return recoveries;
+    }
+
+    /**
+     * The number of recoveries that started from a snapshot.
+     */
+    public long getSnapshotRecoveries() {
+      return snapshotRecoveries;
+    }
+
+    /**
+     * The number of events that were replayed by all recoveries.
+     */
+    public long getReplayedEvents() {
+      return replayedEvents;
+    }
+
+    /**
+     * The time it took to recover, in nanoseconds.
+     */
+    public Distribution getRecoveryNanos() {
+      return recoveryNanos;
+    }
+
+    /**
+     * The number of writes, i.e. of <code>persist</code> and <code>persistAll</code>.
+     */
+    public long getPersists() {
+      return persists;
+    }
+
+    public long getPersistedEvents() {
+      return persistedEvents;
+    }
+
+    /**
+     * The time it took the journal to confirm a write, in nanoseconds.
+     */
+    public Distribution getPersistNanos() {
+      return persistNanos;
+    }
+
+    /**
+     * The number of entities that were passivated because the entity budget
+     * of the node was exceeded.
+     */
+    public long getEvictions() {
+      return evictions;
+    }
+
+    /**
+     * The number of entities that are currently waiting for a permit to
+     * recover their state.
+     */
+    public long getQueuedRecoveries() {
+      return queuedRecoveries;
+    }
+
+    /**
+     * The time entities waited for a permit to recover, in nanoseconds.
+     */
+    public Distribution getRecoveryWaitNanos() {
+      return recoveryWaitNanos;
+    }
+
+    /**
+     * The serialized size of the saved snapshots, in bytes. Its count is the
+     * number of saved snapshots.
+     */
+    public Distribution getSnapshotSizeBytes() {
+      return snapshotSizeBytes;
+    }
+  }
+
+  /**
+   * The distribution of the recorded values. The percentiles are approximated,
+   * with a relative error of at most 1/16.
+   */
+  final class Distribution {
+    private final long count;
+    private final double mean;
+    private final long min;
+    private final long max;
+    private final long median;
+    private final long percentile98th;
+    private final long percentile99th;
+    private final long percentile999th;
+
+    public Distribution(long count, double mean, long min, long max, long median, long percentile98th,
+        long percentile99th, long percentile999th) {
+      this.count = count;
+      this.mean = mean;
+      this.min = min;
+      this.max = max;
+      this.median = median;
+      this.percentile98th = percentile98th;
+      this.percentile99th = percentile99th;
+      this.percentile999th = percentile999th;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public double getMean() {
+      return mean;
+    }
+
+    public long getMin() {
+      return min;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    public long getMedian() {
+      return median;
+    }
+
+    public long getPercentile98th() {
+      return percentile98th;
+    }
+
+    public long getPercentile99th() {
+      return percentile99th;
+    }
+
+    public long getPercentile999th() {
+      return percentile999th;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.spi;
+
+public interface ReadSideMetrics {
+
+  /**
+   * Invoked when the processing of the tag is started on this node, also
+   * when it is started again after a failure.
+   */
+  void onStarted();
+
+  /**
+   * Invoked when the handler has processed events. Invoked from the stream
+   * of the processor, so implementations should not block.
+   *
+   * @param eventCount the number of events that were passed to the handler
+   *                   since the previous invocation
+   * @param handleNanos the time from when the first of the events was passed
+   *                    to the handler until it completed, in nanoseconds
+   * @param offset     the offset of the last of the events
+   * @param lagMillis  the time since the last of the events was persisted, in
+   *                   milliseconds, or -1 if the offset doesn't contain the time
+   */
+  void onEventsHandled(int eventCount, long handleNanos, String offset, long lagMillis);
+
+  /**
+   * Invoked when the processor switches to its catch-up handler, because
+   * the events that it processes are older than the configured threshold.
+   *
+   * @param lagMillis the time since the event that was processed last
+   *                  was persisted, in milliseconds
+   */
+  void onCatchUpStarted(long lagMillis);
+
+  /**
+   * Invoked when the processor switches back to its live handler, because
+   * it has caught up with the events that are persisted.
+   *
+   * @param lagMillis    the time since the event that was processed last
+   *                     was persisted, in milliseconds
+   * @param catchUpNanos the time the processor was catching up, in
+   *                     nanoseconds
+   */
+  void onCatchUpCompleted(long lagMillis, long catchUpNanos);
+
+}
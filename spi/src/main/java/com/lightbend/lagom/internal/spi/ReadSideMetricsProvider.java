@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.spi;
+
+/**
+ * Service Provider Interface (SPI) for collecting metrics from read-side
+ * processors.
+ */
+public interface ReadSideMetricsProvider {
+  /**
+   * Start metrics collection for the tag `tag` of the read-side processor
+   * `readSideName`. Create (new or existing) instance of a
+   * {@link ReadSideMetrics} that will be used for this tag on this node.
+   *
+   * `start` is invoked again when the processing of the tag is started
+   * again, e.g. after a failure or when the tag has been moved to another
+   * node.
+   */
+  ReadSideMetrics start(String readSideName, String tag);
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2016 Lightbend Inc. <http://www.lightbend.com>
+ */
+package com.lightbend.lagom.internal.spi;
+
+import java.util.List;
+
+/**
+ * Service Provider Interface (SPI) for the statistics of the read-side
+ * processors on this node, e.g. for the status endpoint of the service.
+ */
+public interface ReadSideStatsProvider {
+
+  /**
+   * The statistics of each tag of each read-side processor that has been
+   * started on this node, since the node was started.
+   */
+  List<ReadSideStats> readSideStats();
+
+  final class ReadSideStats {
+    private final String readSideName;
+    private final String tag;
+    private final long starts;
+    private final boolean catchingUp;
+    private final long catchUps;
+    private final String lastOffset;
+    private final long lagMillis;
+    private final long handledEvents;
+    private final double eventsPerSecond;
+    private final PersistentEntityStatsProvider.Distribution handleNanos;
+
+    public ReadSideStats(String readSideName, String tag, long starts, boolean catchingUp, long catchUps,
+        String lastOffset, long lagMillis, long handledEvents, double eventsPerSecond,
+        PersistentEntityStatsProvider.Distribution handleNanos) {
+      this.readSideName = readSideName;
+      this.tag = tag;
+      this.starts = starts;
+      this.catchingUp = catchingUp;
+      this.catchUps = catchUps;
+      this.lastOffset = lastOffset;
+      this.lagMillis = lagMillis;
+      this.handledEvents = handledEvents;
+      this.eventsPerSecond = eventsPerSecond;
+      this.handleNanos = handleNanos;
+    }
+
+    public String getReadSideName() {
+      return readSideName;
+    }
+
+    public String getTag() {
+      return tag;
+    }
+
+    /**
+     * The number of times the processing of the tag was started on this node,
+     * the first time and after failures.
+     */
+    public long getStarts() {
+      return starts;
+    }
+
+    /**
+     * Whether the processor is using its catch-up handler.
+     */
+    public boolean isCatchingUp() {
+      return catchingUp;
+    }
+
+    /**
+     * The number of times the processor switched to its catch-up handler.
+     */
+    public long getCatchUps() {
+      return catchUps;
+    }
+
+    /**
+     * The offset of the last processed event, or null if no event has been
+     * processed.
+     */
+    public String getLastOffset() {
+      return lastOffset;
+    }
+
+    /**
+     * The time since the last processed event was persisted when it was
+     * processed, in milliseconds, or -1 if it is not known.
+     */
+    public long getLagMillis() {
+      return lagMillis;
+    }
+
+    public long getHandledEvents() {
+      return handledEvents;
+    }
+
+    /**
+     * The number of events that were processed per second, during the last
+     * 10 seconds.
+     */
+    public double getEventsPerSecond() {
+      return eventsPerSecond;
+    }
+
+    /**
+     * The time from when events were passed to the handler until it
+     * completed them, in nanoseconds.
+     */
+    public PersistentEntityStatsProvider.Distribution getHandleNanos() {
+      return handleNanos;
+    }
+  }
+}
@@ -45,6 +45,17 @@ object PersistentEntityTestDriver {
 
   final case class Reply(msg: Any) extends SideEffect
 
+  /**
+   * A command that was scheduled with `scheduleCommand` of the context. It is not
+   * sent to the entity by the driver.
+   */
+  final case class ScheduledCommand(timerKey: String, delay: java.time.Duration, command: Any) extends SideEffect
+
+  /**
+   * A timer that was cancelled with `cancelScheduledCommand` of the context.
+   */
+  final case class CancelledScheduledCommand(timerKey: String) extends SideEffect
+
   trait Issue
 
   final case class NoSerializer(obj: Any, cause: Throwable) extends Issue {
@@ -99,13 +110,21 @@ class PersistentEntityTestDriver[C, E, S](system: ActorSystem, entity: Persisten
     override def commandFailed(cause: Throwable): Unit =
       // not using akka.actor.Status.Failure because it is using Java serialization
       reply(cause)
+
+    override def scheduleCommand(timerKey: String, delay: java.time.Duration, command: C): Unit = {
+      sideEffects :+= ScheduledCommand(timerKey, delay, command)
+      issues ++= checkSerialization(command)
+    }
+
+    override def cancelScheduledCommand(timerKey: String): Unit =
+      sideEffects :+= CancelledScheduledCommand(timerKey)
   }
 
-  private def eventHandlers: Map[Class[E], JFunction[E, entity.Behavior]] =
-    entity.behavior.eventHandlers.asInstanceOf[Map[Class[E], JFunction[E, entity.Behavior]]]
+  private def eventHandler(event: Any): Option[JFunction[E, entity.Behavior]] =
+    entity.behavior.eventHandler(event.getClass).asInstanceOf[Option[JFunction[E, entity.Behavior]]]
 
-  private def commandHandlers: Map[Class[C], JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]] =
-    entity.behavior.commandHandlers.asInstanceOf[Map[Class[C], JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]]]
+  private def commandHandler(cmd: Any): Option[JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]] =
+    entity.behavior.commandHandler(cmd.getClass).asInstanceOf[Option[JBiFunction[C, entity.CommandContext[Any], entity.Persist[E]]]]
 
   /**
    * Initialize the entity.
@@ -172,7 +191,7 @@ class PersistentEntityTestDriver[C, E, S](system: ActorSystem, entity: Persisten
     var producedEvents: Vector[E] = Vector.empty
     commands.foreach { cmd =>
       issues ++= checkSerialization(cmd)
-      commandHandlers.get(cmd.getClass.asInstanceOf[Class[C]]) match {
+      commandHandler(cmd) match {
         case Some(handler) =>
           handler.apply(cmd, ctx) match {
             case _: entity.PersistNone[_] => // done
@@ -223,7 +242,7 @@ class PersistentEntityTestDriver[C, E, S](system: ActorSystem, entity: Persisten
   def getAllIssues: JList[Issue] = allIssues.asJava
 
   private def applyEvent(event: Any): Unit = {
-    eventHandlers.get(event.getClass.asInstanceOf[Class[E]]) match {
+    eventHandler(event) match {
       case Some(handler) =>
         val newBehavior = handler.apply(event.asInstanceOf[E])
         entity.internalSetCurrentBehavior(newBehavior)
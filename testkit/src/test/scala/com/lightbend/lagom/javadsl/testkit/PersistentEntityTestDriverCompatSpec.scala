@@ -5,7 +5,7 @@ package com.lightbend.lagom.javadsl.testkit
 
 import scala.collection.JavaConverters._
 import scala.concurrent.duration._
-import com.lightbend.lagom.javadsl.persistence.TestEntity
+import com.lightbend.lagom.javadsl.persistence.{ SnapshotPolicy, TestEntity }
 import akka.testkit.TestProbe
 import com.lightbend.lagom.internal.persistence.PersistentEntityActor
 import java.util.Optional
@@ -18,7 +18,7 @@ class PersistentEntityTestDriverCompatSpec extends CassandraPersistenceSpec {
     "produce same events and state" in {
       val probe1 = TestProbe()
       val p = system.actorOf(PersistentEntityActor.props("test", Optional.of("1"),
-        () => new TestEntity(system, probe1.ref), Optional.empty(), 10.seconds))
+        () => new TestEntity(system, probe1.ref), SnapshotPolicy.none, 10.seconds))
       val probe2 = TestProbe()
       val driver = new PersistentEntityTestDriver(system, new TestEntity(system, probe2.ref), "1")
 